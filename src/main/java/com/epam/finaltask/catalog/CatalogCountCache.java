@@ -0,0 +1,69 @@
+package com.epam.finaltask.catalog;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers catalog match counts per filter for a short TTL so that slice paging does not
+ * run {@code COUNT(*)} on every request. A cached value is reported as an estimate: voucher
+ * changes made after it was counted are not reflected until it expires.
+ */
+@Component
+public class CatalogCountCache {
+
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<CatalogFilter, Entry> entries;
+
+    @Autowired
+    public CatalogCountCache(@Value("${application.catalog.count-cache.ttl:30s}") Duration ttl,
+                             @Value("${application.catalog.count-cache.max-entries:1000}") int maxEntries) {
+        this(ttl, maxEntries, Clock.systemUTC());
+    }
+
+    CatalogCountCache(Duration ttl, int maxEntries, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CatalogFilter, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached count for {@code filter} while it is fresh, otherwise runs
+     * {@code counter} and caches its result.
+     */
+    public Count count(CatalogFilter filter, LongSupplier counter) {
+        CatalogFilter key = filter.toBuilder().candidateIds(null).build();
+        long now = clock.millis();
+
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            if (cached != null && now - cached.countedAt() < ttl.toMillis()) {
+                return new Count(cached.value(), false);
+            }
+        }
+
+        long value = counter.getAsLong();
+        synchronized (entries) {
+            entries.put(key, new Entry(value, now));
+        }
+        return new Count(value, true);
+    }
+
+    public record Count(long value, boolean exact) {
+    }
+
+    private record Entry(long value, long countedAt) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.InvalidCursorException;
+import com.epam.finaltask.model.Money;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for keyset paging: the (isHot, sort value, id) tuple of the
+ * last row served, plus the sort it was produced for so it cannot be replayed under another.
+ * Prices are carried in cents, the unit they are stored and compared in.
+ */
+@Value
+public class CatalogCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    String sortBy;
+    boolean ascending;
+    boolean hot;
+    Comparable<?> value;
+    UUID id;
+
+    public static CatalogCursor after(VoucherDTO last, String sortBy, boolean ascending) {
+        Comparable<?> value = switch (sortBy) {
+            case "price" -> Money.toCents(last.getPrice());
+            case "title" -> last.getTitle();
+            case "arrivalDate" -> last.getArrivalDate();
+            case "evictionDate" -> last.getEvictionDate();
+            default -> throw new InvalidCursorException("Keyset paging is not supported for sort: " + sortBy);
+        };
+        return new CatalogCursor(sortBy, ascending, Boolean.TRUE.equals(last.getIsHot()), value,
+                UUID.fromString(last.getId()));
+    }
+
+    public String encode() {
+        String raw = String.join(":",
+                sortBy,
+                ascending ? "asc" : "desc",
+                hot ? "1" : "0",
+                ENCODER.encodeToString(value.toString().getBytes(StandardCharsets.UTF_8)),
+                id.toString());
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CatalogCursor decode(String token, String sortBy, boolean ascending) {
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":", 5);
+            if (parts.length != 5 || !parts[0].equals(sortBy) || !parts[1].equals(ascending ? "asc" : "desc")) {
+                throw new InvalidCursorException("Cursor does not match the requested sort");
+            }
+            String rawValue = new String(DECODER.decode(parts[3]), StandardCharsets.UTF_8);
+            Comparable<?> value = switch (sortBy) {
+                case "price" -> Long.valueOf(rawValue);
+                case "title" -> rawValue;
+                case "arrivalDate", "evictionDate" -> LocalDate.parse(rawValue);
+                default -> throw new InvalidCursorException("Keyset paging is not supported for sort: " + sortBy);
+            };
+            return new CatalogCursor(sortBy, ascending, "1".equals(parts[2]), value, UUID.fromString(parts[4]));
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+}
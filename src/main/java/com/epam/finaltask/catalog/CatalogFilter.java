@@ -0,0 +1,56 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.model.HotelType;
+import com.epam.finaltask.model.Money;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.TransferType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Normalized catalog predicates shared by the database and in-memory query paths.
+ */
+@Value
+@Builder(toBuilder = true)
+public class CatalogFilter {
+
+    TourType tourType;
+    TransferType transferType;
+    HotelType hotelType;
+    String description;
+    Double minPrice;
+    Double maxPrice;
+    TravelWindow travelWindow;
+    boolean hotHidden;
+
+    /**
+     * Ids pre-selected by an in-memory index; {@code null} means unrestricted.
+     */
+    Set<UUID> candidateIds;
+
+    public boolean hasDescription() {
+        return description != null && !description.isBlank();
+    }
+
+    public boolean hasTravelWindow() {
+        return travelWindow != null && !travelWindow.isEmpty();
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != null && maxPrice != null;
+    }
+
+    /**
+     * The range bounds in cents; only meaningful when {@link #hasPriceRange()}.
+     */
+    public long minPriceCents() {
+        return Money.toCents(minPrice);
+    }
+
+    public long maxPriceCents() {
+        return Money.toCents(maxPrice);
+    }
+}
@@ -0,0 +1,102 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.CatalogCacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of ready-to-serialize catalog results. Every entry remembers the
+ * {@link CatalogVersion} it was loaded at; an entry from an older version is a miss, so a
+ * committed voucher change invalidates all cached pages at once without tracking which
+ * pages it touched. Entries sorted by popularity also remember the popularity version, and
+ * only they are dropped when popularity is flushed.
+ */
+@Component
+public class CatalogResultCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final CatalogVersion catalogVersion;
+    private final Map<Object, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CatalogResultCache(@Value("${application.catalog.result-cache.enabled:true}") boolean enabled,
+                              @Value("${application.catalog.result-cache.max-entries:500}") int maxEntries,
+                              CatalogVersion catalogVersion) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.catalogVersion = catalogVersion;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() > CatalogResultCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the result cached under {@code key} for the current catalog version, otherwise
+     * runs {@code loader} and caches what it returns. {@code key} must implement value equality
+     * and cover every input of the loader, including anything user-specific.
+     */
+    public <T> T get(Object key, Supplier<T> loader) {
+        return get(key, false, loader);
+    }
+
+    /**
+     * As {@link #get(Object, Supplier)}; a result ordered {@code byPopularity} is also
+     * reloaded once popularity has been flushed.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, boolean byPopularity, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        long version = catalogVersion.current();
+        long popularity = byPopularity ? catalogVersion.popularity() : 0;
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            if (cached != null) {
+                if (cached.version() == version && cached.popularity() == popularity) {
+                    hits.increment();
+                    return (T) cached.value();
+                }
+                entries.remove(key);
+                invalidations.increment();
+            }
+        }
+
+        misses.increment();
+        T value = loader.get();
+        synchronized (entries) {
+            entries.put(key, new Entry(version, popularity, value));
+        }
+        return value;
+    }
+
+    public CatalogCacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CatalogCacheStats(enabled, hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(),
+                size, maxEntries, catalogVersion.current());
+    }
+
+    private record Entry(long version, long popularity, Object value) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.epam.finaltask.catalog;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global catalog version, bumped once per committed voucher mutation. Anything derived from
+ * catalog reads can be tagged with the version it was computed at and dropped when it moves.
+ * Popularity scores move on their own version, because they change with every flush of
+ * catalog traffic but only matter to results sorted by popularity. Both start at the boot
+ * time in milliseconds so that values handed out as ETags before a restart are not reused
+ * after it.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong popularity = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    public long bump() {
+        return version.incrementAndGet();
+    }
+
+    public long popularity() {
+        return popularity.get();
+    }
+
+    public long bumpPopularity() {
+        return popularity.incrementAndGet();
+    }
+
+    /**
+     * Runs after {@link VoucherIndexRegistry} has applied the change, so a page cached under
+     * the new version cannot have been read from an index that still lacks it.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVoucherChanged(VoucherChangedEvent event) {
+        bump();
+    }
+}
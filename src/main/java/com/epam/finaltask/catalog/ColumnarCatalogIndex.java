@@ -0,0 +1,481 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.CatalogFacets;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.HotelType;
+import com.epam.finaltask.model.Money;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.TransferType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column-oriented copy of the REGISTERED catalog. Every voucher occupies one slot across
+ * primitive arrays; enum and hot filters are answered with bitmaps, the remaining
+ * predicates with a scan over the surviving slots and sorting with a bounded top-k heap.
+ */
+@Component
+public class ColumnarCatalogIndex implements VoucherIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> slots = new HashMap<>();
+
+    private int capacity;
+    private int highWater;
+    private int[] freeSlots;
+    private int freeCount;
+
+    private UUID[] ids;
+    private long[] priceCents;
+    private long[] arrivalDays;
+    private long[] evictionDays;
+    private byte[] tourTypes;
+    private byte[] transferTypes;
+    private byte[] hotelTypes;
+    private String[] titles;
+    private String[] descriptions;
+    private VoucherDTO[] rows;
+
+    private final BitSet live = new BitSet();
+    private final BitSet hot = new BitSet();
+    private final BitSet[] byTourType = bitmaps(TourType.values().length);
+    private final BitSet[] byTransferType = bitmaps(TransferType.values().length);
+    private final BitSet[] byHotelType = bitmaps(HotelType.values().length);
+
+    private volatile boolean ready;
+
+    public ColumnarCatalogIndex(@Value("${application.catalog.index.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isServing() {
+        return enabled && ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void rebuild(List<VoucherDTO> registered) {
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            highWater = 0;
+            freeCount = 0;
+            live.clear();
+            hot.clear();
+            clearAll(byTourType);
+            clearAll(byTransferType);
+            clearAll(byHotelType);
+            allocate(Math.max(INITIAL_CAPACITY, registered.size()));
+
+            registered.forEach(voucher -> put(UUID.fromString(voucher.getId()), voucher));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(VoucherChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isRegistered()) {
+                put(event.voucherId(), event.voucher());
+            } else {
+                remove(event.voucherId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Answers the catalog contract from memory, or returns empty when the index is not
+     * serving or the requested sort cannot be evaluated here.
+     */
+    public Optional<Page<VoucherDTO>> query(CatalogFilter filter, Pageable pageable) {
+        if (!isServing()) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Sort sort = pageable.getSort();
+            Sort.Order first = sort.stream().findFirst().orElse(null);
+            boolean hotPartitioned = first != null && "isHot".equals(first.getProperty());
+
+            SlotComparator comparator = comparatorFor(hotPartitioned ? Sort.by(sort.stream().skip(1).toList()) : sort);
+            if (comparator == null) {
+                return Optional.empty();
+            }
+
+            BitSet matches = match(filter);
+            int total = matches.cardinality();
+            long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+            if (offset >= total) {
+                return Optional.of(new PageImpl<>(List.of(), pageable, total));
+            }
+
+            int k = pageable.isPaged() ? (int) Math.min(total, offset + pageable.getPageSize()) : total;
+            int[] ordered;
+            if (hotPartitioned) {
+                BitSet leading = (BitSet) matches.clone();
+                BitSet trailing = matches;
+                if (first.isDescending()) {
+                    leading.and(hot);
+                    trailing.andNot(hot);
+                } else {
+                    leading.andNot(hot);
+                    trailing.and(hot);
+                }
+                int[] head = topK(leading, k, comparator);
+                int[] tail = head.length < k ? topK(trailing, k - head.length, comparator) : new int[0];
+                ordered = Arrays.copyOf(head, head.length + tail.length);
+                System.arraycopy(tail, 0, ordered, head.length, tail.length);
+            } else {
+                ordered = topK(matches, k, comparator);
+            }
+
+            return Optional.of(new PageImpl<>(materialize(ordered, (int) offset, ordered.length), pageable, total));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts for {@code filter} in a single pass over the rows that pass the
+     * non-facet predicates, or empty when the index is not serving.
+     */
+    public Optional<CatalogFacets> facets(CatalogFilter filter, double bucketSize) {
+        if (!isServing()) {
+            return Optional.empty();
+        }
+
+        FacetCounter counter = new FacetCounter(filter, bucketSize);
+        CatalogFilter base = filter.toBuilder()
+                .tourType(null)
+                .transferType(null)
+                .hotelType(null)
+                .minPrice(null)
+                .maxPrice(null)
+                .build();
+
+        TourType[] tourValues = TourType.values();
+        TransferType[] transferValues = TransferType.values();
+        HotelType[] hotelValues = HotelType.values();
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = match(base);
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                counter.add(tourValues[tourTypes[slot]], transferValues[transferTypes[slot]],
+                        hotelValues[hotelTypes[slot]], hot.get(slot), counter.bucketOf(priceCents[slot]),
+                        counter.inPriceRange(priceCents[slot]), 1);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(counter.toFacets());
+    }
+
+    private BitSet match(CatalogFilter filter) {
+        BitSet candidates = filter.getCandidateIds() != null ? slotsOf(filter.getCandidateIds()) : (BitSet) live.clone();
+        if (filter.getTourType() != null) {
+            candidates.and(byTourType[filter.getTourType().ordinal()]);
+        }
+        if (filter.getTransferType() != null) {
+            candidates.and(byTransferType[filter.getTransferType().ordinal()]);
+        }
+        if (filter.getHotelType() != null) {
+            candidates.and(byHotelType[filter.getHotelType().ordinal()]);
+        }
+        if (filter.isHotHidden()) {
+            candidates.andNot(hot);
+        }
+
+        boolean priceRange = filter.hasPriceRange();
+        String term = filter.hasDescription() ? filter.getDescription().toLowerCase() : null;
+        TravelWindow window = filter.hasTravelWindow() ? filter.getTravelWindow() : null;
+        if (!priceRange && term == null && window == null) {
+            return candidates;
+        }
+
+        long minCents = priceRange ? filter.minPriceCents() : 0;
+        long maxCents = priceRange ? filter.maxPriceCents() : 0;
+        for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+            if ((priceRange && (priceCents[slot] < minCents || priceCents[slot] > maxCents))
+                    || (term != null && !descriptions[slot].contains(term))
+                    || (window != null && !window.matches(arrivalDays[slot], evictionDays[slot]))) {
+                candidates.clear(slot);
+            }
+        }
+        return candidates;
+    }
+
+    private BitSet slotsOf(Set<UUID> ids) {
+        BitSet result = new BitSet();
+        for (UUID id : ids) {
+            Integer slot = slots.get(id);
+            if (slot != null) {
+                result.set(slot);
+            }
+        }
+        return result;
+    }
+
+    private List<VoucherDTO> materialize(int[] ordered, int from, int to) {
+        List<VoucherDTO> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(rows[ordered[i]]);
+        }
+        return content;
+    }
+
+    private SlotComparator comparatorFor(Sort sort) {
+        SlotComparator result = null;
+        for (Sort.Order order : sort) {
+            SlotComparator next = switch (order.getProperty()) {
+                case "isHot" -> (a, b) -> Boolean.compare(hot.get(a), hot.get(b));
+                case "priceCents" -> (a, b) -> Long.compare(priceCents[a], priceCents[b]);
+                case "title" -> (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(titles[a], titles[b]);
+                case "arrivalDate" -> (a, b) -> Long.compare(arrivalDays[a], arrivalDays[b]);
+                case "evictionDate" -> (a, b) -> Long.compare(evictionDays[a], evictionDays[b]);
+                case "tourType" -> (a, b) -> Byte.compare(tourTypes[a], tourTypes[b]);
+                case "transferType" -> (a, b) -> Byte.compare(transferTypes[a], transferTypes[b]);
+                case "hotelType" -> (a, b) -> Byte.compare(hotelTypes[a], hotelTypes[b]);
+                case "id" -> (a, b) -> compareIds(ids[a], ids[b]);
+                default -> null;
+            };
+            if (next == null) {
+                return null;
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+
+        SlotComparator byId = (a, b) -> compareIds(ids[a], ids[b]);
+        return result == null ? byId : result.thenComparing(byId);
+    }
+
+    /**
+     * Orders ids as the database does: by their bytes, unsigned. {@link UUID#compareTo}
+     * compares signed halves and would put ids starting with {@code 8}-{@code f} first.
+     */
+    private static int compareIds(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    /**
+     * Selects the {@code k} smallest slots with a bounded max-heap and returns them in order.
+     */
+    private static int[] topK(BitSet matches, int k, SlotComparator comparator) {
+        int[] heap = new int[k];
+        int size = 0;
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            if (size < k) {
+                heap[size] = slot;
+                siftUp(heap, size++, comparator);
+            } else if (k > 0 && comparator.compare(slot, heap[0]) < 0) {
+                heap[0] = slot;
+                siftDown(heap, 0, size, comparator);
+            }
+        }
+        for (int end = size - 1; end > 0; end--) {
+            int top = heap[0];
+            heap[0] = heap[end];
+            heap[end] = top;
+            siftDown(heap, 0, end, comparator);
+        }
+        return size == k ? heap : Arrays.copyOf(heap, size);
+    }
+
+    private static void siftUp(int[] heap, int i, SlotComparator comparator) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (comparator.compare(heap[i], heap[parent]) <= 0) {
+                return;
+            }
+            int tmp = heap[i];
+            heap[i] = heap[parent];
+            heap[parent] = tmp;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int i, int size, SlotComparator comparator) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int largest = left;
+            int right = left + 1;
+            if (right < size && comparator.compare(heap[right], heap[left]) > 0) {
+                largest = right;
+            }
+            if (comparator.compare(heap[largest], heap[i]) <= 0) {
+                return;
+            }
+            int tmp = heap[i];
+            heap[i] = heap[largest];
+            heap[largest] = tmp;
+            i = largest;
+        }
+    }
+
+    private void put(UUID id, VoucherDTO voucher) {
+        Integer existing = slots.get(id);
+        int slot = existing != null ? existing : allocateSlot();
+        if (existing != null) {
+            clearBits(slot);
+        } else {
+            slots.put(id, slot);
+        }
+
+        ids[slot] = id;
+        priceCents[slot] = voucher.getPrice() != null ? Money.toCents(voucher.getPrice()) : 0L;
+        arrivalDays[slot] = voucher.getArrivalDate() != null ? voucher.getArrivalDate().toEpochDay() : 0L;
+        evictionDays[slot] = voucher.getEvictionDate() != null ? voucher.getEvictionDate().toEpochDay() : 0L;
+        tourTypes[slot] = (byte) voucher.getTourType().ordinal();
+        transferTypes[slot] = (byte) voucher.getTransferType().ordinal();
+        hotelTypes[slot] = (byte) voucher.getHotelType().ordinal();
+        titles[slot] = voucher.getTitle() != null ? voucher.getTitle() : "";
+        descriptions[slot] = voucher.getDescription() != null ? voucher.getDescription().toLowerCase() : "";
+        rows[slot] = voucher;
+
+        live.set(slot);
+        if (Boolean.TRUE.equals(voucher.getIsHot())) {
+            hot.set(slot);
+        }
+        byTourType[tourTypes[slot]].set(slot);
+        byTransferType[transferTypes[slot]].set(slot);
+        byHotelType[hotelTypes[slot]].set(slot);
+    }
+
+    private void remove(UUID id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        clearBits(slot);
+        ids[slot] = null;
+        titles[slot] = null;
+        descriptions[slot] = null;
+        rows[slot] = null;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void clearBits(int slot) {
+        live.clear(slot);
+        hot.clear(slot);
+        byTourType[tourTypes[slot]].clear(slot);
+        byTransferType[transferTypes[slot]].clear(slot);
+        byHotelType[hotelTypes[slot]].clear(slot);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == capacity) {
+            grow(capacity * 2);
+        }
+        return highWater++;
+    }
+
+    private void allocate(int size) {
+        capacity = size;
+        freeSlots = new int[size];
+        ids = new UUID[size];
+        priceCents = new long[size];
+        arrivalDays = new long[size];
+        evictionDays = new long[size];
+        tourTypes = new byte[size];
+        transferTypes = new byte[size];
+        hotelTypes = new byte[size];
+        titles = new String[size];
+        descriptions = new String[size];
+        rows = new VoucherDTO[size];
+    }
+
+    private void grow(int size) {
+        capacity = size;
+        freeSlots = Arrays.copyOf(freeSlots, size);
+        ids = Arrays.copyOf(ids, size);
+        priceCents = Arrays.copyOf(priceCents, size);
+        arrivalDays = Arrays.copyOf(arrivalDays, size);
+        evictionDays = Arrays.copyOf(evictionDays, size);
+        tourTypes = Arrays.copyOf(tourTypes, size);
+        transferTypes = Arrays.copyOf(transferTypes, size);
+        hotelTypes = Arrays.copyOf(hotelTypes, size);
+        titles = Arrays.copyOf(titles, size);
+        descriptions = Arrays.copyOf(descriptions, size);
+        rows = Arrays.copyOf(rows, size);
+    }
+
+    private static BitSet[] bitmaps(int count) {
+        BitSet[] bitmaps = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new BitSet();
+        }
+        return bitmaps;
+    }
+
+    private static void clearAll(BitSet[] bitmaps) {
+        for (BitSet bitmap : bitmaps) {
+            bitmap.clear();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SlotComparator {
+
+        int compare(int a, int b);
+
+        default SlotComparator reversed() {
+            return (a, b) -> compare(b, a);
+        }
+
+        default SlotComparator thenComparing(SlotComparator other) {
+            return (a, b) -> {
+                int result = compare(a, b);
+                return result != 0 ? result : other.compare(a, b);
+            };
+        }
+    }
+}
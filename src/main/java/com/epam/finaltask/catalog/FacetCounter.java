@@ -0,0 +1,102 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.CatalogFacets;
+import com.epam.finaltask.dto.PriceBucket;
+import com.epam.finaltask.exception.InvalidFacetRequestException;
+import com.epam.finaltask.model.HotelType;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.TransferType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Accumulates catalog facet counts from rows (or pre-grouped rows) that already satisfy the
+ * non-facet predicates. Each facet ignores its own filter, so a count tells how many vouchers
+ * the catalog would return if that option were picked with every other filter unchanged.
+ */
+public class FacetCounter {
+
+    private final CatalogFilter filter;
+    private final double bucketSize;
+    private final double bucketCents;
+
+    private final long[] tourTypes = new long[TourType.values().length];
+    private final long[] transferTypes = new long[TransferType.values().length];
+    private final long[] hotelTypes = new long[HotelType.values().length];
+    private final TreeMap<Long, Long> priceBuckets = new TreeMap<>();
+    private long hot;
+    private long regular;
+
+    public FacetCounter(CatalogFilter filter, double bucketSize) {
+        if (!(bucketSize > 0)) {
+            throw new InvalidFacetRequestException("Price bucket size must be positive");
+        }
+        this.filter = filter;
+        this.bucketSize = bucketSize;
+        this.bucketCents = bucketSize * 100;
+    }
+
+    public long bucketOf(long priceCents) {
+        return (long) Math.floor(priceCents / bucketCents);
+    }
+
+    public boolean inPriceRange(long priceCents) {
+        return !filter.hasPriceRange()
+                || (priceCents >= filter.minPriceCents() && priceCents <= filter.maxPriceCents());
+    }
+
+    public void add(TourType tourType, TransferType transferType, HotelType hotelType,
+                    boolean isHot, long bucket, boolean inPriceRange, long count) {
+        boolean tour = filter.getTourType() == null || filter.getTourType() == tourType;
+        boolean transfer = filter.getTransferType() == null || filter.getTransferType() == transferType;
+        boolean hotel = filter.getHotelType() == null || filter.getHotelType() == hotelType;
+
+        if (transfer && hotel && inPriceRange) {
+            tourTypes[tourType.ordinal()] += count;
+        }
+        if (tour && hotel && inPriceRange) {
+            transferTypes[transferType.ordinal()] += count;
+        }
+        if (tour && transfer && inPriceRange) {
+            hotelTypes[hotelType.ordinal()] += count;
+        }
+        if (tour && transfer && hotel) {
+            priceBuckets.merge(bucket, count, Long::sum);
+            if (inPriceRange) {
+                if (isHot) {
+                    hot += count;
+                } else {
+                    regular += count;
+                }
+            }
+        }
+    }
+
+    public CatalogFacets toFacets() {
+        List<PriceBucket> buckets = new ArrayList<>(priceBuckets.size());
+        priceBuckets.forEach((bucket, count) ->
+                buckets.add(new PriceBucket(bucket * bucketSize, (bucket + 1) * bucketSize, count)));
+
+        return new CatalogFacets(
+                counts(TourType.class, tourTypes),
+                counts(TransferType.class, transferTypes),
+                counts(HotelType.class, hotelTypes),
+                buckets,
+                hot,
+                regular,
+                hot + regular
+        );
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> counts(Class<E> type, long[] values) {
+        Map<E, Long> result = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            result.put(constant, values[constant.ordinal()]);
+        }
+        return result;
+    }
+}
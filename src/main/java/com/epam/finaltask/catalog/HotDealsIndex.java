@@ -0,0 +1,128 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.TourType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hot REGISTERED vouchers per {@link TourType}, each kept in a set sorted by price, arrival
+ * date and id. A voucher change costs one removal and one insertion, and the cheapest
+ * {@code application.catalog.hot-deals.size} deals of a tour type are read off the head of
+ * its set.
+ */
+@Component
+public class HotDealsIndex implements VoucherIndex {
+
+    private static final Comparator<Deal> CHEAPEST_FIRST = Comparator.comparingDouble(Deal::price)
+            .thenComparing(Deal::arrivalDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Deal::id);
+
+    private final int size;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<TourType, NavigableSet<Deal>> byTourType = new EnumMap<>(TourType.class);
+    private final Map<UUID, Deal> deals = new HashMap<>();
+
+    public HotDealsIndex(@Value("${application.catalog.hot-deals.size:10}") int size) {
+        this.size = size;
+        for (TourType tourType : TourType.values()) {
+            byTourType.put(tourType, new TreeSet<>(CHEAPEST_FIRST));
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void rebuild(List<VoucherDTO> registered) {
+        lock.writeLock().lock();
+        try {
+            deals.clear();
+            byTourType.values().forEach(NavigableSet::clear);
+            registered.forEach(voucher -> put(UUID.fromString(voucher.getId()), voucher));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(VoucherChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.voucherId());
+            if (event.isRegistered()) {
+                put(event.voucherId(), event.voucher());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} (at most {@code size}) cheapest hot deals of every tour type, or of
+     * {@code tourType} alone when given. Tour types without hot deals map to an empty list.
+     */
+    public Map<TourType, List<VoucherDTO>> top(TourType tourType, int limit) {
+        int count = Math.max(0, Math.min(limit, size));
+        Map<TourType, List<VoucherDTO>> top = new EnumMap<>(TourType.class);
+
+        lock.readLock().lock();
+        try {
+            byTourType.forEach((type, ranked) -> {
+                if (tourType == null || tourType == type) {
+                    top.put(type, head(ranked, count));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top;
+    }
+
+    private static List<VoucherDTO> head(NavigableSet<Deal> ranked, int count) {
+        List<VoucherDTO> head = new ArrayList<>(Math.min(count, ranked.size()));
+        Iterator<Deal> deals = ranked.iterator();
+        while (head.size() < count && deals.hasNext()) {
+            head.add(deals.next().voucher());
+        }
+        return head;
+    }
+
+    private void put(UUID id, VoucherDTO voucher) {
+        if (!Boolean.TRUE.equals(voucher.getIsHot()) || voucher.getTourType() == null || voucher.getPrice() == null) {
+            return;
+        }
+        Deal deal = new Deal(id, voucher.getTourType(), voucher.getPrice(), voucher.getArrivalDate(), voucher);
+        deals.put(id, deal);
+        byTourType.get(deal.tourType()).add(deal);
+    }
+
+    private void remove(UUID id) {
+        Deal deal = deals.remove(id);
+        if (deal != null) {
+            byTourType.get(deal.tourType()).remove(deal);
+        }
+    }
+
+    /**
+     * Sort keys are copied out of the DTO so a later change to it cannot corrupt the set.
+     */
+    private record Deal(UUID id, TourType tourType, double price, LocalDate arrivalDate, VoucherDTO voucher) {
+    }
+}
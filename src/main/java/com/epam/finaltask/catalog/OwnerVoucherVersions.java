@@ -0,0 +1,34 @@
+package com.epam.finaltask.catalog;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user version of the "my vouchers" list, bumped after every committed change to a
+ * voucher the user owns or owned. A deletion whose owner is unknown bumps the shared epoch,
+ * which invalidates every user's version at once.
+ */
+@Component
+public class OwnerVoucherVersions {
+
+    private final AtomicLong epoch = new AtomicLong(System.currentTimeMillis());
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public String current(String username) {
+        AtomicLong version = versions.get(username);
+        return epoch.get() + "." + (version != null ? version.get() : 0L);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVoucherChanged(VoucherChangedEvent event) {
+        if (event.owner() != null) {
+            versions.computeIfAbsent(event.owner(), key -> new AtomicLong()).incrementAndGet();
+        } else if (event.type() == VoucherChangeType.DELETED) {
+            epoch.incrementAndGet();
+        }
+    }
+}
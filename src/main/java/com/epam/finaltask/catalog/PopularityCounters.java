@@ -0,0 +1,99 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory catalog impression, detail view and order counts per voucher. Recording is a
+ * map lookup plus a {@link LongAdder} increment, so request threads never contend on a
+ * shared counter or write to the database; {@link PopularityFlusher} drains the counts
+ * into the {@code popularity} column in the background.
+ */
+@Component
+public class PopularityCounters {
+
+    static final double IMPRESSION_WEIGHT = 0.1;
+    static final double VIEW_WEIGHT = 1.0;
+    static final double ORDER_WEIGHT = 10.0;
+
+    private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+
+    public void recordImpressions(Collection<VoucherDTO> vouchers) {
+        for (VoucherDTO voucher : vouchers) {
+            if (voucher.getId() != null) {
+                counter(UUID.fromString(voucher.getId())).impressions.increment();
+            }
+        }
+    }
+
+    public void recordView(UUID voucherId) {
+        counter(voucherId).views.increment();
+    }
+
+    public void recordOrder(UUID voucherId) {
+        counter(voucherId).orders.increment();
+    }
+
+    /**
+     * Weighted score gained by each voucher since the previous drain. Counters that saw no
+     * activity since then are dropped; an increment racing with that removal may be lost,
+     * which a popularity signal can afford.
+     */
+    public synchronized Map<UUID, Double> drain() {
+        Map<UUID, Double> gained = new HashMap<>();
+        Iterator<Map.Entry<UUID, Counter>> it = counters.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, Counter> entry = it.next();
+            double score = entry.getValue().drain();
+            if (score > 0) {
+                gained.put(entry.getKey(), score);
+            } else {
+                it.remove();
+            }
+        }
+        return gained;
+    }
+
+    private Counter counter(UUID voucherId) {
+        Counter counter = counters.get(voucherId);
+        return counter != null ? counter : counters.computeIfAbsent(voucherId, id -> new Counter());
+    }
+
+    /**
+     * Running totals are never reset, so increments made while a drain reads them are
+     * picked up by the next drain instead of being lost.
+     */
+    private static final class Counter {
+
+        private final LongAdder impressions = new LongAdder();
+        private final LongAdder views = new LongAdder();
+        private final LongAdder orders = new LongAdder();
+
+        private long drainedImpressions;
+        private long drainedViews;
+        private long drainedOrders;
+
+        double drain() {
+            long impressionTotal = impressions.sum();
+            long viewTotal = views.sum();
+            long orderTotal = orders.sum();
+
+            double score = (impressionTotal - drainedImpressions) * IMPRESSION_WEIGHT
+                    + (viewTotal - drainedViews) * VIEW_WEIGHT
+                    + (orderTotal - drainedOrders) * ORDER_WEIGHT;
+
+            drainedImpressions = impressionTotal;
+            drainedViews = viewTotal;
+            drainedOrders = orderTotal;
+            return score;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.repository.VoucherRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Periodically moves the {@link PopularityCounters} into {@code vouchers.popularity}, an
+ * exponentially decayed score with a configurable half-life. Instead of rewriting every
+ * row on each flush, stored scores are kept relative to the last rescale: fresh gains are
+ * scaled up by the decay accrued since then, and only once that decay reaches one
+ * half-life are all scores multiplied down in a single bulk update. Gains are written with
+ * one {@code IN} update per distinct value, at most {@value #FLUSH_CHUNK_SIZE} ids each.
+ * A flush that added gains moves only the popularity version, so catalog results and ETags
+ * that are not sorted by popularity survive it.
+ */
+@Slf4j
+@Component
+public class PopularityFlusher {
+
+    static final int FLUSH_CHUNK_SIZE = 250;
+
+    private final PopularityCounters counters;
+    private final VoucherRepository voucherRepository;
+    private final CatalogVersion catalogVersion;
+    private final Duration halfLife;
+    private final Clock clock;
+
+    private long scaledAt;
+
+    @Autowired
+    public PopularityFlusher(PopularityCounters counters, VoucherRepository voucherRepository,
+                             CatalogVersion catalogVersion,
+                             @Value("${application.catalog.popularity.half-life:7d}") Duration halfLife) {
+        this(counters, voucherRepository, catalogVersion, halfLife, Clock.systemUTC());
+    }
+
+    PopularityFlusher(PopularityCounters counters, VoucherRepository voucherRepository,
+                      CatalogVersion catalogVersion, Duration halfLife, Clock clock) {
+        this.counters = counters;
+        this.voucherRepository = voucherRepository;
+        this.catalogVersion = catalogVersion;
+        this.halfLife = halfLife;
+        this.clock = clock;
+        this.scaledAt = clock.millis();
+    }
+
+    @Scheduled(fixedDelayString = "${application.catalog.popularity.flush-interval-ms:60000}")
+    @Transactional
+    public synchronized void flush() {
+        long now = clock.millis();
+        double decay = Math.pow(0.5, (double) (now - scaledAt) / halfLife.toMillis());
+        boolean changed = false;
+
+        if (decay <= 0.5) {
+            // scaling every score alike keeps the ranking, so it does not count as a change
+            voucherRepository.scalePopularity(decay);
+            scaledAt = now;
+            decay = 1.0;
+        }
+
+        Map<UUID, Double> gained = counters.drain();
+        Map<Double, List<UUID>> byGain = new HashMap<>();
+        gained.forEach((id, gain) -> byGain.computeIfAbsent(gain, key -> new ArrayList<>()).add(id));
+
+        for (Map.Entry<Double, List<UUID>> entry : byGain.entrySet()) {
+            List<UUID> ids = entry.getValue();
+            for (int from = 0; from < ids.size(); from += FLUSH_CHUNK_SIZE) {
+                List<UUID> chunk = ids.subList(from, Math.min(ids.size(), from + FLUSH_CHUNK_SIZE));
+                changed |= voucherRepository.addPopularity(entry.getKey() / decay, chunk) > 0;
+            }
+        }
+
+        if (changed) {
+            catalogVersion.bumpPopularity();
+            log.debug("Flushed popularity of {} vouchers", gained.size());
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BM25 inverted index over REGISTERED voucher titles and descriptions. Title terms count
+ * {@value #TITLE_BOOST} times. Each query term also matches vocabulary terms one edit away
+ * (insertion, deletion, substitution or adjacent transposition) at {@value #FUZZY_WEIGHT}
+ * of the weight; those are found through a map from every single-character deletion of a
+ * term to the terms producing it, so no vocabulary scan is needed.
+ */
+@Component
+public class RelevanceIndex implements VoucherIndex {
+
+    static final int TITLE_BOOST = 2;
+    static final double FUZZY_WEIGHT = 0.5;
+    static final int FUZZY_MIN_LENGTH = 4;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "at", "by", "for", "from", "in", "near", "of", "on", "or", "the", "to", "via", "with");
+    private static final Postings[] NO_POSTINGS = new Postings[0];
+
+    private final boolean enabled;
+    private final int maxResults;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Queue<Accumulator> spareAccumulators = new ConcurrentLinkedQueue<>();
+
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, List<String>> deletions = new HashMap<>();
+    private UUID[] docs = new UUID[1024];
+    private int[] lengths = new int[1024];
+    private Postings[][] docPostings = new Postings[1024][];
+    private int[] freeDocs = new int[1024];
+    private int freeCount;
+    private int nextDoc;
+    private long totalLength;
+
+    private volatile boolean ready;
+
+    public RelevanceIndex(@Value("${application.catalog.search.relevance.enabled:true}") boolean enabled,
+                          @Value("${application.catalog.search.relevance.max-results:1000}") int maxResults) {
+        this.enabled = enabled;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isServing() {
+        return enabled && ready;
+    }
+
+    @Override
+    public void rebuild(List<VoucherDTO> registered) {
+        lock.writeLock().lock();
+        try {
+            docIds.clear();
+            postings.clear();
+            deletions.clear();
+            int capacity = Math.max(1024, registered.size());
+            docs = new UUID[capacity];
+            lengths = new int[capacity];
+            docPostings = new Postings[capacity][];
+            freeDocs = new int[capacity];
+            freeCount = 0;
+            nextDoc = 0;
+            totalLength = 0;
+
+            registered.forEach(voucher -> put(UUID.fromString(voucher.getId()), voucher));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(VoucherChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isRegistered()) {
+                put(event.voucherId(), event.voucher());
+            } else {
+                remove(event.voucherId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the at most {@code max-results} best-scoring vouchers for {@code query}, best
+     * first; ties go to the lower id. Empty when the index is disabled or not built yet.
+     */
+    public Optional<List<UUID>> search(String query) {
+        if (!isServing()) {
+            return Optional.empty();
+        }
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || maxResults <= 0) {
+            return Optional.of(List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            int live = docIds.size();
+            if (live == 0) {
+                return Optional.of(List.of());
+            }
+            double averageLength = (double) totalLength / live;
+            Accumulator pooled = spareAccumulators.poll();
+            Accumulator scores = (pooled != null ? pooled : new Accumulator()).reset(nextDoc);
+
+            for (String term : terms) {
+                expand(term).forEach((match, weight) -> {
+                    Postings list = postings.get(match);
+                    double idf = Math.log(1 + (live - list.size + 0.5) / (list.size + 0.5));
+                    for (int i = 0; i < list.size; i++) {
+                        int doc = list.docs[i];
+                        double tf = list.frequencies[i];
+                        double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                        scores.add(doc, weight * idf * tf * (K1 + 1) / (tf + norm));
+                    }
+                });
+            }
+            List<UUID> ranked = scores.top(maxResults, docs);
+            spareAccumulators.offer(scores);
+            return Optional.of(ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vocabulary terms matching {@code term} with their weight: the term itself at 1 and,
+     * for terms of at least {@value #FUZZY_MIN_LENGTH} letters, those one edit away.
+     */
+    private Map<String, Double> expand(String term) {
+        Map<String, Double> matches = new LinkedHashMap<>();
+        if (postings.containsKey(term)) {
+            matches.put(term, 1.0);
+        }
+        if (!isFuzzy(term)) {
+            return matches;
+        }
+        for (String variant : variants(term)) {
+            for (String candidate : deletions.getOrDefault(variant, List.of())) {
+                if (!matches.containsKey(candidate) && withinOneEdit(term, candidate)) {
+                    matches.put(candidate, FUZZY_WEIGHT);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void put(UUID id, VoucherDTO voucher) {
+        Integer existing = docIds.get(id);
+        int doc;
+        if (existing != null) {
+            doc = existing;
+            unlink(doc);
+        } else {
+            doc = allocate();
+            docIds.put(id, doc);
+            docs[doc] = id;
+        }
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(voucher.getTitle()).forEach(term -> frequencies.merge(term, TITLE_BOOST, Integer::sum));
+        tokenize(voucher.getDescription()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        Postings[] linked = new Postings[frequencies.size()];
+        int length = 0;
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            Postings list = postings.get(entry.getKey());
+            if (list == null) {
+                list = new Postings(entry.getKey());
+                postings.put(entry.getKey(), list);
+                index(entry.getKey());
+            }
+            list.add(doc, entry.getValue());
+            linked[i++] = list;
+            length += entry.getValue();
+        }
+        docPostings[doc] = linked;
+        lengths[doc] = length;
+        totalLength += length;
+    }
+
+    private void remove(UUID id) {
+        Integer doc = docIds.remove(id);
+        if (doc == null) {
+            return;
+        }
+        unlink(doc);
+        docs[doc] = null;
+        freeDocs[freeCount++] = doc;
+    }
+
+    private void unlink(int doc) {
+        for (Postings list : docPostings[doc]) {
+            if (list.remove(doc) && list.size == 0) {
+                postings.remove(list.term);
+                unindex(list.term);
+            }
+        }
+        docPostings[doc] = NO_POSTINGS;
+        totalLength -= lengths[doc];
+        lengths[doc] = 0;
+    }
+
+    private void index(String term) {
+        if (isFuzzy(term)) {
+            for (String variant : variants(term)) {
+                deletions.computeIfAbsent(variant, key -> new ArrayList<>(1)).add(term);
+            }
+        }
+    }
+
+    private void unindex(String term) {
+        if (isFuzzy(term)) {
+            for (String variant : variants(term)) {
+                List<String> terms = deletions.get(variant);
+                if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                    deletions.remove(variant);
+                }
+            }
+        }
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (nextDoc == docs.length) {
+            int capacity = docs.length * 2;
+            docs = Arrays.copyOf(docs, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            docPostings = Arrays.copyOf(docPostings, capacity);
+            freeDocs = Arrays.copyOf(freeDocs, capacity);
+        }
+        return nextDoc++;
+    }
+
+    private static boolean isFuzzy(String term) {
+        return term.length() >= FUZZY_MIN_LENGTH;
+    }
+
+    /**
+     * {@code term} and every string obtained by deleting one of its characters. Two terms
+     * sharing a variant are at most two edits apart, and every pair one edit apart shares one.
+     */
+    private static Set<String> variants(String term) {
+        Set<String> variants = new HashSet<>(term.length() + 1);
+        variants.add(term);
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    /**
+     * Whether {@code a} turns into {@code b} with at most one insertion, deletion,
+     * substitution or transposition of adjacent characters.
+     */
+    static boolean withinOneEdit(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 1) {
+            return false;
+        }
+        int prefix = 0;
+        int shorter = Math.min(a.length(), b.length());
+        while (prefix < shorter && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        if (a.length() != b.length()) {
+            String longer = a.length() > b.length() ? a : b;
+            String other = longer == a ? b : a;
+            return longer.regionMatches(prefix + 1, other, prefix, other.length() - prefix);
+        }
+        if (prefix == a.length()) {
+            return true;
+        }
+        if (a.regionMatches(prefix + 1, b, prefix + 1, a.length() - prefix - 1)) {
+            return true;
+        }
+        return prefix + 1 < a.length()
+                && a.charAt(prefix) == b.charAt(prefix + 1) && a.charAt(prefix + 1) == b.charAt(prefix)
+                && a.regionMatches(prefix + 2, b, prefix + 2, a.length() - prefix - 2);
+    }
+
+    /**
+     * Lower-cased words of {@code text} with stop words and tokens without a letter removed.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token) && token.chars().anyMatch(Character::isLetter)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Documents containing one term with their (boosted) term frequencies, sorted by document.
+     */
+    private static final class Postings {
+
+        private final String term;
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(int doc, int frequency) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0) {
+                frequencies[at] = frequency;
+                return;
+            }
+            at = -at - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(docs, at, docs, at + 1, size - at);
+            System.arraycopy(frequencies, at, frequencies, at + 1, size - at);
+            docs[at] = doc;
+            frequencies[at] = frequency;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            System.arraycopy(frequencies, at + 1, frequencies, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * Score array reused across queries (one per concurrently running search); only the
+     * documents a query touched are visited when ranking and cleared afterwards.
+     */
+    private static final class Accumulator {
+
+        private double[] scores = new double[0];
+        private int[] touched = new int[0];
+        private int count;
+
+        Accumulator reset(int capacity) {
+            if (scores.length < capacity) {
+                scores = new double[capacity];
+                touched = new int[capacity];
+            }
+            count = 0;
+            return this;
+        }
+
+        void add(int doc, double score) {
+            if (scores[doc] == 0) {
+                touched[count++] = doc;
+            }
+            scores[doc] += score;
+        }
+
+        List<UUID> top(int limit, UUID[] ids) {
+            int k = Math.min(limit, count);
+            int[] heap = new int[k];
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                int doc = touched[i];
+                if (size < k) {
+                    heap[size] = doc;
+                    siftUp(heap, size++, ids);
+                } else if (better(doc, heap[0], ids)) {
+                    heap[0] = doc;
+                    siftDown(heap, 0, size, ids);
+                }
+            }
+
+            UUID[] ranked = new UUID[size];
+            for (int end = size - 1; end >= 0; end--) {
+                ranked[end] = ids[heap[0]];
+                heap[0] = heap[end];
+                siftDown(heap, 0, end, ids);
+            }
+            for (int i = 0; i < count; i++) {
+                scores[touched[i]] = 0;
+            }
+            count = 0;
+            return Arrays.asList(ranked);
+        }
+
+        /**
+         * Whether {@code a} ranks before {@code b}: higher score, then lower id.
+         */
+        private boolean better(int a, int b, UUID[] ids) {
+            int byScore = Double.compare(scores[a], scores[b]);
+            return byScore != 0 ? byScore > 0 : ids[a].compareTo(ids[b]) < 0;
+        }
+
+        /**
+         * Min-heap on rank: the root is the worst of the kept documents.
+         */
+        private void siftUp(int[] heap, int i, UUID[] ids) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(heap[parent], heap[i], ids)) {
+                    return;
+                }
+                int tmp = heap[i];
+                heap[i] = heap[parent];
+                heap[parent] = tmp;
+                i = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int i, int size, UUID[] ids) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int worst = left;
+                int right = left + 1;
+                if (right < size && better(heap[left], heap[right], ids)) {
+                    worst = right;
+                }
+                if (!better(heap[i], heap[worst], ids)) {
+                    return;
+                }
+                int tmp = heap[i];
+                heap[i] = heap[worst];
+                heap[worst] = tmp;
+                i = worst;
+            }
+        }
+    }
+}
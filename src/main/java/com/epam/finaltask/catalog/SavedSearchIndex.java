@@ -0,0 +1,276 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.HotelType;
+import com.epam.finaltask.model.SavedSearch;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.TransferType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reverse index of saved searches, used to find the searches one changed voucher now
+ * matches without looking at all of them. Every search is posted under its tour, transfer
+ * and hotel type, or under that dimension's "any" list when it leaves the type open, and
+ * under each price bucket its range covers; open ranges and ranges wider than
+ * {@value #MAX_PRICE_BUCKETS} buckets go to "any price". A voucher collects the candidates
+ * of each dimension (its own key plus "any"), and only the smallest of the four lists is
+ * checked against the full filter.
+ */
+@Component
+public class SavedSearchIndex {
+
+    static final int MAX_PRICE_BUCKETS = 64;
+
+    private final double bucketSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final Postings<TourType> byTourType = new Postings<>();
+    private final Postings<TransferType> byTransferType = new Postings<>();
+    private final Postings<HotelType> byHotelType = new Postings<>();
+    private final Postings<Long> byPriceBucket = new Postings<>();
+
+    public SavedSearchIndex(@Value("${application.saved-searches.price-bucket:500}") double bucketSize) {
+        this.bucketSize = bucketSize;
+    }
+
+    public void rebuild(Collection<SavedSearch> searches) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            byTourType.clear();
+            byTransferType.clear();
+            byHotelType.clear();
+            byPriceBucket.clear();
+            searches.forEach(this::link);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(SavedSearch search) {
+        lock.writeLock().lock();
+        try {
+            unlink(search.getId());
+            link(search);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID savedSearchId) {
+        lock.writeLock().lock();
+        try {
+            unlink(savedSearchId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saved searches whose filter {@code voucher} satisfies. Hot visibility is not checked
+     * here; the inbox applies it for the reading user.
+     */
+    public List<Match> match(VoucherDTO voucher) {
+        lock.readLock().lock();
+        try {
+            List<Match> matches = new ArrayList<>();
+            for (UUID id : candidates(voucher)) {
+                Entry entry = entries.get(id);
+                if (entry.matches(voucher)) {
+                    matches.add(new Match(id, entry.userId()));
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The smallest of the voucher's four candidate lists; callers hold the read lock.
+     */
+    Collection<UUID> candidates(VoucherDTO voucher) {
+        long bucket = bucket(voucher.getPrice());
+        int tour = byTourType.size(voucher.getTourType());
+        int transfer = byTransferType.size(voucher.getTransferType());
+        int hotel = byHotelType.size(voucher.getHotelType());
+        int price = byPriceBucket.size(bucket);
+        int smallest = Math.min(Math.min(tour, transfer), Math.min(hotel, price));
+
+        List<UUID> candidates = new ArrayList<>(smallest);
+        if (smallest == tour) {
+            byTourType.collect(voucher.getTourType(), candidates);
+        } else if (smallest == transfer) {
+            byTransferType.collect(voucher.getTransferType(), candidates);
+        } else if (smallest == hotel) {
+            byHotelType.collect(voucher.getHotelType(), candidates);
+        } else {
+            byPriceBucket.collect(bucket, candidates);
+        }
+        return candidates;
+    }
+
+    private void link(SavedSearch search) {
+        Entry entry = Entry.of(search, priceBuckets(search));
+        entries.put(entry.id(), entry);
+        byTourType.add(search.getTourType(), entry.id());
+        byTransferType.add(search.getTransferType(), entry.id());
+        byHotelType.add(search.getHotelType(), entry.id());
+        if (entry.priceBuckets() == null) {
+            byPriceBucket.add(null, entry.id());
+        } else {
+            entry.priceBuckets().forEach(bucket -> byPriceBucket.add(bucket, entry.id()));
+        }
+    }
+
+    private void unlink(UUID id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        CatalogFilter filter = entry.filter();
+        byTourType.remove(filter.getTourType(), id);
+        byTransferType.remove(filter.getTransferType(), id);
+        byHotelType.remove(filter.getHotelType(), id);
+        if (entry.priceBuckets() == null) {
+            byPriceBucket.remove(null, id);
+        } else {
+            entry.priceBuckets().forEach(bucket -> byPriceBucket.remove(bucket, id));
+        }
+    }
+
+    /**
+     * Buckets covered by the search's price range, or {@code null} for "any price".
+     */
+    private List<Long> priceBuckets(SavedSearch search) {
+        if (search.getMinPrice() == null || search.getMaxPrice() == null) {
+            return null;
+        }
+        long first = bucket(search.getMinPrice());
+        long last = bucket(search.getMaxPrice());
+        if (last - first >= MAX_PRICE_BUCKETS) {
+            return null;
+        }
+        List<Long> buckets = new ArrayList<>();
+        for (long bucket = first; bucket <= last; bucket++) {
+            buckets.add(bucket);
+        }
+        return buckets;
+    }
+
+    private long bucket(double price) {
+        return (long) Math.floor(price / bucketSize);
+    }
+
+    public record Match(UUID savedSearchId, UUID userId) {
+    }
+
+    private record Entry(UUID id, UUID userId, CatalogFilter filter, List<Long> priceBuckets) {
+
+        static Entry of(SavedSearch search, List<Long> priceBuckets) {
+            TravelWindow window = TravelWindow.builder()
+                    .startsFrom(search.getStartsFrom())
+                    .startsTo(search.getStartsTo())
+                    .withinFrom(search.getWithinFrom())
+                    .withinTo(search.getWithinTo())
+                    .minNights(search.getMinNights())
+                    .maxNights(search.getMaxNights())
+                    .build();
+            CatalogFilter filter = CatalogFilter.builder()
+                    .tourType(search.getTourType())
+                    .transferType(search.getTransferType())
+                    .hotelType(search.getHotelType())
+                    .description(search.getDescription() != null
+                            ? search.getDescription().toLowerCase(Locale.ROOT) : null)
+                    .minPrice(search.getMinPrice())
+                    .maxPrice(search.getMaxPrice())
+                    .travelWindow(window.isEmpty() ? null : window)
+                    .build();
+            return new Entry(search.getId(), search.getUser().getId(), filter, priceBuckets);
+        }
+
+        /**
+         * The catalog predicates of {@code CatalogServiceImpl}, evaluated on one voucher.
+         */
+        boolean matches(VoucherDTO voucher) {
+            return (filter.getTourType() == null || filter.getTourType() == voucher.getTourType())
+                    && (filter.getTransferType() == null || filter.getTransferType() == voucher.getTransferType())
+                    && (filter.getHotelType() == null || filter.getHotelType() == voucher.getHotelType())
+                    && (!filter.hasPriceRange() || (voucher.getPrice() >= filter.getMinPrice()
+                            && voucher.getPrice() <= filter.getMaxPrice()))
+                    && (!filter.hasDescription() || (voucher.getDescription() != null
+                            && voucher.getDescription().toLowerCase(Locale.ROOT).contains(filter.getDescription())))
+                    && (!filter.hasTravelWindow() || filter.getTravelWindow().matches(
+                            voucher.getArrivalDate().toEpochDay(), voucher.getEvictionDate().toEpochDay()));
+        }
+    }
+
+    /**
+     * Search ids per key, plus the searches that accept any key.
+     */
+    private static final class Postings<K> {
+
+        private final Map<K, Set<UUID>> keyed = new HashMap<>();
+        private final Set<UUID> any = new HashSet<>();
+
+        void add(K key, UUID id) {
+            if (key == null) {
+                any.add(id);
+            } else {
+                keyed.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+            }
+        }
+
+        void remove(K key, UUID id) {
+            if (key == null) {
+                any.remove(id);
+                return;
+            }
+            Set<UUID> ids = keyed.get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                keyed.remove(key);
+            }
+        }
+
+        int size(K key) {
+            Set<UUID> ids = keyed.get(key);
+            return any.size() + (ids != null ? ids.size() : 0);
+        }
+
+        void collect(K key, Collection<UUID> into) {
+            into.addAll(any);
+            Set<UUID> ids = keyed.get(key);
+            if (ids != null) {
+                into.addAll(ids);
+            }
+        }
+
+        void clear() {
+            keyed.clear();
+            any.clear();
+        }
+    }
+}
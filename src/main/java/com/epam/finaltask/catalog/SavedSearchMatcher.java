@@ -0,0 +1,84 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.model.SavedSearchMatch;
+import com.epam.finaltask.repository.SavedSearchMatchRepository;
+import com.epam.finaltask.repository.SavedSearchRepository;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Loads {@link SavedSearchIndex} on startup and, once a voucher is created, edited or
+ * reregistered, files it into the inbox of every saved search it now matches. Matching runs
+ * after the voucher's transaction has committed, so the inbox rows are written in a new
+ * transaction of their own and a failure there never rolls back the voucher change.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SavedSearchMatcher {
+
+    private static final Set<VoucherChangeType> MATCHED_CHANGES =
+            EnumSet.of(VoucherChangeType.CREATED, VoucherChangeType.UPDATED, VoucherChangeType.REREGISTERED);
+
+    private final SavedSearchIndex index;
+    private final SavedSearchRepository savedSearchRepository;
+    private final SavedSearchMatchRepository matchRepository;
+    private final VoucherRepository voucherRepository;
+    private final UserRepository userRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        index.rebuild(savedSearchRepository.findAll());
+        log.info("Indexed {} saved searches in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onVoucherChanged(VoucherChangedEvent event) {
+        if (!MATCHED_CHANGES.contains(event.type()) || !event.isRegistered()) {
+            return;
+        }
+
+        List<SavedSearchIndex.Match> matches = index.match(event.voucher());
+        if (matches.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> listed = new HashSet<>(matchRepository.findSavedSearchIdsByVoucherId(event.voucherId(),
+                matches.stream().map(SavedSearchIndex.Match::savedSearchId).toList()));
+        LocalDateTime now = LocalDateTime.now();
+        List<SavedSearchMatch> added = new ArrayList<>();
+        for (SavedSearchIndex.Match match : matches) {
+            if (listed.contains(match.savedSearchId())) {
+                continue;
+            }
+            SavedSearchMatch entry = new SavedSearchMatch();
+            entry.setSavedSearch(savedSearchRepository.getReferenceById(match.savedSearchId()));
+            entry.setVoucher(voucherRepository.getReferenceById(event.voucherId()));
+            entry.setUser(userRepository.getReferenceById(match.userId()));
+            entry.setMatchedAt(now);
+            added.add(entry);
+        }
+
+        matchRepository.saveAll(added);
+        log.debug("Voucher {} matched {} saved searches", event.voucherId(), added.size());
+    }
+}
@@ -0,0 +1,82 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.exception.InvalidSortException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The sort orders voucher listings accept. Each key is backed by two indexes from the Flyway
+ * migrations, one per direction of {@link #catalogOrder(boolean)}, so the database reads a
+ * catalog page in order instead of sorting it. {@link ColumnarCatalogIndex} evaluates all but
+ * {@link #POPULARITY} in memory. Every order ends with {@code id} ascending so that rows with
+ * equal keys keep their position from one page to the next.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SortKey {
+
+    PRICE("price", "priceCents", "idx_vouchers_status_hot_price", true),
+    ARRIVAL_DATE("arrivalDate", "arrivalDate", "idx_vouchers_status_hot_arrival", true),
+    EVICTION_DATE("evictionDate", "evictionDate", "idx_vouchers_status_hot_eviction", true),
+    TITLE("title", "title", "idx_vouchers_status_hot_title", true),
+    POPULARITY("popularity", "popularity", "idx_vouchers_status_hot_popularity", false);
+
+    private static final Sort TIEBREAKER = Sort.by(Sort.Direction.ASC, "id");
+
+    /**
+     * The {@code sortBy} value clients send.
+     */
+    private final String key;
+
+    /**
+     * The {@code Voucher} attribute the key sorts on.
+     */
+    private final String property;
+
+    /**
+     * The index that serves the ascending catalog order.
+     */
+    private final String index;
+    private final boolean keyset;
+
+    /**
+     * Looks up the key for a {@code sortBy} request parameter.
+     *
+     * @throws InvalidSortException when {@code key} is not an allowed sort
+     */
+    public static SortKey of(String key) {
+        for (SortKey sortKey : values()) {
+            if (sortKey.key.equals(key)) {
+                return sortKey;
+            }
+        }
+        throw new InvalidSortException("Unsupported sort: " + key + ". Allowed: " + Arrays.stream(values())
+                .map(SortKey::getKey)
+                .collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * The index that serves {@link #catalogOrder(boolean)} in the given direction.
+     */
+    public String indexFor(boolean ascending) {
+        return ascending ? index : index + "_desc";
+    }
+
+    /**
+     * This key in the requested direction, then {@code id}.
+     */
+    public Sort order(boolean ascending) {
+        return Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, property).and(TIEBREAKER);
+    }
+
+    /**
+     * The catalog order: hot vouchers first, then {@link #order(boolean)}.
+     */
+    public Sort catalogOrder(boolean ascending) {
+        return Sort.by(Sort.Direction.DESC, "isHot").and(order(ascending));
+    }
+}
@@ -0,0 +1,321 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherSuggestion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over the words of REGISTERED voucher titles: "Wine Tour France" is reachable
+ * from "wine", "tour" and "france". Every node stores its best {@code top-k} completions
+ * (hot first, then by title), with and without hot vouchers, so a lookup is a walk down the
+ * prefix plus a copy of at most {@code k} entries. An added title is offered to the lists on
+ * its paths; a removed one makes those nodes recompute their lists from their children's.
+ */
+@Component
+public class TitleSuggestIndex implements VoucherIndex {
+
+    private static final Comparator<Entry> RANKING = Comparator.comparing(Entry::hot).reversed()
+            .thenComparing(Entry::title, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Entry::id);
+
+    private final int topK;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private Node root = new Node();
+
+    public TitleSuggestIndex(@Value("${application.catalog.suggest.top-k:8}") int topK) {
+        this.topK = topK;
+    }
+
+    @Override
+    public void rebuild(List<VoucherDTO> registered) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            root = new Node();
+            registered.forEach(voucher -> link(UUID.fromString(voucher.getId()), voucher));
+            recomputeAll(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(VoucherChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.voucherId());
+            if (event.isRegistered()) {
+                put(event.voucherId(), event.voucher());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} (at most {@code top-k}) titles with a word starting with
+     * {@code prefix}, ignoring case; hot vouchers are left out unless {@code hotVisible}.
+     */
+    public List<VoucherSuggestion> suggest(String prefix, int limit, boolean hotVisible) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            Entry[] ranked = hotVisible ? node.top : node.topRegular;
+            int count = Math.min(limit, ranked.length);
+            List<VoucherSuggestion> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                suggestions.add(new VoucherSuggestion(ranked[i].id().toString(), ranked[i].title(), ranked[i].hot()));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(UUID id, VoucherDTO voucher) {
+        List<List<Node>> paths = link(id, voucher);
+        Entry entry = entries.get(id);
+        for (List<Node> path : paths) {
+            path.forEach(node -> node.offer(entry, topK));
+        }
+    }
+
+    /**
+     * Adds the voucher's title to the trie and returns the root-to-leaf path of every key,
+     * leaving the top-k lists to the caller.
+     */
+    private List<List<Node>> link(UUID id, VoucherDTO voucher) {
+        if (voucher.getTitle() == null || voucher.getTitle().isBlank()) {
+            return List.of();
+        }
+        Entry entry = new Entry(id, voucher.getTitle(), Boolean.TRUE.equals(voucher.getIsHot()));
+        entries.put(id, entry);
+
+        List<List<Node>> paths = new ArrayList<>();
+        for (String key : keys(entry.title())) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+                path.add(node);
+            }
+            node.terminals.add(entry);
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    private void remove(UUID id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+
+        for (String key : keys(entry.title())) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+                path.add(node);
+            }
+            if (node == null) {
+                continue;
+            }
+            node.terminals.remove(entry);
+            prune(path, key);
+            recompute(path);
+        }
+    }
+
+    /**
+     * Unlinks the nodes at the end of {@code path} that no longer lead to any title.
+     */
+    private static void prune(List<Node> path, String key) {
+        for (int depth = path.size() - 1; depth > 0; depth--) {
+            Node node = path.get(depth);
+            if (!node.terminals.isEmpty() || node.keys.length > 0) {
+                return;
+            }
+            path.get(depth - 1).removeChild(key.charAt(depth - 1));
+            path.remove(depth);
+        }
+    }
+
+    private void recompute(List<Node> path) {
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            recompute(path.get(depth));
+        }
+    }
+
+    private void recomputeAll(Node node) {
+        for (Node child : node.children) {
+            recomputeAll(child);
+        }
+        recompute(node);
+    }
+
+    /**
+     * Rebuilds the node's lists from its own titles and its children's lists, which already
+     * hold everything that can rank below it.
+     */
+    private void recompute(Node node) {
+        List<Entry> candidates = new ArrayList<>(node.terminals);
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+            candidates.addAll(Arrays.asList(child.topRegular));
+        }
+        candidates.sort(RANKING);
+
+        node.top = best(candidates, false);
+        node.topRegular = best(candidates, true);
+    }
+
+    private Entry[] best(List<Entry> ranked, boolean regularOnly) {
+        List<Entry> best = new ArrayList<>(topK);
+        Set<UUID> seen = new HashSet<>();
+        for (Entry entry : ranked) {
+            if (best.size() == topK) {
+                break;
+            }
+            if ((!regularOnly || !entry.hot()) && seen.add(entry.id())) {
+                best.add(entry);
+            }
+        }
+        return best.toArray(Entry[]::new);
+    }
+
+    /**
+     * The normalized title from the start of each of its words.
+     */
+    private static Set<String> keys(String title) {
+        String normalized = normalize(title);
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(UUID id, String title, boolean hot) {
+    }
+
+    /**
+     * Children are kept in parallel arrays sorted by character, which is far smaller than a
+     * map per node and still found by binary search.
+     */
+    private static final class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private final List<Entry> terminals = new ArrayList<>(1);
+        private Entry[] top = NO_ENTRIES;
+        private Entry[] topRegular = NO_ENTRIES;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            Node child = new Node();
+
+            char[] grownKeys = new char[keys.length + 1];
+            Node[] grownChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, grownKeys, 0, at);
+            System.arraycopy(children, 0, grownChildren, 0, at);
+            grownKeys[at] = c;
+            grownChildren[at] = child;
+            System.arraycopy(keys, at, grownKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, grownChildren, at + 1, children.length - at);
+
+            keys = grownKeys;
+            children = grownChildren;
+            return child;
+        }
+
+        void offer(Entry entry, int topK) {
+            top = offer(top, entry, topK);
+            if (!entry.hot()) {
+                topRegular = offer(topRegular, entry, topK);
+            }
+        }
+
+        private static Entry[] offer(Entry[] ranked, Entry entry, int topK) {
+            for (Entry present : ranked) {
+                if (present.id().equals(entry.id())) {
+                    return ranked;
+                }
+            }
+            int at = -Arrays.binarySearch(ranked, entry, RANKING) - 1;
+            if (at >= topK) {
+                return ranked;
+            }
+            Entry[] grown = new Entry[Math.min(ranked.length + 1, topK)];
+            System.arraycopy(ranked, 0, grown, 0, at);
+            grown[at] = entry;
+            System.arraycopy(ranked, at, grown, at + 1, grown.length - at - 1);
+            return grown;
+        }
+
+        void removeChild(char c) {
+            int at = Arrays.binarySearch(keys, c);
+            if (at < 0) {
+                return;
+            }
+            char[] shrunkKeys = new char[keys.length - 1];
+            Node[] shrunkChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, shrunkKeys, 0, at);
+            System.arraycopy(children, 0, shrunkChildren, 0, at);
+            System.arraycopy(keys, at + 1, shrunkKeys, at, keys.length - at - 1);
+            System.arraycopy(children, at + 1, shrunkChildren, at, children.length - at - 1);
+
+            keys = shrunkKeys.length == 0 ? NO_KEYS : shrunkKeys;
+            children = shrunkChildren.length == 0 ? NO_CHILDREN : shrunkChildren;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sorted arrival-day and trip-length indexes over REGISTERED vouchers. A {@link TravelWindow}
+ * query walks only the arrival days (or, without date bounds, the night counts) it can
+ * match and checks the full window on each voucher found there, so the result is exact.
+ */
+@Component
+public class TravelDateIndex implements VoucherIndex {
+
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Stay> stays = new HashMap<>();
+    private final NavigableMap<Long, Set<UUID>> byArrival = new TreeMap<>();
+    private final NavigableMap<Long, Set<UUID>> byNights = new TreeMap<>();
+
+    private volatile boolean ready;
+
+    public TravelDateIndex(@Value("${application.catalog.dates.index.enabled:true}") boolean enabled,
+                           @Value("${application.catalog.dates.index.max-candidates:1000}") int maxCandidates) {
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void rebuild(List<VoucherDTO> registered) {
+        lock.writeLock().lock();
+        try {
+            stays.clear();
+            byArrival.clear();
+            byNights.clear();
+            registered.forEach(voucher -> put(UUID.fromString(voucher.getId()), voucher));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(VoucherChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.voucherId());
+            if (event.isRegistered()) {
+                put(event.voucherId(), event.voucher());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the REGISTERED vouchers matching {@code window}. Empty when the index cannot
+     * answer: it is not ready, the window is empty, or more than {@code max-candidates}
+     * vouchers qualify.
+     */
+    public Optional<Set<UUID>> candidates(TravelWindow window) {
+        if (!enabled || !ready || window == null || window.isEmpty()) {
+            return Optional.empty();
+        }
+
+        LocalDate earliest = window.earliestArrival();
+        LocalDate latest = window.latestArrival();
+
+        lock.readLock().lock();
+        try {
+            NavigableMap<Long, Set<UUID>> range;
+            if (earliest != null || latest != null) {
+                range = slice(byArrival, earliest != null ? earliest.toEpochDay() : null,
+                        latest != null ? latest.toEpochDay() : null);
+            } else {
+                range = slice(byNights, window.getMinNights() != null ? window.getMinNights().longValue() : null,
+                        window.getMaxNights() != null ? window.getMaxNights().longValue() : null);
+            }
+
+            Set<UUID> ids = new HashSet<>();
+            for (Set<UUID> bucket : range.values()) {
+                for (UUID id : bucket) {
+                    Stay stay = stays.get(id);
+                    if (window.matches(stay.arrivalDay(), stay.evictionDay())) {
+                        ids.add(id);
+                        if (ids.size() > maxCandidates) {
+                            return Optional.empty();
+                        }
+                    }
+                }
+            }
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static NavigableMap<Long, Set<UUID>> slice(NavigableMap<Long, Set<UUID>> index, Long from, Long to) {
+        if (from != null && to != null) {
+            return from > to ? new TreeMap<>() : index.subMap(from, true, to, true);
+        }
+        if (from != null) {
+            return index.tailMap(from, true);
+        }
+        return to != null ? index.headMap(to, true) : index;
+    }
+
+    private void put(UUID id, VoucherDTO voucher) {
+        if (voucher.getArrivalDate() == null || voucher.getEvictionDate() == null) {
+            return;
+        }
+        Stay stay = new Stay(voucher.getArrivalDate().toEpochDay(), voucher.getEvictionDate().toEpochDay());
+        stays.put(id, stay);
+        byArrival.computeIfAbsent(stay.arrivalDay(), day -> new HashSet<>()).add(id);
+        byNights.computeIfAbsent(stay.nights(), nights -> new HashSet<>()).add(id);
+    }
+
+    private void remove(UUID id) {
+        Stay stay = stays.remove(id);
+        if (stay == null) {
+            return;
+        }
+        unlink(byArrival, stay.arrivalDay(), id);
+        unlink(byNights, stay.nights(), id);
+    }
+
+    private static void unlink(NavigableMap<Long, Set<UUID>> index, long key, UUID id) {
+        Set<UUID> bucket = index.get(key);
+        if (bucket != null && bucket.remove(id) && bucket.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private record Stay(long arrivalDay, long evictionDay) {
+
+        long nights() {
+            return evictionDay - arrivalDay;
+        }
+    }
+}
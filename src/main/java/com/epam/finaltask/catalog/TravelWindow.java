@@ -0,0 +1,90 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.exception.InvalidDatesException;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Date predicates of a catalog search: the trip starts within {@code [startsFrom, startsTo]},
+ * fits entirely inside {@code [withinFrom, withinTo]} and lasts between {@code minNights}
+ * and {@code maxNights}. Every bound is optional and inclusive.
+ */
+@Value
+@Builder
+public class TravelWindow {
+
+    LocalDate startsFrom;
+    LocalDate startsTo;
+    LocalDate withinFrom;
+    LocalDate withinTo;
+    Integer minNights;
+    Integer maxNights;
+
+    public boolean isEmpty() {
+        return startsFrom == null && startsTo == null && withinFrom == null && withinTo == null
+                && minNights == null && maxNights == null;
+    }
+
+    /**
+     * Rejects reversed ranges and negative night counts.
+     */
+    public void validate() {
+        if (startsFrom != null && startsTo != null && startsFrom.isAfter(startsTo)) {
+            throw new InvalidDatesException("startsFrom must not be after startsTo");
+        }
+        if (withinFrom != null && withinTo != null && withinFrom.isAfter(withinTo)) {
+            throw new InvalidDatesException("withinFrom must not be after withinTo");
+        }
+        if ((minNights != null && minNights < 0) || (maxNights != null && maxNights < 0)) {
+            throw new InvalidDatesException("Number of nights must not be negative");
+        }
+        if (minNights != null && maxNights != null && minNights > maxNights) {
+            throw new InvalidDatesException("minNights must not be greater than maxNights");
+        }
+    }
+
+    public boolean hasNights() {
+        return minNights != null || maxNights != null;
+    }
+
+    /**
+     * Lowest arrival day a matching trip can have, or {@code null} when unbounded.
+     */
+    public LocalDate earliestArrival() {
+        return later(startsFrom, withinFrom);
+    }
+
+    /**
+     * Highest arrival day a matching trip can have, or {@code null} when unbounded.
+     */
+    public LocalDate latestArrival() {
+        LocalDate lastStartInside = withinTo != null && minNights != null ? withinTo.minusDays(minNights) : withinTo;
+        return earlier(startsTo, lastStartInside);
+    }
+
+    public boolean matches(long arrivalDay, long evictionDay) {
+        long nights = evictionDay - arrivalDay;
+        return (startsFrom == null || arrivalDay >= startsFrom.toEpochDay())
+                && (startsTo == null || arrivalDay <= startsTo.toEpochDay())
+                && (withinFrom == null || arrivalDay >= withinFrom.toEpochDay())
+                && (withinTo == null || evictionDay <= withinTo.toEpochDay())
+                && (minNights == null || nights >= minNights)
+                && (maxNights == null || nights <= maxNights);
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate earlier(LocalDate a, LocalDate b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,261 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over REGISTERED voucher titles and descriptions. A substring
+ * query becomes an intersection of the posting lists of its trigrams; the result is a
+ * superset of the real matches, so callers still apply the exact predicate to it.
+ */
+@Component
+public class TrigramIndex implements VoucherIndex {
+
+    private static final long[] NO_TRIGRAMS = new long[0];
+
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private UUID[] docs = new UUID[1024];
+    private long[][] docTrigrams = new long[1024][];
+    private int[] freeDocs = new int[1024];
+    private int freeCount;
+    private int nextDoc;
+
+    private volatile boolean ready;
+
+    public TrigramIndex(@Value("${application.catalog.search.trigram.enabled:true}") boolean enabled,
+                        @Value("${application.catalog.search.trigram.max-candidates:1000}") int maxCandidates) {
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void rebuild(List<VoucherDTO> registered) {
+        lock.writeLock().lock();
+        try {
+            docIds.clear();
+            postings.clear();
+            docs = new UUID[Math.max(1024, registered.size())];
+            docTrigrams = new long[docs.length][];
+            freeDocs = new int[docs.length];
+            freeCount = 0;
+            nextDoc = 0;
+
+            registered.forEach(voucher -> put(UUID.fromString(voucher.getId()), voucher));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(VoucherChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isRegistered()) {
+                put(event.voucherId(), event.voucher());
+            } else {
+                remove(event.voucherId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of REGISTERED vouchers whose title or description may contain {@code term}.
+     * Empty when the index cannot narrow the search: it is not ready, the term is shorter
+     * than a trigram, or more than {@code max-candidates} vouchers qualify.
+     */
+    public Optional<Set<UUID>> candidates(String term) {
+        if (!enabled || !ready || term == null) {
+            return Optional.empty();
+        }
+        long[] grams = trigrams(term.toLowerCase());
+        if (grams.length == 0) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                Postings list = postings.get(grams[i]);
+                if (list == null) {
+                    return Optional.of(Set.of());
+                }
+                lists[i] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            int[] result = Arrays.copyOf(lists[0].values, lists[0].size);
+            int size = result.length;
+            for (int i = 1; i < lists.length && size > 0; i++) {
+                size = lists[i].retainAll(result, size);
+            }
+            if (size > maxCandidates) {
+                return Optional.empty();
+            }
+
+            Set<UUID> ids = new HashSet<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                ids.add(docs[result[i]]);
+            }
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(UUID id, VoucherDTO voucher) {
+        Integer existing = docIds.get(id);
+        int doc;
+        if (existing != null) {
+            doc = existing;
+            unlink(doc);
+        } else {
+            doc = allocate();
+            docIds.put(id, doc);
+            docs[doc] = id;
+        }
+
+        long[] grams = trigrams(text(voucher));
+        docTrigrams[doc] = grams;
+        for (long gram : grams) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(doc);
+        }
+    }
+
+    private void remove(UUID id) {
+        Integer doc = docIds.remove(id);
+        if (doc == null) {
+            return;
+        }
+        unlink(doc);
+        docs[doc] = null;
+        freeDocs[freeCount++] = doc;
+    }
+
+    private void unlink(int doc) {
+        for (long gram : docTrigrams[doc]) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(doc) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        docTrigrams[doc] = NO_TRIGRAMS;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (nextDoc == docs.length) {
+            int capacity = docs.length * 2;
+            docs = Arrays.copyOf(docs, capacity);
+            docTrigrams = Arrays.copyOf(docTrigrams, capacity);
+            freeDocs = Arrays.copyOf(freeDocs, capacity);
+        }
+        return nextDoc++;
+    }
+
+    private static String text(VoucherDTO voucher) {
+        String title = voucher.getTitle() != null ? voucher.getTitle() : "";
+        String description = voucher.getDescription() != null ? voucher.getDescription() : "";
+        return (title + "\n" + description).toLowerCase();
+    }
+
+    /**
+     * Distinct trigrams of {@code text}, each packed into a long as three UTF-16 chars.
+     */
+    static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return NO_TRIGRAMS;
+        }
+        long[] grams = new long[text.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Sorted list of document ids.
+     */
+    private static final class Postings {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int doc) {
+            int at = Arrays.binarySearch(values, 0, size, doc);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = doc;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int at = Arrays.binarySearch(values, 0, size, doc);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(values, at + 1, values, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keeps in {@code candidates[0..count)} only the ids present in this list.
+         */
+        int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int at = Arrays.binarySearch(values, from, size, candidates[i]);
+                if (at >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.epam.finaltask.catalog;
+
+public enum VoucherChangeType {
+    CREATED,
+    UPDATED,
+    HOT_STATUS_CHANGED,
+    ORDERED,
+    CANCELLATION_REQUESTED,
+    CANCELLATION_DECIDED,
+    REREGISTERED,
+    DELETED
+}
@@ -0,0 +1,22 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.VoucherStatus;
+
+import java.util.UUID;
+
+/**
+ * Published by the voucher service after every mutation. The voucher snapshot is
+ * {@code null} for {@link VoucherChangeType#DELETED}; {@code owner} is the username whose
+ * voucher list the change touched, if known.
+ */
+public record VoucherChangedEvent(VoucherChangeType type, UUID voucherId, VoucherDTO voucher, String owner) {
+
+    public VoucherChangedEvent(VoucherChangeType type, UUID voucherId, VoucherDTO voucher) {
+        this(type, voucherId, voucher, voucher != null ? voucher.getUserName() : null);
+    }
+
+    public boolean isRegistered() {
+        return voucher != null && voucher.getStatus() == VoucherStatus.REGISTERED;
+    }
+}
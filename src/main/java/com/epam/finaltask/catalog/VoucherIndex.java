@@ -0,0 +1,19 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+
+import java.util.List;
+
+/**
+ * In-memory structure over REGISTERED vouchers, kept in sync by {@link VoucherIndexRegistry}.
+ */
+public interface VoucherIndex {
+
+    default boolean isEnabled() {
+        return true;
+    }
+
+    void rebuild(List<VoucherDTO> registered);
+
+    void apply(VoucherChangedEvent event);
+}
@@ -0,0 +1,57 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.VoucherStatus;
+import com.epam.finaltask.repository.VoucherRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Loads REGISTERED vouchers once on startup and feeds every committed voucher change
+ * to all enabled {@link VoucherIndex} beans. Changes reach the indexes before any other
+ * listener, so by the time {@link CatalogVersion} moves, whatever a reader computes under the
+ * new version already sees them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VoucherIndexRegistry {
+
+    private final List<VoucherIndex> indexes;
+    private final VoucherRepository voucherRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildAll() {
+        List<VoucherIndex> enabled = indexes.stream().filter(VoucherIndex::isEnabled).toList();
+        if (enabled.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        List<VoucherDTO> registered = voucherRepository.findProjectedByStatus(VoucherStatus.REGISTERED);
+
+        enabled.forEach(index -> index.rebuild(registered));
+        log.info("Built {} voucher indexes over {} registered vouchers in {} ms",
+                enabled.size(), registered.size(), System.currentTimeMillis() - start);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVoucherChanged(VoucherChangedEvent event) {
+        for (VoucherIndex index : indexes) {
+            if (index.isEnabled()) {
+                index.apply(event);
+            }
+        }
+    }
+}
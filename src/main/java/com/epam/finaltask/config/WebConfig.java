@@ -1,13 +1,17 @@
 package com.epam.finaltask.config;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.http.CacheControl;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
 import org.springframework.web.servlet.i18n.SessionLocaleResolver;
 
 import java.util.Locale;
@@ -15,6 +19,14 @@ import java.util.Locale;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private static final String[] PAGE_SHELL_URLS = {
+            "/login", "/register", "/catalog", "/catalog/my", "/admin/*", "/deposit", "/withdraw", "/profile"
+    };
+
+    private static final String[] PAGE_SHELL_PATTERNS = {
+            "/login", "/register", "/catalog", "/catalog/my", "/admin/**", "/deposit", "/withdraw", "/profile"
+    };
+
     @Bean
     public MessageSource messageSource() {
         ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
@@ -37,8 +49,25 @@ public class WebConfig implements WebMvcConfigurer {
         return interceptor;
     }
 
+    /**
+     * Page shells are plain templates; hashing the rendered body lets the browser revalidate
+     * them with If-None-Match and get an empty 304 instead of the whole page.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> pageShellEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns(PAGE_SHELL_URLS);
+        registration.setName("pageShellEtagFilter");
+        return registration;
+    }
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(localeChangeInterceptor());
+
+        // overrides Spring Security's no-store default so that shells can be revalidated
+        WebContentInterceptor pageShellCaching = new WebContentInterceptor();
+        pageShellCaching.addCacheMapping(CacheControl.noCache().cachePrivate(), PAGE_SHELL_PATTERNS);
+        registry.addInterceptor(pageShellCaching);
     }
 }
\ No newline at end of file
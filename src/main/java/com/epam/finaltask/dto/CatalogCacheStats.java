@@ -0,0 +1,28 @@
+package com.epam.finaltask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogCacheStats {
+
+    private boolean enabled;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    private long invalidations;
+
+    private int size;
+
+    private int maxEntries;
+
+    private long catalogVersion;
+
+}
@@ -0,0 +1,32 @@
+package com.epam.finaltask.dto;
+
+import com.epam.finaltask.model.HotelType;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.TransferType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogFacets {
+
+    private Map<TourType, Long> tourTypes;
+
+    private Map<TransferType, Long> transferTypes;
+
+    private Map<HotelType, Long> hotelTypes;
+
+    private List<PriceBucket> priceBuckets;
+
+    private long hot;
+
+    private long regular;
+
+    private long total;
+
+}
@@ -0,0 +1,26 @@
+package com.epam.finaltask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CatalogSlice {
+
+    private List<VoucherDTO> vouchers;
+
+    private boolean hasNext;
+
+    private String nextCursor;
+
+    private Long totalElements;
+
+    private boolean totalExact;
+
+    public CatalogSlice(List<VoucherDTO> vouchers, boolean hasNext, String nextCursor) {
+        this(vouchers, hasNext, nextCursor, null, false);
+    }
+
+}
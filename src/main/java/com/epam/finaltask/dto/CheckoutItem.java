@@ -0,0 +1,32 @@
+package com.epam.finaltask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one id in a cart checkout; {@code voucher} is set when the voucher was
+ * {@code ORDERED} or would have been ({@code READY}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutItem {
+
+    private String id;
+
+    private Status status;
+
+    private VoucherDTO voucher;
+
+    public enum Status {
+        ORDERED,
+        READY,
+        INVALID,
+        DUPLICATE,
+        MISSING,
+        UNAVAILABLE,
+        HOT_RESTRICTED
+    }
+
+}
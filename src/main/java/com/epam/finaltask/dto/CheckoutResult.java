@@ -0,0 +1,31 @@
+package com.epam.finaltask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outcome of a cart checkout. Either every voucher is {@code ORDERED} or none is, and
+ * {@code items} tell which ones stood in the way.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutResult {
+
+    private Status status;
+
+    private BigDecimal total;
+
+    private List<CheckoutItem> items;
+
+    public enum Status {
+        ORDERED,
+        REJECTED,
+        INSUFFICIENT_BALANCE
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.epam.finaltask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBucket {
+
+    private double from;
+
+    private double to;
+
+    private long count;
+
+}
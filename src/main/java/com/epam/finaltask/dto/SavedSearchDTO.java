@@ -0,0 +1,53 @@
+package com.epam.finaltask.dto;
+
+import com.epam.finaltask.model.HotelType;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.TransferType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A saved catalog filter; the criteria mirror the {@code /api/vouchers/catalog} parameters.
+ */
+@Data
+@NoArgsConstructor
+public class SavedSearchDTO {
+
+    private String id;
+
+    @NotBlank(message = "{savedSearch.name.notBlank}")
+    @Size(max = 100, message = "{savedSearch.name.size}")
+    private String name;
+
+    private TourType tourType;
+
+    private TransferType transferType;
+
+    private HotelType hotelType;
+
+    @Size(max = 255, message = "{savedSearch.description.size}")
+    private String description;
+
+    private Double minPrice;
+
+    private Double maxPrice;
+
+    private LocalDate startsFrom;
+
+    private LocalDate startsTo;
+
+    private LocalDate withinFrom;
+
+    private LocalDate withinTo;
+
+    private Integer minNights;
+
+    private Integer maxNights;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,42 @@
+package com.epam.finaltask.dto;
+
+import com.epam.finaltask.model.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An inbox entry: which saved search {@code voucher} matched, and when.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchMatchDTO {
+
+    private String savedSearchId;
+
+    private String savedSearchName;
+
+    private LocalDateTime matchedAt;
+
+    private VoucherDTO voucher;
+
+    /**
+     * Used by the {@code select new SavedSearchMatchDTO(...)} inbox query in
+     * {@code SavedSearchMatchRepository}; the voucher columns are those of {@code VoucherRepository.PROJECTION_SELECT}.
+     */
+    public SavedSearchMatchDTO(UUID savedSearchId, String savedSearchName, LocalDateTime matchedAt,
+                               UUID id, String title, String description, Long priceCents, TourType tourType,
+                               TransferType transferType, HotelType hotelType, VoucherStatus status,
+                               LocalDate arrivalDate, LocalDate evictionDate, UUID userId, String userName,
+                               Boolean isHot, String cancellationReason, LocalDateTime cancellationRequestedAt) {
+        this(savedSearchId.toString(), savedSearchName, matchedAt,
+                new VoucherDTO(id, title, description, priceCents, tourType, transferType, hotelType, status,
+                        arrivalDate, evictionDate, userId, userName, isHot, cancellationReason,
+                        cancellationRequestedAt));
+    }
+}
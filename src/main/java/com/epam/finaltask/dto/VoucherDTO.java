@@ -3,12 +3,14 @@ package com.epam.finaltask.dto;
 import com.epam.finaltask.model.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
+@NoArgsConstructor
 public class VoucherDTO {
 
     private String id;
@@ -50,4 +52,27 @@ public class VoucherDTO {
 
     private LocalDateTime cancellationRequestedAt;
 
+    /**
+     * Used by the {@code select new VoucherDTO(...)} projection queries in {@code VoucherRepository}.
+     */
+    public VoucherDTO(UUID id, String title, String description, Long priceCents, TourType tourType,
+                      TransferType transferType, HotelType hotelType, VoucherStatus status, LocalDate arrivalDate,
+                      LocalDate evictionDate, UUID userId, String userName, Boolean isHot, String cancellationReason,
+                      LocalDateTime cancellationRequestedAt) {
+        this.id = id.toString();
+        this.title = title;
+        this.description = description;
+        this.price = priceCents != null ? Money.toDouble(priceCents) : null;
+        this.tourType = tourType;
+        this.transferType = transferType;
+        this.hotelType = hotelType;
+        this.status = status;
+        this.arrivalDate = arrivalDate;
+        this.evictionDate = evictionDate;
+        this.userId = userId;
+        this.userName = userName;
+        this.isHot = isHot;
+        this.cancellationReason = cancellationReason;
+        this.cancellationRequestedAt = cancellationRequestedAt;
+    }
 }
@@ -0,0 +1,27 @@
+package com.epam.finaltask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one id in a batch lookup; {@code voucher} is set only when it was {@code FOUND}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoucherLookup {
+
+    private String id;
+
+    private Status status;
+
+    private VoucherDTO voucher;
+
+    public enum Status {
+        FOUND,
+        MISSING,
+        INVALID
+    }
+
+}
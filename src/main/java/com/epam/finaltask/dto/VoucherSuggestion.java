@@ -0,0 +1,18 @@
+package com.epam.finaltask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoucherSuggestion {
+
+    private String id;
+
+    private String title;
+
+    private boolean hot;
+
+}
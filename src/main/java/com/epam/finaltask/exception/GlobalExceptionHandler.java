@@ -2,6 +2,7 @@ package com.epam.finaltask.exception;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -25,7 +26,13 @@ public class GlobalExceptionHandler {
             UserNotFoundException.class,
             UsernameAlreadyExistsException.class,
             VoucherOrderException.class,
-            InvalidUuidException.class
+            InvalidUuidException.class,
+            InvalidCursorException.class,
+            InvalidFacetRequestException.class,
+            InvalidBatchRequestException.class,
+            InvalidSortException.class,
+            SavedSearchNotFoundException.class,
+            InvalidSavedSearchException.class
     })
     public ResponseEntity<ApiError> handleBusinessExceptions(RuntimeException ex) {
         return ResponseEntity
@@ -56,6 +63,14 @@ public class GlobalExceptionHandler {
                 .body(new ApiError(ex.getMessage(), LocalDateTime.now()));
     }
 
+    @ExceptionHandler(OrderAdmissionException.class)
+    public ResponseEntity<ApiError> handleOrderAdmission(OrderAdmissionException ex) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ApiError(ex.getMessage(), LocalDateTime.now()));
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ApiError> handleAccessDenied(AccessDeniedException ex) {
         return ResponseEntity
@@ -0,0 +1,7 @@
+package com.epam.finaltask.exception;
+
+public class InvalidFacetRequestException extends RuntimeException {
+    public InvalidFacetRequestException(String message) {
+        super(message);
+    }
+}
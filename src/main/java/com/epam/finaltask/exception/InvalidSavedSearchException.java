@@ -0,0 +1,7 @@
+package com.epam.finaltask.exception;
+
+public class InvalidSavedSearchException extends RuntimeException {
+    public InvalidSavedSearchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.epam.finaltask.exception;
+
+public class OrderAdmissionException extends RuntimeException {
+    public OrderAdmissionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.epam.finaltask.exception;
+
+public class SavedSearchNotFoundException extends RuntimeException {
+    public SavedSearchNotFoundException(String message) {
+        super(message);
+    }
+}
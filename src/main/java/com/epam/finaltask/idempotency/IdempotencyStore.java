@@ -0,0 +1,262 @@
+package com.epam.finaltask.idempotency;
+
+import com.epam.finaltask.model.IdempotencyRecord;
+import com.epam.finaltask.repository.IdempotencyRecordRepository;
+import jakarta.servlet.ServletException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the keys of recent idempotent requests and how they completed. Keys are
+ * claimed in {@code idempotency_keys} with an insert, so two instances cannot both run the
+ * same request; completed keys are also kept in a bounded in-memory map for
+ * {@code memory.ttl}, so a retry on the same instance is answered without a query.
+ *
+ * <p>The claim and the completion are short transactions of their own. The request runs
+ * between them, outside any transaction of the store, so a request waiting in
+ * {@code FlashSaleGate} holds no connection. Only successful responses are kept; a body too
+ * long for the table is dropped, but the key still completes. Any other outcome releases
+ * the key. A claim that has not completed after {@code lock-timeout} may be taken over, so
+ * the timeout has to outlast the slowest request. The completion only applies to the claim
+ * it was made for, so a request whose key was taken over cannot overwrite the new outcome.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    static final int MAX_BODY_LENGTH = 8000;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transaction;
+    private final Duration memoryTtl;
+    private final Duration retention;
+    private final Duration lockTimeout;
+    private final Clock clock;
+    private final Map<String, Entry> recent;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository repository, PlatformTransactionManager transactionManager,
+                            @Value("${application.idempotency.memory.ttl:10m}") Duration memoryTtl,
+                            @Value("${application.idempotency.memory.max-entries:10000}") int maxEntries,
+                            @Value("${application.idempotency.retention:24h}") Duration retention,
+                            @Value("${application.idempotency.lock-timeout:1m}") Duration lockTimeout) {
+        this(repository, transactionManager, memoryTtl, maxEntries, retention, lockTimeout, Clock.systemUTC());
+    }
+
+    IdempotencyStore(IdempotencyRecordRepository repository, PlatformTransactionManager transactionManager,
+                     Duration memoryTtl, int maxEntries, Duration retention, Duration lockTimeout, Clock clock) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.memoryTtl = memoryTtl;
+        this.retention = retention;
+        this.lockTimeout = lockTimeout;
+        this.clock = clock;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Claims {@code id} for the request hashed as {@code requestHash}. Unless the result is
+     * {@link Outcome#ACQUIRED}, the request must not run; otherwise the caller must run it
+     * through {@link #execute}.
+     */
+    public Claim claim(String id, String requestHash) {
+        long now = clock.millis();
+        synchronized (recent) {
+            Entry cached = recent.get(id);
+            if (cached != null && cached.expiresAt() > now) {
+                return cached.claimFor(requestHash);
+            }
+            recent.put(id, new Entry(requestHash, null, now + memoryTtl.toMillis()));
+        }
+
+        Entry stored;
+        try {
+            stored = claimStored(id, requestHash);
+        } catch (RuntimeException e) {
+            forget(id);
+            throw e;
+        }
+        if (stored == null) {
+            return new Claim(Outcome.ACQUIRED, null);
+        }
+        if (stored.response() == null) {
+            // running elsewhere: ask the table again on the next retry
+            forget(id);
+        } else {
+            synchronized (recent) {
+                recent.put(id, stored);
+            }
+        }
+        return stored.claimFor(requestHash);
+    }
+
+    /**
+     * Runs the request holding {@code id} and records its outcome. The request's services
+     * open their own transactions. A successful response is written to the claim once the
+     * request has returned; any other outcome releases the key. If the response cannot be
+     * recorded, the key stays unfinished and the response is still returned.
+     */
+    public StoredResponse execute(String id, String requestHash, Request request) throws ServletException, IOException {
+        StoredResponse response;
+        try {
+            response = request.run();
+        } catch (Throwable e) {
+            release(id);
+            throw e;
+        }
+        if (!response.isSuccessful()) {
+            release(id);
+            return response;
+        }
+
+        StoredResponse kept = response.body().length() > MAX_BODY_LENGTH ? response.withoutBody() : response;
+        Integer completed;
+        try {
+            completed = transaction.execute(status -> repository.complete(id, requestHash, kept.status(),
+                    kept.contentType(), kept.body().isEmpty() ? null : kept.body()));
+        } catch (DataAccessException e) {
+            log.error("Could not complete idempotency key {}: {}", id, e.getMessage());
+            forget(id);
+            return response;
+        }
+        if (completed == null || completed == 0) {
+            // taken over after the lock timeout: the new claim decides what a retry sees
+            log.warn("Idempotency key {} was taken over before its request completed", id);
+            forget(id);
+            return response;
+        }
+        synchronized (recent) {
+            recent.put(id, new Entry(requestHash, kept, clock.millis() + memoryTtl.toMillis()));
+        }
+        return response;
+    }
+
+    /**
+     * Gives up the claim on {@code id} without a response, so the request may run again.
+     */
+    private void release(String id) {
+        forget(id);
+        try {
+            transaction.executeWithoutResult(status -> repository.release(id));
+        } catch (DataAccessException e) {
+            log.warn("Could not release idempotency key {}: {}", id, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(retention);
+        Integer purged = transaction.execute(status -> repository.deleteCreatedBefore(cutoff));
+        log.debug("Purged {} expired idempotency keys", purged);
+    }
+
+    /**
+     * Returns what the table holds for {@code id}, or inserts the claim; {@code null} means
+     * the claim is ours. The insert is what decides between two instances racing for a key.
+     */
+    private Entry claimStored(String id, String requestHash) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        IdempotencyRecord record = repository.findById(id).orElse(null);
+        if (record == null) {
+            try {
+                transaction.executeWithoutResult(status -> repository.saveAndFlush(reserve(id, requestHash, now)));
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                // another instance inserted it first; the caller retries
+                return new Entry(requestHash, null, 0);
+            }
+        }
+        if (record.getStatusCode() == null) {
+            if (record.getCreatedAt().isBefore(now.minus(lockTimeout)) && reclaim(id, requestHash, now)) {
+                return null;
+            }
+            return new Entry(record.getRequestHash(), null, 0);
+        }
+
+        StoredResponse response = new StoredResponse(record.getStatusCode(), record.getContentType(),
+                record.getResponseBody() != null ? record.getResponseBody() : "");
+        long purgedAt = record.getCreatedAt().plus(retention).atZone(clock.getZone()).toInstant().toEpochMilli();
+        return new Entry(record.getRequestHash(), response, Math.min(clock.millis() + memoryTtl.toMillis(), purgedAt));
+    }
+
+    /**
+     * Takes over an abandoned claim. If the update fails, the request is treated as still
+     * in progress.
+     */
+    private boolean reclaim(String id, String requestHash, LocalDateTime now) {
+        try {
+            Integer reclaimed = transaction.execute(status ->
+                    repository.reclaim(id, requestHash, now, now.minus(lockTimeout)));
+            return reclaimed != null && reclaimed == 1;
+        } catch (DataAccessException e) {
+            log.debug("Could not take over idempotency key {}: {}", id, e.getMessage());
+            return false;
+        }
+    }
+
+    private void forget(String id) {
+        synchronized (recent) {
+            recent.remove(id);
+        }
+    }
+
+    private static IdempotencyRecord reserve(String id, String requestHash, LocalDateTime createdAt) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(id);
+        record.setRequestHash(requestHash);
+        record.setCreatedAt(createdAt);
+        return record;
+    }
+
+    public enum Outcome {
+        /** The key is new or was abandoned: run the request. */
+        ACQUIRED,
+        /** The request completed before: answer with its response. */
+        REPLAY,
+        /** The request is still running. */
+        IN_PROGRESS,
+        /** The key was used for a different request. */
+        MISMATCH
+    }
+
+    public record Claim(Outcome outcome, StoredResponse response) {
+    }
+
+    /**
+     * The request behind a claimed key, run by {@link #execute}.
+     */
+    @FunctionalInterface
+    public interface Request {
+
+        StoredResponse run() throws ServletException, IOException;
+    }
+
+    private record Entry(String requestHash, StoredResponse response, long expiresAt) {
+
+        Claim claimFor(String hash) {
+            if (!requestHash.equals(hash)) {
+                return new Claim(Outcome.MISMATCH, null);
+            }
+            return response == null ? new Claim(Outcome.IN_PROGRESS, null) : new Claim(Outcome.REPLAY, response);
+        }
+    }
+}
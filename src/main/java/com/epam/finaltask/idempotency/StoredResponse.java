@@ -0,0 +1,18 @@
+package com.epam.finaltask.idempotency;
+
+/**
+ * The response a request with an {@code Idempotency-Key} completed with, as it is replayed.
+ */
+public record StoredResponse(int status, String contentType, String body) {
+
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+
+    /**
+     * The same outcome without its body, for responses too large to keep.
+     */
+    public StoredResponse withoutBody() {
+        return new StoredResponse(status, null, "");
+    }
+}
@@ -3,6 +3,7 @@ package com.epam.finaltask.mapper;
 import com.epam.finaltask.dto.UserDTO;
 import com.epam.finaltask.model.User;
 import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeMap;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -12,6 +13,13 @@ public class UserMapperImpl implements UserMapper {
 
     public UserMapperImpl(ModelMapper modelMapper) {
         this.modelMapper = modelMapper;
+
+        TypeMap<User, UserDTO> typeMap = this.modelMapper.getTypeMap(User.class, UserDTO.class);
+        if (typeMap == null) {
+            typeMap = this.modelMapper.createTypeMap(User.class, UserDTO.class);
+        }
+        // getBalanceCents also matches "balance"
+        typeMap.addMappings(mapper -> mapper.map(User::getBalance, UserDTO::setBalance));
     }
 
     @Override
@@ -19,7 +19,11 @@ public class VoucherMapperImpl implements VoucherMapper {
         if (typeMap == null) {
             typeMap = this.modelMapper.createTypeMap(Voucher.class, VoucherDTO.class);
         }
-        typeMap.addMappings(mapper -> mapper.skip(VoucherDTO::setUserName));
+        typeMap.addMappings(mapper -> {
+            mapper.skip(VoucherDTO::setUserName);
+            // getPriceCents also matches "price", which ambiguity-ignoring would drop
+            mapper.map(Voucher::getPrice, VoucherDTO::setPrice);
+        });
     }
 
     @Override
@@ -0,0 +1,53 @@
+package com.epam.finaltask.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A request made with an {@code Idempotency-Key}. The id is a hash of the user and the key,
+ * {@code requestHash} a hash of the request it was first used for. Until the request
+ * completes the status is {@code null}; afterwards the response is kept so that a retry
+ * can be answered with it.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private Integer statusCode;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Column(length = 8000)
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // the id is assigned, so save() must insert rather than merge into a concurrent claim
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private boolean stored;
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        stored = true;
+    }
+}
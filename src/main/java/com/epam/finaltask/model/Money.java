@@ -0,0 +1,47 @@
+package com.epam.finaltask.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices and balances are stored and computed as whole cents. Amounts only become
+ * {@code Double} or {@code BigDecimal} at the edges (DTOs, request parameters), through these
+ * conversions.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private static final double CENTS_PER_UNIT = 100.0;
+
+    private Money() {
+    }
+
+    /**
+     * Rounds to the nearest cent; a double with two decimals is never more than a rounding
+     * error away from its cent value.
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * CENTS_PER_UNIT);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Whether {@code amount} has no digits below the cent, so that {@link #toCents(BigDecimal)}
+     * does not round it.
+     */
+    public static boolean isWholeCents(BigDecimal amount) {
+        return amount.stripTrailingZeros().scale() <= SCALE;
+    }
+
+    public static double toDouble(long cents) {
+        return cents / CENTS_PER_UNIT;
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+}
@@ -0,0 +1,61 @@
+package com.epam.finaltask.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A catalog filter a user wants to be told about: vouchers that start matching it after
+ * it was saved are recorded as {@link SavedSearchMatch}es in the user's inbox.
+ */
+@Entity
+@Table(name = "saved_searches")
+@Data
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    private TourType tourType;
+
+    @Enumerated(EnumType.STRING)
+    private TransferType transferType;
+
+    @Enumerated(EnumType.STRING)
+    private HotelType hotelType;
+
+    private String description;
+
+    private Double minPrice;
+
+    private Double maxPrice;
+
+    private LocalDate startsFrom;
+
+    private LocalDate startsTo;
+
+    private LocalDate withinFrom;
+
+    private LocalDate withinTo;
+
+    private Integer minNights;
+
+    private Integer maxNights;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
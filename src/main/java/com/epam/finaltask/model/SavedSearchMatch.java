@@ -0,0 +1,42 @@
+package com.epam.finaltask.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One inbox entry: {@code voucher} started matching {@code savedSearch} at {@code matchedAt}.
+ * The owner is stored alongside so the inbox is read through {@code (user_id, matched_at)}.
+ */
+@Entity
+@Table(name = "saved_search_matches")
+@Data
+public class SavedSearchMatch {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "saved_search_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private SavedSearch savedSearch;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "voucher_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Voucher voucher;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDateTime matchedAt;
+}
@@ -41,8 +41,20 @@ public class User {
 
     private String phoneNumber;
 
-    @Column(nullable = false)
-    private BigDecimal balance = BigDecimal.ZERO;
+    /** Changed only through {@code BalanceLedger}; saving a user never writes it back. */
+    @Column(name = "balance_cents", nullable = false, updatable = false)
+    private long balanceCents;
 
     private boolean active;
-}
\ No newline at end of file
+
+    /**
+     * The balance in currency units, as exposed by {@code UserDTO}.
+     */
+    public BigDecimal getBalance() {
+        return Money.toBigDecimal(balanceCents);
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balanceCents = balance != null ? Money.toCents(balance) : 0;
+    }
+}
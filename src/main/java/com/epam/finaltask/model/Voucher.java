@@ -24,8 +24,8 @@ public class Voucher {
     @Column(nullable = false)
     private String description;
 
-    @Column(nullable = false)
-    private Double price;
+    @Column(name = "price_cents", nullable = false)
+    private Long priceCents;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -61,4 +61,22 @@ public class Voucher {
 
     @Column(name = "cancellation_requested_at")
     private LocalDateTime cancellationRequestedAt;
+
+    /**
+     * Decayed view/order score, written only by bulk updates from {@code PopularityFlusher}
+     * so that saving a loaded voucher never overwrites a newer score.
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Double popularity;
+
+    /**
+     * The price in currency units, as exposed by {@code VoucherDTO}.
+     */
+    public Double getPrice() {
+        return priceCents != null ? Money.toDouble(priceCents) : null;
+    }
+
+    public void setPrice(Double price) {
+        this.priceCents = price != null ? Money.toCents(price) : null;
+    }
 }
@@ -0,0 +1,40 @@
+package com.epam.finaltask.repository;
+
+import java.time.LocalDateTime;
+
+import com.epam.finaltask.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Takes over a key whose request started before {@code staleBefore} and never completed.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update IdempotencyRecord r set r.requestHash = :requestHash, r.createdAt = :createdAt "
+            + "where r.id = :id and r.statusCode is null and r.createdAt < :staleBefore")
+    int reclaim(@Param("id") String id, @Param("requestHash") String requestHash,
+                @Param("createdAt") LocalDateTime createdAt, @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Records the response on the claim, unless it has completed or been taken over by a
+     * different request since.
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r set r.statusCode = :statusCode, r.contentType = :contentType, "
+            + "r.responseBody = :responseBody "
+            + "where r.id = :id and r.requestHash = :requestHash and r.statusCode is null")
+    int complete(@Param("id") String id, @Param("requestHash") String requestHash, @Param("statusCode") int statusCode,
+                 @Param("contentType") String contentType, @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.statusCode is null")
+    int release(@Param("id") String id);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,50 @@
+package com.epam.finaltask.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import com.epam.finaltask.dto.SavedSearchMatchDTO;
+import com.epam.finaltask.model.SavedSearchMatch;
+import com.epam.finaltask.model.VoucherStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SavedSearchMatchRepository extends JpaRepository<SavedSearchMatch, UUID> {
+
+    /**
+     * One user's inbox, newest first, as projected entries. Only vouchers that can still be
+     * ordered are listed; hot ones only when {@code hotVisible}.
+     */
+    @Query(value = "select new com.epam.finaltask.dto.SavedSearchMatchDTO(s.id, s.name, m.matchedAt, v.id, v.title, "
+            + "v.description, v.priceCents, v.tourType, v.transferType, v.hotelType, v.status, v.arrivalDate, "
+            + "v.evictionDate, u.id, u.username, v.isHot, v.cancellationReason, v.cancellationRequestedAt) "
+            + "from SavedSearchMatch m join m.savedSearch s join m.voucher v left join v.user u "
+            + "where m.user.id = :userId and v.status = :status and (:hotVisible = true or v.isHot = false) "
+            + "order by m.matchedAt desc, m.id",
+            countQuery = "select count(m) from SavedSearchMatch m join m.voucher v "
+                    + "where m.user.id = :userId and v.status = :status and (:hotVisible = true or v.isHot = false)")
+    Page<SavedSearchMatchDTO> findInbox(@Param("userId") UUID userId, @Param("status") VoucherStatus status,
+                                        @Param("hotVisible") boolean hotVisible, Pageable pageable);
+
+    /**
+     * Which of {@code savedSearchIds} already list the voucher, so a voucher that is edited
+     * again while still matching is not reported twice.
+     */
+    @Query("select m.savedSearch.id from SavedSearchMatch m "
+            + "where m.voucher.id = :voucherId and m.savedSearch.id in :savedSearchIds")
+    List<UUID> findSavedSearchIdsByVoucherId(@Param("voucherId") UUID voucherId,
+                                             @Param("savedSearchIds") Collection<UUID> savedSearchIds);
+
+    @Modifying
+    @Query("delete from SavedSearchMatch m where m.savedSearch.id = :savedSearchId")
+    int deleteBySavedSearchId(@Param("savedSearchId") UUID savedSearchId);
+
+    @Modifying
+    @Query("delete from SavedSearchMatch m where m.user.id = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,17 @@
+package com.epam.finaltask.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.epam.finaltask.model.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, UUID> {
+
+    List<SavedSearch> findAllByUserIdOrderByCreatedAt(UUID userId);
+
+    long countByUserId(UUID userId);
+
+    Optional<SavedSearch> findByIdAndUserId(UUID id, UUID userId);
+}
@@ -4,6 +4,9 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.epam.finaltask.model.User;
 
@@ -11,4 +14,20 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByUsername(String username);
     Optional<User> findUserByUsername(String username);
     boolean existsByEmail(String email);
+
+    /**
+     * Adds {@code delta} cents to the balance unless that would take it below zero, in one
+     * statement. Pending changes are flushed first, but managed users are not refreshed.
+     *
+     * @return 1 if the balance changed, 0 if the user does not exist or the balance is too low
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.balanceCents = u.balanceCents + cast(:delta as Long) "
+            + "where u.id = :id and u.balanceCents + cast(:delta as Long) >= 0")
+    int adjustBalance(@Param("id") UUID id, @Param("delta") long delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.balanceCents = u.balanceCents + cast(:delta as Long) "
+            + "where u.username = :username and u.balanceCents + cast(:delta as Long) >= 0")
+    int adjustBalanceByUsername(@Param("username") String username, @Param("delta") long delta);
 }
@@ -0,0 +1,10 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.model.Voucher;
+
+/**
+ * A voucher and the user ordering it, read together by {@link VoucherRepository#findForOrder}.
+ */
+public record VoucherOrderRow(Voucher voucher, User buyer) {
+}
@@ -1,19 +1,95 @@
 package com.epam.finaltask.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import com.epam.finaltask.dto.VoucherDTO;
 import com.epam.finaltask.model.*;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface VoucherRepository extends JpaRepository<Voucher, UUID>, JpaSpecificationExecutor<Voucher>,
+        VoucherRepositoryCustom {
+
+    /**
+     * Selects exactly the {@link VoucherDTO} columns, with the owner joined in, so listings
+     * neither hydrate entities nor initialize lazy {@code User} proxies row by row.
+     */
+    String PROJECTION_SELECT = "select new com.epam.finaltask.dto.VoucherDTO(v.id, v.title, v.description, v.priceCents, "
+            + "v.tourType, v.transferType, v.hotelType, v.status, v.arrivalDate, v.evictionDate, u.id, u.username, "
+            + "v.isHot, v.cancellationReason, v.cancellationRequestedAt)";
+
+    String PROJECTION = PROJECTION_SELECT + " from Voucher v left join v.user u";
+
+    /**
+     * Inner-joined variant for owner lookups, so the database can start from the user's
+     * username and reach the vouchers through {@code idx_vouchers_user_status}.
+     */
+    String OWNED_PROJECTION = PROJECTION_SELECT + " from Voucher v join v.user u";
 
-public interface VoucherRepository extends JpaRepository<Voucher, UUID>, JpaSpecificationExecutor<Voucher> {
     Page<Voucher> findAllByTourType(TourType tourType, Pageable pageable);
     Page<Voucher> findAllByTransferType(TransferType transferType, Pageable pageable);
-    Page<Voucher> findAllByPrice(Double price, Pageable pageable);
+    Page<Voucher> findAllByPriceCents(long priceCents, Pageable pageable);
     Page<Voucher> findAllByHotelType(HotelType hotelType, Pageable pageable);
     Page<Voucher> findAllByStatusOrderByIsHotDesc(VoucherStatus status, Pageable pageable);
-    List<Voucher> findAllByUser_Username(String username);
+    List<Voucher> findAllByStatus(VoucherStatus status);
+
+    @Query(PROJECTION)
+    List<VoucherDTO> findAllProjected();
+
+    @Query(OWNED_PROJECTION + " where u.username = :username")
+    List<VoucherDTO> findProjectedByUsername(@Param("username") String username);
+
+    @Query(PROJECTION + " where v.id in :ids")
+    List<VoucherDTO> findProjectedByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(PROJECTION + " where v.status = :status")
+    List<VoucherDTO> findProjectedByStatus(@Param("status") VoucherStatus status);
+
+    @Query(value = PROJECTION + " where v.status = :status",
+            countQuery = "select count(v) from Voucher v where v.status = :status")
+    Page<VoucherDTO> findProjectedByStatus(@Param("status") VoucherStatus status, Pageable pageable);
+
+    /**
+     * Loads and row-locks the vouchers of a cart, so none of them can be ordered elsewhere
+     * before the checkout commits.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from Voucher v where v.id in :ids")
+    List<Voucher> findAllForUpdateByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Loads the voucher and the user ordering it with one statement and row-locks both, so
+     * the balance cannot change between the check and the debit. Empty if either is missing.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.epam.finaltask.repository.VoucherOrderRow(v, u) from Voucher v, User u "
+            + "where v.id = :voucherId and u.username = :username")
+    Optional<VoucherOrderRow> findForOrder(@Param("voucherId") UUID voucherId, @Param("username") String username);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Voucher v set v.status = com.epam.finaltask.model.VoucherStatus.PAID, v.user = :user "
+            + "where v.id in :ids and v.status = com.epam.finaltask.model.VoucherStatus.REGISTERED")
+    int markPaid(@Param("ids") Collection<UUID> ids, @Param("user") User user);
+
+    /*
+     * The explicit casts stop Hibernate from rendering the arithmetic parameter as an
+     * unsized float cast, which H2 rejects.
+     */
+    @Modifying
+    @Query("update Voucher v set v.popularity = v.popularity * cast(:factor as Double) where v.popularity > 0")
+    int scalePopularity(@Param("factor") double factor);
+
+    @Modifying
+    @Query("update Voucher v set v.popularity = v.popularity + cast(:gain as Double) where v.id in :ids")
+    int addPopularity(@Param("gain") double gain, @Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,40 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.Voucher;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface VoucherRepositoryCustom {
+
+    /**
+     * Returns at most {@code limit} rows, projected straight into {@link VoucherDTO} with the
+     * owner joined in, without issuing the COUNT query that {@code findAll(Specification, Pageable)} runs.
+     */
+    List<VoucherDTO> findWindow(Specification<Voucher> spec, Sort sort, long offset, int limit);
+
+    /**
+     * Counts the rows matching {@code spec} grouped by tourType, transferType, hotelType,
+     * isHot and {@code floor(price / bucketSize)} in one aggregation query. Each tuple carries
+     * those keys plus {@code total} and, when both bounds are given, {@code inPriceRange}:
+     * how many rows of the group cost between {@code minCents} and {@code maxCents}.
+     */
+    List<Tuple> countFacetGroups(Specification<Voucher> spec, double bucketSize, Long minCents, Long maxCents);
+
+    /**
+     * Scrolls all vouchers, with their users fetched, through a JDBC cursor of
+     * {@code application.vouchers.export.fetch-size} rows. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    Stream<Voucher> streamAll();
+
+    /**
+     * Detaches everything loaded so far, so that a long scroll does not keep every row in
+     * the persistence context.
+     */
+    void clearPersistenceContext();
+}
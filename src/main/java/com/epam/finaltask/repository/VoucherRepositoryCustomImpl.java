@@ -0,0 +1,107 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.model.Voucher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class VoucherRepositoryCustomImpl implements VoucherRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${application.vouchers.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    @Override
+    public List<VoucherDTO> findWindow(Specification<Voucher> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VoucherDTO> query = cb.createQuery(VoucherDTO.class);
+        Root<Voucher> root = query.from(Voucher.class);
+        Join<Voucher, User> user = root.join("user", JoinType.LEFT);
+        query.select(cb.construct(VoucherDTO.class,
+                root.get("id"), root.get("title"), root.get("description"), root.get("priceCents"),
+                root.get("tourType"), root.get("transferType"), root.get("hotelType"), root.get("status"),
+                root.get("arrivalDate"), root.get("evictionDate"), user.get("id"), user.get("username"),
+                root.get("isHot"), root.get("cancellationReason"), root.get("cancellationRequestedAt")));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Tuple> countFacetGroups(Specification<Voucher> spec, double bucketSize, Long minCents, Long maxCents) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Voucher> root = query.from(Voucher.class);
+
+        Expression<Long> priceCents = root.get("priceCents");
+        Expression<?> tourType = root.get("tourType");
+        Expression<?> transferType = root.get("transferType");
+        Expression<?> hotelType = root.get("hotelType");
+        Expression<?> isHot = root.get("isHot");
+        Expression<?> bucket = cb.floor(cb.quot(priceCents, cb.literal(bucketSize * 100)));
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(tourType.alias("tourType"));
+        selections.add(transferType.alias("transferType"));
+        selections.add(hotelType.alias("hotelType"));
+        selections.add(isHot.alias("isHot"));
+        selections.add(bucket.alias("bucket"));
+        selections.add(cb.count(root).alias("total"));
+        if (minCents != null && maxCents != null) {
+            selections.add(cb.sum(cb.<Long>selectCase()
+                    .when(cb.between(priceCents, minCents, maxCents), 1L)
+                    .otherwise(0L)).alias("inPriceRange"));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(tourType, transferType, hotelType, isHot, bucket);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public Stream<Voucher> streamAll() {
+        return entityManager.createQuery("select v from Voucher v left join fetch v.user", Voucher.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public void clearPersistenceContext() {
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,101 @@
+package com.epam.finaltask.restcontroller;
+
+import com.epam.finaltask.dto.ApiResponse;
+import com.epam.finaltask.dto.SavedSearchDTO;
+import com.epam.finaltask.dto.SavedSearchMatchDTO;
+import com.epam.finaltask.service.SavedSearchService;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@AllArgsConstructor
+public class SavedSearchRestController {
+
+    private final SavedSearchService savedSearchService;
+
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<SavedSearchDTO>> create(@Valid @RequestBody SavedSearchDTO savedSearchDTO,
+                                                              Authentication authentication) {
+        SavedSearchDTO created = savedSearchService.create(authentication.getName(), savedSearchDTO);
+
+        ApiResponse<SavedSearchDTO> response = new ApiResponse<>();
+        response.setResults(created);
+        response.setStatusCode("OK");
+        response.setStatusMessage("Search is successfully saved");
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(response);
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<SavedSearchDTO>>> findMine(Authentication authentication) {
+        ApiResponse<List<SavedSearchDTO>> response = new ApiResponse<>();
+        response.setResults(savedSearchService.findMine(authentication.getName()));
+        response.setStatusCode("OK");
+        response.setStatusMessage("Saved searches retrieved successfully");
+
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Void>> delete(@PathVariable String id, Authentication authentication) {
+        savedSearchService.delete(authentication.getName(), id);
+
+        ApiResponse<Void> response = new ApiResponse<>();
+        response.setStatusCode("OK");
+        response.setStatusMessage(String.format("Saved search with Id %s has been deleted", id));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/inbox")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> inbox(@RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "20") int size,
+                                                     Authentication authentication) {
+        Page<SavedSearchMatchDTO> inbox = savedSearchService.findInbox(authentication.getName(), page, size,
+                isHotVisible(authentication));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("matches", inbox.getContent());
+        response.put("currentPage", inbox.getNumber());
+        response.put("totalPages", inbox.getTotalPages());
+        response.put("totalElements", inbox.getTotalElements());
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/inbox")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Void>> clearInbox(Authentication authentication) {
+        savedSearchService.clearInbox(authentication.getName());
+
+        ApiResponse<Void> response = new ApiResponse<>();
+        response.setStatusCode("OK");
+        response.setStatusMessage("Inbox cleared");
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * The principal already carries the active flag, so hiding hot vouchers needs no user lookup.
+     */
+    private static boolean isHotVisible(Authentication authentication) {
+        return !(authentication.getPrincipal() instanceof UserDetails userDetails) || userDetails.isEnabled();
+    }
+}
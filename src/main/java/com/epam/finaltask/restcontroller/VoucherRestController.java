@@ -1,37 +1,70 @@
 package com.epam.finaltask.restcontroller;
 
+import com.epam.finaltask.catalog.SortKey;
+import com.epam.finaltask.catalog.TravelWindow;
 import com.epam.finaltask.dto.ApiResponse;
+import com.epam.finaltask.dto.CatalogCacheStats;
+import com.epam.finaltask.dto.CatalogFacets;
+import com.epam.finaltask.dto.CatalogSlice;
+import com.epam.finaltask.dto.CheckoutResult;
 import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherLookup;
+import com.epam.finaltask.dto.VoucherSuggestion;
+import com.epam.finaltask.exception.InvalidCursorException;
+import com.epam.finaltask.exception.InvalidUuidException;
 import com.epam.finaltask.model.HotelType;
 import com.epam.finaltask.model.TourType;
 import com.epam.finaltask.model.TransferType;
 import com.epam.finaltask.model.VoucherStatus;
-import com.epam.finaltask.service.UserService;
+import com.epam.finaltask.service.CancellationService;
+import com.epam.finaltask.service.CatalogService;
+import com.epam.finaltask.service.CheckoutService;
+import com.epam.finaltask.service.FlashSaleGate;
 import com.epam.finaltask.service.VoucherService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/vouchers")
 @AllArgsConstructor
 public class VoucherRestController {
 
+    /**
+     * Responses carrying an ETag may be stored by the browser but must be revalidated.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final String RELEVANCE = "relevance";
+
     private final VoucherService voucherService;
-    private final UserService userService;
+    private final CatalogService catalogService;
+    private final CheckoutService checkoutService;
+    private final CancellationService cancellationService;
+    private final FlashSaleGate flashSaleGate;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
@@ -44,6 +77,23 @@ public class VoucherRestController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/all/stream", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = out -> voucherService.exportAll(voucher -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(voucher));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PostMapping("/create")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<VoucherDTO>> createVoucher(@Valid @RequestBody VoucherDTO voucherDTO) {
@@ -62,9 +112,15 @@ public class VoucherRestController {
     @PostMapping("/order/{id}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse<VoucherDTO>> orderVoucher(@PathVariable String id, Authentication authentication) {
+        UUID voucherId;
+        try {
+            voucherId = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidUuidException(id);
+        }
+
         String username = authentication.getName();
-        String user = userService.getUserByUsername(username).getId();
-        VoucherDTO ordered = voucherService.order(id, user);
+        VoucherDTO ordered = flashSaleGate.order(voucherId, () -> checkoutService.orderAs(voucherId, username));
 
         ApiResponse<VoucherDTO> response = new ApiResponse<>();
         response.setResults(ordered);
@@ -74,6 +130,44 @@ public class VoucherRestController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/checkout")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<CheckoutResult>> checkout(@RequestBody List<String> ids,
+                                                                Authentication authentication) {
+        String username = authentication.getName();
+        CheckoutResult result = flashSaleGate.checkout(ids, () -> checkoutService.checkout(ids, username));
+
+        ApiResponse<CheckoutResult> response = new ApiResponse<>();
+        response.setResults(result);
+        switch (result.getStatus()) {
+            case ORDERED -> {
+                response.setStatusCode("OK");
+                response.setStatusMessage("Vouchers successfully ordered");
+                return ResponseEntity.ok(response);
+            }
+            case INSUFFICIENT_BALANCE -> {
+                response.setStatusCode("ERROR");
+                response.setStatusMessage("Insufficient balance, nothing was ordered");
+            }
+            default -> {
+                response.setStatusCode("ERROR");
+                response.setStatusMessage("Some vouchers cannot be ordered, nothing was ordered");
+            }
+        }
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<VoucherLookup>>> findByIds(@RequestBody List<String> ids) {
+        ApiResponse<List<VoucherLookup>> response = new ApiResponse<>();
+        response.setResults(voucherService.findByIds(ids));
+        response.setStatusCode("OK");
+        response.setStatusMessage("Vouchers retrieved successfully");
+
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<VoucherDTO>> updateVoucher(@PathVariable String id, @RequestBody VoucherDTO voucherDTO) {
@@ -121,8 +215,9 @@ public class VoucherRestController {
     public ResponseEntity<Map<String, Object>> catalog(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "price") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String q,
 
             @RequestParam(required = false) TourType tourType,
             @RequestParam(required = false) TransferType transferType,
@@ -130,36 +225,96 @@ public class VoucherRestController {
 
             @RequestParam(required = false) String description,
             @RequestParam(required = false) Double minPrice,
-            @RequestParam(required = false) Double maxPrice
-    ) {
-        Sort sort = Sort.by(Sort.Direction.DESC, "isHot");
+            @RequestParam(required = false) Double maxPrice,
 
-        Sort secondarySort = direction.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startsFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startsTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate withinFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate withinTo,
+            @RequestParam(required = false) Integer minNights,
+            @RequestParam(required = false) Integer maxNights,
 
-        sort = sort.and(secondarySort);
+            @RequestParam(defaultValue = "offset") String paging,
+            @RequestParam(required = false) String cursor,
 
-        Pageable pageable = PageRequest.of(page, size, sort);
+            WebRequest webRequest
+    ) {
+        boolean search = q != null && !q.isBlank();
+        boolean byRelevance = search && (sortBy == null || RELEVANCE.equals(sortBy));
+        SortKey sortKey = byRelevance ? null : SortKey.of(sortBy != null ? sortBy : SortKey.PRICE.getKey());
+        boolean ascending = direction.equalsIgnoreCase("asc");
+        boolean hotVisible = isHotVisible(SecurityContextHolder.getContext().getAuthentication());
+        if (webRequest.checkNotModified(catalogService.catalogETag(hotVisible, sortKey == SortKey.POPULARITY))) {
+            return null;
+        }
+        TravelWindow travelWindow = travelWindow(startsFrom, startsTo, withinFrom, withinTo, minNights, maxNights);
 
-        String username = null;
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && auth.isAuthenticated()) {
-                username = auth.getName();
+        if ("keyset".equalsIgnoreCase(paging) || cursor != null) {
+            if (search) {
+                throw new InvalidCursorException("Keyset paging is not supported for search");
             }
-        } catch (Exception ignored) {}
+            CatalogSlice slice = catalogService.findCatalogAfter(
+                    tourType,
+                    transferType,
+                    hotelType,
+                    description,
+                    minPrice,
+                    maxPrice,
+                    travelWindow,
+                    sortKey.getKey(),
+                    ascending,
+                    cursor,
+                    size,
+                    hotVisible
+            );
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("vouchers", slice.getVouchers());
+            response.put("hasNext", slice.isHasNext());
+            response.put("nextCursor", slice.getNextCursor());
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
+        }
 
-        Page<VoucherDTO> voucherPage =
-                voucherService.findCatalogFiltered(
+        Pageable pageable = byRelevance
+                ? PageRequest.of(page, size)
+                : PageRequest.of(page, size, sortKey.catalogOrder(ascending));
+
+        if (!search && "slice".equalsIgnoreCase(paging)) {
+            CatalogSlice slice = catalogService.findCatalogSlice(
+                    tourType,
+                    transferType,
+                    hotelType,
+                    description,
+                    minPrice,
+                    maxPrice,
+                    travelWindow,
+                    pageable,
+                    hotVisible
+            );
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("vouchers", slice.getVouchers());
+            response.put("currentPage", page);
+            response.put("hasNext", slice.isHasNext());
+            response.put("totalElements", slice.getTotalElements());
+            response.put("totalPages", (slice.getTotalElements() + size - 1) / size);
+            response.put("totalExact", slice.isTotalExact());
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
+        }
+
+        Page<VoucherDTO> voucherPage = search
+                ? catalogService.searchCatalog(q, tourType, transferType, hotelType, minPrice, maxPrice, travelWindow,
+                        pageable, hotVisible)
+                : catalogService.findCatalogFiltered(
                         tourType,
                         transferType,
                         hotelType,
                         description,
                         minPrice,
                         maxPrice,
+                        travelWindow,
                         pageable,
-                        username
+                        hotVisible
                 );
 
         Map<String, Object> response = new HashMap<>();
@@ -168,14 +323,118 @@ public class VoucherRestController {
         response.put("totalPages", voucherPage.getTotalPages());
         response.put("totalElements", voucherPage.getTotalElements());
 
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
+    }
+
+
+    @GetMapping("/catalog/facets")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<CatalogFacets>> catalogFacets(
+            @RequestParam(required = false) TourType tourType,
+            @RequestParam(required = false) TransferType transferType,
+            @RequestParam(required = false) HotelType hotelType,
+
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startsFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startsTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate withinFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate withinTo,
+            @RequestParam(required = false) Integer minNights,
+            @RequestParam(required = false) Integer maxNights,
+
+            @RequestParam(defaultValue = "500") double bucketSize,
+
+            Authentication authentication
+    ) {
+        CatalogFacets facets = catalogService.findCatalogFacets(
+                tourType,
+                transferType,
+                hotelType,
+                description,
+                minPrice,
+                maxPrice,
+                travelWindow(startsFrom, startsTo, withinFrom, withinTo, minNights, maxNights),
+                bucketSize,
+                isHotVisible(authentication)
+        );
+
+        ApiResponse<CatalogFacets> response = new ApiResponse<>();
+        response.setResults(facets);
+        response.setStatusCode("OK");
+        response.setStatusMessage("Catalog facets retrieved successfully");
+
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/catalog/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CatalogCacheStats>> catalogCacheStats() {
+        ApiResponse<CatalogCacheStats> response = new ApiResponse<>();
+        response.setResults(catalogService.catalogCacheStats());
+        response.setStatusCode("OK");
+        response.setStatusMessage("Catalog cache statistics retrieved successfully");
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/hot")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Map<TourType, List<VoucherDTO>>>> hotDeals(
+            @RequestParam(required = false) TourType tourType,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        ApiResponse<Map<TourType, List<VoucherDTO>>> response = new ApiResponse<>();
+        response.setResults(catalogService.findHotDeals(tourType, limit, isHotVisible(authentication)));
+        response.setStatusCode("OK");
+        response.setStatusMessage("Hot deals retrieved successfully");
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/suggest")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<VoucherSuggestion>>> suggest(@RequestParam("q") String query,
+                                                                        @RequestParam(defaultValue = "8") int limit,
+                                                                        Authentication authentication) {
+        ApiResponse<List<VoucherSuggestion>> response = new ApiResponse<>();
+        response.setResults(catalogService.suggestTitles(query, limit, isHotVisible(authentication)));
+        response.setStatusCode("OK");
+        response.setStatusMessage("Suggestions retrieved successfully");
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * The principal already carries the active flag, so hiding hot vouchers needs no user lookup.
+     */
+    private static boolean isHotVisible(Authentication authentication) {
+        return authentication == null
+                || !(authentication.getPrincipal() instanceof UserDetails userDetails)
+                || userDetails.isEnabled();
+    }
+
+    private static TravelWindow travelWindow(LocalDate startsFrom, LocalDate startsTo, LocalDate withinFrom,
+                                             LocalDate withinTo, Integer minNights, Integer maxNights) {
+        return TravelWindow.builder()
+                .startsFrom(startsFrom)
+                .startsTo(startsTo)
+                .withinFrom(withinFrom)
+                .withinTo(withinTo)
+                .minNights(minNights)
+                .maxNights(maxNights)
+                .build();
+    }
 
     @GetMapping("/my")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ApiResponse<List<VoucherDTO>>> myVouchers(Authentication authentication) {
+    public ResponseEntity<ApiResponse<List<VoucherDTO>>> myVouchers(Authentication authentication, WebRequest webRequest) {
         String username = authentication.getName();
+        if (webRequest.checkNotModified(voucherService.myVouchersETag(username))) {
+            return null;
+        }
 
         List<VoucherDTO> vouchers = voucherService.findMyVouchers(username);
 
@@ -184,7 +443,7 @@ public class VoucherRestController {
         response.setStatusCode("OK");
         response.setStatusMessage("My vouchers retrieved successfully");
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
     }
 
     @PatchMapping("/{id}/cancel")
@@ -195,7 +454,7 @@ public class VoucherRestController {
         String username = authentication.getName();
         String reason = body != null ? body.get("reason") : null;
 
-        VoucherDTO updated = voucherService.requestCancellation(id, username, reason);
+        VoucherDTO updated = cancellationService.requestCancellation(id, username, reason);
 
         ApiResponse<VoucherDTO> response = new ApiResponse<>();
         response.setResults(updated);
@@ -216,7 +475,7 @@ public class VoucherRestController {
         }
 
         String adminUsername = authentication.getName();
-        VoucherDTO updated = voucherService.decideCancellation(id, approved, adminUsername);
+        VoucherDTO updated = cancellationService.decideCancellation(id, approved, adminUsername);
 
         ApiResponse<VoucherDTO> response = new ApiResponse<>();
         response.setResults(updated);
@@ -228,24 +487,37 @@ public class VoucherRestController {
 
     @GetMapping("/canceled")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<List<VoucherDTO>>> findCanceled() {
-        List<VoucherDTO> canceled = voucherService.findAll().stream()
-                .filter(v -> v.getStatus() == VoucherStatus.CANCELED)
-                .toList();
+    public ResponseEntity<Map<String, Object>> findCanceled(@RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(defaultValue = "20") int size,
+                                                            @RequestParam(defaultValue = "desc") String direction) {
+        return ResponseEntity.ok(statusPage(VoucherStatus.CANCELED, page, size, direction));
+    }
 
-        ApiResponse<List<VoucherDTO>> response = new ApiResponse<>();
-        response.setResults(canceled);
-        response.setStatusCode("OK");
-        response.setStatusMessage("Canceled vouchers retrieved successfully");
+    @GetMapping("/cancellation-requests")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> findCancellationRequests(@RequestParam(defaultValue = "0") int page,
+                                                                        @RequestParam(defaultValue = "20") int size,
+                                                                        @RequestParam(defaultValue = "asc") String direction) {
+        return ResponseEntity.ok(statusPage(VoucherStatus.CANCELLATION_REQUESTED, page, size, direction));
+    }
 
-        return ResponseEntity.ok(response);
+    private Map<String, Object> statusPage(VoucherStatus status, int page, int size, String direction) {
+        Page<VoucherDTO> voucherPage = cancellationService.findAllByStatus(status, page, size,
+                direction.equalsIgnoreCase("asc"));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("vouchers", voucherPage.getContent());
+        response.put("currentPage", voucherPage.getNumber());
+        response.put("totalPages", voucherPage.getTotalPages());
+        response.put("totalElements", voucherPage.getTotalElements());
+        return response;
     }
 
     @PatchMapping("/{id}/reregister")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<VoucherDTO>> reregisterVoucher(@PathVariable String id, Authentication authentication) {
         String adminUsername = authentication.getName();
-        VoucherDTO updated = voucherService.reregisterVoucher(id, adminUsername);
+        VoucherDTO updated = cancellationService.reregisterVoucher(id, adminUsername);
 
         ApiResponse<VoucherDTO> response = new ApiResponse<>();
         response.setResults(updated);
@@ -16,7 +16,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.Map;
 
 @Service
@@ -70,7 +69,7 @@ public class AuthServiceImpl implements AuthService{
         user.setPhoneNumber(request.getPhoneNumber());
         user.setPassword(request.getPassword());
         user.setRole(Role.CUSTOMER);
-        user.setBalance(BigDecimal.ZERO);
+        user.setBalanceCents(0);
         user.setActive(true);
 
         userDetailsService.saveUser(user);
@@ -0,0 +1,60 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * The one place balances change. Each credit or debit is a single conditional
+ * {@code UPDATE} that adds a signed number of cents only if the balance stays non-negative,
+ * and its affected-row count says whether it happened. Concurrent deposits, withdrawals,
+ * orders and refunds therefore cannot overwrite each other, and none of them reads the user
+ * row first. {@code users.balance_cents} is not updatable through the entity, so a stale
+ * {@code User} in a persistence context never writes an old balance back.
+ *
+ * <p>Every method runs in the caller's transaction. Managed {@code User}s are not refreshed:
+ * re-read the user after a change when the new balance is needed.
+ */
+@Component
+@RequiredArgsConstructor
+public class BalanceLedger {
+
+    private final UserRepository userRepository;
+
+    /**
+     * @return {@code false} if there is no such user
+     */
+    public boolean credit(UUID userId, long cents) {
+        return userRepository.adjustBalance(userId, checked(cents)) == 1;
+    }
+
+    /**
+     * @return {@code false} if there is no such user or the balance does not cover {@code cents}
+     */
+    public boolean debit(UUID userId, long cents) {
+        return userRepository.adjustBalance(userId, -checked(cents)) == 1;
+    }
+
+    /**
+     * @return {@code false} if there is no such user
+     */
+    public boolean credit(String username, long cents) {
+        return userRepository.adjustBalanceByUsername(username, checked(cents)) == 1;
+    }
+
+    /**
+     * @return {@code false} if there is no such user or the balance does not cover {@code cents}
+     */
+    public boolean debit(String username, long cents) {
+        return userRepository.adjustBalanceByUsername(username, -checked(cents)) == 1;
+    }
+
+    private static long checked(long cents) {
+        if (cents < 0) {
+            throw new IllegalArgumentException("Amount must not be negative: " + cents);
+        }
+        return cents;
+    }
+}
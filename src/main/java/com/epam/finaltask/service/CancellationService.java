@@ -0,0 +1,12 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.VoucherStatus;
+import org.springframework.data.domain.Page;
+
+public interface CancellationService {
+    Page<VoucherDTO> findAllByStatus(VoucherStatus status, int page, int size, boolean ascending);
+    VoucherDTO requestCancellation(String id, String username, String reason);
+    VoucherDTO decideCancellation(String id, boolean approved, String adminUsername);
+    VoucherDTO reregisterVoucher(String id, String adminUsername);
+}
@@ -0,0 +1,139 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.VoucherChangeType;
+import com.epam.finaltask.catalog.VoucherChangedEvent;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.VoucherNotFoundException;
+import com.epam.finaltask.exception.VoucherOrderException;
+import com.epam.finaltask.mapper.VoucherMapper;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.model.VoucherStatus;
+import com.epam.finaltask.repository.VoucherRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The cancellation workflow: a customer asks to cancel a paid voucher, an admin approves
+ * (refunding the price) or declines, and a canceled voucher can be put on sale again.
+ */
+@Service
+@RequiredArgsConstructor
+public class CancellationServiceImpl implements CancellationService {
+
+    private final VoucherRepository voucherRepository;
+    private final VoucherMapper voucherMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BalanceLedger balanceLedger;
+
+    /**
+     * One page of a status queue ordered by request time, read through
+     * {@code idx_vouchers_status_cancel_requested} with the owner joined in. Approved
+     * cancellations keep their request time, so the canceled list sorts by it too.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<VoucherDTO> findAllByStatus(VoucherStatus status, int page, int size, boolean ascending) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(direction, "cancellationRequestedAt").and(Sort.by(direction, "id")));
+        return voucherRepository.findProjectedByStatus(status, pageable);
+    }
+
+    @Override
+    @Transactional
+    public VoucherDTO requestCancellation(String id, String username, String reason) {
+        Voucher voucher = voucherRepository.findById(UUID.fromString(id))
+                .orElseThrow(() -> new VoucherNotFoundException("Voucher not found"));
+
+        if (voucher.getUser() == null || !username.equals(voucher.getUser().getUsername())) {
+            throw new VoucherOrderException("You may only request cancellation for your own voucher");
+        }
+
+        if (voucher.getStatus() != VoucherStatus.PAID) {
+            throw new VoucherOrderException("Voucher cannot be cancelled in its current status");
+        }
+
+        voucher.setStatus(VoucherStatus.CANCELLATION_REQUESTED);
+        voucher.setCancellationReason(reason);
+        voucher.setCancellationRequestedAt(LocalDateTime.now());
+
+        voucherRepository.save(voucher);
+
+        VoucherDTO requested = voucherMapper.toVoucherDTO(voucher);
+        publishChange(VoucherChangeType.CANCELLATION_REQUESTED, voucher.getId(), requested);
+        return requested;
+    }
+
+    @Override
+    @Transactional
+    public VoucherDTO decideCancellation(String id, boolean approved, String adminUsername) {
+        Voucher voucher = voucherRepository.findById(UUID.fromString(id))
+                .orElseThrow(() -> new VoucherNotFoundException("Voucher not found"));
+
+        if (voucher.getStatus() != VoucherStatus.CANCELLATION_REQUESTED) {
+            throw new VoucherOrderException("Voucher is not awaiting cancellation");
+        }
+
+        User user = voucher.getUser();
+        if (approved) {
+            if (user != null) {
+                balanceLedger.credit(user.getId(), voucher.getPriceCents());
+            }
+            voucher.setUser(null);
+            voucher.setStatus(VoucherStatus.CANCELED);
+        } else {
+            voucher.setStatus(VoucherStatus.PAID);
+            voucher.setCancellationRequestedAt(null);
+        }
+
+        // canceled vouchers keep the request time: the canceled list is ordered by it
+        voucher.setCancellationReason(null);
+
+        voucherRepository.save(voucher);
+
+        VoucherDTO decided = voucherMapper.toVoucherDTO(voucher);
+        publishChange(VoucherChangeType.CANCELLATION_DECIDED, voucher.getId(), decided,
+                user != null ? user.getUsername() : null);
+        return decided;
+    }
+
+    @Override
+    @Transactional
+    public VoucherDTO reregisterVoucher(String id, String adminUsername) {
+        Voucher voucher = voucherRepository.findById(UUID.fromString(id))
+                .orElseThrow(() -> new VoucherNotFoundException("Voucher not found"));
+
+        if (voucher.getStatus() != VoucherStatus.CANCELED) {
+            throw new VoucherOrderException("Voucher is not in CANCELED status");
+        }
+
+        voucher.setStatus(VoucherStatus.REGISTERED);
+        voucher.setUser(null);
+        voucher.setCancellationReason(null);
+        voucher.setCancellationRequestedAt(null);
+
+        voucherRepository.save(voucher);
+
+        VoucherDTO reregistered = voucherMapper.toVoucherDTO(voucher);
+        publishChange(VoucherChangeType.REREGISTERED, voucher.getId(), reregistered);
+        return reregistered;
+    }
+
+    private void publishChange(VoucherChangeType type, UUID voucherId, VoucherDTO voucher) {
+        eventPublisher.publishEvent(new VoucherChangedEvent(type, voucherId, voucher));
+    }
+
+    private void publishChange(VoucherChangeType type, UUID voucherId, VoucherDTO voucher, String owner) {
+        eventPublisher.publishEvent(new VoucherChangedEvent(type, voucherId, voucher, owner));
+    }
+}
@@ -0,0 +1,82 @@
+package com.epam.finaltask.service;
+
+import java.util.List;
+import java.util.Map;
+
+import com.epam.finaltask.catalog.TravelWindow;
+import com.epam.finaltask.dto.CatalogCacheStats;
+import com.epam.finaltask.dto.CatalogFacets;
+import com.epam.finaltask.dto.CatalogSlice;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherSuggestion;
+import com.epam.finaltask.model.HotelType;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.TransferType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface CatalogService {
+    List<VoucherDTO> findCatalog(int page, int size, String sortBy);
+    Page<VoucherDTO> findCatalogFiltered(
+            TourType tourType,
+            TransferType transferType,
+            HotelType hotelType,
+            String description,
+            Double minPrice,
+            Double maxPrice,
+            TravelWindow travelWindow,
+            Pageable pageable,
+            boolean hotVisible
+    );
+    Page<VoucherDTO> searchCatalog(
+            String query,
+            TourType tourType,
+            TransferType transferType,
+            HotelType hotelType,
+            Double minPrice,
+            Double maxPrice,
+            TravelWindow travelWindow,
+            Pageable pageable,
+            boolean hotVisible
+    );
+    CatalogSlice findCatalogSlice(
+            TourType tourType,
+            TransferType transferType,
+            HotelType hotelType,
+            String description,
+            Double minPrice,
+            Double maxPrice,
+            TravelWindow travelWindow,
+            Pageable pageable,
+            boolean hotVisible
+    );
+    CatalogFacets findCatalogFacets(
+            TourType tourType,
+            TransferType transferType,
+            HotelType hotelType,
+            String description,
+            Double minPrice,
+            Double maxPrice,
+            TravelWindow travelWindow,
+            double bucketSize,
+            boolean hotVisible
+    );
+    CatalogSlice findCatalogAfter(
+            TourType tourType,
+            TransferType transferType,
+            HotelType hotelType,
+            String description,
+            Double minPrice,
+            Double maxPrice,
+            TravelWindow travelWindow,
+            String sortBy,
+            boolean ascending,
+            String cursor,
+            int size,
+            boolean hotVisible
+    );
+    String catalogETag(boolean hotVisible, boolean byPopularity);
+    CatalogCacheStats catalogCacheStats();
+    Map<TourType, List<VoucherDTO>> findHotDeals(TourType tourType, int limit, boolean hotVisible);
+    List<VoucherSuggestion> suggestTitles(String prefix, int limit, boolean hotVisible);
+}
@@ -0,0 +1,503 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.CatalogCountCache;
+import com.epam.finaltask.catalog.CatalogCursor;
+import com.epam.finaltask.catalog.CatalogFilter;
+import com.epam.finaltask.catalog.CatalogResultCache;
+import com.epam.finaltask.catalog.CatalogVersion;
+import com.epam.finaltask.catalog.ColumnarCatalogIndex;
+import com.epam.finaltask.catalog.FacetCounter;
+import com.epam.finaltask.catalog.HotDealsIndex;
+import com.epam.finaltask.catalog.PopularityCounters;
+import com.epam.finaltask.catalog.RelevanceIndex;
+import com.epam.finaltask.catalog.SortKey;
+import com.epam.finaltask.catalog.TitleSuggestIndex;
+import com.epam.finaltask.catalog.TravelDateIndex;
+import com.epam.finaltask.catalog.TravelWindow;
+import com.epam.finaltask.catalog.TrigramIndex;
+import com.epam.finaltask.dto.CatalogCacheStats;
+import com.epam.finaltask.dto.CatalogFacets;
+import com.epam.finaltask.dto.CatalogSlice;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherSuggestion;
+import com.epam.finaltask.exception.InvalidCursorException;
+import com.epam.finaltask.mapper.VoucherMapper;
+import com.epam.finaltask.model.HotelType;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.TransferType;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.model.VoucherStatus;
+import com.epam.finaltask.repository.VoucherRepository;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.sqm.TemporalUnit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Catalog browsing: filtered and searched pages, slices, keyset pages and facets of the
+ * REGISTERED vouchers, hot deals and title suggestions. Reads are answered from the in-memory
+ * indexes where they can be, cached in {@link CatalogResultCache}, and counted as impressions
+ * for popularity.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogServiceImpl implements CatalogService {
+
+    private final VoucherRepository voucherRepository;
+    private final VoucherMapper voucherMapper;
+    private final ColumnarCatalogIndex catalogIndex;
+    private final TrigramIndex trigramIndex;
+    private final TravelDateIndex travelDateIndex;
+    private final HotDealsIndex hotDealsIndex;
+    private final TitleSuggestIndex titleSuggestIndex;
+    private final CatalogCountCache countCache;
+    private final CatalogResultCache resultCache;
+    private final CatalogVersion catalogVersion;
+    private final PopularityCounters popularityCounters;
+    private final RelevanceIndex relevanceIndex;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VoucherDTO> findCatalog(int page, int size, String sortBy) {
+        Pageable pageable = PageRequest.of(page, size, SortKey.of(sortBy).order(false));
+        return voucherRepository
+                .findAllByStatusOrderByIsHotDesc(VoucherStatus.REGISTERED, pageable)
+                .stream()
+                .map(voucherMapper::toVoucherDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<VoucherDTO> findCatalogFiltered(
+            TourType tourType,
+            TransferType transferType,
+            HotelType hotelType,
+            String description,
+            Double minPrice,
+            Double maxPrice,
+            TravelWindow travelWindow,
+            Pageable pageable,
+            boolean hotVisible
+    ) {
+        CatalogFilter filter = catalogFilter(tourType, transferType, hotelType, description, minPrice, maxPrice, travelWindow, hotVisible);
+        Page<VoucherDTO> page = resultCache.get(new CatalogKey("page", filter, pageable), byPopularity(pageable),
+                () -> loadPage(withCandidates(filter), pageable));
+        popularityCounters.recordImpressions(page.getContent());
+        return page;
+    }
+
+    private Page<VoucherDTO> loadPage(CatalogFilter filter, Pageable pageable) {
+        Optional<Page<VoucherDTO>> fromIndex = catalogIndex.query(filter, pageable);
+        if (fromIndex.isPresent()) {
+            return fromIndex.get();
+        }
+
+        Specification<Voucher> spec = catalogSpecification(filter);
+        List<VoucherDTO> vouchers = voucherRepository.findWindow(
+                spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+
+        return PageableExecutionUtils.getPage(vouchers, pageable, () -> voucherRepository.count(spec));
+    }
+
+    /**
+     * Catalog vouchers matching the free-text {@code query}. An unsorted {@code pageable}
+     * orders them by relevance after the usual hot-first split; a sorted one applies that
+     * sort to the matches. Only the {@code max-results} best matches are considered. Without
+     * the relevance index the query becomes a description substring filter sorted by price.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<VoucherDTO> searchCatalog(
+            String query,
+            TourType tourType,
+            TransferType transferType,
+            HotelType hotelType,
+            Double minPrice,
+            Double maxPrice,
+            TravelWindow travelWindow,
+            Pageable pageable,
+            boolean hotVisible
+    ) {
+        CatalogFilter filter = catalogFilter(tourType, transferType, hotelType, null, minPrice, maxPrice, travelWindow, hotVisible);
+        Page<VoucherDTO> page;
+        if (relevanceIndex.isServing()) {
+            page = resultCache.get(new CatalogKey("search", filter, new SearchWindow(query.trim().toLowerCase(), pageable)),
+                    byPopularity(pageable), () -> loadSearchPage(filter, query, pageable));
+        } else {
+            CatalogFilter byDescription = filter.toBuilder().description(query.trim()).build();
+            Pageable sorted = pageable.getSort().isSorted()
+                    ? pageable
+                    : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), SortKey.PRICE.catalogOrder(false));
+            page = resultCache.get(new CatalogKey("page", byDescription, sorted), byPopularity(sorted),
+                    () -> loadPage(withCandidates(byDescription), sorted));
+        }
+        popularityCounters.recordImpressions(page.getContent());
+        return page;
+    }
+
+    private Page<VoucherDTO> loadSearchPage(CatalogFilter filter, String query, Pageable pageable) {
+        List<UUID> ranked = relevanceIndex.search(query).orElse(List.of());
+        CatalogFilter narrowed = withCandidates(filter);
+        Set<UUID> matched = new HashSet<>(ranked);
+        if (narrowed.getCandidateIds() != null) {
+            matched.retainAll(narrowed.getCandidateIds());
+        }
+        if (matched.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        CatalogFilter searched = narrowed.toBuilder().candidateIds(matched).build();
+        if (pageable.getSort().isSorted()) {
+            return loadPage(searched, pageable);
+        }
+
+        List<VoucherDTO> matches = new ArrayList<>(catalogIndex.query(searched, Pageable.unpaged())
+                .map(Page::getContent)
+                .orElseGet(() -> voucherRepository.findWindow(
+                        catalogSpecification(searched), Sort.unsorted(), 0, matched.size())));
+
+        Map<UUID, Integer> rank = new HashMap<>(ranked.size() * 2);
+        for (int i = 0; i < ranked.size(); i++) {
+            rank.put(ranked.get(i), i);
+        }
+        matches.sort(Comparator.comparing((VoucherDTO voucher) -> !Boolean.TRUE.equals(voucher.getIsHot()))
+                .thenComparing(voucher -> rank.get(UUID.fromString(voucher.getId()))));
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(new ArrayList<>(matches.subList(from, to)), pageable, matches.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogSlice findCatalogSlice(
+            TourType tourType,
+            TransferType transferType,
+            HotelType hotelType,
+            String description,
+            Double minPrice,
+            Double maxPrice,
+            TravelWindow travelWindow,
+            Pageable pageable,
+            boolean hotVisible
+    ) {
+        CatalogFilter filter = catalogFilter(tourType, transferType, hotelType, description, minPrice, maxPrice, travelWindow, hotVisible);
+        CatalogSlice slice = resultCache.get(new CatalogKey("slice", filter, pageable), byPopularity(pageable),
+                () -> loadSlice(withCandidates(filter), pageable));
+        popularityCounters.recordImpressions(slice.getVouchers());
+        return slice;
+    }
+
+    private CatalogSlice loadSlice(CatalogFilter filter, Pageable pageable) {
+        Optional<Page<VoucherDTO>> fromIndex = catalogIndex.query(filter, pageable);
+        if (fromIndex.isPresent()) {
+            Page<VoucherDTO> page = fromIndex.get();
+            return new CatalogSlice(page.getContent(), page.hasNext(), null, page.getTotalElements(), true);
+        }
+
+        Specification<Voucher> spec = catalogSpecification(filter);
+        List<VoucherDTO> window = voucherRepository.findWindow(
+                spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = window.size() > pageable.getPageSize();
+        List<VoucherDTO> vouchers = hasNext ? window.subList(0, pageable.getPageSize()) : window;
+
+        long seen = pageable.getOffset() + vouchers.size();
+        if (!hasNext && (!vouchers.isEmpty() || pageable.getOffset() == 0)) {
+            return new CatalogSlice(vouchers, false, null, seen, true);
+        }
+
+        CatalogCountCache.Count count = countCache.count(filter, () -> voucherRepository.count(spec));
+        long total = Math.max(count.value(), hasNext ? seen + 1 : seen);
+        return new CatalogSlice(vouchers, hasNext, null, total, count.exact() && total == count.value());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogFacets findCatalogFacets(
+            TourType tourType,
+            TransferType transferType,
+            HotelType hotelType,
+            String description,
+            Double minPrice,
+            Double maxPrice,
+            TravelWindow travelWindow,
+            double bucketSize,
+            boolean hotVisible
+    ) {
+        CatalogFilter filter = catalogFilter(tourType, transferType, hotelType, description, minPrice, maxPrice, travelWindow, hotVisible);
+        return resultCache.get(new CatalogKey("facets", filter, bucketSize),
+                () -> countFacets(withCandidates(filter), bucketSize));
+    }
+
+    private CatalogFacets countFacets(CatalogFilter filter, double bucketSize) {
+        Optional<CatalogFacets> fromIndex = catalogIndex.facets(filter, bucketSize);
+        if (fromIndex.isPresent()) {
+            return fromIndex.get();
+        }
+
+        CatalogFilter base = filter.toBuilder()
+                .tourType(null)
+                .transferType(null)
+                .hotelType(null)
+                .minPrice(null)
+                .maxPrice(null)
+                .build();
+        Long rangeMin = filter.hasPriceRange() ? filter.minPriceCents() : null;
+        Long rangeMax = filter.hasPriceRange() ? filter.maxPriceCents() : null;
+
+        FacetCounter counter = new FacetCounter(filter, bucketSize);
+        for (Tuple group : voucherRepository.countFacetGroups(catalogSpecification(base), bucketSize, rangeMin, rangeMax)) {
+            TourType groupTour = group.get("tourType", TourType.class);
+            TransferType groupTransfer = group.get("transferType", TransferType.class);
+            HotelType groupHotel = group.get("hotelType", HotelType.class);
+            boolean hot = Boolean.TRUE.equals(group.get("isHot", Boolean.class));
+            long bucket = group.get("bucket", Number.class).longValue();
+            long total = group.get("total", Number.class).longValue();
+            long inRange = filter.hasPriceRange() ? group.get("inPriceRange", Number.class).longValue() : total;
+
+            counter.add(groupTour, groupTransfer, groupHotel, hot, bucket, true, inRange);
+            if (total > inRange) {
+                counter.add(groupTour, groupTransfer, groupHotel, hot, bucket, false, total - inRange);
+            }
+        }
+        return counter.toFacets();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogSlice findCatalogAfter(
+            TourType tourType,
+            TransferType transferType,
+            HotelType hotelType,
+            String description,
+            Double minPrice,
+            Double maxPrice,
+            TravelWindow travelWindow,
+            String sortBy,
+            boolean ascending,
+            String cursor,
+            int size,
+            boolean hotVisible
+    ) {
+        SortKey sortKey = SortKey.of(sortBy);
+        if (!sortKey.isKeyset()) {
+            throw new InvalidCursorException("Keyset paging is not supported for sort: " + sortBy);
+        }
+
+        CatalogFilter filter = withCandidates(
+                catalogFilter(tourType, transferType, hotelType, description, minPrice, maxPrice, travelWindow, hotVisible));
+        Specification<Voucher> spec = catalogSpecification(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(seekAfter(CatalogCursor.decode(cursor, sortBy, ascending)));
+        }
+
+        List<VoucherDTO> window = voucherRepository.findWindow(spec, sortKey.catalogOrder(ascending), 0, size + 1);
+        boolean hasNext = window.size() > size;
+        List<VoucherDTO> vouchers = hasNext ? window.subList(0, size) : window;
+
+        String nextCursor = hasNext
+                ? CatalogCursor.after(vouchers.get(vouchers.size() - 1), sortBy, ascending).encode()
+                : null;
+        popularityCounters.recordImpressions(vouchers);
+        return new CatalogSlice(vouchers, hasNext, nextCursor);
+    }
+
+    @Override
+    public String catalogETag(boolean hotVisible, boolean byPopularity) {
+        return "catalog-" + catalogVersion.current()
+                + (byPopularity ? "-p" + catalogVersion.popularity() : "")
+                + (hotVisible ? "" : "-h");
+    }
+
+    @Override
+    public CatalogCacheStats catalogCacheStats() {
+        return resultCache.stats();
+    }
+
+    /**
+     * Served from {@link HotDealsIndex} only; nothing is read from the database.
+     */
+    @Override
+    public Map<TourType, List<VoucherDTO>> findHotDeals(TourType tourType, int limit, boolean hotVisible) {
+        if (!hotVisible) {
+            return Map.of();
+        }
+        return hotDealsIndex.top(tourType, limit);
+    }
+
+    /**
+     * Served from {@link TitleSuggestIndex} only, so it is cheap enough to call per keystroke.
+     */
+    @Override
+    public List<VoucherSuggestion> suggestTitles(String prefix, int limit, boolean hotVisible) {
+        return titleSuggestIndex.suggest(prefix, limit, hotVisible);
+    }
+
+    private CatalogFilter catalogFilter(TourType tourType, TransferType transferType, HotelType hotelType,
+                                        String description, Double minPrice, Double maxPrice,
+                                        TravelWindow travelWindow, boolean hotVisible) {
+        if (travelWindow != null) {
+            travelWindow.validate();
+        }
+        return CatalogFilter.builder()
+                .tourType(tourType)
+                .transferType(transferType)
+                .hotelType(hotelType)
+                .description(description)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .travelWindow(travelWindow != null && !travelWindow.isEmpty() ? travelWindow : null)
+                .hotHidden(!hotVisible)
+                .build();
+    }
+
+    /**
+     * Narrows the filter to the ids pre-selected by the trigram and travel date indexes,
+     * intersecting them when both apply.
+     */
+    private CatalogFilter withCandidates(CatalogFilter filter) {
+        Set<UUID> byText = filter.hasDescription()
+                ? trigramIndex.candidates(filter.getDescription()).orElse(null)
+                : null;
+        Set<UUID> byDates = filter.hasTravelWindow()
+                ? travelDateIndex.candidates(filter.getTravelWindow()).orElse(null)
+                : null;
+        if (byText == null && byDates == null) {
+            return filter;
+        }
+
+        Set<UUID> candidates;
+        if (byText == null || byDates == null) {
+            candidates = byText != null ? byText : byDates;
+        } else {
+            candidates = new HashSet<>(byText.size() < byDates.size() ? byText : byDates);
+            candidates.retainAll(byText.size() < byDates.size() ? byDates : byText);
+        }
+        return filter.toBuilder()
+                .candidateIds(candidates)
+                .build();
+    }
+
+    /**
+     * Result cache key: the query kind, the normalized filter (which carries the user's
+     * hot visibility) and the page or price bucket size.
+     */
+    private record CatalogKey(String kind, CatalogFilter filter, Object window) {
+    }
+
+    private record SearchWindow(String query, Pageable pageable) {
+    }
+
+    private static boolean byPopularity(Pageable pageable) {
+        return pageable.getSort().getOrderFor(SortKey.POPULARITY.getProperty()) != null;
+    }
+
+    /**
+     * Rows strictly after the cursor in (isHot DESC, sortBy, id ASC) order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Specification<Voucher> seekAfter(CatalogCursor cursor) {
+        return (root, query, cb) -> {
+            Path<Comparable> key = root.get(SortKey.of(cursor.getSortBy()).getProperty());
+            Comparable value = cursor.getValue();
+
+            Predicate beyondKey = cursor.isAscending() ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+            Predicate sameKey = cb.and(cb.equal(key, value), cb.greaterThan(root.<UUID>get("id"), cursor.getId()));
+            Predicate sameHot = cb.and(cb.equal(root.get("isHot"), cursor.isHot()), cb.or(beyondKey, sameKey));
+
+            return cb.or(cb.lessThan(root.<Boolean>get("isHot"), cursor.isHot()), sameHot);
+        };
+    }
+
+    private Specification<Voucher> catalogSpecification(CatalogFilter filter) {
+        Specification<Voucher> spec = Specification.where((root, query, cb) ->
+                cb.equal(root.get("status"), VoucherStatus.REGISTERED));
+
+        if (filter.getCandidateIds() != null) {
+            spec = spec.and((root, query, cb) -> filter.getCandidateIds().isEmpty()
+                    ? cb.disjunction()
+                    : root.get("id").in(filter.getCandidateIds()));
+        }
+        if (filter.hasDescription()) {
+            String pattern = "%" + filter.getDescription().toLowerCase() + "%";
+            spec = spec.and((root, query, cb) ->
+                    cb.like(cb.lower(root.get("description")), pattern));
+        }
+        if (filter.hasPriceRange()) {
+            spec = spec.and((root, query, cb) ->
+                    cb.between(root.get("priceCents"), filter.minPriceCents(), filter.maxPriceCents()));
+        }
+        if (filter.getTourType() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("tourType"), filter.getTourType()));
+        }
+        if (filter.getTransferType() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("transferType"), filter.getTransferType()));
+        }
+        if (filter.getHotelType() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("hotelType"), filter.getHotelType()));
+        }
+        if (filter.isHotHidden()) {
+            spec = spec.and((root, query, cb) -> cb.isFalse(root.get("isHot")));
+        }
+        if (filter.hasTravelWindow()) {
+            spec = spec.and(travelWindowSpecification(filter.getTravelWindow()));
+        }
+        return spec;
+    }
+
+    private static Specification<Voucher> travelWindowSpecification(TravelWindow window) {
+        return (root, query, cb) -> {
+            Path<LocalDate> arrival = root.get("arrivalDate");
+            Path<LocalDate> eviction = root.get("evictionDate");
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (window.getStartsFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(arrival, window.getStartsFrom()));
+            }
+            if (window.getStartsTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(arrival, window.getStartsTo()));
+            }
+            if (window.getWithinFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(arrival, window.getWithinFrom()));
+            }
+            if (window.getWithinTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(eviction, window.getWithinTo()));
+            }
+            if (window.hasNights()) {
+                HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+                Expression<Long> nights = hcb.durationByUnit(TemporalUnit.DAY, hcb.durationBetween(eviction, arrival));
+                if (window.getMinNights() != null) {
+                    predicates.add(cb.greaterThanOrEqualTo(nights, window.getMinNights().longValue()));
+                }
+                if (window.getMaxNights() != null) {
+                    predicates.add(cb.lessThanOrEqualTo(nights, window.getMaxNights().longValue()));
+                }
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
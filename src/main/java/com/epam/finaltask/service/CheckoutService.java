@@ -0,0 +1,15 @@
+package com.epam.finaltask.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.epam.finaltask.dto.CheckoutResult;
+import com.epam.finaltask.dto.VoucherDTO;
+
+public interface CheckoutService {
+    int MAX_CART_SIZE = 20;
+
+    VoucherDTO order(String id, String userId);
+    VoucherDTO orderAs(UUID voucherId, String username);
+    CheckoutResult checkout(List<String> ids, String username);
+}
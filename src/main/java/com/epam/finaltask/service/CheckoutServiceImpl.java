@@ -0,0 +1,193 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.PopularityCounters;
+import com.epam.finaltask.catalog.VoucherChangeType;
+import com.epam.finaltask.catalog.VoucherChangedEvent;
+import com.epam.finaltask.dto.CheckoutItem;
+import com.epam.finaltask.dto.CheckoutResult;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.InvalidBatchRequestException;
+import com.epam.finaltask.exception.UserNotFoundException;
+import com.epam.finaltask.exception.VoucherNotFoundException;
+import com.epam.finaltask.exception.VoucherOrderException;
+import com.epam.finaltask.mapper.VoucherMapper;
+import com.epam.finaltask.model.Money;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.model.VoucherStatus;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherOrderRow;
+import com.epam.finaltask.repository.VoucherRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Orders single vouchers and carts, taking the price off the buyer's balance through
+ * {@link BalanceLedger}.
+ */
+@Service
+@RequiredArgsConstructor
+public class CheckoutServiceImpl implements CheckoutService {
+
+    private final VoucherRepository voucherRepository;
+    private final UserRepository userRepository;
+    private final VoucherMapper voucherMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PopularityCounters popularityCounters;
+    private final BalanceLedger balanceLedger;
+
+    @Override
+    @Transactional
+    public VoucherDTO order(String id, String userId) {
+        Voucher voucher = voucherRepository.findById(UUID.fromString(id))
+                .orElseThrow(() -> new VoucherNotFoundException("Voucher not found"));
+
+        User user = userRepository.findById(UUID.fromString(userId))
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        return placeOrder(voucher, user);
+    }
+
+    /**
+     * Orders {@code voucherId} for the authenticated user. The voucher and the user are read
+     * and row-locked with one query, so a successful order costs that query, the balance
+     * debit and the voucher update, and concurrent orders against one balance run one after
+     * the other.
+     */
+    @Override
+    @Transactional
+    public VoucherDTO orderAs(UUID voucherId, String username) {
+        VoucherOrderRow row = voucherRepository.findForOrder(voucherId, username)
+                .orElseThrow(() -> voucherRepository.existsById(voucherId)
+                        ? new UserNotFoundException("User not found")
+                        : new VoucherNotFoundException("Voucher not found"));
+
+        return placeOrder(row.voucher(), row.buyer());
+    }
+
+    private VoucherDTO placeOrder(Voucher voucher, User user) {
+        if (voucher.getIsHot() != null && voucher.getIsHot() && !user.isActive()) {
+            throw new VoucherOrderException("Inactive users cannot order HOT vouchers");
+        }
+
+        if (voucher.getStatus() != VoucherStatus.REGISTERED) {
+            throw new VoucherOrderException("Voucher cannot be ordered");
+        }
+
+        // the loaded balance answers the common case without a write; the debit is what decides
+        if (user.getBalanceCents() < voucher.getPriceCents()
+                || !balanceLedger.debit(user.getId(), voucher.getPriceCents())) {
+            throw new VoucherOrderException("Insufficient balance");
+        }
+
+        voucher.setUser(user);
+        voucher.setStatus(VoucherStatus.PAID);
+
+        voucherRepository.save(voucher);
+
+        VoucherDTO ordered = voucherMapper.toVoucherDTO(voucher);
+        popularityCounters.recordOrder(voucher.getId());
+        publishChange(VoucherChangeType.ORDERED, voucher.getId(), ordered);
+        return ordered;
+    }
+
+    /**
+     * Orders every voucher of a cart in one transaction, or none of them. The vouchers are
+     * loaded and row-locked with one {@code IN} query and validated together; the summed
+     * price is then taken off the balance with one conditional update, and the vouchers are
+     * marked paid with one more. A cart that fails validation or is not covered by the
+     * balance is reported per voucher without writing anything.
+     */
+    @Override
+    @Transactional
+    public CheckoutResult checkout(List<String> ids, String username) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidBatchRequestException("The cart is empty");
+        }
+        if (ids.size() > MAX_CART_SIZE) {
+            throw new InvalidBatchRequestException("At most " + MAX_CART_SIZE + " vouchers can be checked out at once");
+        }
+
+        User user = userRepository.findUserByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        Map<String, UUID> parsed = new HashMap<>();
+        for (String id : ids) {
+            UUID uuid = VoucherIds.parseOrNull(id);
+            if (uuid != null) {
+                parsed.put(id, uuid);
+            }
+        }
+        Map<UUID, Voucher> locked = new HashMap<>();
+        if (!parsed.isEmpty()) {
+            voucherRepository.findAllForUpdateByIdIn(new HashSet<>(parsed.values()))
+                    .forEach(voucher -> locked.put(voucher.getId(), voucher));
+        }
+
+        List<CheckoutItem> items = new ArrayList<>(ids.size());
+        Map<UUID, Voucher> cart = new LinkedHashMap<>();
+        long totalCents = 0;
+        boolean rejected = false;
+        for (String id : ids) {
+            UUID uuid = parsed.get(id);
+            Voucher voucher = uuid != null ? locked.get(uuid) : null;
+            CheckoutItem.Status status;
+            if (uuid == null) {
+                status = CheckoutItem.Status.INVALID;
+            } else if (cart.containsKey(uuid)) {
+                status = CheckoutItem.Status.DUPLICATE;
+            } else if (voucher == null) {
+                status = CheckoutItem.Status.MISSING;
+            } else if (voucher.getStatus() != VoucherStatus.REGISTERED) {
+                status = CheckoutItem.Status.UNAVAILABLE;
+            } else if (Boolean.TRUE.equals(voucher.getIsHot()) && !user.isActive()) {
+                status = CheckoutItem.Status.HOT_RESTRICTED;
+            } else {
+                status = CheckoutItem.Status.READY;
+                cart.put(uuid, voucher);
+                totalCents += voucher.getPriceCents();
+            }
+            rejected |= status != CheckoutItem.Status.READY;
+            items.add(new CheckoutItem(id, status,
+                    status == CheckoutItem.Status.READY ? voucherMapper.toVoucherDTO(voucher) : null));
+        }
+
+        BigDecimal total = Money.toBigDecimal(totalCents);
+        if (rejected) {
+            return new CheckoutResult(CheckoutResult.Status.REJECTED, total, items);
+        }
+        if (!balanceLedger.debit(user.getId(), totalCents)) {
+            return new CheckoutResult(CheckoutResult.Status.INSUFFICIENT_BALANCE, total, items);
+        }
+        if (voucherRepository.markPaid(cart.keySet(), user) != cart.size()) {
+            throw new VoucherOrderException("Cart changed during checkout, please retry");
+        }
+
+        for (CheckoutItem item : items) {
+            Voucher voucher = cart.get(parsed.get(item.getId()));
+            voucher.setStatus(VoucherStatus.PAID);
+            voucher.setUser(user);
+            VoucherDTO ordered = voucherMapper.toVoucherDTO(voucher);
+            item.setStatus(CheckoutItem.Status.ORDERED);
+            item.setVoucher(ordered);
+            popularityCounters.recordOrder(voucher.getId());
+            publishChange(VoucherChangeType.ORDERED, voucher.getId(), ordered);
+        }
+        return new CheckoutResult(CheckoutResult.Status.ORDERED, total, items);
+    }
+
+    private void publishChange(VoucherChangeType type, UUID voucherId, VoucherDTO voucher) {
+        eventPublisher.publishEvent(new VoucherChangedEvent(type, voucherId, voucher));
+    }
+}
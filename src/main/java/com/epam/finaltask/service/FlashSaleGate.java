@@ -0,0 +1,254 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.VoucherChangeType;
+import com.epam.finaltask.catalog.VoucherChangedEvent;
+import com.epam.finaltask.catalog.VoucherIndex;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.OrderAdmissionException;
+import com.epam.finaltask.exception.VoucherOrderException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Admission control in front of {@link CheckoutService#orderAs} and
+ * {@link CheckoutService#checkout}. When a hot voucher is
+ * announced, many users order it at once, but only one of them can succeed. Each voucher
+ * therefore gets a fair single permit: at most one order transaction per voucher runs at a
+ * time, and at most {@code queue-size} further callers wait for it, in arrival order. Anyone
+ * beyond that is turned away without touching the database.
+ *
+ * <p>Vouchers known to be sold are rejected with a set lookup. The set is filled by
+ * successful orders and by committed changes from {@code VoucherIndexRegistry}, and entries
+ * are dropped when a voucher is registered again. Per-voucher queues exist only while
+ * somebody is ordering that voucher. A cart takes the permit of every voucher it holds, so
+ * it never runs alongside a single order of one of them.
+ */
+@Component
+public class FlashSaleGate implements VoucherIndex {
+
+    private final boolean enabled;
+    private final int queueSize;
+    private final long waitTimeoutMillis;
+
+    private final Set<UUID> claimed = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+
+    public FlashSaleGate(@Value("${application.orders.admission.enabled:true}") boolean enabled,
+                         @Value("${application.orders.admission.queue-size:32}") int queueSize,
+                         @Value("${application.orders.admission.wait-timeout:2s}") Duration waitTimeout) {
+        this.enabled = enabled;
+        this.queueSize = queueSize;
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void rebuild(List<VoucherDTO> registered) {
+        claimed.clear();
+    }
+
+    @Override
+    public void apply(VoucherChangedEvent event) {
+        if (event.isRegistered() || event.type() == VoucherChangeType.DELETED) {
+            claimed.remove(event.voucherId());
+        } else {
+            claimed.add(event.voucherId());
+        }
+    }
+
+    /**
+     * Runs {@code order} once this caller is admitted for {@code voucherId}. If the caller
+     * already runs in a transaction, the order commits with it, and the permit is held
+     * until then.
+     *
+     * @throws VoucherOrderException   if the voucher is already sold
+     * @throws OrderAdmissionException if too many callers are waiting for the voucher, or
+     *                                 the wait times out
+     */
+    public VoucherDTO order(UUID voucherId, Supplier<VoucherDTO> order) {
+        if (!enabled) {
+            return order.get();
+        }
+        rejectIfClaimed(voucherId);
+
+        Lane lane = enter(voucherId);
+        if (lane == null) {
+            throw new OrderAdmissionException("Too many pending orders for this voucher, please retry");
+        }
+        boolean handedOver = false;
+        try {
+            if (!lane.permit.tryAcquire(waitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new OrderAdmissionException("Voucher is busy, please retry");
+            }
+            try {
+                rejectIfClaimed(voucherId);
+                VoucherDTO ordered = order.get();
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(exitOnCompletion(voucherId, lane));
+                    handedOver = true;
+                } else {
+                    claimed.add(voucherId);
+                }
+                return ordered;
+            } finally {
+                if (!handedOver) {
+                    lane.permit.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderAdmissionException("Order was interrupted, please retry");
+        } finally {
+            if (!handedOver) {
+                leave(voucherId);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code checkout} once this caller holds the permit of every voucher in the cart.
+     * Permits are taken in id order, so two carts never wait on each other, and the wait
+     * for all of them is bounded by one timeout. Ids that do not parse and vouchers known
+     * to be sold need no permit: the checkout reports them per item. Vouchers sold by the
+     * cart are claimed through {@link #apply} once their changes commit. If the caller
+     * already runs in a transaction, the permits are held until it completes.
+     *
+     * @throws OrderAdmissionException if too many callers are waiting for one of the
+     *                                 vouchers, or the wait times out
+     */
+    public <T> T checkout(Collection<String> ids, Supplier<T> checkout) {
+        // an empty or oversized cart is rejected by the checkout before it locks anything
+        if (!enabled || ids == null || ids.size() > CheckoutService.MAX_CART_SIZE) {
+            return checkout.get();
+        }
+        SortedSet<UUID> voucherIds = new TreeSet<>();
+        for (String id : ids) {
+            UUID voucherId = VoucherIds.parseOrNull(id);
+            if (voucherId != null && !claimed.contains(voucherId)) {
+                voucherIds.add(voucherId);
+            }
+        }
+
+        List<UUID> entered = new ArrayList<>(voucherIds.size());
+        List<Lane> held = new ArrayList<>(voucherIds.size());
+        boolean handedOver = false;
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+            for (UUID voucherId : voucherIds) {
+                Lane lane = enter(voucherId);
+                if (lane == null) {
+                    throw new OrderAdmissionException("Too many pending orders for a voucher in the cart, please retry");
+                }
+                entered.add(voucherId);
+                if (!lane.permit.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new OrderAdmissionException("A voucher in the cart is busy, please retry");
+                }
+                held.add(lane);
+            }
+            T result = checkout.get();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        exit(entered, held);
+                    }
+                });
+                handedOver = true;
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderAdmissionException("Order was interrupted, please retry");
+        } finally {
+            if (!handedOver) {
+                exit(entered, held);
+            }
+        }
+    }
+
+    private void exit(List<UUID> entered, List<Lane> held) {
+        held.forEach(lane -> lane.permit.release());
+        entered.forEach(this::leave);
+    }
+
+    /**
+     * Leaves the lane once the caller's transaction has completed, marking the voucher
+     * sold only if the order committed.
+     */
+    private TransactionSynchronization exitOnCompletion(UUID voucherId, Lane lane) {
+        return new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    claimed.add(voucherId);
+                }
+                lane.permit.release();
+                leave(voucherId);
+            }
+        };
+    }
+
+    /**
+     * Callers currently admitted for or running an order of the voucher.
+     */
+    int inFlight(UUID voucherId) {
+        Lane lane = lanes.get(voucherId);
+        return lane != null ? lane.callers : 0;
+    }
+
+    private void rejectIfClaimed(UUID voucherId) {
+        if (claimed.contains(voucherId)) {
+            throw new VoucherOrderException("Voucher cannot be ordered");
+        }
+    }
+
+    /**
+     * Joins the voucher's lane, or returns {@code null} when it is full: one caller holding
+     * the permit plus {@code queueSize} waiting.
+     */
+    private Lane enter(UUID voucherId) {
+        Lane[] joined = new Lane[1];
+        lanes.compute(voucherId, (id, lane) -> {
+            Lane current = lane != null ? lane : new Lane();
+            if (current.callers <= queueSize) {
+                current.callers++;
+                joined[0] = current;
+            }
+            return current;
+        });
+        return joined[0];
+    }
+
+    private void leave(UUID voucherId) {
+        lanes.computeIfPresent(voucherId, (id, lane) -> --lane.callers == 0 ? null : lane);
+    }
+
+    /**
+     * {@code callers} is only changed inside the map's per-key compute.
+     */
+    private static final class Lane {
+
+        private final Semaphore permit = new Semaphore(1, true);
+        private volatile int callers;
+    }
+}
@@ -0,0 +1,24 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.SavedSearchDTO;
+import com.epam.finaltask.dto.SavedSearchMatchDTO;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+public interface SavedSearchService {
+
+    SavedSearchDTO create(String username, SavedSearchDTO savedSearchDTO);
+
+    List<SavedSearchDTO> findMine(String username);
+
+    void delete(String username, String id);
+
+    /**
+     * Vouchers that started matching one of the user's saved searches, newest first. Only
+     * REGISTERED vouchers are listed, and hot ones only when {@code hotVisible}.
+     */
+    Page<SavedSearchMatchDTO> findInbox(String username, int page, int size, boolean hotVisible);
+
+    void clearInbox(String username);
+}
@@ -0,0 +1,174 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.SavedSearchIndex;
+import com.epam.finaltask.catalog.TravelWindow;
+import com.epam.finaltask.dto.SavedSearchDTO;
+import com.epam.finaltask.dto.SavedSearchMatchDTO;
+import com.epam.finaltask.exception.InvalidSavedSearchException;
+import com.epam.finaltask.exception.InvalidUuidException;
+import com.epam.finaltask.exception.SavedSearchNotFoundException;
+import com.epam.finaltask.exception.UserNotFoundException;
+import com.epam.finaltask.model.SavedSearch;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.model.VoucherStatus;
+import com.epam.finaltask.repository.SavedSearchMatchRepository;
+import com.epam.finaltask.repository.SavedSearchRepository;
+import com.epam.finaltask.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class SavedSearchServiceImpl implements SavedSearchService {
+
+    static final int MAX_SAVED_SEARCHES = 20;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final SavedSearchMatchRepository matchRepository;
+    private final UserRepository userRepository;
+    private final SavedSearchIndex index;
+
+    @Override
+    @Transactional
+    public SavedSearchDTO create(String username, SavedSearchDTO savedSearchDTO) {
+        User user = findUser(username);
+        validate(savedSearchDTO);
+        if (savedSearchRepository.countByUserId(user.getId()) >= MAX_SAVED_SEARCHES) {
+            throw new InvalidSavedSearchException("At most " + MAX_SAVED_SEARCHES + " searches can be saved");
+        }
+
+        SavedSearch search = new SavedSearch();
+        search.setUser(user);
+        search.setName(savedSearchDTO.getName().trim());
+        search.setTourType(savedSearchDTO.getTourType());
+        search.setTransferType(savedSearchDTO.getTransferType());
+        search.setHotelType(savedSearchDTO.getHotelType());
+        search.setDescription(savedSearchDTO.getDescription() != null && !savedSearchDTO.getDescription().isBlank()
+                ? savedSearchDTO.getDescription().trim() : null);
+        search.setMinPrice(savedSearchDTO.getMinPrice());
+        search.setMaxPrice(savedSearchDTO.getMaxPrice());
+        search.setStartsFrom(savedSearchDTO.getStartsFrom());
+        search.setStartsTo(savedSearchDTO.getStartsTo());
+        search.setWithinFrom(savedSearchDTO.getWithinFrom());
+        search.setWithinTo(savedSearchDTO.getWithinTo());
+        search.setMinNights(savedSearchDTO.getMinNights());
+        search.setMaxNights(savedSearchDTO.getMaxNights());
+        search.setCreatedAt(LocalDateTime.now());
+
+        SavedSearch saved = savedSearchRepository.saveAndFlush(search);
+        afterCommit(() -> index.put(saved));
+        return toDTO(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SavedSearchDTO> findMine(String username) {
+        return savedSearchRepository.findAllByUserIdOrderByCreatedAt(findUser(username).getId()).stream()
+                .map(SavedSearchServiceImpl::toDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void delete(String username, String id) {
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidUuidException(id);
+        }
+
+        SavedSearch search = savedSearchRepository.findByIdAndUserId(uuid, findUser(username).getId())
+                .orElseThrow(() -> new SavedSearchNotFoundException("Saved search not found"));
+
+        matchRepository.deleteBySavedSearchId(uuid);
+        savedSearchRepository.delete(search);
+        afterCommit(() -> index.remove(uuid));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<SavedSearchMatchDTO> findInbox(String username, int page, int size, boolean hotVisible) {
+        return matchRepository.findInbox(findUser(username).getId(), VoucherStatus.REGISTERED, hotVisible,
+                PageRequest.of(page, size));
+    }
+
+    @Override
+    @Transactional
+    public void clearInbox(String username) {
+        matchRepository.deleteByUserId(findUser(username).getId());
+    }
+
+    private User findUser(String username) {
+        return userRepository.findUserByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    }
+
+    /**
+     * The catalog applies a price range only when both bounds are given, so a saved search
+     * must do the same to report exactly what re-running the catalog would show.
+     */
+    private static void validate(SavedSearchDTO dto) {
+        if ((dto.getMinPrice() == null) != (dto.getMaxPrice() == null)) {
+            throw new InvalidSavedSearchException("minPrice and maxPrice must be given together");
+        }
+        if (dto.getMinPrice() != null && dto.getMinPrice() > dto.getMaxPrice()) {
+            throw new InvalidSavedSearchException("minPrice must not be greater than maxPrice");
+        }
+        TravelWindow.builder()
+                .startsFrom(dto.getStartsFrom())
+                .startsTo(dto.getStartsTo())
+                .withinFrom(dto.getWithinFrom())
+                .withinTo(dto.getWithinTo())
+                .minNights(dto.getMinNights())
+                .maxNights(dto.getMaxNights())
+                .build()
+                .validate();
+    }
+
+    /**
+     * Changes the index only once the saved search is committed, so a rolled back create or
+     * delete leaves it untouched.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static SavedSearchDTO toDTO(SavedSearch search) {
+        SavedSearchDTO dto = new SavedSearchDTO();
+        dto.setId(search.getId().toString());
+        dto.setName(search.getName());
+        dto.setTourType(search.getTourType());
+        dto.setTransferType(search.getTransferType());
+        dto.setHotelType(search.getHotelType());
+        dto.setDescription(search.getDescription());
+        dto.setMinPrice(search.getMinPrice());
+        dto.setMaxPrice(search.getMaxPrice());
+        dto.setStartsFrom(search.getStartsFrom());
+        dto.setStartsTo(search.getStartsTo());
+        dto.setWithinFrom(search.getWithinFrom());
+        dto.setWithinTo(search.getWithinTo());
+        dto.setMinNights(search.getMinNights());
+        dto.setMaxNights(search.getMaxNights());
+        dto.setCreatedAt(search.getCreatedAt());
+        return dto;
+    }
+}
@@ -12,6 +12,7 @@ import com.epam.finaltask.exception.EmailAlreadyExistsException;
 import com.epam.finaltask.exception.TransactionException;
 import com.epam.finaltask.exception.UserNotFoundException;
 import com.epam.finaltask.mapper.UserMapper;
+import com.epam.finaltask.model.Money;
 import com.epam.finaltask.model.User;
 import com.epam.finaltask.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +28,7 @@ public class UserServiceImpl implements UserService {
 	private final UserRepository userRepository;
 	private final UserMapper userMapper;
 	private final PasswordEncoder passwordEncoder;
+	private final BalanceLedger balanceLedger;
 
 	@Override
 	@Transactional
@@ -100,28 +102,34 @@ public class UserServiceImpl implements UserService {
 	@Override
 	@Transactional
 	public UserDTO deposit(String username, BigDecimal amount, String cardNumber, String expiry, String cvv) {
-		User user = userRepository.findUserByUsername(username)
-				.orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
 		validateDeposit(amount, cardNumber, expiry, cvv);
 
-		user.setBalance(user.getBalance().add(amount));
-		userRepository.save(user);
+		if (!balanceLedger.credit(username, Money.toCents(amount)))
+			throw new UsernameNotFoundException("User not found");
 
-		return mapToUserDTO(user);
+		return findBalanceOf(username);
 	}
 
 	@Override
 	@Transactional
 	public UserDTO withdraw(String username, BigDecimal amount, String cardNumber) {
-		User user = userRepository.findUserByUsername(username)
-				.orElseThrow(() -> new UsernameNotFoundException("User not found"));
+		validateWithdraw(amount, cardNumber);
 
-		validateWithdraw(user, amount, cardNumber);
+		if (!balanceLedger.debit(username, Money.toCents(amount))) {
+			if (!userRepository.existsByUsername(username))
+				throw new UsernameNotFoundException("User not found");
+			throw new TransactionException("balance.insufficient");
+		}
 
-		user.setBalance(user.getBalance().subtract(amount));
-		userRepository.save(user);
+		return findBalanceOf(username);
+	}
 
+	/**
+	 * Reads the user back after a balance change, which the ledger applies in the database only.
+	 */
+	private UserDTO findBalanceOf(String username) {
+		User user = userRepository.findUserByUsername(username)
+				.orElseThrow(() -> new UsernameNotFoundException("User not found"));
 		return mapToUserDTO(user);
 	}
 
@@ -151,6 +159,9 @@ public class UserServiceImpl implements UserService {
 		if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
 			throw new TransactionException("Amount must be positive");
 
+		if (!Money.isWholeCents(amount))
+			throw new TransactionException("Amount must not have more than two decimals");
+
 		if (cardNumber == null || !cardNumber.matches("\\d{16}"))
 			throw new TransactionException("Invalid card number");
 
@@ -168,15 +179,12 @@ public class UserServiceImpl implements UserService {
 		if (cardYm.isBefore(nowYm)) throw new TransactionException("Card expired");
 	}
 
-	private void validateWithdraw(User user, BigDecimal amount, String cardNumber) {
-		if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
+	private void validateWithdraw(BigDecimal amount, String cardNumber) {
+		if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0 || !Money.isWholeCents(amount))
 			throw new TransactionException("balance.invalidAmount");
 
 		if (cardNumber == null || !cardNumber.matches("\\d{16}"))
 			throw new TransactionException("balance.invalidCard");
-
-		if (user.getBalance().compareTo(amount) < 0)
-			throw new TransactionException("balance.insufficient");
 	}
 
 	@Override
@@ -0,0 +1,24 @@
+package com.epam.finaltask.service;
+
+import java.util.UUID;
+
+/**
+ * Parses voucher ids from batch requests, where one bad id is reported per entry rather than
+ * failing the whole request.
+ */
+final class VoucherIds {
+
+    private VoucherIds() {
+    }
+
+    static UUID parseOrNull(String id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
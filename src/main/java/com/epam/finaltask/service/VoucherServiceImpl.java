@@ -1,33 +1,57 @@
 package com.epam.finaltask.service;
 
+import com.epam.finaltask.catalog.OwnerVoucherVersions;
+import com.epam.finaltask.catalog.PopularityCounters;
+import com.epam.finaltask.catalog.SortKey;
+import com.epam.finaltask.catalog.VoucherChangeType;
+import com.epam.finaltask.catalog.VoucherChangedEvent;
 import com.epam.finaltask.dto.VoucherDTO;
-import com.epam.finaltask.exception.*;
+import com.epam.finaltask.dto.VoucherLookup;
+import com.epam.finaltask.exception.InvalidBatchRequestException;
+import com.epam.finaltask.exception.InvalidDatesException;
+import com.epam.finaltask.exception.InvalidUuidException;
+import com.epam.finaltask.exception.VoucherNotFoundException;
 import com.epam.finaltask.mapper.VoucherMapper;
 import com.epam.finaltask.model.*;
-import com.epam.finaltask.repository.UserRepository;
 import com.epam.finaltask.repository.VoucherRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Voucher administration and plain lookups. Catalog browsing lives in
+ * {@link CatalogServiceImpl}, ordering in {@link CheckoutServiceImpl} and the cancellation
+ * workflow in {@link CancellationServiceImpl}.
+ */
 @Service
 @RequiredArgsConstructor
 public class VoucherServiceImpl implements VoucherService {
 
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final int MAX_BATCH_IDS = 500;
+    private static final int BATCH_CHUNK_SIZE = 250;
+
     private final VoucherRepository voucherRepository;
-    private final UserRepository userRepository;
     private final VoucherMapper voucherMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OwnerVoucherVersions ownerVersions;
+    private final PopularityCounters popularityCounters;
 
     @Override
     @Transactional
@@ -43,39 +67,9 @@ public class VoucherServiceImpl implements VoucherService {
         }
 
         Voucher savedVoucher = voucherRepository.save(voucher);
-        return voucherMapper.toVoucherDTO(savedVoucher);
-    }
-
-
-    @Override
-    @Transactional
-    public VoucherDTO order(String id, String userId) {
-        Voucher voucher = voucherRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> new VoucherNotFoundException("Voucher not found"));
-
-        User user = userRepository.findById(UUID.fromString(userId))
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-
-        if (voucher.getIsHot() != null && voucher.getIsHot() && !user.isActive()) {
-            throw new VoucherOrderException("Inactive users cannot order HOT vouchers");
-        }
-
-        if (voucher.getStatus() != VoucherStatus.REGISTERED) {
-            throw new VoucherOrderException("Voucher cannot be ordered");
-        }
-
-        if (user.getBalance().compareTo(BigDecimal.valueOf(voucher.getPrice())) < 0) {
-            throw new VoucherOrderException("Insufficient balance");
-        }
-
-        user.setBalance(user.getBalance().subtract(BigDecimal.valueOf(voucher.getPrice())));
-        voucher.setUser(user);
-        voucher.setStatus(VoucherStatus.PAID);
-
-        userRepository.save(user);
-        voucherRepository.save(voucher);
-
-        return voucherMapper.toVoucherDTO(voucher);
+        VoucherDTO created = voucherMapper.toVoucherDTO(savedVoucher);
+        publishChange(VoucherChangeType.CREATED, savedVoucher.getId(), created);
+        return created;
     }
 
     @Override
@@ -117,15 +111,19 @@ public class VoucherServiceImpl implements VoucherService {
         if (voucherDTO.getEvictionDate() != null)
             existingVoucher.setEvictionDate(voucherDTO.getEvictionDate());
 
-        return voucherMapper.toVoucherDTO(
+        VoucherDTO updated = voucherMapper.toVoucherDTO(
                 voucherRepository.save(existingVoucher)
         );
+        publishChange(VoucherChangeType.UPDATED, uuid, updated);
+        return updated;
     }
 
     @Override
     @Transactional
     public void delete(String voucherId) {
-        voucherRepository.deleteById(UUID.fromString(voucherId));
+        UUID uuid = UUID.fromString(voucherId);
+        voucherRepository.deleteById(uuid);
+        publishChange(VoucherChangeType.DELETED, uuid, null);
     }
 
     @Override
@@ -135,7 +133,9 @@ public class VoucherServiceImpl implements VoucherService {
                 .orElseThrow(() -> new VoucherNotFoundException("Voucher not found"));
 
         voucher.setIsHot((voucherDTO.getIsHot()));
-        return voucherMapper.toVoucherDTO(voucherRepository.save(voucher));
+        VoucherDTO changed = voucherMapper.toVoucherDTO(voucherRepository.save(voucher));
+        publishChange(VoucherChangeType.HOT_STATUS_CHANGED, voucher.getId(), changed);
+        return changed;
     }
 
     @Override
@@ -151,14 +151,61 @@ public class VoucherServiceImpl implements VoucherService {
         Voucher voucher = voucherRepository.findById(uuid)
                 .orElseThrow(() -> new VoucherNotFoundException("Voucher not found"));
 
+        popularityCounters.recordView(uuid);
         return voucherMapper.toVoucherDTO(voucher);
     }
 
+    /**
+     * One entry per requested id, in request order. Valid ids are fetched with
+     * {@code IN} queries of at most {@value #BATCH_CHUNK_SIZE} ids; unparsable ones are
+     * reported as {@code INVALID} instead of failing the whole batch.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<VoucherLookup> findByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new InvalidBatchRequestException("At most " + MAX_BATCH_IDS + " voucher ids can be requested at once");
+        }
+
+        Map<String, UUID> parsed = new HashMap<>();
+        Set<UUID> wanted = new LinkedHashSet<>();
+        for (String id : ids) {
+            UUID uuid = VoucherIds.parseOrNull(id);
+            if (uuid != null) {
+                parsed.put(id, uuid);
+                wanted.add(uuid);
+            }
+        }
+
+        Map<UUID, VoucherDTO> found = new HashMap<>();
+        List<UUID> queue = new ArrayList<>(wanted);
+        for (int from = 0; from < queue.size(); from += BATCH_CHUNK_SIZE) {
+            List<UUID> chunk = queue.subList(from, Math.min(from + BATCH_CHUNK_SIZE, queue.size()));
+            voucherRepository.findProjectedByIdIn(chunk)
+                    .forEach(voucher -> found.put(UUID.fromString(voucher.getId()), voucher));
+        }
+
+        List<VoucherLookup> lookups = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            UUID uuid = parsed.get(id);
+            if (uuid == null) {
+                lookups.add(new VoucherLookup(id, VoucherLookup.Status.INVALID, null));
+            } else if (found.containsKey(uuid)) {
+                lookups.add(new VoucherLookup(id, VoucherLookup.Status.FOUND, found.get(uuid)));
+            } else {
+                lookups.add(new VoucherLookup(id, VoucherLookup.Status.MISSING, null));
+            }
+        }
+        return lookups;
+    }
 
     @Override
     @Transactional(readOnly = true)
     public List<VoucherDTO> findAllByTourType(TourType tourType, int page, int size, String sortBy) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
+        Pageable pageable = PageRequest.of(page, size, SortKey.of(sortBy).order(true));
         Page<Voucher> vouchers = voucherRepository.findAllByTourType(tourType, pageable);
         return vouchers.stream().map(voucherMapper::toVoucherDTO).toList();
     }
@@ -166,7 +213,7 @@ public class VoucherServiceImpl implements VoucherService {
     @Override
     @Transactional(readOnly = true)
     public List<VoucherDTO> findAllByTransferType(TransferType transferType, int page, int size, String sortBy) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
+        Pageable pageable = PageRequest.of(page, size, SortKey.of(sortBy).order(true));
         Page<Voucher> vouchers = voucherRepository.findAllByTransferType(transferType, pageable);
         return vouchers.stream().map(voucherMapper::toVoucherDTO).toList();
     }
@@ -174,15 +221,15 @@ public class VoucherServiceImpl implements VoucherService {
     @Override
     @Transactional(readOnly = true)
     public List<VoucherDTO> findAllByPrice(Double price, int page, int size, String sortBy) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-        Page<Voucher> vouchers = voucherRepository.findAllByPrice(price, pageable);
+        Pageable pageable = PageRequest.of(page, size, SortKey.of(sortBy).order(true));
+        Page<Voucher> vouchers = voucherRepository.findAllByPriceCents(Money.toCents(price), pageable);
         return vouchers.stream().map(voucherMapper::toVoucherDTO).toList();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<VoucherDTO> findAllByHotelType(HotelType hotelType, int page, int size, String sortBy) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
+        Pageable pageable = PageRequest.of(page, size, SortKey.of(sortBy).order(true));
         Page<Voucher> vouchers = voucherRepository.findAllByHotelType(hotelType, pageable);
         return vouchers.stream().map(voucherMapper::toVoucherDTO).toList();
     }
@@ -190,149 +237,41 @@ public class VoucherServiceImpl implements VoucherService {
     @Override
     @Transactional(readOnly = true)
     public List<VoucherDTO> findMyVouchers(String username) {
-        return voucherRepository.findAllByUser_Username(username)
-                .stream()
-                .map(voucherMapper::toVoucherDTO)
-                .toList();
-    }
-
-    @Override
-    @Transactional(readOnly = true)
-    public List<VoucherDTO> findCatalog(int page, int size, String sortBy) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).descending());
-        return voucherRepository
-                .findAllByStatusOrderByIsHotDesc(VoucherStatus.REGISTERED, pageable)
-                .stream()
-                .map(voucherMapper::toVoucherDTO)
-                .toList();
+        return voucherRepository.findProjectedByUsername(username);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<VoucherDTO> findAll() {
-        return voucherRepository.findAll()
-                .stream()
-                .map(voucherMapper::toVoucherDTO)
-                .toList();
+        return voucherRepository.findAllProjected();
     }
 
+    /**
+     * Streams every voucher to {@code sink} through a forward-only cursor and clears the
+     * persistence context every {@value #EXPORT_CHUNK_SIZE} rows, so memory stays flat
+     * however many vouchers there are.
+     */
     @Override
     @Transactional(readOnly = true)
-    public Page<VoucherDTO> findCatalogFiltered(
-            TourType tourType,
-            TransferType transferType,
-            HotelType hotelType,
-            String description,
-            Double minPrice,
-            Double maxPrice,
-            Pageable pageable,
-            String username
-    ) {
-        Specification<Voucher> spec = Specification.where((root, query, cb) ->
-                cb.equal(root.get("status"), VoucherStatus.REGISTERED));
-
-        if (description != null && !description.isBlank()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("description")), "%" + description.toLowerCase() + "%"));
-        }
-        if (minPrice != null && maxPrice != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.between(root.get("price"), minPrice, maxPrice));
-        }
-        if (tourType != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("tourType"), tourType));
-        }
-        if (transferType != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("transferType"), transferType));
-        }
-        if (hotelType != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("hotelType"), hotelType));
-        }
-
-        if (username != null && !username.isBlank()) {
-            var userOpt = userRepository.findUserByUsername(username);
-            if (userOpt.isPresent() && !userOpt.get().isActive()) {
-                spec = spec.and((root, query, cb) -> cb.isFalse(root.get("isHot")));
+    public void exportAll(Consumer<VoucherDTO> sink) {
+        try (Stream<Voucher> vouchers = voucherRepository.streamAll()) {
+            int inChunk = 0;
+            for (Iterator<Voucher> it = vouchers.iterator(); it.hasNext(); ) {
+                sink.accept(voucherMapper.toVoucherDTO(it.next()));
+                if (++inChunk == EXPORT_CHUNK_SIZE) {
+                    voucherRepository.clearPersistenceContext();
+                    inChunk = 0;
+                }
             }
         }
-
-        Page<Voucher> page = voucherRepository.findAll(spec, pageable);
-
-        return page.map(voucherMapper::toVoucherDTO);
     }
 
     @Override
-    @Transactional
-    public VoucherDTO requestCancellation(String id, String username, String reason) {
-        Voucher voucher = voucherRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> new VoucherNotFoundException("Voucher not found"));
-
-        if (voucher.getUser() == null || !username.equals(voucher.getUser().getUsername())) {
-            throw new VoucherOrderException("You may only request cancellation for your own voucher");
-        }
-
-        if (voucher.getStatus() != VoucherStatus.PAID) {
-            throw new VoucherOrderException("Voucher cannot be cancelled in its current status");
-        }
-
-        voucher.setStatus(VoucherStatus.CANCELLATION_REQUESTED);
-        voucher.setCancellationReason(reason);
-        voucher.setCancellationRequestedAt(LocalDateTime.now());
-
-        voucherRepository.save(voucher);
-
-        return voucherMapper.toVoucherDTO(voucher);
+    public String myVouchersETag(String username) {
+        return "my-" + Integer.toHexString(username.hashCode()) + "-" + ownerVersions.current(username);
     }
 
-    @Override
-    @Transactional
-    public VoucherDTO decideCancellation(String id, boolean approved, String adminUsername) {
-        Voucher voucher = voucherRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> new VoucherNotFoundException("Voucher not found"));
-
-        if (voucher.getStatus() != VoucherStatus.CANCELLATION_REQUESTED) {
-            throw new VoucherOrderException("Voucher is not awaiting cancellation");
-        }
-
-        User user = voucher.getUser();
-        if (approved) {
-            if (user != null) {
-                user.setBalance(user.getBalance().add(BigDecimal.valueOf(voucher.getPrice())));
-                userRepository.save(user);
-            }
-            voucher.setUser(null);
-            voucher.setStatus(VoucherStatus.CANCELED);
-        } else {
-            voucher.setStatus(VoucherStatus.PAID);
-        }
-
-        // clear request fields
-        voucher.setCancellationReason(null);
-        voucher.setCancellationRequestedAt(null);
-
-        voucherRepository.save(voucher);
-
-        return voucherMapper.toVoucherDTO(voucher);
-    }
-
-    @Override
-    @Transactional
-    public VoucherDTO reregisterVoucher(String id, String adminUsername) {
-        Voucher voucher = voucherRepository.findById(UUID.fromString(id))
-                .orElseThrow(() -> new VoucherNotFoundException("Voucher not found"));
-
-        if (voucher.getStatus() != VoucherStatus.CANCELED) {
-            throw new VoucherOrderException("Voucher is not in CANCELED status");
-        }
-
-        voucher.setStatus(VoucherStatus.REGISTERED);
-        voucher.setUser(null);
-        voucher.setCancellationReason(null);
-        voucher.setCancellationRequestedAt(null);
-
-        voucherRepository.save(voucher);
-
-        return voucherMapper.toVoucherDTO(voucher);
+    private void publishChange(VoucherChangeType type, UUID voucherId, VoucherDTO voucher) {
+        eventPublisher.publishEvent(new VoucherChangedEvent(type, voucherId, voucher));
     }
-
 }
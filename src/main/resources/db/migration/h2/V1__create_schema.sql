@@ -0,0 +1,42 @@
+-- H2 counterpart of db/migration/mysql/V1__create_schema.sql (UUID ids, checked VARCHAR enums).
+-- Voucher titles ignore case, as MySQL's default collation does.
+
+CREATE TABLE IF NOT EXISTS users (
+    id              UUID                                NOT NULL,
+    username        VARCHAR(50)                         NOT NULL,
+    first_name      VARCHAR(50)                         NOT NULL,
+    last_name       VARCHAR(50)                         NOT NULL,
+    email           VARCHAR(255)                        NOT NULL,
+    password        VARCHAR(255)                        NOT NULL,
+    role            VARCHAR(20)                         DEFAULT 'CUSTOMER'
+                    CHECK (role IN ('ADMIN','MANAGER','CUSTOMER')),
+    phone_number    VARCHAR(20),
+    balance         DECIMAL(10,2)                       NOT NULL DEFAULT 0.00,
+    active          BOOLEAN                             NOT NULL DEFAULT TRUE,
+    CONSTRAINT PK_users PRIMARY KEY (id),
+    CONSTRAINT UQ_users_username UNIQUE (username),
+    CONSTRAINT UQ_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS vouchers (
+    id              UUID                                NOT NULL,
+    title           VARCHAR_IGNORECASE(255)             NOT NULL,
+    description     VARCHAR(1000)                       NOT NULL,
+    price           DOUBLE PRECISION                    NOT NULL,
+    tour_type       VARCHAR(20)                         NOT NULL
+                    CHECK (tour_type IN ('HEALTH','SPORTS','LEISURE','SAFARI','WINE','ECO','ADVENTURE','CULTURAL')),
+    transfer_type   VARCHAR(20)                         NOT NULL
+                    CHECK (transfer_type IN ('BUS','TRAIN','PLANE','SHIP','PRIVATE_CAR','JEEPS','MINIBUS','ELECTRICAL_CARS')),
+    hotel_type      VARCHAR(20)                         NOT NULL
+                    CHECK (hotel_type IN ('ONE_STAR','TWO_STARS','THREE_STARS','FOUR_STARS','FIVE_STARS')),
+    status          VARCHAR(30)                         NOT NULL DEFAULT 'REGISTERED'
+                    CHECK (status IN ('REGISTERED','PAID','CANCELLATION_REQUESTED','CANCELED')),
+    arrival_date    DATE                                NOT NULL,
+    eviction_date   DATE                                NOT NULL,
+    user_id         UUID,
+    is_hot          BOOLEAN                             DEFAULT FALSE,
+    cancellation_reason VARCHAR(1000),
+    cancellation_requested_at TIMESTAMP(6),
+    CONSTRAINT PK_vouchers PRIMARY KEY (id),
+    CONSTRAINT FK_vouchers_users FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL
+);
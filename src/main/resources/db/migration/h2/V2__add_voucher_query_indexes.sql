@@ -0,0 +1,8 @@
+-- Catalog: status = 'REGISTERED' [and is_hot = false] [and price range], ordered by is_hot, price
+CREATE INDEX idx_vouchers_status_hot_price ON vouchers (status, is_hot, price);
+
+-- "My vouchers": vouchers of one owner, optionally narrowed by status
+CREATE INDEX idx_vouchers_user_status ON vouchers (user_id, status);
+
+-- Admin cancellation queues: one status, ordered by request time
+CREATE INDEX idx_vouchers_status_cancel_requested ON vouchers (status, cancellation_requested_at);
@@ -0,0 +1,4 @@
+-- Decayed view/order score maintained by PopularityFlusher, used by sortBy=popularity
+ALTER TABLE vouchers ADD COLUMN popularity DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_vouchers_status_hot_popularity ON vouchers (status, is_hot, popularity);
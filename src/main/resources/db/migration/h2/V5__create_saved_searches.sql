@@ -0,0 +1,42 @@
+-- Saved catalog filters and their inbox: vouchers that started matching a filter after it was saved
+CREATE TABLE IF NOT EXISTS saved_searches (
+    id              UUID                                NOT NULL,
+    user_id         UUID                                NOT NULL,
+    name            VARCHAR(100)                        NOT NULL,
+    tour_type       VARCHAR(20)
+                    CHECK (tour_type IN ('HEALTH','SPORTS','LEISURE','SAFARI','WINE','ECO','ADVENTURE','CULTURAL')),
+    transfer_type   VARCHAR(20)
+                    CHECK (transfer_type IN ('BUS','TRAIN','PLANE','SHIP','PRIVATE_CAR','JEEPS','MINIBUS','ELECTRICAL_CARS')),
+    hotel_type      VARCHAR(20)
+                    CHECK (hotel_type IN ('ONE_STAR','TWO_STARS','THREE_STARS','FOUR_STARS','FIVE_STARS')),
+    description     VARCHAR(255),
+    min_price       DOUBLE PRECISION,
+    max_price       DOUBLE PRECISION,
+    starts_from     DATE,
+    starts_to       DATE,
+    within_from     DATE,
+    within_to       DATE,
+    min_nights      INTEGER,
+    max_nights      INTEGER,
+    created_at      TIMESTAMP(6)                        NOT NULL,
+    CONSTRAINT PK_saved_searches PRIMARY KEY (id),
+    CONSTRAINT FK_saved_searches_users FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_saved_searches_user ON saved_searches (user_id, created_at);
+
+CREATE TABLE IF NOT EXISTS saved_search_matches (
+    id              UUID                                NOT NULL,
+    saved_search_id UUID                                NOT NULL,
+    voucher_id      UUID                                NOT NULL,
+    user_id         UUID                                NOT NULL,
+    matched_at      TIMESTAMP(6)                        NOT NULL,
+    CONSTRAINT PK_saved_search_matches PRIMARY KEY (id),
+    CONSTRAINT UQ_saved_search_matches_search_voucher UNIQUE (saved_search_id, voucher_id),
+    CONSTRAINT FK_saved_search_matches_searches FOREIGN KEY (saved_search_id) REFERENCES saved_searches(id) ON DELETE CASCADE,
+    CONSTRAINT FK_saved_search_matches_vouchers FOREIGN KEY (voucher_id) REFERENCES vouchers(id) ON DELETE CASCADE,
+    CONSTRAINT FK_saved_search_matches_users FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Inbox: one user's matches, newest first
+CREATE INDEX idx_saved_search_matches_user_matched ON saved_search_matches (user_id, matched_at);
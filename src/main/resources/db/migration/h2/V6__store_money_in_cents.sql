@@ -0,0 +1,11 @@
+-- Prices and balances become whole cents (see Money); indexes on the old columns move along
+ALTER TABLE vouchers ADD COLUMN price_cents BIGINT NOT NULL DEFAULT 0;
+UPDATE vouchers SET price_cents = ROUND(price * 100);
+ALTER TABLE vouchers ALTER COLUMN price_cents DROP DEFAULT;
+DROP INDEX idx_vouchers_status_hot_price;
+ALTER TABLE vouchers DROP COLUMN price;
+CREATE INDEX idx_vouchers_status_hot_price ON vouchers (status, is_hot, price_cents);
+
+ALTER TABLE users ADD COLUMN balance_cents BIGINT NOT NULL DEFAULT 0;
+UPDATE users SET balance_cents = ROUND(balance * 100);
+ALTER TABLE users DROP COLUMN balance;
@@ -0,0 +1,13 @@
+-- Idempotency-Key records for order, deposit and withdraw requests; a row without a status is still in progress
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id              VARCHAR(64)                         NOT NULL,
+    request_hash    VARCHAR(64)                         NOT NULL,
+    status_code     INTEGER,
+    content_type    VARCHAR(100),
+    response_body   VARCHAR(8000),
+    created_at      TIMESTAMP(6)                        NOT NULL,
+    CONSTRAINT PK_idempotency_keys PRIMARY KEY (id)
+);
+
+-- Purge of records past their retention
+CREATE INDEX idx_idempotency_keys_created ON idempotency_keys (created_at);
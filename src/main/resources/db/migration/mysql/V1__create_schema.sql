@@ -0,0 +1,37 @@
+-- Schema of sql-scripts/travel-agency.sql. Databases created from that script are
+-- baselined at this version (spring.flyway.baseline-on-migrate) instead of running it.
+
+CREATE TABLE IF NOT EXISTS users (
+    id              BINARY(16)                          NOT NULL,
+    username        VARCHAR(50)                         NOT NULL,
+    first_name      VARCHAR(50)                         NOT NULL,
+    last_name       VARCHAR(50)                         NOT NULL,
+    email           VARCHAR(255)                        NOT NULL,
+    password        VARCHAR(255)                        NOT NULL,
+    role            ENUM('ADMIN','MANAGER','CUSTOMER')  NOT NULL DEFAULT 'CUSTOMER',
+    phone_number    VARCHAR(20),
+    balance         DECIMAL(10,2)                       NOT NULL DEFAULT 0.00,
+    active          BOOLEAN                              NOT NULL DEFAULT TRUE,
+    CONSTRAINT PK_users PRIMARY KEY (id),
+    CONSTRAINT UQ_users_username UNIQUE (username),
+    CONSTRAINT UQ_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS vouchers (
+    id              BINARY(16)                                           NOT NULL,
+    title           VARCHAR(255)                                         NOT NULL,
+    description     VARCHAR(1000)                                        NOT NULL,
+    price           DOUBLE                                               NOT NULL,
+    tour_type       ENUM('HEALTH','SPORTS','LEISURE','SAFARI','WINE','ECO','ADVENTURE','CULTURAL') NOT NULL,
+    transfer_type   ENUM('BUS','TRAIN','PLANE','SHIP','PRIVATE_CAR','JEEPS','MINIBUS','ELECTRICAL_CARS') NOT NULL,
+    hotel_type      ENUM('ONE_STAR','TWO_STARS','THREE_STARS','FOUR_STARS','FIVE_STARS') NOT NULL,
+    status          ENUM('REGISTERED','PAID','CANCELLATION_REQUESTED','CANCELED')                 NOT NULL DEFAULT 'REGISTERED',
+    arrival_date    DATE                                                NOT NULL,
+    eviction_date   DATE                                                NOT NULL,
+    user_id         BINARY(16),
+    is_hot          BOOLEAN                                             NOT NULL DEFAULT FALSE,
+    cancellation_reason TEXT,
+    cancellation_requested_at DATETIME,
+    CONSTRAINT PK_vouchers PRIMARY KEY (id),
+    CONSTRAINT FK_vouchers_users FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL
+);
@@ -0,0 +1,6 @@
+-- One index per catalog sort key (see SortKey); price and popularity are covered by V2 and V3
+CREATE INDEX idx_vouchers_status_hot_arrival ON vouchers (status, is_hot, arrival_date);
+
+CREATE INDEX idx_vouchers_status_hot_eviction ON vouchers (status, is_hot, eviction_date);
+
+CREATE INDEX idx_vouchers_status_hot_title ON vouchers (status, is_hot, title);
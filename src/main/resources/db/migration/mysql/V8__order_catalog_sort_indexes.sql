@@ -0,0 +1,22 @@
+-- Catalog order is is_hot DESC, <key> ASC|DESC, id ASC (see SortKey.catalogOrder). The V2-V6 sort indexes
+-- were all ascending, so neither direction could be read in order; each key now has one index per direction.
+
+DROP INDEX idx_vouchers_status_hot_price ON vouchers;
+CREATE INDEX idx_vouchers_status_hot_price ON vouchers (status, is_hot DESC, price_cents, id);
+CREATE INDEX idx_vouchers_status_hot_price_desc ON vouchers (status, is_hot DESC, price_cents DESC, id);
+
+DROP INDEX idx_vouchers_status_hot_popularity ON vouchers;
+CREATE INDEX idx_vouchers_status_hot_popularity ON vouchers (status, is_hot DESC, popularity, id);
+CREATE INDEX idx_vouchers_status_hot_popularity_desc ON vouchers (status, is_hot DESC, popularity DESC, id);
+
+DROP INDEX idx_vouchers_status_hot_arrival ON vouchers;
+CREATE INDEX idx_vouchers_status_hot_arrival ON vouchers (status, is_hot DESC, arrival_date, id);
+CREATE INDEX idx_vouchers_status_hot_arrival_desc ON vouchers (status, is_hot DESC, arrival_date DESC, id);
+
+DROP INDEX idx_vouchers_status_hot_eviction ON vouchers;
+CREATE INDEX idx_vouchers_status_hot_eviction ON vouchers (status, is_hot DESC, eviction_date, id);
+CREATE INDEX idx_vouchers_status_hot_eviction_desc ON vouchers (status, is_hot DESC, eviction_date DESC, id);
+
+DROP INDEX idx_vouchers_status_hot_title ON vouchers;
+CREATE INDEX idx_vouchers_status_hot_title ON vouchers (status, is_hot DESC, title, id);
+CREATE INDEX idx_vouchers_status_hot_title_desc ON vouchers (status, is_hot DESC, title DESC, id);
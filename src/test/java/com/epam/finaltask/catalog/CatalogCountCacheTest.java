@@ -0,0 +1,96 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.model.TourType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCountCacheTest {
+
+    private MutableClock clock;
+    private CatalogCountCache cache;
+    private AtomicInteger counted;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        cache = new CatalogCountCache(Duration.ofSeconds(30), 2, clock);
+        counted = new AtomicInteger();
+    }
+
+    @Test
+    void count_shouldServeEstimateUntilTtlExpires() {
+        CatalogFilter filter = CatalogFilter.builder().tourType(TourType.SAFARI).build();
+
+        assertEquals(new CatalogCountCache.Count(10, true), cache.count(filter, () -> counter(10)));
+
+        clock.advance(Duration.ofSeconds(29));
+        assertEquals(new CatalogCountCache.Count(10, false), cache.count(filter, () -> counter(11)));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(new CatalogCountCache.Count(11, true), cache.count(filter, () -> counter(11)));
+        assertEquals(2, counted.get());
+    }
+
+    @Test
+    void count_shouldIgnoreTrigramCandidatesInKey() {
+        CatalogFilter filter = CatalogFilter.builder().description("wine").build();
+        cache.count(filter.toBuilder().candidateIds(Set.of(UUID.randomUUID())).build(), () -> counter(3));
+
+        assertEquals(new CatalogCountCache.Count(3, false),
+                cache.count(filter.toBuilder().candidateIds(Set.of()).build(), () -> counter(4)));
+    }
+
+    @Test
+    void count_shouldEvictLeastRecentlyUsedFilter() {
+        CatalogFilter safari = CatalogFilter.builder().tourType(TourType.SAFARI).build();
+        CatalogFilter wine = CatalogFilter.builder().tourType(TourType.WINE).build();
+        CatalogFilter eco = CatalogFilter.builder().tourType(TourType.ECO).build();
+
+        cache.count(safari, () -> counter(1));
+        cache.count(wine, () -> counter(2));
+        cache.count(safari, () -> counter(1));
+        cache.count(eco, () -> counter(3));
+
+        assertFalse(cache.count(safari, () -> counter(1)).exact());
+        assertTrue(cache.count(wine, () -> counter(2)).exact());
+    }
+
+    private long counter(long value) {
+        counted.incrementAndGet();
+        return value;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
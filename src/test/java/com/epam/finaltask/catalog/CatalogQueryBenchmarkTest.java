@@ -0,0 +1,102 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.mapper.VoucherMapperImpl;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import com.epam.finaltask.service.CatalogService;
+import com.epam.finaltask.service.VoucherServices;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the JPA Specification catalog path with {@link ColumnarCatalogIndex}.
+ * Run with {@code mvn test -Pbenchmark [-Dbenchmark.rows=1000000]}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CatalogQueryBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 10;
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareSpecificationPathWithColumnarIndex() {
+        List<VoucherDTO> catalog = SyntheticCatalog.insert(jdbcTemplate, ROWS);
+
+        ColumnarCatalogIndex index = new ColumnarCatalogIndex(true);
+        index.rebuild(catalog);
+
+        VoucherMapperImpl mapper = new VoucherMapperImpl(new ModelMapper());
+        CatalogService specificationPath = VoucherServices.over(voucherRepository, userRepository)
+                .voucherMapper(mapper).catalog();
+        CatalogService indexPath = VoucherServices.over(voucherRepository, userRepository)
+                .voucherMapper(mapper).catalogIndex(index).catalog();
+
+        Map<String, Function<CatalogService, Page<VoucherDTO>>> scenarios = new LinkedHashMap<>();
+        scenarios.put("first page, no filters", service -> service.findCatalogFiltered(
+                null, null, null, null, null, null, null, page(0, "price"), true));
+        scenarios.put("tour type + price range", service -> service.findCatalogFiltered(
+                TourType.SAFARI, null, null, null, 1000.0, 2000.0, null, page(0, "price"), true));
+        scenarios.put("description search", service -> service.findCatalogFiltered(
+                null, null, HotelType.FIVE_STARS, "jungle", null, null, null, page(0, "arrivalDate"), true));
+        scenarios.put("deep page 1000", service -> service.findCatalogFiltered(
+                null, TransferType.PLANE, null, null, null, null, null, page(1000, "price"), true));
+
+        System.out.printf("Catalog benchmark over %,d vouchers (avg of %d runs)%n", ROWS, ITERATIONS);
+        scenarios.forEach((name, scenario) -> {
+            long expected = scenario.apply(specificationPath).getTotalElements();
+            assertEquals(expected, scenario.apply(indexPath).getTotalElements(), name);
+
+            double specMs = measure(() -> scenario.apply(specificationPath));
+            double indexMs = measure(() -> scenario.apply(indexPath));
+            System.out.printf("  %-26s specification %9.2f ms   columnar %7.3f ms   (%,d matches)%n",
+                    name, specMs, indexMs, expected);
+        });
+    }
+
+    private static Pageable page(int page, String sortBy) {
+        return PageRequest.of(page, 10, Sort.by(Sort.Direction.DESC, "isHot").and(Sort.by(sortBy).descending()));
+    }
+
+    static double measure(Runnable query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
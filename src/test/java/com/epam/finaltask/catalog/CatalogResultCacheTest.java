@@ -0,0 +1,84 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.CatalogCacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogResultCacheTest {
+
+    private CatalogVersion version;
+    private CatalogResultCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        version = new CatalogVersion();
+        cache = new CatalogResultCache(true, 2, version);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldServeCachedValueUntilCatalogVersionMoves() {
+        assertEquals("page-1", cache.get("a", () -> load("page-1")));
+        assertEquals("page-1", cache.get("a", () -> load("page-2")));
+
+        version.onVoucherChanged(new VoucherChangedEvent(VoucherChangeType.UPDATED, null, null));
+        assertEquals("page-2", cache.get("a", () -> load("page-2")));
+
+        CatalogCacheStats stats = cache.stats();
+        assertEquals(2, loads.get());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getInvalidations());
+        assertEquals(version.current(), stats.getCatalogVersion());
+    }
+
+    @Test
+    void get_shouldReloadOnlyPopularityOrderedResults_whenPopularityMoves() {
+        cache.get("price", () -> load("price"));
+        cache.get("popular", true, () -> load("popular-1"));
+
+        version.bumpPopularity();
+
+        assertEquals("price", cache.get("price", () -> load("price")));
+        assertEquals("popular-2", cache.get("popular", true, () -> load("popular-2")));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedEntry() {
+        cache.get("a", () -> load("a"));
+        cache.get("b", () -> load("b"));
+        cache.get("a", () -> load("a"));
+        cache.get("c", () -> load("c"));
+
+        cache.get("a", () -> load("a"));
+        cache.get("b", () -> load("b"));
+
+        CatalogCacheStats stats = cache.stats();
+        assertEquals(4, loads.get());
+        assertEquals(2, stats.getEvictions());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    void get_shouldAlwaysLoad_whenDisabled() {
+        CatalogResultCache disabled = new CatalogResultCache(false, 10, version);
+
+        disabled.get("a", () -> load("a"));
+        disabled.get("a", () -> load("a"));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, disabled.stats().getSize());
+        assertFalse(disabled.stats().isEnabled());
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+}
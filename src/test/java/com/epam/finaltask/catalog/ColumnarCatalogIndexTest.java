@@ -0,0 +1,174 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarCatalogIndexTest {
+
+    private ColumnarCatalogIndex index;
+
+    private VoucherDTO safari;
+    private VoucherDTO wine;
+    private VoucherDTO spa;
+
+    @BeforeEach
+    void setUp() {
+        index = new ColumnarCatalogIndex(true);
+
+        safari = voucher("Safari Adventure", "Explore wildlife in Africa.", 2500.0, TourType.SAFARI, true);
+        wine = voucher("Wine Tour France", "Taste wines in Bordeaux.", 1200.0, TourType.WINE, false);
+        spa = voucher("Health Spa Hungary", "Thermal baths and wellness.", 1250.0, TourType.HEALTH, false);
+
+        index.rebuild(List.of(safari, wine, spa));
+    }
+
+    @Test
+    void query_shouldReturnEmpty_whenIndexDisabled() {
+        ColumnarCatalogIndex disabled = new ColumnarCatalogIndex(false);
+        disabled.rebuild(List.of(safari));
+
+        assertTrue(disabled.query(CatalogFilter.builder().build(), PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void query_shouldSortHotFirstThenByPrice() {
+        Page<VoucherDTO> page = query(CatalogFilter.builder().build(), PageRequest.of(0, 10, catalogSort("priceCents", true)));
+
+        assertEquals(List.of(safari, spa, wine), page.getContent());
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    void query_shouldBreakTiesByIdBytesLikeTheDatabase() {
+        VoucherDTO low = voucher("Low", "Same price.", 100.0, TourType.ECO, false);
+        low.setId("7fffffff-ffff-ffff-ffff-ffffffffffff");
+        VoucherDTO high = voucher("High", "Same price.", 100.0, TourType.ECO, false);
+        high.setId("80000000-0000-0000-0000-000000000000");
+        index.rebuild(List.of(high, low));
+
+        Page<VoucherDTO> page = query(CatalogFilter.builder().build(), PageRequest.of(0, 10, catalogSort("priceCents", false)));
+
+        assertEquals(List.of(low, high), page.getContent());
+    }
+
+    @Test
+    void query_shouldApplyEnumPriceAndDescriptionFilters() {
+        CatalogFilter filter = CatalogFilter.builder()
+                .transferType(TransferType.PLANE)
+                .minPrice(1000.0)
+                .maxPrice(1300.0)
+                .description("WINE")
+                .build();
+
+        Page<VoucherDTO> page = query(filter, PageRequest.of(0, 10, catalogSort("priceCents", false)));
+
+        assertEquals(List.of(wine), page.getContent());
+    }
+
+    @Test
+    void query_shouldHideHotVouchers_whenFilterRequiresIt() {
+        Page<VoucherDTO> page = query(CatalogFilter.builder().hotHidden(true).build(),
+                PageRequest.of(0, 10, catalogSort("priceCents", false)));
+
+        assertEquals(List.of(wine, spa), page.getContent());
+    }
+
+    @Test
+    void query_shouldSliceRequestedPage() {
+        Page<VoucherDTO> page = query(CatalogFilter.builder().build(), PageRequest.of(1, 2, catalogSort("priceCents", false)));
+
+        assertEquals(List.of(spa), page.getContent());
+        assertEquals(2, page.getTotalPages());
+    }
+
+    @Test
+    void query_shouldFallBack_whenSortPropertyIsNotIndexed() {
+        Optional<Page<VoucherDTO>> result = index.query(CatalogFilter.builder().build(),
+                PageRequest.of(0, 10, Sort.by("description")));
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void apply_shouldTrackOrderUpdateAndReregister() {
+        UUID wineId = UUID.fromString(wine.getId());
+
+        VoucherDTO paid = copy(wine);
+        paid.setStatus(VoucherStatus.PAID);
+        index.apply(new VoucherChangedEvent(VoucherChangeType.ORDERED, wineId, paid));
+        assertEquals(2, index.size());
+
+        VoucherDTO back = copy(wine);
+        back.setPrice(100.0);
+        back.setTourType(TourType.ECO);
+        index.apply(new VoucherChangedEvent(VoucherChangeType.REREGISTERED, wineId, back));
+
+        Page<VoucherDTO> eco = query(CatalogFilter.builder().tourType(TourType.ECO).build(),
+                PageRequest.of(0, 10, catalogSort("priceCents", false)));
+        assertEquals(List.of(back), eco.getContent());
+        assertTrue(query(CatalogFilter.builder().tourType(TourType.WINE).build(),
+                PageRequest.of(0, 10)).isEmpty());
+
+        index.apply(new VoucherChangedEvent(VoucherChangeType.DELETED, wineId, null));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void apply_shouldGrowBeyondInitialCapacity() {
+        for (int i = 0; i < 5000; i++) {
+            VoucherDTO dto = voucher("Trip " + i, "Generated", i, TourType.ECO, i % 2 == 0);
+            index.apply(new VoucherChangedEvent(VoucherChangeType.CREATED, UUID.fromString(dto.getId()), dto));
+        }
+
+        Page<VoucherDTO> page = query(CatalogFilter.builder().tourType(TourType.ECO).hotHidden(true).build(),
+                PageRequest.of(0, 3, catalogSort("priceCents", false)));
+
+        assertEquals(2500, page.getTotalElements());
+        assertEquals(List.of(1.0, 3.0, 5.0), page.getContent().stream().map(VoucherDTO::getPrice).toList());
+    }
+
+    private Page<VoucherDTO> query(CatalogFilter filter, Pageable pageable) {
+        return index.query(filter, pageable).orElseThrow();
+    }
+
+    private static Sort catalogSort(String property, boolean descending) {
+        Sort secondary = descending ? Sort.by(property).descending() : Sort.by(property).ascending();
+        return Sort.by(Sort.Direction.DESC, "isHot").and(secondary);
+    }
+
+    private static VoucherDTO voucher(String title, String description, double price, TourType tourType, boolean hot) {
+        VoucherDTO dto = new VoucherDTO();
+        dto.setId(UUID.randomUUID().toString());
+        dto.setTitle(title);
+        dto.setDescription(description);
+        dto.setPrice(price);
+        dto.setTourType(tourType);
+        dto.setTransferType(TransferType.PLANE);
+        dto.setHotelType(HotelType.THREE_STARS);
+        dto.setStatus(VoucherStatus.REGISTERED);
+        dto.setArrivalDate(LocalDate.of(2026, 6, 1));
+        dto.setEvictionDate(LocalDate.of(2026, 6, 10));
+        dto.setIsHot(hot);
+        return dto;
+    }
+
+    private static VoucherDTO copy(VoucherDTO source) {
+        VoucherDTO dto = voucher(source.getTitle(), source.getDescription(), source.getPrice(),
+                source.getTourType(), Boolean.TRUE.equals(source.getIsHot()));
+        dto.setId(source.getId());
+        return dto;
+    }
+}
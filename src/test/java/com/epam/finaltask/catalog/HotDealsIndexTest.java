@@ -0,0 +1,115 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.VoucherStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotDealsIndexTest {
+
+    private HotDealsIndex index;
+
+    private VoucherDTO cheapSafari;
+    private VoucherDTO earlySafari;
+    private VoucherDTO lateSafari;
+    private VoucherDTO pricySafari;
+    private VoucherDTO regularSafari;
+    private VoucherDTO wine;
+
+    @BeforeEach
+    void setUp() {
+        index = new HotDealsIndex(3);
+
+        cheapSafari = voucher(TourType.SAFARI, 900.0, LocalDate.of(2026, 9, 1), true);
+        earlySafari = voucher(TourType.SAFARI, 1200.0, LocalDate.of(2026, 6, 1), true);
+        lateSafari = voucher(TourType.SAFARI, 1200.0, LocalDate.of(2026, 8, 1), true);
+        pricySafari = voucher(TourType.SAFARI, 3000.0, LocalDate.of(2026, 7, 1), true);
+        regularSafari = voucher(TourType.SAFARI, 100.0, LocalDate.of(2026, 7, 1), false);
+        wine = voucher(TourType.WINE, 800.0, LocalDate.of(2026, 5, 1), true);
+
+        index.rebuild(List.of(pricySafari, lateSafari, regularSafari, wine, earlySafari, cheapSafari));
+    }
+
+    @Test
+    void top_shouldRankHotDealsByPriceThenArrivalDate() {
+        assertEquals(List.of(cheapSafari, earlySafari, lateSafari), index.top(TourType.SAFARI, 10).get(TourType.SAFARI));
+        assertEquals(List.of(cheapSafari, earlySafari), index.top(TourType.SAFARI, 2).get(TourType.SAFARI));
+    }
+
+    @Test
+    void top_shouldCoverEveryTourType_whenNoneIsGiven() {
+        Map<TourType, List<VoucherDTO>> top = index.top(null, 3);
+
+        assertEquals(TourType.values().length, top.size());
+        assertEquals(List.of(wine), top.get(TourType.WINE));
+        assertEquals(List.of(), top.get(TourType.ECO));
+        assertEquals(List.of(TourType.WINE), List.copyOf(index.top(TourType.WINE, 3).keySet()));
+    }
+
+    @Test
+    void apply_shouldPromoteNextDeal_whenTopOneIsOrderedOrCooledDown() {
+        VoucherDTO ordered = copy(cheapSafari);
+        ordered.setStatus(VoucherStatus.PAID);
+        index.apply(new VoucherChangedEvent(VoucherChangeType.ORDERED, id(cheapSafari), ordered));
+
+        assertEquals(List.of(earlySafari, lateSafari, pricySafari), index.top(TourType.SAFARI, 3).get(TourType.SAFARI));
+
+        VoucherDTO notHot = copy(earlySafari);
+        notHot.setIsHot(false);
+        index.apply(new VoucherChangedEvent(VoucherChangeType.HOT_STATUS_CHANGED, id(earlySafari), notHot));
+
+        assertEquals(List.of(lateSafari, pricySafari), index.top(TourType.SAFARI, 3).get(TourType.SAFARI));
+    }
+
+    @Test
+    void apply_shouldRerankUpdatedAndAddPromotedVouchers() {
+        VoucherDTO discounted = copy(pricySafari);
+        discounted.setPrice(500.0);
+        index.apply(new VoucherChangedEvent(VoucherChangeType.UPDATED, id(pricySafari), discounted));
+
+        VoucherDTO promoted = copy(regularSafari);
+        promoted.setIsHot(true);
+        index.apply(new VoucherChangedEvent(VoucherChangeType.HOT_STATUS_CHANGED, id(regularSafari), promoted));
+
+        VoucherDTO moved = copy(wine);
+        moved.setTourType(TourType.SAFARI);
+        moved.setPrice(5000.0);
+        index.apply(new VoucherChangedEvent(VoucherChangeType.UPDATED, id(wine), moved));
+
+        assertEquals(List.of(promoted, discounted, cheapSafari), index.top(TourType.SAFARI, 3).get(TourType.SAFARI));
+        assertEquals(List.of(), index.top(TourType.WINE, 3).get(TourType.WINE));
+
+        index.apply(new VoucherChangedEvent(VoucherChangeType.DELETED, id(regularSafari), null));
+        assertEquals(List.of(discounted, cheapSafari, earlySafari), index.top(TourType.SAFARI, 3).get(TourType.SAFARI));
+    }
+
+    private static UUID id(VoucherDTO dto) {
+        return UUID.fromString(dto.getId());
+    }
+
+    private static VoucherDTO copy(VoucherDTO source) {
+        VoucherDTO dto = voucher(source.getTourType(), source.getPrice(), source.getArrivalDate(), source.getIsHot());
+        dto.setId(source.getId());
+        return dto;
+    }
+
+    private static VoucherDTO voucher(TourType tourType, double price, LocalDate arrival, boolean hot) {
+        VoucherDTO dto = new VoucherDTO();
+        dto.setId(UUID.randomUUID().toString());
+        dto.setTourType(tourType);
+        dto.setPrice(price);
+        dto.setArrivalDate(arrival);
+        dto.setEvictionDate(arrival.plusDays(7));
+        dto.setIsHot(hot);
+        dto.setStatus(VoucherStatus.REGISTERED);
+        return dto;
+    }
+}
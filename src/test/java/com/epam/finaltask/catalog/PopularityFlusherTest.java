@@ -0,0 +1,170 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PopularityFlusherTest {
+
+    private static final Duration HALF_LIFE = Duration.ofDays(7);
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private PopularityCounters counters;
+    private CatalogVersion catalogVersion;
+    private MutableClock clock;
+    private PopularityFlusher flusher;
+
+    private UUID viewed;
+    private UUID ordered;
+    private UUID ignored;
+
+    @BeforeEach
+    void setUp() {
+        viewed = save("Viewed");
+        ordered = save("Ordered");
+        ignored = save("Ignored");
+        entityManager.flush();
+
+        counters = new PopularityCounters();
+        catalogVersion = new CatalogVersion();
+        clock = new MutableClock();
+        flusher = new PopularityFlusher(counters, voucherRepository, catalogVersion, HALF_LIFE, clock);
+    }
+
+    @Test
+    void flush_shouldWriteWeightedGainsAndSortByPopularity() {
+        counters.recordView(viewed);
+        counters.recordView(viewed);
+        counters.recordImpressions(List.of(dto(viewed), dto(ordered)));
+        counters.recordOrder(ordered);
+        long version = catalogVersion.current();
+        long popularity = catalogVersion.popularity();
+
+        flusher.flush();
+
+        assertEquals(2 * PopularityCounters.VIEW_WEIGHT + PopularityCounters.IMPRESSION_WEIGHT, popularity(viewed), 1e-9);
+        assertEquals(PopularityCounters.ORDER_WEIGHT + PopularityCounters.IMPRESSION_WEIGHT, popularity(ordered), 1e-9);
+        assertEquals(0.0, popularity(ignored));
+        assertEquals(List.of(ordered, viewed, ignored), byPopularity());
+        assertTrue(catalogVersion.popularity() > popularity);
+        assertEquals(version, catalogVersion.current());
+    }
+
+    @Test
+    void flush_shouldRankRecentActivityAboveEqualOlderActivity() {
+        counters.recordView(viewed);
+        flusher.flush();
+
+        clock.advance(HALF_LIFE.dividedBy(2));
+        counters.recordView(ordered);
+        flusher.flush();
+
+        assertEquals(1.0, popularity(viewed), 1e-9);
+        assertEquals(Math.sqrt(2), popularity(ordered), 1e-9);
+
+        clock.advance(HALF_LIFE.dividedBy(2));
+        counters.recordView(ignored);
+        flusher.flush();
+
+        assertEquals(0.5, popularity(viewed), 1e-9);
+        assertEquals(Math.sqrt(2) / 2, popularity(ordered), 1e-9);
+        assertEquals(1.0, popularity(ignored), 1e-9);
+        assertEquals(List.of(ignored, ordered, viewed), byPopularity());
+    }
+
+    @Test
+    void flush_shouldNotCountTwiceOrBumpVersion_whenNothingHappened() {
+        counters.recordView(viewed);
+        flusher.flush();
+        long version = catalogVersion.popularity();
+
+        flusher.flush();
+
+        assertEquals(PopularityCounters.VIEW_WEIGHT, popularity(viewed), 1e-9);
+        assertEquals(version, catalogVersion.popularity());
+        assertTrue(counters.drain().isEmpty());
+    }
+
+    private double popularity(UUID id) {
+        entityManager.clear();
+        return voucherRepository.findById(id).orElseThrow().getPopularity();
+    }
+
+    private List<UUID> byPopularity() {
+        entityManager.clear();
+        return voucherRepository.findAll(Sort.by(Sort.Direction.DESC, "popularity")).stream()
+                .map(Voucher::getId)
+                .toList();
+    }
+
+    private UUID save(String title) {
+        Voucher voucher = new Voucher();
+        voucher.setTitle(title);
+        voucher.setDescription("Popularity trip");
+        voucher.setPrice(100.0);
+        voucher.setTourType(TourType.ECO);
+        voucher.setTransferType(TransferType.BUS);
+        voucher.setHotelType(HotelType.THREE_STARS);
+        voucher.setStatus(VoucherStatus.REGISTERED);
+        voucher.setArrivalDate(LocalDate.of(2026, 6, 1));
+        voucher.setEvictionDate(LocalDate.of(2026, 6, 8));
+        voucher.setIsHot(false);
+        return voucherRepository.save(voucher).getId();
+    }
+
+    private static VoucherDTO dto(UUID id) {
+        VoucherDTO dto = new VoucherDTO();
+        dto.setId(id.toString());
+        return dto;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.VoucherStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelevanceIndexTest {
+
+    private RelevanceIndex index;
+
+    private VoucherDTO safari;
+    private VoucherDTO safariMention;
+    private VoucherDTO wine;
+    private VoucherDTO spa;
+
+    @BeforeEach
+    void setUp() {
+        index = new RelevanceIndex(true, 10);
+
+        safari = voucher("Kenya Safari", "Wildlife safari in the savanna");
+        safariMention = voucher("Nairobi city break", "Museums, markets and an optional safari day with lots of city walks");
+        wine = voucher("Bordeaux wine tour", "Vineyards, cellars and wine tasting");
+        spa = voucher("Alpine spa", "Thermal baths and massages");
+
+        index.rebuild(List.of(safari, safariMention, wine, spa));
+    }
+
+    @Test
+    void search_shouldRankByTermFrequencyAndTitleBoost() {
+        assertEquals(Optional.of(List.of(id(safari), id(safariMention))), index.search("safari"));
+        assertEquals(Optional.of(List.of(id(wine))), index.search("WINE"));
+    }
+
+    @Test
+    void search_shouldMatchAnyQueryTermAndSumTheirScores() {
+        List<UUID> ranked = index.search("wine safari").orElseThrow();
+
+        assertEquals(3, ranked.size());
+        assertTrue(ranked.indexOf(id(safari)) < ranked.indexOf(id(safariMention)));
+
+        assertEquals(Optional.of(List.of(id(wine), id(spa))), index.search("thermal wine"));
+        assertEquals(Optional.of(List.of(id(spa), id(wine))), index.search("thermal baths wine"));
+    }
+
+    @Test
+    void search_shouldTolerateOneTypoButPreferExactMatches() {
+        assertEquals(Optional.of(List.of(id(safari), id(safariMention))), index.search("safary"));
+        assertEquals(Optional.of(List.of(id(safari), id(safariMention))), index.search("sfaari"));
+        assertEquals(Optional.of(List.of(id(wine))), index.search("bordaux"));
+        assertEquals(Optional.of(List.of()), index.search("sfaary"));
+
+        VoucherDTO wines = voucher("Wines of Rioja", "Tempranillo cellars");
+        index.apply(new VoucherChangedEvent(VoucherChangeType.CREATED, id(wines), wines));
+        assertEquals(Optional.of(List.of(id(wine), id(wines))), index.search("wine"));
+    }
+
+    @Test
+    void search_shouldIgnoreStopWordsAndSkipFuzzyMatchingForShortTerms() {
+        assertEquals(Optional.of(List.of()), index.search("and the with"));
+        assertEquals(Optional.of(List.of(id(spa))), index.search("spa"));
+        assertEquals(Optional.of(List.of()), index.search("sap"));
+    }
+
+    @Test
+    void apply_shouldReindexUpdatedAndDropOrderedVouchers() {
+        VoucherDTO renamed = voucher("Tuscany wine weekend", "Chianti tasting");
+        renamed.setId(spa.getId());
+        index.apply(new VoucherChangedEvent(VoucherChangeType.UPDATED, id(spa), renamed));
+
+        assertEquals(Optional.of(List.of()), index.search("thermal"));
+        assertEquals(2, index.search("wine").orElseThrow().size());
+
+        VoucherDTO paid = voucher("Kenya Safari", "Wildlife safari in the savanna");
+        paid.setId(safari.getId());
+        paid.setStatus(VoucherStatus.PAID);
+        index.apply(new VoucherChangedEvent(VoucherChangeType.ORDERED, id(safari), paid));
+
+        assertEquals(Optional.of(List.of(id(safariMention))), index.search("safary"));
+        assertEquals(Optional.of(List.of()), index.search("kenya"));
+    }
+
+    @Test
+    void search_shouldCapResultsAndStayEmpty_whenDisabledOrNotBuilt() {
+        RelevanceIndex capped = new RelevanceIndex(true, 1);
+        capped.rebuild(List.of(safari, safariMention));
+        assertEquals(Optional.of(List.of(id(safari))), capped.search("safari"));
+
+        assertTrue(new RelevanceIndex(true, 10).search("safari").isEmpty());
+        RelevanceIndex disabled = new RelevanceIndex(false, 10);
+        disabled.rebuild(List.of(safari));
+        assertTrue(disabled.search("safari").isEmpty());
+    }
+
+    @Test
+    void withinOneEdit_shouldAcceptSingleEditsOnly() {
+        assertTrue(RelevanceIndex.withinOneEdit("safari", "safary"));
+        assertTrue(RelevanceIndex.withinOneEdit("safari", "safri"));
+        assertTrue(RelevanceIndex.withinOneEdit("safari", "safaris"));
+        assertTrue(RelevanceIndex.withinOneEdit("safari", "sfaari"));
+        assertFalse(RelevanceIndex.withinOneEdit("safari", "sfaary"));
+        assertFalse(RelevanceIndex.withinOneEdit("safari", "safarist"));
+        assertFalse(RelevanceIndex.withinOneEdit("wine", "wild"));
+    }
+
+    private static UUID id(VoucherDTO dto) {
+        return UUID.fromString(dto.getId());
+    }
+
+    private static VoucherDTO voucher(String title, String description) {
+        VoucherDTO dto = new VoucherDTO();
+        dto.setId(UUID.randomUUID().toString());
+        dto.setTitle(title);
+        dto.setDescription(description);
+        dto.setStatus(VoucherStatus.REGISTERED);
+        return dto;
+    }
+}
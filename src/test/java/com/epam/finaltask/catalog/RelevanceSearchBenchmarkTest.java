@@ -0,0 +1,72 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.mapper.VoucherMapperImpl;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import com.epam.finaltask.service.CatalogService;
+import com.epam.finaltask.service.VoucherServices;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Measures {@link RelevanceIndex} lookups on their own and a relevance-ordered catalog
+ * search end to end, for exact, misspelled and multi-term queries.
+ * Run with {@code mvn test -Pbenchmark [-Dbenchmark.rows=1000000]}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RelevanceSearchBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+
+    private static final String[] QUERIES = {"jungle", "jungel", "wines bordeaux", "kilimanjaro", "patagnoia"};
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void measureRankedSearch() {
+        List<VoucherDTO> catalog = SyntheticCatalog.insert(jdbcTemplate, ROWS);
+
+        RelevanceIndex relevance = new RelevanceIndex(true, 1000);
+        long start = System.nanoTime();
+        relevance.rebuild(catalog);
+        System.out.printf("Relevance index built over %,d vouchers in %.0f ms%n",
+                ROWS, (System.nanoTime() - start) / 1_000_000.0);
+
+        VoucherMapperImpl mapper = new VoucherMapperImpl(new ModelMapper());
+        CatalogService searchPath = VoucherServices.over(voucherRepository, userRepository)
+                .voucherMapper(mapper).relevanceIndex(relevance).catalog();
+
+        Pageable pageable = PageRequest.of(0, 10);
+        for (String query : QUERIES) {
+            assertFalse(relevance.search(query).orElseThrow().isEmpty(), query);
+
+            double indexMs = CatalogQueryBenchmarkTest.measure(() -> relevance.search(query));
+            double pageMs = CatalogQueryBenchmarkTest.measure(() -> searchPath.searchCatalog(
+                    query, null, null, null, null, null, null, pageable, true));
+            System.out.printf("  %-16s index %7.3f ms   page %8.2f ms%n", query, indexMs, pageMs);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SavedSearchIndexTest {
+
+    private static final LocalDate ARRIVAL = LocalDate.of(2026, 7, 1);
+
+    private SavedSearchIndex index;
+    private User owner;
+    private final List<UUID> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        index = new SavedSearchIndex(500);
+        owner = new User();
+        owner.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void match_shouldApplyEveryCatalogPredicate() {
+        SavedSearch safari = search(TourType.SAFARI, null, null);
+        SavedSearch cheapPlane = search(null, TransferType.PLANE, null);
+        cheapPlane.setMinPrice(0.0);
+        cheapPlane.setMaxPrice(1000.0);
+        SavedSearch jungleWeek = search(null, null, null);
+        jungleWeek.setDescription("jungle");
+        jungleWeek.setMinNights(7);
+        SavedSearch luxury = search(TourType.SAFARI, null, HotelType.FIVE_STARS);
+        index.rebuild(List.of(safari, cheapPlane, jungleWeek, luxury));
+
+        assertEquals(List.of(safari.getId(), cheapPlane.getId(), jungleWeek.getId()),
+                matched(voucher(TourType.SAFARI, TransferType.PLANE, HotelType.THREE_STARS, 900.0,
+                        "Deep JUNGLE lodge", 7)));
+        assertEquals(List.of(safari.getId(), luxury.getId()),
+                matched(voucher(TourType.SAFARI, TransferType.PLANE, HotelType.FIVE_STARS, 1000.01,
+                        "Jungle lodge", 6)));
+        assertEquals(List.of(), matched(voucher(TourType.ECO, TransferType.BUS, HotelType.THREE_STARS, 100.0,
+                "City walk", 3)));
+    }
+
+    @Test
+    void match_shouldReportTheOwnerOfEachSearch() {
+        SavedSearch safari = search(TourType.SAFARI, null, null);
+        index.put(safari);
+
+        assertEquals(List.of(new SavedSearchIndex.Match(safari.getId(), owner.getId())),
+                index.match(voucher(TourType.SAFARI, TransferType.BUS, HotelType.ONE_STAR, 100.0, "Trip", 3)));
+    }
+
+    @Test
+    void candidates_shouldComeFromTheSmallestPostingList() {
+        List<SavedSearch> searches = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            searches.add(search(TourType.ECO, TransferType.BUS, null));
+        }
+        SavedSearch healthByTrain = search(TourType.HEALTH, TransferType.TRAIN, null);
+        searches.add(healthByTrain);
+        index.rebuild(searches);
+
+        VoucherDTO ecoByTrain = voucher(TourType.ECO, TransferType.TRAIN, HotelType.TWO_STARS, 300.0, "Trip", 3);
+        assertEquals(List.of(healthByTrain.getId()), List.copyOf(index.candidates(ecoByTrain)));
+        assertTrue(index.match(ecoByTrain).isEmpty());
+
+        VoucherDTO ecoByBus = voucher(TourType.ECO, TransferType.BUS, HotelType.TWO_STARS, 300.0, "Trip", 3);
+        assertEquals(50, index.candidates(ecoByBus).size());
+        assertEquals(50, index.match(ecoByBus).size());
+
+        VoucherDTO sportsByShip = voucher(TourType.SPORTS, TransferType.SHIP, HotelType.TWO_STARS, 300.0, "Trip", 3);
+        assertTrue(index.candidates(sportsByShip).isEmpty());
+    }
+
+    @Test
+    void priceBuckets_shouldCoverRangeEdgesAndSendWideRangesToAnyPrice() {
+        SavedSearch narrow = search(null, null, null);
+        narrow.setMinPrice(499.0);
+        narrow.setMaxPrice(1000.0);
+        SavedSearch wide = search(null, null, null);
+        wide.setMinPrice(0.0);
+        wide.setMaxPrice(500.0 * SavedSearchIndex.MAX_PRICE_BUCKETS);
+        index.rebuild(List.of(narrow, wide));
+
+        assertEquals(List.of(wide.getId()), matched(priced(498.99)));
+        assertEquals(List.of(narrow.getId(), wide.getId()), matched(priced(499.0)));
+        assertEquals(List.of(narrow.getId(), wide.getId()), matched(priced(1000.0)));
+        assertEquals(List.of(wide.getId()), matched(priced(1000.5)));
+        assertEquals(List.of(), matched(priced(500.0 * SavedSearchIndex.MAX_PRICE_BUCKETS + 1)));
+    }
+
+    @Test
+    void putAndRemove_shouldReplaceAndDropPostings() {
+        SavedSearch search = search(TourType.WINE, null, null);
+        index.put(search);
+
+        search.setTourType(TourType.HEALTH);
+        index.put(search);
+        assertEquals(1, index.size());
+        assertEquals(List.of(), matched(voucher(TourType.WINE, TransferType.BUS, HotelType.ONE_STAR, 100.0, "Trip", 3)));
+        assertEquals(List.of(search.getId()),
+                matched(voucher(TourType.HEALTH, TransferType.BUS, HotelType.ONE_STAR, 100.0, "Trip", 3)));
+
+        index.remove(search.getId());
+        assertEquals(0, index.size());
+        assertEquals(List.of(), matched(voucher(TourType.HEALTH, TransferType.BUS, HotelType.ONE_STAR, 100.0, "Trip", 3)));
+    }
+
+    private List<UUID> matched(VoucherDTO voucher) {
+        return index.match(voucher).stream()
+                .map(SavedSearchIndex.Match::savedSearchId)
+                .sorted(this::byCreation)
+                .toList();
+    }
+
+    private int byCreation(UUID a, UUID b) {
+        return Integer.compare(created.indexOf(a), created.indexOf(b));
+    }
+
+    private SavedSearch search(TourType tourType, TransferType transferType, HotelType hotelType) {
+        SavedSearch search = new SavedSearch();
+        search.setId(UUID.randomUUID());
+        search.setUser(owner);
+        search.setName("Search " + created.size());
+        search.setTourType(tourType);
+        search.setTransferType(transferType);
+        search.setHotelType(hotelType);
+        created.add(search.getId());
+        return search;
+    }
+
+    private static VoucherDTO priced(double price) {
+        return voucher(TourType.ECO, TransferType.BUS, HotelType.ONE_STAR, price, "Trip", 3);
+    }
+
+    private static VoucherDTO voucher(TourType tourType, TransferType transferType, HotelType hotelType,
+                                      double price, String description, int nights) {
+        VoucherDTO dto = new VoucherDTO();
+        dto.setId(UUID.randomUUID().toString());
+        dto.setTitle("Trip");
+        dto.setDescription(description);
+        dto.setPrice(price);
+        dto.setTourType(tourType);
+        dto.setTransferType(transferType);
+        dto.setHotelType(hotelType);
+        dto.setStatus(VoucherStatus.REGISTERED);
+        dto.setArrivalDate(ARRIVAL);
+        dto.setEvictionDate(ARRIVAL.plusDays(nights));
+        dto.setIsHot(false);
+        return dto;
+    }
+}
@@ -0,0 +1,36 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.exception.InvalidSortException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortKeyTest {
+
+    @Test
+    void of_shouldResolveRequestParameterNames() {
+        assertEquals(SortKey.PRICE, SortKey.of("price"));
+        assertEquals(SortKey.ARRIVAL_DATE, SortKey.of("arrivalDate"));
+        assertEquals(SortKey.POPULARITY, SortKey.of("popularity"));
+    }
+
+    @Test
+    void of_shouldRejectUnknownOrUnindexedKeys() {
+        InvalidSortException e = assertThrows(InvalidSortException.class, () -> SortKey.of("description"));
+        assertTrue(e.getMessage().contains("price, arrivalDate, evictionDate, title, popularity"));
+        assertThrows(InvalidSortException.class, () -> SortKey.of("Price"));
+        assertThrows(InvalidSortException.class, () -> SortKey.of(null));
+    }
+
+    @Test
+    void catalogOrder_shouldPutHotFirstAndEndWithIdTiebreaker() {
+        Sort expected = Sort.by(Sort.Direction.DESC, "isHot")
+                .and(Sort.by(Sort.Direction.DESC, "title"))
+                .and(Sort.by(Sort.Direction.ASC, "id"));
+
+        assertEquals(expected, SortKey.TITLE.catalogOrder(false));
+        assertEquals(Sort.by("priceCents").and(Sort.by("id")), SortKey.PRICE.order(true));
+        assertEquals("price", SortKey.PRICE.getKey());
+    }
+}
@@ -0,0 +1,85 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.HotelType;
+import com.epam.finaltask.model.Money;
+import com.epam.finaltask.model.TourType;
+import com.epam.finaltask.model.TransferType;
+import com.epam.finaltask.model.VoucherStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates a reproducible REGISTERED catalog for the benchmarks and inserts it with JDBC batches.
+ */
+final class SyntheticCatalog {
+
+    static final String[] WORDS = {
+            "wildlife", "africa", "wines", "bordeaux", "historic", "cities", "andes", "mountains",
+            "rainforest", "spa", "yoga", "ruins", "islands", "bungee", "hiking", "jungle",
+            "thermal", "baths", "surfing", "beaches", "quiet", "remote", "getaway", "scenic"
+    };
+
+    /**
+     * Words that appear in roughly one voucher out of {@code RARE_EVERY * RARE_WORDS.length}.
+     */
+    static final String[] RARE_WORDS = {"zanzibar", "kilimanjaro", "patagonia", "transylvania"};
+
+    private static final int RARE_EVERY = 500;
+    private static final int BATCH = 10_000;
+
+    private SyntheticCatalog() {
+    }
+
+    static List<VoucherDTO> insert(JdbcTemplate jdbcTemplate, int rows) {
+        Random random = new Random(42);
+        TourType[] tourTypes = TourType.values();
+        TransferType[] transferTypes = TransferType.values();
+        HotelType[] hotelTypes = HotelType.values();
+        LocalDate base = LocalDate.of(2026, 1, 1);
+
+        String sql = "INSERT INTO vouchers (id, title, description, price_cents, tour_type, transfer_type, hotel_type, "
+                + "status, arrival_date, eviction_date, is_hot) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        List<VoucherDTO> catalog = new ArrayList<>(rows);
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < rows; i++) {
+            VoucherDTO dto = new VoucherDTO();
+            UUID id = UUID.randomUUID();
+            dto.setId(id.toString());
+            dto.setTitle("Voucher " + i);
+            String description = WORDS[random.nextInt(WORDS.length)] + " and "
+                    + WORDS[random.nextInt(WORDS.length)] + " near " + WORDS[random.nextInt(WORDS.length)];
+            if (i % RARE_EVERY == 0) {
+                description += " via " + RARE_WORDS[random.nextInt(RARE_WORDS.length)];
+            }
+            dto.setDescription(description);
+            dto.setPrice((double) (100 + random.nextInt(4900)));
+            dto.setTourType(tourTypes[random.nextInt(tourTypes.length)]);
+            dto.setTransferType(transferTypes[random.nextInt(transferTypes.length)]);
+            dto.setHotelType(hotelTypes[random.nextInt(hotelTypes.length)]);
+            dto.setStatus(VoucherStatus.REGISTERED);
+            dto.setArrivalDate(base.plusDays(random.nextInt(365)));
+            dto.setEvictionDate(dto.getArrivalDate().plusDays(1 + random.nextInt(14)));
+            dto.setIsHot(random.nextInt(10) == 0);
+            catalog.add(dto);
+
+            batch.add(new Object[]{id, dto.getTitle(), dto.getDescription(), Money.toCents(dto.getPrice()),
+                    dto.getTourType().name(), dto.getTransferType().name(), dto.getHotelType().name(),
+                    dto.getStatus().name(), dto.getArrivalDate(), dto.getEvictionDate(), dto.getIsHot()});
+            if (batch.size() == BATCH) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        return catalog;
+    }
+}
@@ -0,0 +1,88 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherSuggestion;
+import com.epam.finaltask.model.VoucherStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleSuggestIndexTest {
+
+    private TitleSuggestIndex index;
+
+    private VoucherDTO parisWeekend;
+    private VoucherDTO romanticParis;
+    private VoucherDTO parisHot;
+    private VoucherDTO safari;
+
+    @BeforeEach
+    void setUp() {
+        index = new TitleSuggestIndex(2);
+
+        parisWeekend = voucher("Paris Weekend", false);
+        romanticParis = voucher("Romantic  PARIS", false);
+        parisHot = voucher("Paris Lights", true);
+        safari = voucher("Kenya Safari", false);
+
+        index.rebuild(List.of(parisWeekend, romanticParis, parisHot, safari));
+    }
+
+    @Test
+    void suggest_shouldMatchAnyWordPrefixIgnoringCase() {
+        assertEquals(List.of(id(safari)), ids(index.suggest("SAF", 10, true)));
+        assertEquals(List.of(id(romanticParis)), ids(index.suggest("romantic p", 10, true)));
+        assertTrue(index.suggest("afari", 10, true).isEmpty());
+        assertTrue(index.suggest("  ", 10, true).isEmpty());
+    }
+
+    @Test
+    void suggest_shouldRankHotFirstAndCapAtTopK() {
+        assertEquals(List.of(id(parisHot), id(parisWeekend)), ids(index.suggest("par", 10, true)));
+        assertEquals(List.of(id(parisHot)), ids(index.suggest("par", 1, true)));
+    }
+
+    @Test
+    void suggest_shouldLeaveOutHotVouchers_whenHotIsHidden() {
+        assertEquals(List.of(id(parisWeekend), id(romanticParis)), ids(index.suggest("par", 10, false)));
+    }
+
+    @Test
+    void apply_shouldOfferRenamedAndRecomputeAfterRemoval() {
+        VoucherDTO renamed = voucher("Paris Apartments", false);
+        renamed.setId(safari.getId());
+        index.apply(new VoucherChangedEvent(VoucherChangeType.UPDATED, id(safari), renamed));
+
+        assertTrue(index.suggest("kenya", 10, true).isEmpty());
+        assertEquals(List.of(id(parisHot), id(safari)), ids(index.suggest("paris", 10, true)));
+
+        VoucherDTO ordered = voucher("Paris Lights", true);
+        ordered.setId(parisHot.getId());
+        ordered.setStatus(VoucherStatus.PAID);
+        index.apply(new VoucherChangedEvent(VoucherChangeType.ORDERED, id(parisHot), ordered));
+
+        assertEquals(List.of(id(safari), id(parisWeekend)), ids(index.suggest("paris", 10, true)));
+        assertTrue(index.suggest("lights", 10, true).isEmpty());
+    }
+
+    private static List<UUID> ids(List<VoucherSuggestion> suggestions) {
+        return suggestions.stream().map(suggestion -> UUID.fromString(suggestion.getId())).toList();
+    }
+
+    private static UUID id(VoucherDTO dto) {
+        return UUID.fromString(dto.getId());
+    }
+
+    private static VoucherDTO voucher(String title, boolean hot) {
+        VoucherDTO dto = new VoucherDTO();
+        dto.setId(UUID.randomUUID().toString());
+        dto.setTitle(title);
+        dto.setIsHot(hot);
+        dto.setStatus(VoucherStatus.REGISTERED);
+        return dto;
+    }
+}
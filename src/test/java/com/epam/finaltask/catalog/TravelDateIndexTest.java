@@ -0,0 +1,119 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.VoucherStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TravelDateIndexTest {
+
+    private TravelDateIndex index;
+
+    private VoucherDTO weekend;
+    private VoucherDTO week;
+    private VoucherDTO fortnight;
+
+    @BeforeEach
+    void setUp() {
+        index = new TravelDateIndex(true, 10);
+
+        weekend = voucher(LocalDate.of(2026, 6, 5), 2);
+        week = voucher(LocalDate.of(2026, 6, 10), 7);
+        fortnight = voucher(LocalDate.of(2026, 7, 1), 14);
+
+        index.rebuild(List.of(weekend, week, fortnight));
+    }
+
+    @Test
+    void candidates_shouldMatchTripsStartingWithinRange() {
+        TravelWindow june = TravelWindow.builder()
+                .startsFrom(LocalDate.of(2026, 6, 1))
+                .startsTo(LocalDate.of(2026, 6, 10))
+                .build();
+
+        assertEquals(Optional.of(Set.of(id(weekend), id(week))), index.candidates(june));
+    }
+
+    @Test
+    void candidates_shouldMatchTripsFittingInsideRange() {
+        TravelWindow holiday = TravelWindow.builder()
+                .withinFrom(LocalDate.of(2026, 6, 1))
+                .withinTo(LocalDate.of(2026, 6, 16))
+                .build();
+
+        assertEquals(Optional.of(Set.of(id(weekend))), index.candidates(holiday));
+    }
+
+    @Test
+    void candidates_shouldMatchByNightsAlone() {
+        TravelWindow longStay = TravelWindow.builder().minNights(7).build();
+        TravelWindow shortStay = TravelWindow.builder().maxNights(3).build();
+
+        assertEquals(Optional.of(Set.of(id(week), id(fortnight))), index.candidates(longStay));
+        assertEquals(Optional.of(Set.of(id(weekend))), index.candidates(shortStay));
+    }
+
+    @Test
+    void candidates_shouldCombineStartRangeAndNights() {
+        TravelWindow window = TravelWindow.builder()
+                .startsFrom(LocalDate.of(2026, 6, 1))
+                .minNights(5)
+                .maxNights(10)
+                .build();
+
+        assertEquals(Optional.of(Set.of(id(week))), index.candidates(window));
+    }
+
+    @Test
+    void candidates_shouldNotNarrow_whenEmptyDisabledOrTooBroad() {
+        assertTrue(index.candidates(TravelWindow.builder().build()).isEmpty());
+        assertTrue(index.candidates(null).isEmpty());
+
+        TravelDateIndex disabled = new TravelDateIndex(false, 10);
+        disabled.rebuild(List.of(week));
+        assertTrue(disabled.candidates(TravelWindow.builder().minNights(1).build()).isEmpty());
+
+        TravelDateIndex narrow = new TravelDateIndex(true, 1);
+        narrow.rebuild(List.of(weekend, week, fortnight));
+        assertTrue(narrow.candidates(TravelWindow.builder().minNights(1).build()).isEmpty());
+    }
+
+    @Test
+    void apply_shouldMoveRescheduledAndDropOrderedVouchers() {
+        VoucherDTO moved = voucher(LocalDate.of(2026, 8, 1), 3);
+        moved.setId(weekend.getId());
+        index.apply(new VoucherChangedEvent(VoucherChangeType.UPDATED, id(weekend), moved));
+
+        TravelWindow august = TravelWindow.builder().startsFrom(LocalDate.of(2026, 8, 1)).build();
+        assertEquals(Optional.of(Set.of(id(weekend))), index.candidates(august));
+        assertEquals(Optional.of(Set.of()), index.candidates(TravelWindow.builder().maxNights(2).build()));
+
+        VoucherDTO paid = voucher(LocalDate.of(2026, 6, 10), 7);
+        paid.setId(week.getId());
+        paid.setStatus(VoucherStatus.PAID);
+        index.apply(new VoucherChangedEvent(VoucherChangeType.ORDERED, id(week), paid));
+
+        assertEquals(Optional.of(Set.of(id(fortnight))), index.candidates(TravelWindow.builder().minNights(5).build()));
+    }
+
+    private static UUID id(VoucherDTO dto) {
+        return UUID.fromString(dto.getId());
+    }
+
+    private static VoucherDTO voucher(LocalDate arrival, int nights) {
+        VoucherDTO dto = new VoucherDTO();
+        dto.setId(UUID.randomUUID().toString());
+        dto.setArrivalDate(arrival);
+        dto.setEvictionDate(arrival.plusDays(nights));
+        dto.setStatus(VoucherStatus.REGISTERED);
+        return dto;
+    }
+}
@@ -0,0 +1,114 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.VoucherStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    private VoucherDTO safari;
+    private VoucherDTO wine;
+    private VoucherDTO spa;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex(true, 2);
+
+        safari = voucher("Safari Adventure", "Explore wildlife in Africa.");
+        wine = voucher("Wine Tour France", "Taste wines in Bordeaux.");
+        spa = voucher("Health Spa Hungary", "Thermal baths and wellness.");
+
+        index.rebuild(List.of(safari, wine, spa));
+    }
+
+    @Test
+    void candidates_shouldMatchTitleAndDescriptionIgnoringCase() {
+        assertEquals(Optional.of(Set.of(id(wine))), index.candidates("BORDEAUX"));
+        assertEquals(Optional.of(Set.of(id(spa))), index.candidates("spa hun"));
+    }
+
+    @Test
+    void candidates_shouldReturnEmptySet_whenTrigramIsUnknown() {
+        assertEquals(Optional.of(Set.of()), index.candidates("zanzibar"));
+    }
+
+    @Test
+    void candidates_shouldNotNarrow_whenTermIsShorterThanTrigram() {
+        assertTrue(index.candidates("wi").isEmpty());
+    }
+
+    @Test
+    void candidates_shouldNotNarrow_whenTooManyVouchersQualify() {
+        TrigramIndex narrow = new TrigramIndex(true, 1);
+        narrow.rebuild(List.of(safari, wine, spa));
+
+        assertTrue(narrow.candidates(" in ").isEmpty());
+        assertEquals(Optional.of(Set.of(id(safari), id(wine))), index.candidates(" in "));
+    }
+
+    @Test
+    void candidates_shouldNotNarrow_whenDisabledOrNotBuilt() {
+        TrigramIndex disabled = new TrigramIndex(false, 10);
+        disabled.rebuild(List.of(wine));
+
+        assertTrue(disabled.candidates("wine").isEmpty());
+        assertTrue(new TrigramIndex(true, 10).candidates("wine").isEmpty());
+    }
+
+    @Test
+    void apply_shouldReindexUpdatedAndDropOrderedVouchers() {
+        VoucherDTO renamed = voucher("Wine Tour Italy", "Taste wines in Tuscany.");
+        renamed.setId(wine.getId());
+        index.apply(new VoucherChangedEvent(VoucherChangeType.UPDATED, id(wine), renamed));
+
+        assertEquals(Optional.of(Set.of()), index.candidates("bordeaux"));
+        assertEquals(Optional.of(Set.of(id(wine))), index.candidates("tuscany"));
+
+        VoucherDTO paid = voucher(safari.getTitle(), safari.getDescription());
+        paid.setId(safari.getId());
+        paid.setStatus(VoucherStatus.PAID);
+        index.apply(new VoucherChangedEvent(VoucherChangeType.ORDERED, id(safari), paid));
+
+        assertEquals(Optional.of(Set.of()), index.candidates("wildlife"));
+    }
+
+    @Test
+    void apply_shouldReuseFreedDocumentSlots() {
+        index.apply(new VoucherChangedEvent(VoucherChangeType.DELETED, id(spa), null));
+
+        VoucherDTO eco = voucher("Eco Lodge", "Rainforest canopy walks.");
+        index.apply(new VoucherChangedEvent(VoucherChangeType.CREATED, id(eco), eco));
+
+        assertEquals(Optional.of(Set.of()), index.candidates("thermal"));
+        assertEquals(Optional.of(Set.of(id(eco))), index.candidates("canopy"));
+    }
+
+    @Test
+    void trigrams_shouldBeDistinct() {
+        assertEquals(1, TrigramIndex.trigrams("aaaa").length);
+        assertEquals(0, TrigramIndex.trigrams("ab").length);
+    }
+
+    private static UUID id(VoucherDTO dto) {
+        return UUID.fromString(dto.getId());
+    }
+
+    private static VoucherDTO voucher(String title, String description) {
+        VoucherDTO dto = new VoucherDTO();
+        dto.setId(UUID.randomUUID().toString());
+        dto.setTitle(title);
+        dto.setDescription(description);
+        dto.setStatus(VoucherStatus.REGISTERED);
+        return dto;
+    }
+}
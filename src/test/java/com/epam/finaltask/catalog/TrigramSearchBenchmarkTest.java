@@ -0,0 +1,81 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.mapper.VoucherMapperImpl;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import com.epam.finaltask.service.CatalogService;
+import com.epam.finaltask.service.VoucherServices;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the {@code LIKE '%term%'} description search with the {@link TrigramIndex}
+ * candidate path, both through the JPA Specification query.
+ * Run with {@code mvn test -Pbenchmark [-Dbenchmark.rows=1000000]}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TrigramSearchBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareLikeScanWithTrigramCandidates() {
+        List<VoucherDTO> catalog = SyntheticCatalog.insert(jdbcTemplate, ROWS);
+
+        TrigramIndex trigrams = new TrigramIndex(true, 1000);
+        long start = System.nanoTime();
+        trigrams.rebuild(catalog);
+        System.out.printf("Trigram index built over %,d vouchers in %.0f ms%n",
+                ROWS, (System.nanoTime() - start) / 1_000_000.0);
+
+        VoucherMapperImpl mapper = new VoucherMapperImpl(new ModelMapper());
+        CatalogService likePath = VoucherServices.over(voucherRepository, userRepository)
+                .voucherMapper(mapper).catalog();
+        CatalogService trigramPath = VoucherServices.over(voucherRepository, userRepository)
+                .voucherMapper(mapper).trigramIndex(trigrams).catalog();
+
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "isHot").and(Sort.by("priceCents")));
+        for (String term : SyntheticCatalog.RARE_WORDS) {
+            Page<VoucherDTO> expected = likePath.findCatalogFiltered(
+                    null, null, null, term, null, null, null, pageable, true);
+            Page<VoucherDTO> actual = trigramPath.findCatalogFiltered(
+                    null, null, null, term, null, null, null, pageable, true);
+            assertEquals(expected.getTotalElements(), actual.getTotalElements(), term);
+            assertEquals(expected.getContent(), actual.getContent(), term);
+
+            double likeMs = CatalogQueryBenchmarkTest.measure(() -> likePath.findCatalogFiltered(
+                    null, null, null, term, null, null, null, pageable, true));
+            double trigramMs = CatalogQueryBenchmarkTest.measure(() -> trigramPath.findCatalogFiltered(
+                    null, null, null, term, null, null, null, pageable, true));
+            System.out.printf("  %-14s like %9.2f ms   trigram %7.2f ms   (%,d matches)%n",
+                    term, likeMs, trigramMs, expected.getTotalElements());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.epam.finaltask.catalog;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class VoucherIndexRegistryTest {
+
+    @Test
+    void onVoucherChanged_shouldReachIndexesBeforeCatalogVersionMoves() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(Listeners.class)) {
+            CatalogVersion catalogVersion = context.getBean(CatalogVersion.class);
+            RecordingIndex index = context.getBean(RecordingIndex.class);
+            long version = catalogVersion.current();
+
+            context.publishEvent(new VoucherChangedEvent(VoucherChangeType.UPDATED, UUID.randomUUID(), null));
+
+            assertEquals(List.of(version), index.versionsSeen);
+            assertEquals(version + 1, catalogVersion.current());
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({CatalogVersion.class, VoucherIndexRegistry.class})
+    static class Listeners {
+
+        @Bean
+        RecordingIndex recordingIndex(CatalogVersion catalogVersion) {
+            return new RecordingIndex(catalogVersion);
+        }
+
+        @Bean
+        VoucherRepository voucherRepository() {
+            return mock(VoucherRepository.class);
+        }
+    }
+
+    /**
+     * Remembers the catalog version each change was applied at.
+     */
+    static class RecordingIndex implements VoucherIndex {
+
+        private final CatalogVersion catalogVersion;
+        private final List<Long> versionsSeen = new ArrayList<>();
+
+        RecordingIndex(CatalogVersion catalogVersion) {
+            this.catalogVersion = catalogVersion;
+        }
+
+        @Override
+        public void rebuild(List<VoucherDTO> registered) {
+        }
+
+        @Override
+        public void apply(VoucherChangedEvent event) {
+            versionsSeen.add(catalogVersion.current());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.epam.finaltask.idempotency;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.VoucherOrderException;
+import com.epam.finaltask.repository.IdempotencyRecordRepository;
+import com.epam.finaltask.service.FlashSaleGate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Orders queued in {@link FlashSaleGate} behind a running order must not hold connections
+ * for their idempotency keys: the pool has fewer connections than there are callers, and
+ * other requests still get one.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + IdempotencyConnectionPoolTest.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyConnectionPoolTest {
+
+    static final int POOL_SIZE = 3;
+    private static final int CALLERS = POOL_SIZE * 2;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final FlashSaleGate gate = new FlashSaleGate(true, CALLERS, Duration.ofSeconds(10));
+    private final CountDownLatch ordering = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private TransactionTemplate transaction;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        IdempotencyStore store = new IdempotencyStore(repository, transactionManager, Duration.ofMinutes(10), 100,
+                Duration.ofHours(24), Duration.ofMinutes(1));
+        mockMvc = MockMvcBuilders.standaloneSetup(new OrderController())
+                .addFilters(new IdempotencyFilter(store, new ObjectMapper()))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+        repository.deleteAll();
+    }
+
+    @Test
+    void order_shouldLeaveConnectionsForOtherRequests_whileCallersQueueForAVoucher() throws Exception {
+        UUID voucherId = UUID.randomUUID();
+        List<Future<MvcResult>> callers = new ArrayList<>();
+        callers.add(order(voucherId, "buyer-0"));
+        assertTrue(ordering.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < CALLERS; i++) {
+            callers.add(order(voucherId, "buyer-" + i));
+        }
+        awaitClaims(CALLERS);
+
+        Long claims = transaction.execute(status -> repository.count());
+        assertEquals(CALLERS, claims);
+
+        release.countDown();
+        assertEquals(200, callers.get(0).get(10, TimeUnit.SECONDS).getResponse().getStatus());
+        for (Future<MvcResult> caller : callers.subList(1, CALLERS)) {
+            assertEquals(400, caller.get(10, TimeUnit.SECONDS).getResponse().getStatus());
+        }
+        assertEquals(1L, repository.count());
+    }
+
+    private Future<MvcResult> order(UUID voucherId, String username) {
+        return executor.submit(() -> {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+            try {
+                return mockMvc.perform(post("/api/vouchers/order/" + voucherId)
+                        .header(IdempotencyFilter.HEADER, "key")).andReturn();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+
+    private void awaitClaims(int claims) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (repository.count() < claims && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+    }
+
+    /**
+     * Orders like {@code VoucherRestController}: through the gate, in a transaction of the
+     * order's own. The first order keeps its transaction open until the test releases it;
+     * the callers queued behind it find the voucher sold.
+     */
+    @RestController
+    class OrderController {
+
+        @PostMapping("/api/vouchers/order/{id}")
+        ResponseEntity<VoucherDTO> order(@PathVariable UUID id) {
+            try {
+                return ResponseEntity.ok(gate.order(id, () -> transaction.execute(status -> {
+                    repository.count();
+                    ordering.countDown();
+                    await(release);
+                    VoucherDTO ordered = new VoucherDTO();
+                    ordered.setId(id.toString());
+                    return ordered;
+                })));
+            } catch (VoucherOrderException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
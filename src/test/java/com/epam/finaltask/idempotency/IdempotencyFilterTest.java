@@ -0,0 +1,178 @@
+package com.epam.finaltask.idempotency;
+
+import com.epam.finaltask.dto.UserDTO;
+import com.epam.finaltask.idempotency.IdempotencyStore.Claim;
+import com.epam.finaltask.idempotency.IdempotencyStore.Outcome;
+import com.epam.finaltask.restcontroller.UserRestController;
+import com.epam.finaltask.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    private static final String DEPOSIT = "{\"amount\":\"50.00\",\"cardNumber\":\"4111111111111111\",\"expiry\":\"12/30\",\"cvv\":\"123\"}";
+
+    @Mock
+    private IdempotencyStore store;
+
+    @Mock
+    private UserService userService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        UserDetails alice = User.withUsername("alice").password("secret").roles("USER").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(alice, null, alice.getAuthorities()));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserRestController(userService, new StaticMessageSource()))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .addFilters(new IdempotencyFilter(store, new ObjectMapper().registerModule(new JavaTimeModule())))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deposit_shouldRunOnceAndStoreTheResponse() throws Exception {
+        when(store.claim(anyString(), anyString())).thenReturn(new Claim(Outcome.ACQUIRED, null));
+        AtomicReference<StoredResponse> stored = runRequests();
+        UserDTO credited = new UserDTO();
+        credited.setBalance(new BigDecimal("150.00"));
+        when(userService.deposit("alice", new BigDecimal("50.00"), "4111111111111111", "12/30", "123"))
+                .thenReturn(credited);
+
+        mockMvc.perform(deposit("key-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.balance").value(150.00));
+
+        verify(store).execute(anyString(), anyString(), any());
+        assertEquals(200, stored.get().status());
+        assertTrue(stored.get().body().contains("\"balance\":150.00"));
+    }
+
+    @Test
+    void deposit_shouldReplayTheStoredResponse_withoutCallingTheService() throws Exception {
+        StoredResponse response = new StoredResponse(200, MediaType.APPLICATION_JSON_VALUE,
+                "{\"statusCode\":\"OK\",\"statusMessage\":\"Deposit successful\"}");
+        when(store.claim(anyString(), anyString())).thenReturn(new Claim(Outcome.REPLAY, response));
+
+        mockMvc.perform(deposit("key-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().json(response.body()));
+
+        verifyNoInteractions(userService);
+        verify(store, never()).execute(anyString(), anyString(), any());
+    }
+
+    @Test
+    void deposit_shouldScopeKeysToTheUserAndHashTheBody() throws Exception {
+        when(store.claim(anyString(), anyString())).thenReturn(new Claim(Outcome.IN_PROGRESS, null));
+
+        mockMvc.perform(deposit("key-1")).andExpect(status().isConflict())
+                .andExpect(header().string("Retry-After", "1"));
+        mockMvc.perform(deposit("key-1").content(DEPOSIT.replace("50.00", "60.00")));
+        UserDetails bob = User.withUsername("bob").password("secret").roles("USER").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(bob, null, bob.getAuthorities()));
+        mockMvc.perform(deposit("key-1"));
+
+        ArgumentCaptor<String> ids = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> hashes = ArgumentCaptor.forClass(String.class);
+        verify(store, times(3)).claim(ids.capture(), hashes.capture());
+        assertEquals(ids.getAllValues().get(0), ids.getAllValues().get(1));
+        assertNotEquals(ids.getAllValues().get(0), ids.getAllValues().get(2));
+        assertNotEquals(hashes.getAllValues().get(0), hashes.getAllValues().get(1));
+        assertEquals(hashes.getAllValues().get(0), hashes.getAllValues().get(2));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void deposit_shouldRejectAReusedKey() throws Exception {
+        when(store.claim(anyString(), anyString())).thenReturn(new Claim(Outcome.MISMATCH, null));
+
+        mockMvc.perform(deposit("key-1"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("This Idempotency-Key was already used for a different request"));
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void withdraw_shouldHandTheFailureToTheStore() throws Exception {
+        when(store.claim(anyString(), anyString())).thenReturn(new Claim(Outcome.ACQUIRED, null));
+        AtomicReference<StoredResponse> stored = runRequests();
+        when(userService.withdraw(eq("alice"), any(), anyString())).thenThrow(new IllegalArgumentException("Insufficient balance"));
+
+        mockMvc.perform(post("/api/users/withdraw").header(IdempotencyFilter.HEADER, "key-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":\"500\",\"cardNumber\":\"4111111111111111\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(400, stored.get().status());
+    }
+
+    @Test
+    void deposit_shouldPassThrough_withoutAKey() throws Exception {
+        when(userService.deposit(anyString(), any(), anyString(), anyString(), anyString())).thenReturn(new UserDTO());
+
+        mockMvc.perform(post("/api/users/deposit").contentType(MediaType.APPLICATION_JSON).content(DEPOSIT))
+                .andExpect(status().isOk());
+        mockMvc.perform(deposit(" ")).andExpect(status().isBadRequest());
+
+        verifyNoInteractions(store);
+        verify(userService).deposit(anyString(), any(), anyString(), anyString(), anyString());
+    }
+
+    /**
+     * Lets the mocked store run each request it is handed, and keeps the last outcome.
+     */
+    private AtomicReference<StoredResponse> runRequests() throws Exception {
+        AtomicReference<StoredResponse> outcome = new AtomicReference<>();
+        when(store.execute(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            StoredResponse response = invocation.<IdempotencyStore.Request>getArgument(2).run();
+            outcome.set(response);
+            return response;
+        });
+        return outcome;
+    }
+
+    private static MockHttpServletRequestBuilder deposit(String key) {
+        return post("/api/users/deposit").header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON).content(DEPOSIT);
+    }
+}
@@ -0,0 +1,238 @@
+package com.epam.finaltask.idempotency;
+
+import com.epam.finaltask.idempotency.IdempotencyStore.Claim;
+import com.epam.finaltask.idempotency.IdempotencyStore.Outcome;
+import com.epam.finaltask.model.IdempotencyRecord;
+import com.epam.finaltask.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against committed rows, because a second instance only sees a claim once its insert
+ * has committed.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyStoreTest {
+
+    private static final StoredResponse ORDERED = new StoredResponse(200, "application/json", "{\"statusCode\":\"OK\"}");
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MutableClock clock;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        store = newInstance();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void execute_shouldRunOnceAndReplayTheResponse() throws Exception {
+        assertEquals(Outcome.ACQUIRED, store.claim("key", "order-1").outcome());
+        assertEquals(Outcome.IN_PROGRESS, store.claim("key", "order-1").outcome());
+
+        assertEquals(ORDERED, store.execute("key", "order-1", () -> ORDERED));
+
+        assertEquals(new Claim(Outcome.REPLAY, ORDERED), store.claim("key", "order-1"));
+        assertEquals(Outcome.MISMATCH, store.claim("key", "order-2").outcome());
+        IdempotencyRecord record = repository.findById("key").orElseThrow();
+        assertEquals(200, record.getStatusCode());
+        assertEquals(ORDERED.body(), record.getResponseBody());
+    }
+
+    @Test
+    void claim_shouldFallBackToTheTable_onAnotherInstance() throws Exception {
+        IdempotencyStore other = newInstance();
+        store.claim("key", "order-1");
+
+        assertEquals(Outcome.IN_PROGRESS, other.claim("key", "order-1").outcome());
+
+        store.execute("key", "order-1", () -> ORDERED);
+
+        assertEquals(new Claim(Outcome.REPLAY, ORDERED), other.claim("key", "order-1"));
+        assertEquals(Outcome.MISMATCH, other.claim("key", "deposit-1").outcome());
+    }
+
+    @Test
+    void execute_shouldRunTheRequestOutsideAnyTransaction() throws Exception {
+        store.claim("key", "order-1");
+
+        store.execute("key", "order-1", () -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            assertNull(repository.findById("key").orElseThrow().getStatusCode());
+            return ORDERED;
+        });
+
+        assertEquals(200, repository.findById("key").orElseThrow().getStatusCode());
+    }
+
+    @Test
+    void execute_shouldReleaseTheKey_whenTheRequestFailed() throws Exception {
+        IdempotencyStore other = newInstance();
+        store.claim("key", "order-1");
+        StoredResponse rejected = new StoredResponse(400, "application/json", "{\"message\":\"Insufficient balance\"}");
+
+        assertEquals(rejected, store.execute("key", "order-1", () -> rejected));
+
+        assertFalse(repository.existsById("key"));
+        assertEquals(Outcome.ACQUIRED, other.claim("key", "order-1").outcome());
+        assertEquals(Outcome.ACQUIRED, store.claim("key-2", "order-1").outcome());
+    }
+
+    @Test
+    void execute_shouldReleaseTheKey_whenTheRequestThrows() throws Exception {
+        store.claim("key", "order-1");
+
+        assertThrows(IllegalStateException.class, () -> store.execute("key", "order-1", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertFalse(repository.existsById("key"));
+        assertEquals(Outcome.ACQUIRED, store.claim("key", "order-1").outcome());
+    }
+
+    @Test
+    void execute_shouldKeepTheKeyWithoutTheBody_whenTheResponseIsTooLong() throws Exception {
+        StoredResponse large = new StoredResponse(200, "application/json",
+                "x".repeat(IdempotencyStore.MAX_BODY_LENGTH + 1));
+        store.claim("key", "export-1");
+
+        assertEquals(large, store.execute("key", "export-1", () -> large));
+
+        IdempotencyRecord record = repository.findById("key").orElseThrow();
+        assertEquals(200, record.getStatusCode());
+        assertNull(record.getResponseBody());
+        assertEquals(new Claim(Outcome.REPLAY, large.withoutBody()), newInstance().claim("key", "export-1"));
+        assertEquals(new Claim(Outcome.REPLAY, large.withoutBody()), store.claim("key", "export-1"));
+    }
+
+    @Test
+    void claim_shouldTakeOverAnAbandonedKey_afterTheLockTimeout() throws Exception {
+        store.claim("key", "order-1");
+        IdempotencyStore other = newInstance();
+
+        clock.advance(Duration.ofSeconds(59));
+        assertEquals(Outcome.IN_PROGRESS, other.claim("key", "order-1").outcome());
+
+        clock.advance(Duration.ofSeconds(2));
+        assertEquals(Outcome.ACQUIRED, other.claim("key", "order-2").outcome());
+        assertEquals(ORDERED, store.execute("key", "order-1", () -> ORDERED));
+        IdempotencyRecord record = repository.findById("key").orElseThrow();
+        assertEquals("order-2", record.getRequestHash());
+        assertNull(record.getStatusCode());
+    }
+
+    @Test
+    void claim_shouldReportAKeyInProgress_whileItsRequestRuns() throws Exception {
+        store.claim("key", "order-1");
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<StoredResponse> request = executor.submit(() -> store.execute("key", "order-1", () -> {
+                running.countDown();
+                awaitQuietly(finish);
+                return ORDERED;
+            }));
+            assertTrue(running.await(10, TimeUnit.SECONDS));
+
+            clock.advance(Duration.ofSeconds(30));
+            IdempotencyStore other = newInstance();
+            assertEquals(Outcome.IN_PROGRESS, other.claim("key", "order-1").outcome());
+
+            finish.countDown();
+            assertEquals(ORDERED, request.get(10, TimeUnit.SECONDS));
+            assertEquals(new Claim(Outcome.REPLAY, ORDERED), other.claim("key", "order-1"));
+        } finally {
+            finish.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteKeysPastTheirRetention() throws Exception {
+        store.claim("old", "order-1");
+        store.execute("old", "order-1", () -> ORDERED);
+        clock.advance(Duration.ofHours(23));
+        store.claim("recent", "order-2");
+        store.execute("recent", "order-2", () -> ORDERED);
+
+        clock.advance(Duration.ofHours(2));
+        store.purgeExpired();
+
+        assertFalse(repository.existsById("old"));
+        assertTrue(repository.existsById("recent"));
+        assertEquals(Outcome.ACQUIRED, newInstance().claim("old", "order-3").outcome());
+    }
+
+    private IdempotencyStore newInstance() {
+        return new IdempotencyStore(repository, transactionManager, Duration.ofMinutes(10), 100,
+                Duration.ofHours(24), Duration.ofMinutes(1), clock);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
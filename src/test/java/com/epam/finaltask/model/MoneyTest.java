@@ -0,0 +1,46 @@
+package com.epam.finaltask.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void toCents_shouldRoundDoublesThatAreNotExactInBinary() {
+        assertEquals(29, Money.toCents(0.29));
+        assertEquals(1999, Money.toCents(19.99));
+        assertEquals(123456789, Money.toCents(1234567.89));
+        assertEquals(-550, Money.toCents(-5.5));
+    }
+
+    @Test
+    void toCents_shouldRoundBigDecimalsHalfUp() {
+        assertEquals(1000, Money.toCents(new BigDecimal("10")));
+        assertEquals(1001, Money.toCents(new BigDecimal("10.005")));
+        assertEquals(1000, Money.toCents(new BigDecimal("10.004")));
+    }
+
+    @Test
+    void fromCents_shouldKeepTwoDecimals() {
+        assertEquals(new BigDecimal("12.30"), Money.toBigDecimal(1230));
+        assertEquals(12.3, Money.toDouble(1230));
+    }
+
+    @Test
+    void entities_shouldExposeCentsAsUnits() {
+        Voucher voucher = new Voucher();
+        voucher.setPrice(1200.5);
+        assertEquals(120050L, voucher.getPriceCents());
+        assertEquals(1200.5, voucher.getPrice());
+        voucher.setPrice(null);
+        assertNull(voucher.getPriceCents());
+
+        User user = new User();
+        user.setBalance(new BigDecimal("99.9"));
+        assertEquals(9990, user.getBalanceCents());
+        assertEquals(new BigDecimal("99.90"), user.getBalance());
+    }
+}
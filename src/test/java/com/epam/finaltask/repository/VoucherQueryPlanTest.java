@@ -0,0 +1,222 @@
+package com.epam.finaltask.repository;
+
+import com.epam.finaltask.catalog.SortKey;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.service.CancellationService;
+import com.epam.finaltask.service.CatalogService;
+import com.epam.finaltask.service.VoucherServices;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL Hibernate actually issues for each query shape the
+ * service uses and fails when a plan reads the vouchers table without an index. Whole-table
+ * reads (the admin listing and export) are not covered since they cannot use one.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.epam.finaltask.repository.VoucherQueryPlanTest$RecordedStatements")
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VoucherQueryPlanTest {
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CatalogService catalogService;
+    private CancellationService cancellationService;
+
+    @BeforeEach
+    void setUp() {
+        User owner = user("owner");
+        for (int i = 0; i < 10; i++) {
+            Voucher voucher = new Voucher();
+            voucher.setTitle("Trip " + i);
+            voucher.setDescription("Summer trip");
+            voucher.setPrice((double) (100 * i));
+            voucher.setTourType(TourType.ECO);
+            voucher.setTransferType(TransferType.BUS);
+            voucher.setHotelType(HotelType.THREE_STARS);
+            voucher.setStatus(i < 5 ? VoucherStatus.REGISTERED : VoucherStatus.PAID);
+            voucher.setUser(i < 5 ? null : owner);
+            voucher.setArrivalDate(LocalDate.of(2026, 6, 1));
+            voucher.setEvictionDate(LocalDate.of(2026, 6, 5));
+            voucher.setIsHot(i % 2 == 0);
+            voucherRepository.save(voucher);
+        }
+        voucherRepository.flush();
+
+        VoucherServices services = VoucherServices.over(voucherRepository, userRepository);
+        catalogService = services.catalog();
+        cancellationService = services.cancellation();
+        RecordedStatements.clear();
+    }
+
+    @Test
+    void catalog_shouldSeekStatusHotPriceIndex() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "isHot").and(Sort.by("priceCents")));
+
+        catalogService.findCatalogFiltered(null, null, null, null, 100.0, 900.0, null, pageable, false);
+
+        assertIndexed("idx_vouchers_status_hot_price");
+    }
+
+    @Test
+    void catalogSortKeys_shouldHaveAnIndexInCatalogOrderForEachDirection() {
+        for (SortKey key : SortKey.values()) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                Sort order = key.catalogOrder(ascending);
+                List<String> expected = new ArrayList<>(List.of("STATUS ASC"));
+                order.forEach(part -> expected.add(column(part.getProperty()) + " " + part.getDirection()));
+
+                assertEquals(expected, jdbcTemplate.queryForList(
+                        "SELECT COLUMN_NAME || ' ' || ORDERING_SPECIFICATION FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                                + "WHERE LOWER(INDEX_NAME) = ? ORDER BY ORDINAL_POSITION",
+                        String.class, key.indexFor(ascending)), key.indexFor(ascending));
+
+                RecordedStatements.clear();
+                catalogService.findCatalogFiltered(null, null, null, null, null, null, null,
+                        PageRequest.of(0, 10, order), false);
+
+                // H2 does not weigh ORDER BY when choosing among the (status, is_hot, ...) indexes,
+                // so the plan only shows that the page is not read by a table scan
+                assertIndexed(null);
+            }
+        }
+    }
+
+    @Test
+    void catalogWithFilters_shouldNotScanVouchers() {
+        Pageable pageable = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "isHot").and(Sort.by("arrivalDate")));
+
+        catalogService.findCatalogFiltered(TourType.ECO, TransferType.BUS, null, "summer", null, 500.0, null,
+                pageable, true);
+        catalogService.findCatalogFacets(TourType.ECO, null, null, null, null, null, null, 500, true);
+
+        assertIndexed(null);
+    }
+
+    @Test
+    void vouchersOfOwner_shouldSeekByUserId() {
+        voucherRepository.findProjectedByUsername("owner");
+
+        // H2 keeps its own index for the foreign key next to idx_vouchers_user_status; either one seeks
+        assertIndexed("user_id = ");
+    }
+
+    @Test
+    void statusQueues_shouldSeekStatusCancelRequestedIndex() {
+        cancellationService.findAllByStatus(VoucherStatus.CANCELLATION_REQUESTED, 0, 20, true);
+        cancellationService.findAllByStatus(VoucherStatus.CANCELED, 1, 20, false);
+
+        // the pages read the queue in order; their counts may seek any (status, ...) index
+        assertIndexed("status = ");
+        for (String sql : RecordedStatements.selectsOn("vouchers")) {
+            if (!sql.startsWith("select count(")) {
+                String plan = explain(sql);
+                assertTrue(plan.toLowerCase().contains("idx_vouchers_status_cancel_requested"), plan);
+            }
+        }
+    }
+
+    @Test
+    void registeredVouchers_shouldNotScanVouchers() {
+        voucherRepository.findProjectedByStatus(VoucherStatus.REGISTERED);
+        voucherRepository.findAllByStatusOrderByIsHotDesc(VoucherStatus.REGISTERED, PageRequest.of(0, 10));
+
+        assertIndexed(null);
+    }
+
+    /**
+     * Asserts that every recorded voucher query reads {@code vouchers} through an index, and
+     * that the plan mentions {@code expectedAccess} (an index name or seek condition) when given.
+     */
+    private void assertIndexed(String expectedAccess) {
+        List<String> queries = RecordedStatements.selectsOn("vouchers");
+        assertFalse(queries.isEmpty());
+
+        for (String sql : queries) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), () -> "full scan:\n" + plan);
+            if (expectedAccess != null) {
+                assertTrue(plan.toLowerCase().contains(expectedAccess), () -> expectedAccess + " not in plan:\n" + plan);
+            }
+        }
+    }
+
+    private static String column(String property) {
+        return property.replaceAll("([A-Z])", "_$1").toUpperCase();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        });
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setFirstName(username);
+        user.setLastName("Tester");
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@example.com");
+        user.setRole(Role.CUSTOMER);
+        user.setActive(true);
+        return userRepository.save(user);
+    }
+
+    public static class RecordedStatements implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+
+        static List<String> selectsOn(String table) {
+            synchronized (STATEMENTS) {
+                return STATEMENTS.stream()
+                        .filter(sql -> sql.startsWith("select") && sql.contains(" " + table + " "))
+                        .toList();
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.epam.finaltask.restcontroller;
+
+import com.epam.finaltask.catalog.CatalogVersion;
+import com.epam.finaltask.catalog.OwnerVoucherVersions;
+import com.epam.finaltask.catalog.VoucherChangeType;
+import com.epam.finaltask.catalog.VoucherChangedEvent;
+import com.epam.finaltask.model.Voucher;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import com.epam.finaltask.service.FlashSaleGate;
+import com.epam.finaltask.service.VoucherServices;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class VoucherRestControllerETagTest {
+
+    @Mock
+    private VoucherRepository voucherRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CatalogVersion catalogVersion;
+    private OwnerVoucherVersions ownerVersions;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        ownerVersions = new OwnerVoucherVersions();
+        VoucherServices services = VoucherServices.over(voucherRepository, userRepository)
+                .catalogVersion(catalogVersion).ownerVersions(ownerVersions);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new VoucherRestController(services.vouchers(), services.catalog(),
+                services.checkout(), services.cancellation(),
+                new FlashSaleGate(false, 0, Duration.ZERO), new ObjectMapper())).build();
+    }
+
+    @Test
+    void catalog_shouldAnswerNotModifiedWithoutQueryingUntilCatalogChanges() throws Exception {
+        when(voucherRepository.findWindow(ArgumentMatchers.<Specification<Voucher>>any(), any(Sort.class), anyLong(), anyInt()))
+                .thenReturn(List.of());
+
+        String etag = mockMvc.perform(get("/api/vouchers/catalog"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/vouchers/catalog").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(voucherRepository, times(1)).findWindow(ArgumentMatchers.<Specification<Voucher>>any(), any(Sort.class), anyLong(), anyInt());
+
+        catalogVersion.onVoucherChanged(new VoucherChangedEvent(VoucherChangeType.CREATED, UUID.randomUUID(), null));
+
+        mockMvc.perform(get("/api/vouchers/catalog").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(voucherRepository, times(2)).findWindow(ArgumentMatchers.<Specification<Voucher>>any(), any(Sort.class), anyLong(), anyInt());
+    }
+
+    @Test
+    void catalog_shouldHideHotDealsFromThePrincipalWithoutUserQuery() throws Exception {
+        when(voucherRepository.findWindow(ArgumentMatchers.<Specification<Voucher>>any(), any(Sort.class), anyLong(), anyInt()))
+                .thenReturn(List.of());
+        User blocked = new User("blocked", "secret", false, true, true, true, List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(blocked, null, List.of()));
+        try {
+            String etag = mockMvc.perform(get("/api/vouchers/catalog"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertTrue(etag.endsWith("-h\""));
+
+            mockMvc.perform(get("/api/vouchers/catalog").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+            // the body and its tag both come from the principal
+            verifyNoInteractions(userRepository);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void catalog_shouldStayNotModified_whenOnlyPopularityMoves() throws Exception {
+        when(voucherRepository.findWindow(ArgumentMatchers.<Specification<Voucher>>any(), any(Sort.class), anyLong(), anyInt()))
+                .thenReturn(List.of());
+        String etag = mockMvc.perform(get("/api/vouchers/catalog"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        catalogVersion.bumpPopularity();
+
+        mockMvc.perform(get("/api/vouchers/catalog").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void myVouchers_shouldAnswerNotModifiedUntilOwnVouchersChange() throws Exception {
+        Authentication alice = new UsernamePasswordAuthenticationToken("alice", null, List.of());
+        when(voucherRepository.findProjectedByUsername("alice")).thenReturn(List.of());
+
+        String etag = mockMvc.perform(get("/api/vouchers/my").principal(alice))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        ownerVersions.onVoucherChanged(new VoucherChangedEvent(
+                VoucherChangeType.ORDERED, UUID.randomUUID(), null, "bob"));
+        mockMvc.perform(get("/api/vouchers/my").principal(alice).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(voucherRepository, times(1)).findProjectedByUsername("alice");
+
+        ownerVersions.onVoucherChanged(new VoucherChangedEvent(
+                VoucherChangeType.CANCELLATION_DECIDED, UUID.randomUUID(), null, "alice"));
+        mockMvc.perform(get("/api/vouchers/my").principal(alice).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(voucherRepository, times(2)).findProjectedByUsername("alice");
+    }
+}
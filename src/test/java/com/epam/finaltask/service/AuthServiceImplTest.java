@@ -19,7 +19,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 
-import java.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -71,7 +70,7 @@ class AuthServiceImplTest {
         assertEquals("customer@example.com", savedUser.getEmail());
         assertEquals("12345", savedUser.getPassword());
         assertEquals(Role.CUSTOMER, savedUser.getRole());
-        assertEquals(BigDecimal.ZERO, savedUser.getBalance());
+        assertEquals(0, savedUser.getBalanceCents());
         assertTrue(savedUser.isActive());
     }
 
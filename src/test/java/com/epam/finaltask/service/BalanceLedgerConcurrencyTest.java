@@ -0,0 +1,170 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.exception.TransactionException;
+import com.epam.finaltask.mapper.UserMapperImpl;
+import com.epam.finaltask.model.Role;
+import com.epam.finaltask.model.User;
+import com.epam.finaltask.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many committed transactions change one balance at once. Every change is a single
+ * conditional update, so none of them is lost and the balance never goes below zero.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BalanceLedgerConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private BalanceLedger balanceLedger;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        balanceLedger = new BalanceLedger(userRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void creditsAndDebits_shouldNotLoseUpdates() throws Exception {
+        UUID userId = user("alice", "1000.00").getId();
+        int operations = 200;
+        AtomicInteger refused = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < operations; i++) {
+                boolean credit = i % 2 == 0;
+                Boolean applied = transaction.execute(status -> credit
+                        ? balanceLedger.credit(userId, 7)
+                        : balanceLedger.debit(userId, 3));
+                if (!Boolean.TRUE.equals(applied)) {
+                    refused.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(0, refused.get());
+        long expected = 100_000 + THREADS * (operations / 2) * (7 - 3);
+        assertEquals(expected, userRepository.findById(userId).orElseThrow().getBalanceCents());
+    }
+
+    @Test
+    void withdraw_shouldLetExactlyTheCoveredWithdrawalsThrough() throws Exception {
+        user("alice", "100.00");
+        UserService userService = new UserServiceImpl(userRepository, new UserMapperImpl(new ModelMapper()),
+                new BCryptPasswordEncoder(), balanceLedger);
+        int attempts = THREADS * 3;
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < attempts / THREADS; i++) {
+                try {
+                    transaction.executeWithoutResult(status ->
+                            userService.withdraw("alice", new BigDecimal("7.50"), "4111111111111111"));
+                    succeeded.incrementAndGet();
+                } catch (TransactionException e) {
+                    assertEquals("balance.insufficient", e.getMessage());
+                    insufficient.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(13, succeeded.get());
+        assertEquals(attempts - 13, insufficient.get());
+        assertEquals(new BigDecimal("2.50"), userRepository.findUserByUsername("alice").orElseThrow().getBalance());
+    }
+
+    @Test
+    void flush_shouldNotWriteAStaleBalanceBack() {
+        UUID userId = user("alice", "50.00").getId();
+
+        transaction.executeWithoutResult(status -> {
+            User loaded = userRepository.findById(userId).orElseThrow();
+            balanceLedger.credit(userId, 2500);
+            loaded.setPhoneNumber("+380501234567");
+        });
+
+        User stored = userRepository.findById(userId).orElseThrow();
+        assertEquals(new BigDecimal("75.00"), stored.getBalance());
+        assertEquals("+380501234567", stored.getPhoneNumber());
+        Boolean unknownCredited = transaction.execute(status -> balanceLedger.credit(UUID.randomUUID(), 100));
+        assertEquals(Boolean.FALSE, unknownCredited);
+    }
+
+    /**
+     * Releases {@link #THREADS} copies of {@code work} at once and waits for all of them.
+     */
+    private void runConcurrently(Runnable work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> calls = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    work.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                call.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private User user(String username, String balance) {
+        User user = new User();
+        user.setFirstName(username);
+        user.setLastName(username);
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@example.com");
+        user.setRole(Role.CUSTOMER);
+        user.setActive(true);
+        user.setBalance(new BigDecimal(balance));
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,306 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.VoucherChangeType;
+import com.epam.finaltask.catalog.VoucherChangedEvent;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.*;
+import com.epam.finaltask.mapper.VoucherMapper;
+import com.epam.finaltask.model.*;
+
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CancellationServiceImplTest {
+
+    @Mock
+    private VoucherRepository voucherRepository;
+
+    @Mock
+    private VoucherMapper voucherMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BalanceLedger balanceLedger;
+
+    @InjectMocks
+    private CancellationServiceImpl cancellationService;
+
+    @Test
+    @Order(1)
+    void requestCancellation_shouldReturnUpdatedVoucherDTO_whenConditionsAreMet() {
+        UUID voucherId = UUID.randomUUID();
+        String username = "customer";
+        String reason = "Change of plans";
+
+        User user = new User();
+        user.setUsername(username);
+
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setUser(user);
+        voucher.setStatus(VoucherStatus.PAID);
+
+        VoucherDTO voucherDTO = new VoucherDTO();
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
+        when(voucherRepository.save(voucher)).thenReturn(voucher);
+
+        VoucherDTO result = cancellationService.requestCancellation(voucherId.toString(), username, reason);
+
+        assertNotNull(result);
+        assertEquals(voucherDTO, result);
+        assertEquals(VoucherStatus.CANCELLATION_REQUESTED, voucher.getStatus());
+        assertEquals(reason, voucher.getCancellationReason());
+        assertNotNull(voucher.getCancellationRequestedAt());
+
+        verify(voucherRepository).save(voucher);
+        verify(voucherMapper).toVoucherDTO(voucher);
+    }
+
+    @Test
+    @Order(2)
+    void requestCancellation_shouldThrowVoucherOrderException_ifUserMismatch() {
+        UUID voucherId = UUID.randomUUID();
+        User user = new User();
+        user.setUsername("otherUser");
+
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setUser(user);
+        voucher.setStatus(VoucherStatus.PAID);
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+
+        VoucherOrderException exception = assertThrows(
+                VoucherOrderException.class,
+                () -> cancellationService.requestCancellation(voucherId.toString(), "customer", "reason")
+        );
+
+        assertEquals("You may only request cancellation for your own voucher", exception.getMessage());
+    }
+
+    @Test
+    @Order(3)
+    void requestCancellation_shouldThrowVoucherOrderException_ifVoucherNotPaid() {
+        UUID voucherId = UUID.randomUUID();
+        User user = new User();
+        user.setUsername("customer");
+
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setUser(user);
+        voucher.setStatus(VoucherStatus.REGISTERED);
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+
+        VoucherOrderException exception = assertThrows(
+                VoucherOrderException.class,
+                () -> cancellationService.requestCancellation(voucherId.toString(), "customer", "reason")
+        );
+
+        assertEquals("Voucher cannot be cancelled in its current status", exception.getMessage());
+    }
+
+    @Test
+    @Order(4)
+    void decideCancellation_shouldCancelVoucherAndRefundUser_whenApproved() {
+        UUID voucherId = UUID.randomUUID();
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setBalance(BigDecimal.valueOf(100));
+
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setUser(user);
+        voucher.setPrice(50.0);
+        voucher.setStatus(VoucherStatus.CANCELLATION_REQUESTED);
+        voucher.setCancellationReason("Some reason");
+        voucher.setCancellationRequestedAt(LocalDateTime.now());
+
+        VoucherDTO voucherDTO = new VoucherDTO();
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
+        when(voucherRepository.save(voucher)).thenReturn(voucher);
+
+        VoucherDTO result = cancellationService.decideCancellation(voucherId.toString(), true, "admin");
+
+        assertNotNull(result);
+        assertEquals(voucherDTO, result);
+        assertEquals(VoucherStatus.CANCELED, voucher.getStatus());
+        assertNull(voucher.getUser());
+        assertNull(voucher.getCancellationReason());
+        assertNotNull(voucher.getCancellationRequestedAt());
+
+        verify(balanceLedger).credit(user.getId(), 5000L);
+        verify(voucherRepository).save(voucher);
+        verify(voucherMapper).toVoucherDTO(voucher);
+    }
+
+    @Test
+    @Order(5)
+    void decideCancellation_shouldRevertVoucherToPaid_whenNotApproved() {
+        UUID voucherId = UUID.randomUUID();
+        User user = new User();
+
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setUser(user);
+        voucher.setStatus(VoucherStatus.CANCELLATION_REQUESTED);
+        voucher.setCancellationReason("Some reason");
+        voucher.setCancellationRequestedAt(LocalDateTime.now());
+
+        VoucherDTO voucherDTO = new VoucherDTO();
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
+        when(voucherRepository.save(voucher)).thenReturn(voucher);
+
+        VoucherDTO result = cancellationService.decideCancellation(voucherId.toString(), false, "admin");
+
+        assertNotNull(result);
+        assertEquals(voucherDTO, result);
+        assertEquals(VoucherStatus.PAID, voucher.getStatus());
+        assertNotNull(voucher.getUser());
+        assertNull(voucher.getCancellationReason());
+        assertNull(voucher.getCancellationRequestedAt());
+
+        verify(voucherRepository).save(voucher);
+        verify(voucherMapper).toVoucherDTO(voucher);
+        verify(balanceLedger, never()).credit(any(UUID.class), anyLong());
+    }
+
+    @Test
+    @Order(6)
+    void decideCancellation_shouldThrowException_whenVoucherNotAwaitingCancellation() {
+        UUID voucherId = UUID.randomUUID();
+        Voucher voucher = new Voucher();
+        voucher.setStatus(VoucherStatus.PAID);
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+
+        VoucherOrderException exception = assertThrows(
+                VoucherOrderException.class,
+                () -> cancellationService.decideCancellation(voucherId.toString(), true, "admin")
+        );
+
+        assertEquals("Voucher is not awaiting cancellation", exception.getMessage());
+    }
+
+    @Test
+    @Order(7)
+    void reregisterVoucher_shouldSetStatusToRegisteredAndClearFields() {
+        UUID voucherId = UUID.randomUUID();
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setStatus(VoucherStatus.CANCELED);
+        voucher.setUser(new User());
+        voucher.setCancellationReason("Some reason");
+        voucher.setCancellationRequestedAt(LocalDateTime.now());
+
+        VoucherDTO voucherDTO = new VoucherDTO();
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(voucherRepository.save(voucher)).thenReturn(voucher);
+        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
+
+        VoucherDTO result = cancellationService.reregisterVoucher(voucherId.toString(), "admin");
+
+        assertNotNull(result);
+        assertEquals(voucherDTO, result);
+        assertEquals(VoucherStatus.REGISTERED, voucher.getStatus());
+        assertNull(voucher.getUser());
+        assertNull(voucher.getCancellationReason());
+        assertNull(voucher.getCancellationRequestedAt());
+
+        verify(voucherRepository).save(voucher);
+        verify(voucherMapper).toVoucherDTO(voucher);
+    }
+
+    @Test
+    @Order(8)
+    void reregisterVoucher_shouldPublishChangeEvent() {
+        UUID voucherId = UUID.randomUUID();
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setStatus(VoucherStatus.CANCELED);
+
+        VoucherDTO voucherDTO = new VoucherDTO();
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
+
+        cancellationService.reregisterVoucher(voucherId.toString(), "admin");
+
+        ArgumentCaptor<VoucherChangedEvent> captor = ArgumentCaptor.forClass(VoucherChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(VoucherChangeType.REREGISTERED, captor.getValue().type());
+        assertEquals(voucherId, captor.getValue().voucherId());
+        assertSame(voucherDTO, captor.getValue().voucher());
+    }
+
+    @Test
+    @Order(9)
+    void decideCancellation_shouldPublishPreviousOwner_whenApproved() {
+        UUID voucherId = UUID.randomUUID();
+        User user = new User();
+        user.setUsername("alice");
+        user.setBalance(BigDecimal.ZERO);
+
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setUser(user);
+        voucher.setPrice(50.0);
+        voucher.setStatus(VoucherStatus.CANCELLATION_REQUESTED);
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(new VoucherDTO());
+
+        cancellationService.decideCancellation(voucherId.toString(), true, "admin");
+
+        ArgumentCaptor<VoucherChangedEvent> event = ArgumentCaptor.forClass(VoucherChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("alice", event.getValue().owner());
+    }
+
+    @Test
+    @Order(10)
+    void findAllByStatus_shouldPageByCancellationRequestTimeWithIdTiebreaker() {
+        VoucherDTO voucherDTO = new VoucherDTO();
+        Pageable expected = PageRequest.of(2, 20, Sort.by(Sort.Direction.ASC, "cancellationRequestedAt")
+                .and(Sort.by(Sort.Direction.ASC, "id")));
+
+        when(voucherRepository.findProjectedByStatus(VoucherStatus.CANCELLATION_REQUESTED, expected))
+                .thenReturn(new PageImpl<>(List.of(voucherDTO), expected, 41));
+
+        Page<VoucherDTO> result = cancellationService.findAllByStatus(VoucherStatus.CANCELLATION_REQUESTED, 2, 20, true);
+
+        assertEquals(List.of(voucherDTO), result.getContent());
+        assertEquals(41, result.getTotalElements());
+        verify(voucherRepository, never()).findAll();
+    }
+}
@@ -0,0 +1,175 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.VoucherChangeType;
+import com.epam.finaltask.catalog.VoucherChangedEvent;
+import com.epam.finaltask.dto.CheckoutItem;
+import com.epam.finaltask.dto.CheckoutResult;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A cart is ordered with a fixed number of statements however many vouchers it holds, and a
+ * cart that cannot be ordered as a whole leaves every row untouched.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CartCheckoutTest {
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<VoucherChangedEvent> events = new ArrayList<>();
+    private CheckoutService voucherService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        voucherService = VoucherServices.over(voucherRepository, userRepository)
+                .eventPublisher(event -> events.add((VoucherChangedEvent) event)).checkout();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void checkout_shouldOrderTheWholeCartWithFourStatements() {
+        User buyer = user("buyer", true, "1000.00");
+        List<String> cart = List.of(voucher("Rome", 100.0, false, null), voucher("Paris", 200.0, true, null),
+                voucher("Oslo", 300.0, false, null));
+        startCounting();
+
+        CheckoutResult result = voucherService.checkout(cart, buyer.getUsername());
+
+        assertStatements(4);
+        assertEquals(CheckoutResult.Status.ORDERED, result.getStatus());
+        assertEquals(0, new BigDecimal("600").compareTo(result.getTotal()));
+        assertEquals(cart, result.getItems().stream().map(CheckoutItem::getId).toList());
+        assertTrue(result.getItems().stream().allMatch(item -> item.getStatus() == CheckoutItem.Status.ORDERED
+                && item.getVoucher().getStatus() == VoucherStatus.PAID
+                && "buyer".equals(item.getVoucher().getUserName())));
+
+        entityManager.clear();
+        assertEquals(new BigDecimal("400.00"), userRepository.findById(buyer.getId()).orElseThrow().getBalance());
+        for (String id : cart) {
+            Voucher voucher = voucherRepository.findById(UUID.fromString(id)).orElseThrow();
+            assertEquals(VoucherStatus.PAID, voucher.getStatus());
+            assertEquals(buyer.getId(), voucher.getUser().getId());
+        }
+        assertEquals(cart, events.stream()
+                .peek(event -> assertEquals(VoucherChangeType.ORDERED, event.type()))
+                .map(event -> event.voucherId().toString()).toList());
+    }
+
+    @Test
+    void checkout_shouldReportEveryBlockingVoucherAndWriteNothing() {
+        User buyer = user("buyer", false, "1000.00");
+        User other = user("other", true, "0.00");
+        String open = voucher("Rome", 100.0, false, null);
+        String sold = voucher("Paris", 200.0, false, other);
+        String hot = voucher("Oslo", 300.0, true, null);
+        String missing = UUID.randomUUID().toString();
+        startCounting();
+
+        CheckoutResult result = voucherService.checkout(List.of(open, "not-a-uuid", open, missing, sold, hot),
+                buyer.getUsername());
+
+        assertStatements(2);
+        assertEquals(CheckoutResult.Status.REJECTED, result.getStatus());
+        assertEquals(List.of(CheckoutItem.Status.READY, CheckoutItem.Status.INVALID, CheckoutItem.Status.DUPLICATE,
+                        CheckoutItem.Status.MISSING, CheckoutItem.Status.UNAVAILABLE, CheckoutItem.Status.HOT_RESTRICTED),
+                result.getItems().stream().map(CheckoutItem::getStatus).toList());
+        assertEquals(open, result.getItems().get(0).getVoucher().getId());
+        assertNull(result.getItems().get(4).getVoucher());
+
+        assertUntouched(buyer, "1000.00", open);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void checkout_shouldOrderNothing_whenBalanceDoesNotCoverTheCart() {
+        User buyer = user("buyer", true, "250.00");
+        String rome = voucher("Rome", 100.0, false, null);
+        String paris = voucher("Paris", 200.0, false, null);
+        startCounting();
+
+        CheckoutResult result = voucherService.checkout(List.of(rome, paris), buyer.getUsername());
+
+        assertStatements(3);
+        assertEquals(CheckoutResult.Status.INSUFFICIENT_BALANCE, result.getStatus());
+        assertEquals(0, new BigDecimal("300").compareTo(result.getTotal()));
+        assertUntouched(buyer, "250.00", rome, paris);
+        assertTrue(events.isEmpty());
+    }
+
+    private void assertUntouched(User buyer, String balance, String... vouchers) {
+        entityManager.clear();
+        assertEquals(new BigDecimal(balance), userRepository.findById(buyer.getId()).orElseThrow().getBalance());
+        for (String id : vouchers) {
+            Voucher voucher = voucherRepository.findById(UUID.fromString(id)).orElseThrow();
+            assertEquals(VoucherStatus.REGISTERED, voucher.getStatus());
+            assertNull(voucher.getUser());
+        }
+    }
+
+    private void startCounting() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+
+    private User user(String username, boolean active, String balance) {
+        User user = new User();
+        user.setFirstName(username);
+        user.setLastName(username);
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@example.com");
+        user.setRole(Role.CUSTOMER);
+        user.setActive(active);
+        user.setBalance(new BigDecimal(balance));
+        return userRepository.save(user);
+    }
+
+    private String voucher(String title, double price, boolean hot, User owner) {
+        Voucher voucher = new Voucher();
+        voucher.setTitle(title);
+        voucher.setDescription(title + " trip");
+        voucher.setPrice(price);
+        voucher.setTourType(TourType.CULTURAL);
+        voucher.setTransferType(TransferType.PLANE);
+        voucher.setHotelType(HotelType.FOUR_STARS);
+        voucher.setStatus(owner != null ? VoucherStatus.PAID : VoucherStatus.REGISTERED);
+        voucher.setUser(owner);
+        voucher.setArrivalDate(LocalDate.of(2026, 9, 1));
+        voucher.setEvictionDate(LocalDate.of(2026, 9, 5));
+        voucher.setIsHot(hot);
+        return voucherRepository.save(voucher).getId().toString();
+    }
+}
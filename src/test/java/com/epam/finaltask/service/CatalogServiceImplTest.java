@@ -0,0 +1,376 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.CatalogCountCache;
+import com.epam.finaltask.catalog.CatalogCursor;
+import com.epam.finaltask.catalog.CatalogFilter;
+import com.epam.finaltask.catalog.CatalogResultCache;
+import com.epam.finaltask.catalog.CatalogVersion;
+import com.epam.finaltask.catalog.ColumnarCatalogIndex;
+import com.epam.finaltask.catalog.HotDealsIndex;
+import com.epam.finaltask.catalog.PopularityCounters;
+import com.epam.finaltask.catalog.RelevanceIndex;
+import com.epam.finaltask.catalog.TitleSuggestIndex;
+import com.epam.finaltask.catalog.TravelDateIndex;
+import com.epam.finaltask.catalog.TravelWindow;
+import com.epam.finaltask.catalog.TrigramIndex;
+import com.epam.finaltask.dto.CatalogSlice;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherSuggestion;
+import com.epam.finaltask.exception.*;
+import com.epam.finaltask.mapper.VoucherMapper;
+import com.epam.finaltask.model.*;
+
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CatalogServiceImplTest {
+
+    @Mock
+    private VoucherRepository voucherRepository;
+
+    @Mock
+    private VoucherMapper voucherMapper;
+
+    @Mock
+    private ColumnarCatalogIndex catalogIndex;
+
+    @Mock
+    private TrigramIndex trigramIndex;
+
+    @Mock
+    private TravelDateIndex travelDateIndex;
+
+    @Mock
+    private HotDealsIndex hotDealsIndex;
+
+    @Mock
+    private TitleSuggestIndex titleSuggestIndex;
+
+    @Mock
+    private CatalogCountCache countCache;
+
+    @Spy
+    private CatalogResultCache resultCache = new CatalogResultCache(false, 0, new CatalogVersion());
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Mock
+    private PopularityCounters popularityCounters;
+
+    @Mock
+    private RelevanceIndex relevanceIndex;
+
+    @InjectMocks
+    private CatalogServiceImpl catalogService;
+
+    @Test
+    @Order(1)
+    void findCatalog_shouldReturnVoucherDTOList() {
+        int page = 0;
+        int size = 2;
+        String sortBy = "price";
+
+        Voucher voucher1 = new Voucher();
+        voucher1.setId(UUID.randomUUID());
+        voucher1.setStatus(VoucherStatus.REGISTERED);
+
+        Voucher voucher2 = new Voucher();
+        voucher2.setId(UUID.randomUUID());
+        voucher2.setStatus(VoucherStatus.REGISTERED);
+
+        VoucherDTO dto1 = new VoucherDTO();
+        VoucherDTO dto2 = new VoucherDTO();
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by("priceCents").descending().and(Sort.by("id")));
+
+        Page<Voucher> voucherPage = new PageImpl<>(List.of(voucher1, voucher2));
+
+        when(voucherRepository.findAllByStatusOrderByIsHotDesc(VoucherStatus.REGISTERED, pageable))
+                .thenReturn(voucherPage);
+        when(voucherMapper.toVoucherDTO(voucher1)).thenReturn(dto1);
+        when(voucherMapper.toVoucherDTO(voucher2)).thenReturn(dto2);
+
+        List<VoucherDTO> result = catalogService.findCatalog(page, size, sortBy);
+
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        assertTrue(result.contains(dto1));
+        assertTrue(result.contains(dto2));
+
+        verify(voucherRepository).findAllByStatusOrderByIsHotDesc(VoucherStatus.REGISTERED, pageable);
+        verify(voucherMapper).toVoucherDTO(voucher1);
+        verify(voucherMapper).toVoucherDTO(voucher2);
+    }
+
+    @Test
+    @Order(2)
+    void findCatalogFiltered_shouldReturnMappedVoucherDTOPage() {
+        Pageable pageable = PageRequest.of(0, 10);
+        VoucherDTO voucherDTO = new VoucherDTO();
+
+        when(voucherRepository.findWindow(ArgumentMatchers.<Specification<Voucher>>any(), eq(pageable.getSort()), eq(0L), eq(10)))
+                .thenReturn(List.of(voucherDTO));
+
+        Page<VoucherDTO> result = catalogService.findCatalogFiltered(
+                TourType.HEALTH,
+                TransferType.BUS,
+                HotelType.ONE_STAR,
+                "description",
+                100.0,
+                500.0,
+                null,
+                pageable,
+                true
+        );
+
+        assertNotNull(result);
+        assertEquals(1, result.getTotalElements());
+        assertEquals(voucherDTO, result.getContent().get(0));
+        verify(popularityCounters).recordImpressions(List.of(voucherDTO));
+
+        verify(voucherRepository, never()).count(ArgumentMatchers.<Specification<Voucher>>any());
+        verifyNoInteractions(voucherMapper);
+    }
+
+    @Test
+    @Order(3)
+    void findCatalogFiltered_shouldServeFromIndex_whenIndexAnswers() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("price"));
+        Page<VoucherDTO> indexed = new PageImpl<>(List.of(new VoucherDTO()), pageable, 1);
+
+        when(catalogIndex.query(any(CatalogFilter.class), eq(pageable))).thenReturn(Optional.of(indexed));
+
+        Page<VoucherDTO> result = catalogService.findCatalogFiltered(
+                TourType.HEALTH, null, null, null, null, null, null, pageable, true);
+
+        assertSame(indexed, result);
+        verify(voucherRepository, never()).findAll(ArgumentMatchers.<Specification<Voucher>>any(), any(Pageable.class));
+    }
+
+    @Test
+    @Order(4)
+    void findCatalogAfter_shouldFetchOneExtraRowAndReturnCursor() {
+        VoucherDTO firstDTO = new VoucherDTO();
+        VoucherDTO secondDTO = new VoucherDTO();
+        secondDTO.setId(UUID.randomUUID().toString());
+        secondDTO.setPrice(1200.0);
+        secondDTO.setIsHot(true);
+        VoucherDTO extraDTO = new VoucherDTO();
+
+        when(voucherRepository.findWindow(ArgumentMatchers.<Specification<Voucher>>any(), any(Sort.class), eq(0L), eq(3)))
+                .thenReturn(List.of(firstDTO, secondDTO, extraDTO));
+
+        CatalogSlice slice = catalogService.findCatalogAfter(
+                null, null, null, null, null, null, null, "price", false, null, 2, true);
+
+        assertEquals(List.of(firstDTO, secondDTO), slice.getVouchers());
+        assertTrue(slice.isHasNext());
+
+        CatalogCursor cursor = CatalogCursor.decode(slice.getNextCursor(), "price", false);
+        assertEquals(120000L, cursor.getValue());
+        assertTrue(cursor.isHot());
+        assertEquals(secondDTO.getId(), cursor.getId().toString());
+        verify(voucherRepository, never()).findAll(ArgumentMatchers.<Specification<Voucher>>any(), any(Pageable.class));
+    }
+
+    @Test
+    @Order(5)
+    void findCatalogAfter_shouldRejectCursorIssuedForAnotherSort() {
+        VoucherDTO last = new VoucherDTO();
+        last.setId(UUID.randomUUID().toString());
+        last.setPrice(10.0);
+        String token = CatalogCursor.after(last, "price", true).encode();
+
+        assertThrows(InvalidCursorException.class, () -> catalogService.findCatalogAfter(
+                null, null, null, null, null, null, null, "price", false, token, 10, true));
+        assertThrows(InvalidCursorException.class, () -> catalogService.findCatalogAfter(
+                null, null, null, null, null, null, null, "popularity", false, null, 10, true));
+        assertThrows(InvalidSortException.class, () -> catalogService.findCatalogAfter(
+                null, null, null, null, null, null, null, "description", false, null, 10, true));
+        assertThrows(InvalidCursorException.class, () -> catalogService.findCatalogAfter(
+                null, null, null, null, null, null, null, "price", false, "not-a-cursor", 10, true));
+    }
+
+    @Test
+    @Order(6)
+    void findCatalogFiltered_shouldRestrictQueryToTrigramCandidates() {
+        Pageable pageable = PageRequest.of(0, 10);
+        UUID candidate = UUID.randomUUID();
+
+        when(trigramIndex.candidates("bordeaux")).thenReturn(Optional.of(Set.of(candidate)));
+        when(voucherRepository.findWindow(ArgumentMatchers.<Specification<Voucher>>any(), eq(pageable.getSort()), eq(0L), eq(10)))
+                .thenReturn(List.of());
+
+        catalogService.findCatalogFiltered(null, null, null, "bordeaux", null, null, null, pageable, true);
+
+        ArgumentCaptor<CatalogFilter> filter = ArgumentCaptor.forClass(CatalogFilter.class);
+        verify(catalogIndex).query(filter.capture(), eq(pageable));
+        assertEquals(Set.of(candidate), filter.getValue().getCandidateIds());
+    }
+
+    @Test
+    @Order(7)
+    void findCatalogSlice_shouldReportExactTotalOnLastPageWithoutCounting() {
+        Pageable pageable = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "isHot"));
+        VoucherDTO onlyDTO = new VoucherDTO();
+
+        when(voucherRepository.findWindow(ArgumentMatchers.<Specification<Voucher>>any(), eq(pageable.getSort()), eq(2L), eq(3)))
+                .thenReturn(List.of(onlyDTO));
+
+        CatalogSlice slice = catalogService.findCatalogSlice(null, null, null, null, null, null, null, pageable, true);
+
+        assertEquals(List.of(onlyDTO), slice.getVouchers());
+        assertFalse(slice.isHasNext());
+        assertEquals(3L, slice.getTotalElements());
+        assertTrue(slice.isTotalExact());
+        verify(voucherRepository, never()).count(ArgumentMatchers.<Specification<Voucher>>any());
+        verifyNoInteractions(countCache);
+    }
+
+    @Test
+    @Order(8)
+    void findCatalogSlice_shouldTakeEstimatedTotalFromCountCache() {
+        Pageable pageable = PageRequest.of(0, 1);
+        VoucherDTO firstDTO = new VoucherDTO();
+        VoucherDTO extraDTO = new VoucherDTO();
+
+        when(voucherRepository.findWindow(ArgumentMatchers.<Specification<Voucher>>any(), eq(pageable.getSort()), eq(0L), eq(2)))
+                .thenReturn(List.of(firstDTO, extraDTO));
+        when(countCache.count(any(CatalogFilter.class), any())).thenReturn(new CatalogCountCache.Count(57, false));
+
+        CatalogSlice slice = catalogService.findCatalogSlice(null, null, null, null, null, null, null, pageable, true);
+
+        assertEquals(List.of(firstDTO), slice.getVouchers());
+        assertTrue(slice.isHasNext());
+        assertEquals(57L, slice.getTotalElements());
+        assertFalse(slice.isTotalExact());
+    }
+
+    @Test
+    @Order(9)
+    void findCatalogFiltered_shouldServeRepeatedQueryFromResultCacheUntilCatalogChanges() {
+        CatalogVersion version = new CatalogVersion();
+        CatalogService cached = new CatalogServiceImpl(voucherRepository, voucherMapper, catalogIndex,
+                trigramIndex, travelDateIndex, hotDealsIndex, titleSuggestIndex, countCache,
+                new CatalogResultCache(true, 10, version), version, popularityCounters, relevanceIndex);
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(voucherRepository.findWindow(ArgumentMatchers.<Specification<Voucher>>any(), eq(pageable.getSort()), eq(0L), eq(10)))
+                .thenReturn(List.of());
+
+        cached.findCatalogFiltered(TourType.ECO, null, null, null, null, null, null, pageable, true);
+        cached.findCatalogFiltered(TourType.ECO, null, null, null, null, null, null, pageable, true);
+        verify(voucherRepository, times(1)).findWindow(ArgumentMatchers.<Specification<Voucher>>any(), any(Sort.class), anyLong(), anyInt());
+
+        cached.findCatalogFiltered(TourType.WINE, null, null, null, null, null, null, pageable, true);
+        version.bump();
+        cached.findCatalogFiltered(TourType.ECO, null, null, null, null, null, null, pageable, true);
+        verify(voucherRepository, times(3)).findWindow(ArgumentMatchers.<Specification<Voucher>>any(), any(Sort.class), anyLong(), anyInt());
+    }
+
+    @Test
+    @Order(10)
+    void findCatalogFiltered_shouldRejectInvertedTravelWindow() {
+        Pageable pageable = PageRequest.of(0, 10);
+        TravelWindow dates = TravelWindow.builder()
+                .startsFrom(LocalDate.of(2026, 7, 1))
+                .startsTo(LocalDate.of(2026, 6, 1))
+                .build();
+        TravelWindow nights = TravelWindow.builder().minNights(5).maxNights(2).build();
+
+        assertThrows(InvalidDatesException.class, () -> catalogService.findCatalogFiltered(
+                null, null, null, null, null, null, dates, pageable, true));
+        assertThrows(InvalidDatesException.class, () -> catalogService.findCatalogFiltered(
+                null, null, null, null, null, null, nights, pageable, true));
+        verifyNoInteractions(voucherRepository);
+    }
+
+    @Test
+    @Order(11)
+    void findCatalogFiltered_shouldIntersectTrigramAndTravelDateCandidates() {
+        Pageable pageable = PageRequest.of(0, 10);
+        UUID both = UUID.randomUUID();
+        UUID textOnly = UUID.randomUUID();
+        UUID datesOnly = UUID.randomUUID();
+        TravelWindow window = TravelWindow.builder().minNights(7).build();
+
+        when(trigramIndex.candidates("bordeaux")).thenReturn(Optional.of(Set.of(both, textOnly)));
+        when(travelDateIndex.candidates(window)).thenReturn(Optional.of(Set.of(both, datesOnly)));
+        when(voucherRepository.findWindow(ArgumentMatchers.<Specification<Voucher>>any(), eq(pageable.getSort()), eq(0L), eq(10)))
+                .thenReturn(List.of());
+
+        catalogService.findCatalogFiltered(null, null, null, "bordeaux", null, null, window, pageable, true);
+
+        ArgumentCaptor<CatalogFilter> filter = ArgumentCaptor.forClass(CatalogFilter.class);
+        verify(catalogIndex).query(filter.capture(), eq(pageable));
+        assertEquals(Set.of(both), filter.getValue().getCandidateIds());
+        assertEquals(window, filter.getValue().getTravelWindow());
+    }
+
+    @Test
+    @Order(12)
+    void findHotDeals_shouldServeFromIndexWithoutDatabase() {
+        VoucherDTO deal = new VoucherDTO();
+        when(hotDealsIndex.top(TourType.SAFARI, 5)).thenReturn(Map.of(TourType.SAFARI, List.of(deal)));
+
+        Map<TourType, List<VoucherDTO>> result = catalogService.findHotDeals(TourType.SAFARI, 5, true);
+
+        assertEquals(List.of(deal), result.get(TourType.SAFARI));
+        verifyNoInteractions(voucherRepository);
+    }
+
+    @Test
+    @Order(13)
+    void findHotDeals_shouldReturnNothing_whenHotVouchersAreHidden() {
+        Map<TourType, List<VoucherDTO>> result = catalogService.findHotDeals(null, 5, false);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(hotDealsIndex, voucherRepository);
+    }
+
+    @Test
+    @Order(14)
+    void suggestTitles_shouldDelegateToIndexWithoutQueryingRepositories() {
+        List<VoucherSuggestion> suggestions = List.of(
+                new VoucherSuggestion(UUID.randomUUID().toString(), "Paris Weekend", false));
+        when(titleSuggestIndex.suggest("par", 5, false)).thenReturn(suggestions);
+
+        assertEquals(suggestions, catalogService.suggestTitles("par", 5, false));
+        verifyNoInteractions(voucherRepository);
+    }
+
+    @Test
+    @Order(15)
+    void listings_shouldRejectUnknownSortBeforeQuerying() {
+        assertThrows(InvalidSortException.class, () -> catalogService.findCatalog(0, 10, "price; drop table vouchers"));
+        assertThrows(InvalidSortException.class, () -> catalogService.findCatalogAfter(
+                null, null, null, null, null, null, null, "cancellationReason", true, null, 10, true));
+
+        verifyNoInteractions(voucherRepository);
+    }
+}
@@ -0,0 +1,285 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.PopularityCounters;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.*;
+import com.epam.finaltask.mapper.VoucherMapper;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+
+import com.epam.finaltask.repository.VoucherOrderRow;
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CheckoutServiceImplTest {
+
+    @Mock
+    private VoucherRepository voucherRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private VoucherMapper voucherMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PopularityCounters popularityCounters;
+
+    @Mock
+    private BalanceLedger balanceLedger;
+
+    @InjectMocks
+    private CheckoutServiceImpl checkoutService;
+
+    @Test
+    @Order(1)
+    void order_shouldReturnVoucherDTO_whenAllConditionsAreMet() {
+        UUID voucherId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setStatus(VoucherStatus.REGISTERED);
+        voucher.setPrice(100.0);
+        voucher.setIsHot(false);
+
+        User user = new User();
+        user.setId(userId);
+        user.setBalance(BigDecimal.valueOf(150));
+        user.setActive(true);
+
+        VoucherDTO voucherDTO = new VoucherDTO();
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(balanceLedger.debit(userId, 10000L)).thenReturn(true);
+        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
+
+        VoucherDTO result = checkoutService.order(voucherId.toString(), userId.toString());
+
+        assertNotNull(result);
+        assertEquals(voucherDTO, result);
+        assertEquals(VoucherStatus.PAID, voucher.getStatus());
+
+        assertEquals(user, voucher.getUser());
+
+        verify(balanceLedger).debit(userId, 10000L);
+        verify(userRepository, never()).save(any());
+        verify(voucherRepository).save(voucher);
+        verify(voucherMapper).toVoucherDTO(voucher);
+        verify(popularityCounters).recordOrder(voucherId);
+    }
+
+    @Test
+    @Order(2)
+    void order_shouldThrowVoucherNotFoundException_whenVoucherDoesNotExist() {
+        UUID voucherId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.empty());
+
+        assertThrows(VoucherNotFoundException.class, () ->
+                checkoutService.order(voucherId.toString(), userId.toString())
+        );
+    }
+
+    @Test
+    @Order(3)
+    void order_shouldThrowUserNotFoundException_whenUserDoesNotExist() {
+        UUID voucherId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setStatus(VoucherStatus.REGISTERED);
+        voucher.setPrice(100.0);
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () ->
+                checkoutService.order(voucherId.toString(), userId.toString())
+        );
+    }
+
+    @Test
+    @Order(4)
+    void order_shouldThrowVoucherOrderException_whenHotVoucherAndInactiveUser() {
+        UUID voucherId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setStatus(VoucherStatus.REGISTERED);
+        voucher.setPrice(100.0);
+        voucher.setIsHot(true);
+
+        User user = new User();
+        user.setId(userId);
+        user.setBalance(BigDecimal.valueOf(200));
+        user.setActive(false);
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertThrows(VoucherOrderException.class, () ->
+                checkoutService.order(voucherId.toString(), userId.toString())
+        );
+    }
+
+    @Test
+    @Order(5)
+    void order_shouldThrowVoucherOrderException_whenVoucherNotRegistered() {
+        UUID voucherId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setStatus(VoucherStatus.PAID);
+        voucher.setPrice(100.0);
+        voucher.setIsHot(false);
+
+        User user = new User();
+        user.setId(userId);
+        user.setBalance(BigDecimal.valueOf(200));
+        user.setActive(true);
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertThrows(VoucherOrderException.class, () ->
+                checkoutService.order(voucherId.toString(), userId.toString())
+        );
+    }
+
+    @Test
+    @Order(6)
+    void order_shouldThrowVoucherOrderException_whenUserBalanceTooLow() {
+        UUID voucherId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setStatus(VoucherStatus.REGISTERED);
+        voucher.setPrice(150.0);
+        voucher.setIsHot(false);
+
+        User user = new User();
+        user.setId(userId);
+        user.setBalance(BigDecimal.valueOf(100));
+        user.setActive(true);
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertThrows(VoucherOrderException.class, () ->
+                checkoutService.order(voucherId.toString(), userId.toString())
+        );
+        verifyNoInteractions(popularityCounters);
+    }
+
+    @Test
+    @Order(7)
+    void checkout_shouldRejectEmptyAndOversizedCartsBeforeQuerying() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        assertThrows(InvalidBatchRequestException.class, () -> checkoutService.checkout(List.of(), "buyer"));
+        assertThrows(InvalidBatchRequestException.class, () -> checkoutService.checkout(ids, "buyer"));
+        verifyNoInteractions(voucherRepository, userRepository);
+    }
+
+    @Test
+    @Order(8)
+    void orderAs_shouldOrderTheVoucherAndUserReadTogether() {
+        UUID voucherId = UUID.randomUUID();
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setStatus(VoucherStatus.REGISTERED);
+        voucher.setPrice(100.0);
+        voucher.setIsHot(true);
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("buyer");
+        user.setBalance(BigDecimal.valueOf(150));
+        user.setActive(true);
+        VoucherDTO voucherDTO = new VoucherDTO();
+
+        when(voucherRepository.findForOrder(voucherId, "buyer")).thenReturn(Optional.of(new VoucherOrderRow(voucher, user)));
+        when(balanceLedger.debit(user.getId(), 10000L)).thenReturn(true);
+        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
+
+        assertSame(voucherDTO, checkoutService.orderAs(voucherId, "buyer"));
+        assertEquals(VoucherStatus.PAID, voucher.getStatus());
+        assertEquals(user, voucher.getUser());
+        verify(voucherRepository, never()).findById(any());
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).findUserByUsername(any());
+        verify(popularityCounters).recordOrder(voucherId);
+    }
+
+    @Test
+    @Order(9)
+    void orderAs_shouldReportWhichSideIsMissing() {
+        UUID voucherId = UUID.randomUUID();
+        when(voucherRepository.findForOrder(any(), any())).thenReturn(Optional.empty());
+        when(voucherRepository.existsById(voucherId)).thenReturn(false, true);
+
+        assertThrows(VoucherNotFoundException.class, () -> checkoutService.orderAs(voucherId, "buyer"));
+        assertThrows(UserNotFoundException.class, () -> checkoutService.orderAs(voucherId, "buyer"));
+        verifyNoInteractions(voucherMapper);
+    }
+
+    @Test
+    @Order(10)
+    void order_shouldLeaveTheVoucherAlone_whenTheDebitLosesARace() {
+        UUID voucherId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Voucher voucher = new Voucher();
+        voucher.setId(voucherId);
+        voucher.setStatus(VoucherStatus.REGISTERED);
+        voucher.setPrice(100.0);
+        voucher.setIsHot(false);
+        User user = new User();
+        user.setId(userId);
+        user.setBalance(BigDecimal.valueOf(150));
+        user.setActive(true);
+
+        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(balanceLedger.debit(userId, 10000L)).thenReturn(false);
+
+        VoucherOrderException ex = assertThrows(VoucherOrderException.class,
+                () -> checkoutService.order(voucherId.toString(), userId.toString()));
+
+        assertEquals("Insufficient balance", ex.getMessage());
+        assertEquals(VoucherStatus.REGISTERED, voucher.getStatus());
+        assertNull(voucher.getUser());
+        verify(voucherRepository, never()).save(any());
+        verifyNoInteractions(popularityCounters);
+    }
+}
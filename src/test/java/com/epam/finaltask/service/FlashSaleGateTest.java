@@ -0,0 +1,306 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.VoucherChangeType;
+import com.epam.finaltask.catalog.VoucherChangedEvent;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.OrderAdmissionException;
+import com.epam.finaltask.exception.VoucherOrderException;
+import com.epam.finaltask.model.VoucherStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlashSaleGateTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final UUID voucherId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void order_shouldRunOneOrderPerVoucherAtATime() throws Exception {
+        FlashSaleGate gate = new FlashSaleGate(true, 16, WAIT);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger attempts = new AtomicInteger();
+
+        List<Future<?>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callers.add(executor.submit(() -> assertThrows(VoucherOrderException.class, () -> gate.order(voucherId, () -> {
+                attempts.incrementAndGet();
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(5);
+                running.decrementAndGet();
+                throw new VoucherOrderException("Insufficient balance");
+            }))));
+        }
+        for (Future<?> caller : callers) {
+            caller.get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(8, attempts.get());
+        assertEquals(1, maxRunning.get());
+        assertEquals(0, gate.inFlight(voucherId));
+    }
+
+    @Test
+    void order_shouldTurnAwayWaitersOnceTheVoucherIsSold() throws Exception {
+        FlashSaleGate gate = new FlashSaleGate(true, 16, WAIT);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        Future<VoucherDTO> winner = executor.submit(() -> gate.order(voucherId, () -> {
+            attempts.incrementAndGet();
+            holding.countDown();
+            await(release);
+            return voucher(VoucherStatus.PAID);
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        List<Future<?>> waiters = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            waiters.add(executor.submit(() -> gate.order(voucherId, counting(attempts))));
+        }
+        awaitInFlight(gate, 5);
+        release.countDown();
+
+        assertEquals(VoucherStatus.PAID, winner.get(5, TimeUnit.SECONDS).getStatus());
+        for (Future<?> waiter : waiters) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(VoucherOrderException.class, failure.getCause());
+        }
+        assertThrows(VoucherOrderException.class, () -> gate.order(voucherId, counting(attempts)));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void order_shouldRejectCallersBeyondTheQueueAndOnTimeout() throws Exception {
+        FlashSaleGate gate = new FlashSaleGate(true, 1, Duration.ofMillis(200));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<VoucherDTO> holder = executor.submit(() -> gate.order(voucherId, () -> {
+            holding.countDown();
+            await(release);
+            throw new VoucherOrderException("Insufficient balance");
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+        Future<VoucherDTO> queued = executor.submit(() -> gate.order(voucherId, () -> voucher(VoucherStatus.PAID)));
+        awaitInFlight(gate, 2);
+
+        OrderAdmissionException full = assertThrows(OrderAdmissionException.class,
+                () -> gate.order(voucherId, () -> voucher(VoucherStatus.PAID)));
+        assertTrue(full.getMessage().contains("Too many"));
+
+        ExecutionException timedOut = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OrderAdmissionException.class, timedOut.getCause());
+
+        release.countDown();
+        assertThrows(ExecutionException.class, () -> holder.get(5, TimeUnit.SECONDS));
+        assertEquals(0, gate.inFlight(voucherId));
+        assertEquals(VoucherStatus.PAID, gate.order(voucherId, () -> voucher(VoucherStatus.PAID)).getStatus());
+    }
+
+    @Test
+    void apply_shouldClaimSoldVouchersAndReleaseReregisteredOnes() {
+        FlashSaleGate gate = new FlashSaleGate(true, 16, WAIT);
+        AtomicInteger attempts = new AtomicInteger();
+
+        gate.apply(new VoucherChangedEvent(VoucherChangeType.ORDERED, voucherId, voucher(VoucherStatus.PAID)));
+        assertThrows(VoucherOrderException.class, () -> gate.order(voucherId, counting(attempts)));
+        assertEquals(0, attempts.get());
+
+        gate.apply(new VoucherChangedEvent(VoucherChangeType.REREGISTERED, voucherId, voucher(VoucherStatus.REGISTERED)));
+        gate.order(voucherId, counting(attempts));
+        assertEquals(1, attempts.get());
+
+        gate.rebuild(List.of());
+        gate.order(voucherId, counting(attempts));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void order_shouldPassThrough_whenDisabled() {
+        FlashSaleGate gate = new FlashSaleGate(false, 0, Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+
+        gate.order(voucherId, counting(attempts));
+        gate.order(voucherId, counting(attempts));
+
+        assertEquals(2, attempts.get());
+        assertFalse(gate.isEnabled());
+    }
+
+    @Test
+    void order_shouldHoldThePermitUntilTheCallersTransactionCompletes() {
+        FlashSaleGate gate = new FlashSaleGate(true, 16, WAIT);
+        AtomicInteger attempts = new AtomicInteger();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            gate.order(voucherId, counting(attempts));
+            assertEquals(1, gate.inFlight(voucherId));
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(0, gate.inFlight(voucherId));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            gate.order(voucherId, counting(attempts));
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(0, gate.inFlight(voucherId));
+        assertThrows(VoucherOrderException.class, () -> gate.order(voucherId, counting(attempts)));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void checkout_shouldWaitForOrdersOfEveryVoucherInTheCart() throws Exception {
+        FlashSaleGate gate = new FlashSaleGate(true, 16, WAIT);
+        UUID first = new UUID(0, 1);
+        UUID busy = new UUID(0, 2);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger checkouts = new AtomicInteger();
+
+        Future<VoucherDTO> order = executor.submit(() -> gate.order(busy, () -> {
+            holding.countDown();
+            await(release);
+            throw new VoucherOrderException("Insufficient balance");
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        Future<Integer> cart = executor.submit(() -> gate.checkout(
+                List.of(busy.toString(), first.toString(), "not-a-uuid"), checkouts::incrementAndGet));
+        awaitInFlight(gate, busy, 2);
+        assertEquals(1, gate.inFlight(first));
+        assertEquals(0, checkouts.get());
+
+        release.countDown();
+        assertThrows(ExecutionException.class, () -> order.get(5, TimeUnit.SECONDS));
+        assertEquals(1, cart.get(5, TimeUnit.SECONDS));
+        assertEquals(0, gate.inFlight(busy));
+        assertEquals(0, gate.inFlight(first));
+    }
+
+    @Test
+    void checkout_shouldReleaseEveryPermit_whenOneVoucherTimesOut() throws Exception {
+        FlashSaleGate gate = new FlashSaleGate(true, 16, Duration.ofMillis(200));
+        UUID first = new UUID(0, 1);
+        UUID busy = new UUID(0, 2);
+        UUID sold = new UUID(0, 3);
+        gate.apply(new VoucherChangedEvent(VoucherChangeType.ORDERED, sold, voucher(VoucherStatus.PAID)));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger checkouts = new AtomicInteger();
+
+        Future<VoucherDTO> order = executor.submit(() -> gate.order(busy, () -> {
+            holding.countDown();
+            await(release);
+            return voucher(VoucherStatus.PAID);
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        List<String> cart = List.of(first.toString(), busy.toString(), sold.toString());
+        assertThrows(OrderAdmissionException.class, () -> gate.checkout(cart, checkouts::incrementAndGet));
+        assertEquals(0, checkouts.get());
+        assertEquals(0, gate.inFlight(first));
+        assertEquals(1, gate.inFlight(busy));
+
+        release.countDown();
+        order.get(5, TimeUnit.SECONDS);
+        assertEquals(1, gate.checkout(List.of(first.toString(), sold.toString()), checkouts::incrementAndGet));
+        assertEquals(0, gate.inFlight(sold));
+    }
+
+    @Test
+    void checkout_shouldHoldThePermitsUntilTheCallersTransactionCompletes() {
+        FlashSaleGate gate = new FlashSaleGate(true, 16, WAIT);
+        UUID other = UUID.randomUUID();
+        AtomicInteger checkouts = new AtomicInteger();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            gate.checkout(List.of(voucherId.toString(), other.toString()), checkouts::incrementAndGet);
+            assertEquals(1, gate.inFlight(voucherId));
+            assertEquals(1, gate.inFlight(other));
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(0, gate.inFlight(voucherId));
+        assertEquals(0, gate.inFlight(other));
+        assertEquals(1, checkouts.get());
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private static Supplier<VoucherDTO> counting(AtomicInteger attempts) {
+        return () -> {
+            attempts.incrementAndGet();
+            return voucher(VoucherStatus.PAID);
+        };
+    }
+
+    private void awaitInFlight(FlashSaleGate gate, int callers) throws InterruptedException {
+        awaitInFlight(gate, voucherId, callers);
+    }
+
+    private static void awaitInFlight(FlashSaleGate gate, UUID voucherId, int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gate.inFlight(voucherId) < callers && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static VoucherDTO voucher(VoucherStatus status) {
+        VoucherDTO dto = new VoucherDTO();
+        dto.setId(UUID.randomUUID().toString());
+        dto.setStatus(status);
+        return dto;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.OrderAdmissionException;
+import com.epam.finaltask.exception.VoucherOrderException;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Stress harness for {@link FlashSaleGate}: {@code benchmark.threads} users order the same
+ * few hot vouchers at once, through committed order transactions, with and without the gate.
+ * Run with {@code mvn test -Pbenchmark [-Dbenchmark.threads=200]}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlashSaleStressBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 200);
+    private static final int VOUCHERS = 4;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        voucherRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void measureContendedOrders() throws Exception {
+        List<String> users = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            users.add(user("buyer" + i).getId().toString());
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CheckoutService voucherService = VoucherServices.over(voucherRepository, userRepository).checkout();
+
+        System.out.printf("%,d buyers, %d hot vouchers, %d rounds%n", THREADS, VOUCHERS, ROUNDS);
+        for (boolean gated : new boolean[]{false, true}) {
+            FlashSaleGate gate = new FlashSaleGate(gated, THREADS, Duration.ofSeconds(10));
+            Outcome total = new Outcome();
+            long elapsed = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                List<UUID> vouchers = hotVouchers();
+                long start = System.nanoTime();
+                run(users, vouchers, total, (voucherId, userId) -> gate.order(voucherId, () -> {
+                    total.transactions.incrementAndGet();
+                    return transaction.execute(status -> voucherService.order(voucherId.toString(), userId));
+                }));
+                elapsed += System.nanoTime() - start;
+                voucherRepository.deleteAll();
+            }
+            double ms = elapsed / 1_000_000.0;
+            System.out.printf("  %-8s %8.0f ms  %,8.0f calls/s  sold %3d  rejected %5d  busy %4d  failed %4d  transactions %5d%n",
+                    gated ? "gated" : "ungated", ms, ROUNDS * THREADS / (ms / 1000), total.sold.get(),
+                    total.rejected.get(), total.busy.get(), total.failed.get(), total.transactions.get());
+            if (gated) {
+                assertEquals(ROUNDS * VOUCHERS, total.sold.get());
+            }
+        }
+    }
+
+    /**
+     * Releases every buyer at once, each ordering one of the vouchers, and waits for all of them.
+     */
+    private void run(List<String> users, List<UUID> vouchers, Outcome outcome, Order order) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                String userId = users.get(i);
+                UUID voucherId = vouchers.get(i % VOUCHERS);
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        order.place(voucherId, userId);
+                        outcome.sold.incrementAndGet();
+                    } catch (VoucherOrderException e) {
+                        outcome.rejected.incrementAndGet();
+                    } catch (OrderAdmissionException e) {
+                        outcome.busy.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        outcome.failed.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                call.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<UUID> hotVouchers() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < VOUCHERS; i++) {
+            Voucher voucher = new Voucher();
+            voucher.setTitle("Flash sale " + i);
+            voucher.setDescription("Flash sale trip");
+            voucher.setPrice(100.0);
+            voucher.setTourType(TourType.SAFARI);
+            voucher.setTransferType(TransferType.PLANE);
+            voucher.setHotelType(HotelType.FOUR_STARS);
+            voucher.setArrivalDate(LocalDate.of(2026, 8, 1));
+            voucher.setEvictionDate(LocalDate.of(2026, 8, 8));
+            voucher.setIsHot(true);
+            ids.add(voucherRepository.save(voucher).getId());
+        }
+        return ids;
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setFirstName(username);
+        user.setLastName(username);
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@example.com");
+        user.setRole(Role.CUSTOMER);
+        user.setActive(true);
+        user.setBalance(BigDecimal.valueOf(1_000_000));
+        return userRepository.save(user);
+    }
+
+    @FunctionalInterface
+    private interface Order {
+
+        VoucherDTO place(UUID voucherId, String userId);
+    }
+
+    private static final class Outcome {
+
+        private final AtomicInteger sold = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final AtomicInteger busy = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger transactions = new AtomicInteger();
+    }
+}
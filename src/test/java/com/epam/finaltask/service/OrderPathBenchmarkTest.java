@@ -0,0 +1,153 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the money arithmetic of an order and a refund, once the way it used to be done
+ * ({@code BigDecimal} balance against a {@code Double} price) and once in cents, then
+ * {@code benchmark.orders} committed orders end to end.
+ * Run with {@code mvn test -Pbenchmark [-Dbenchmark.orders=5000]}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderPathBenchmarkTest {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 2_000);
+    private static final int ARITHMETIC_ROUNDS = 5_000_000;
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        voucherRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void measureMoneyArithmetic() {
+        double[] prices = new double[1024];
+        Random random = new Random(42);
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = (10_000 + random.nextInt(490_000)) / 100.0;
+        }
+        long[] priceCents = new long[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            priceCents[i] = Money.toCents(prices[i]);
+        }
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            decimalRounds(prices);
+            centRounds(priceCents);
+        }
+        long start = System.nanoTime();
+        BigDecimal decimalBalance = decimalRounds(prices);
+        double decimalMs = (System.nanoTime() - start) / 1_000_000.0;
+        start = System.nanoTime();
+        long centBalance = centRounds(priceCents);
+        double centMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        assertEquals(0, decimalBalance.compareTo(Money.toBigDecimal(centBalance)));
+        System.out.printf("%,d order/refund pairs: BigDecimal %.1f ms, cents %.1f ms%n",
+                ARITHMETIC_ROUNDS, decimalMs, centMs);
+    }
+
+    @Test
+    void measureCommittedOrders() {
+        User buyer = new User();
+        buyer.setFirstName("Buyer");
+        buyer.setLastName("Buyer");
+        buyer.setUsername("buyer");
+        buyer.setPassword("secret");
+        buyer.setEmail("buyer@example.com");
+        buyer.setRole(Role.CUSTOMER);
+        buyer.setActive(true);
+        buyer.setBalance(BigDecimal.valueOf(ORDERS * 1_000L));
+        userRepository.save(buyer);
+
+        List<Voucher> vouchers = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            Voucher voucher = new Voucher();
+            voucher.setTitle("Voucher " + i);
+            voucher.setDescription("Benchmark trip");
+            voucher.setPrice(100 + i % 900 + 0.99);
+            voucher.setTourType(TourType.LEISURE);
+            voucher.setTransferType(TransferType.PLANE);
+            voucher.setHotelType(HotelType.THREE_STARS);
+            voucher.setArrivalDate(LocalDate.of(2026, 10, 1));
+            voucher.setEvictionDate(LocalDate.of(2026, 10, 8));
+            voucher.setIsHot(false);
+            vouchers.add(voucher);
+        }
+        List<UUID> ids = voucherRepository.saveAll(vouchers).stream().map(Voucher::getId).toList();
+
+        CheckoutService voucherService = VoucherServices.over(voucherRepository, userRepository).checkout();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        long start = System.nanoTime();
+        for (UUID id : ids) {
+            transaction.executeWithoutResult(status -> voucherService.orderAs(id, "buyer"));
+        }
+        double ms = (System.nanoTime() - start) / 1_000_000.0;
+
+        System.out.printf("%,d committed orders in %.0f ms (%.3f ms per order)%n", ORDERS, ms, ms / ORDERS);
+    }
+
+    /**
+     * The old order and refund path: every step boxes the price into a new {@code BigDecimal}.
+     */
+    private static BigDecimal decimalRounds(double[] prices) {
+        BigDecimal balance = BigDecimal.valueOf(1_000_000);
+        for (int i = 0; i < ARITHMETIC_ROUNDS; i++) {
+            double price = prices[i & (prices.length - 1)];
+            if (balance.compareTo(BigDecimal.valueOf(price)) >= 0) {
+                balance = balance.subtract(BigDecimal.valueOf(price));
+            }
+            balance = balance.add(BigDecimal.valueOf(price));
+        }
+        return balance;
+    }
+
+    private static long centRounds(long[] priceCents) {
+        long balance = Money.toCents(1_000_000);
+        for (int i = 0; i < ARITHMETIC_ROUNDS; i++) {
+            long price = priceCents[i & (priceCents.length - 1)];
+            if (balance >= price) {
+                balance -= price;
+            }
+            balance += price;
+        }
+        return balance;
+    }
+}
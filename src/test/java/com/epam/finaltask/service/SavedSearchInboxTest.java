@@ -0,0 +1,242 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.SavedSearchIndex;
+import com.epam.finaltask.catalog.SavedSearchMatcher;
+import com.epam.finaltask.dto.SavedSearchDTO;
+import com.epam.finaltask.dto.SavedSearchMatchDTO;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.InvalidDatesException;
+import com.epam.finaltask.exception.InvalidSavedSearchException;
+import com.epam.finaltask.exception.SavedSearchNotFoundException;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.SavedSearchMatchRepository;
+import com.epam.finaltask.repository.SavedSearchRepository;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction: inbox entries are written only after the voucher change
+ * commits, in a transaction of their own, which a rolled back test transaction would hide.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SavedSearchIndex.class, SavedSearchMatcher.class, SavedSearchServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SavedSearchInboxTest {
+
+    private static final LocalDate ARRIVAL = LocalDate.of(2026, 8, 1);
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private SavedSearchMatchRepository matchRepository;
+
+    @Autowired
+    private SavedSearchMatcher matcher;
+
+    @Autowired
+    private SavedSearchService savedSearchService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private VoucherService voucherService;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        voucherService = VoucherServices.over(voucherRepository, userRepository).eventPublisher(eventPublisher).vouchers();
+
+        user("alice");
+        user("bob");
+        matcher.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        matchRepository.deleteAll();
+        savedSearchRepository.deleteAll();
+        voucherRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void create_shouldFileMatchingVouchersIntoTheOwnersInbox() {
+        SavedSearchDTO safari = savedSearchService.create("alice", search("Cheap safari", TourType.SAFARI, 0.0, 1000.0));
+        savedSearchService.create("bob", search("Wine", TourType.WINE, null, null));
+
+        VoucherDTO kenya = inTransaction(() -> voucherService.create(voucher("Kenya", TourType.SAFARI, 900.0)));
+        inTransaction(() -> voucherService.create(voucher("Tanzania", TourType.SAFARI, 1500.0)));
+        inTransaction(() -> voucherService.create(voucher("Bordeaux", TourType.HEALTH, 500.0)));
+
+        List<SavedSearchMatchDTO> inbox = inbox("alice", true);
+        assertEquals(1, inbox.size());
+        assertEquals(safari.getId(), inbox.get(0).getSavedSearchId());
+        assertEquals("Cheap safari", inbox.get(0).getSavedSearchName());
+        assertEquals(kenya.getId(), inbox.get(0).getVoucher().getId());
+        assertEquals(List.of(), inbox("bob", true));
+    }
+
+    @Test
+    void update_shouldReportAVoucherOncePerSearch() {
+        savedSearchService.create("bob", search("Wine", TourType.WINE, null, null));
+        VoucherDTO voucher = inTransaction(() -> voucherService.create(voucher("Tour", TourType.HEALTH, 500.0)));
+        assertEquals(List.of(), inbox("bob", true));
+
+        voucher.setTourType(TourType.WINE);
+        inTransaction(() -> voucherService.update(voucher.getId(), voucher));
+        voucher.setPrice(450.0);
+        inTransaction(() -> voucherService.update(voucher.getId(), voucher));
+
+        List<SavedSearchMatchDTO> inbox = inbox("bob", true);
+        assertEquals(1, inbox.size());
+        assertEquals(450.0, inbox.get(0).getVoucher().getPrice());
+    }
+
+    @Test
+    void rolledBackChange_shouldNotReachTheInbox() {
+        savedSearchService.create("bob", search("Wine", TourType.WINE, null, null));
+
+        assertThrows(IllegalStateException.class, () -> inTransaction(() -> {
+            voucherService.create(voucher("Rolled back", TourType.WINE, 500.0));
+            throw new IllegalStateException("rollback");
+        }));
+
+        assertEquals(0, voucherRepository.count());
+        assertEquals(0, matchRepository.count());
+    }
+
+    @Test
+    void inbox_shouldListOnlyOrderableVouchersAndHideHotOnesWhenAsked() {
+        savedSearchService.create("alice", search("Safari", TourType.SAFARI, null, null));
+        VoucherDTO hot = voucher("Hot", TourType.SAFARI, 700.0);
+        hot.setIsHot(true);
+        inTransaction(() -> voucherService.create(hot));
+        VoucherDTO sold = inTransaction(() -> voucherService.create(voucher("Sold", TourType.SAFARI, 800.0)));
+        inTransaction(() -> voucherService.create(voucher("Open", TourType.SAFARI, 900.0)));
+
+        Voucher paid = voucherRepository.findById(UUID.fromString(sold.getId())).orElseThrow();
+        paid.setStatus(VoucherStatus.PAID);
+        voucherRepository.save(paid);
+
+        assertEquals(List.of("Hot", "Open"), titles(inbox("alice", true)));
+        assertEquals(List.of("Open"), titles(inbox("alice", false)));
+    }
+
+    @Test
+    void deleteAndClear_shouldRemoveSearchesAndTheirEntries() {
+        SavedSearchDTO safari = savedSearchService.create("alice", search("Safari", TourType.SAFARI, null, null));
+        savedSearchService.create("alice", search("Any", null, null, null));
+        inTransaction(() -> voucherService.create(voucher("Kenya", TourType.SAFARI, 900.0)));
+        assertEquals(2, inbox("alice", true).size());
+
+        assertThrows(SavedSearchNotFoundException.class, () -> savedSearchService.delete("bob", safari.getId()));
+        savedSearchService.delete("alice", safari.getId());
+        assertEquals(List.of("Any"), savedSearchService.findMine("alice").stream().map(SavedSearchDTO::getName).toList());
+        assertEquals(1, inbox("alice", true).size());
+
+        inTransaction(() -> voucherService.create(voucher("Botswana", TourType.SAFARI, 900.0)));
+        assertEquals(List.of("Any"), inbox("alice", true).stream().map(SavedSearchMatchDTO::getSavedSearchName)
+                .distinct().toList());
+
+        savedSearchService.clearInbox("alice");
+        assertEquals(List.of(), inbox("alice", true));
+    }
+
+    @Test
+    void create_shouldRejectHalfOpenPriceRangesBadDatesAndTooManySearches() {
+        assertThrows(InvalidSavedSearchException.class,
+                () -> savedSearchService.create("alice", search("Half", null, 100.0, null)));
+        assertThrows(InvalidSavedSearchException.class,
+                () -> savedSearchService.create("alice", search("Reversed", null, 900.0, 100.0)));
+
+        SavedSearchDTO nights = search("Nights", null, null, null);
+        nights.setMinNights(7);
+        nights.setMaxNights(3);
+        assertThrows(InvalidDatesException.class, () -> savedSearchService.create("alice", nights));
+
+        for (int i = 0; i < SavedSearchServiceImpl.MAX_SAVED_SEARCHES; i++) {
+            savedSearchService.create("alice", search("Search " + i, null, null, null));
+        }
+        assertThrows(InvalidSavedSearchException.class,
+                () -> savedSearchService.create("alice", search("One too many", null, null, null)));
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return transaction.execute(status -> action.get());
+    }
+
+    private List<SavedSearchMatchDTO> inbox(String username, boolean hotVisible) {
+        return savedSearchService.findInbox(username, 0, 50, hotVisible).getContent();
+    }
+
+    private static List<String> titles(List<SavedSearchMatchDTO> inbox) {
+        return inbox.stream().map(match -> match.getVoucher().getTitle()).sorted().toList();
+    }
+
+    private void user(String username) {
+        User user = new User();
+        user.setFirstName(username);
+        user.setLastName(username);
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@example.com");
+        user.setRole(Role.CUSTOMER);
+        user.setActive(true);
+        userRepository.save(user);
+    }
+
+    private static SavedSearchDTO search(String name, TourType tourType, Double minPrice, Double maxPrice) {
+        SavedSearchDTO dto = new SavedSearchDTO();
+        dto.setName(name);
+        dto.setTourType(tourType);
+        dto.setMinPrice(minPrice);
+        dto.setMaxPrice(maxPrice);
+        return dto;
+    }
+
+    private static VoucherDTO voucher(String title, TourType tourType, double price) {
+        VoucherDTO dto = new VoucherDTO();
+        dto.setTitle(title);
+        dto.setDescription(title + " trip");
+        dto.setPrice(price);
+        dto.setTourType(tourType);
+        dto.setTransferType(TransferType.PLANE);
+        dto.setHotelType(HotelType.FOUR_STARS);
+        dto.setArrivalDate(ARRIVAL);
+        dto.setEvictionDate(ARRIVAL.plusDays(7));
+        return dto;
+    }
+}
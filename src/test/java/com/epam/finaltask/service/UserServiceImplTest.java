@@ -41,6 +41,9 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private BalanceLedger balanceLedger;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -348,26 +351,26 @@ class UserServiceImplTest {
         String cardExpiry = "12/27";
         String cvv = "123";
 
-        User user = new User();
-        user.setUsername(username);
-        user.setBalance(BigDecimal.ZERO);
+        User credited = new User();
+        credited.setUsername(username);
+        credited.setBalance(new BigDecimal("300.00"));
 
-        when(userRepository.findUserByUsername(username)).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArgument(0));
+        when(balanceLedger.credit(username, 30000L)).thenReturn(true);
+        when(userRepository.findUserByUsername(username)).thenReturn(Optional.of(credited));
 
         UserDTO result = userService.deposit(username, depositAmount, cardNumber, cardExpiry, cvv);
 
         assertNotNull(result);
-        assertEquals(depositAmount, result.getBalance());
+        assertEquals(new BigDecimal("300.00"), result.getBalance());
 
-        verify(userRepository).findUserByUsername(username);
-        verify(userRepository).save(user);
+        verify(balanceLedger).credit(username, 30000L);
+        verify(userRepository, never()).save(any());
     }
 
     @Test
     @Order(14)
     void deposit_userNotFound_throwsException() {
-        when(userRepository.findUserByUsername("unknown")).thenReturn(Optional.empty());
+        when(balanceLedger.credit("unknown", 10000L)).thenReturn(false);
 
         assertThrows(UsernameNotFoundException.class, () ->
                 userService.deposit("unknown", BigDecimal.valueOf(100), "1234567890123456", "12/27", "123")
@@ -377,11 +380,11 @@ class UserServiceImplTest {
     @Test
     @Order(15)
     void deposit_negativeAmount_throwsTransactionException() {
-        when(userRepository.findUserByUsername("customer")).thenReturn(Optional.of(new User()));
-
         assertThrows(TransactionException.class, () ->
                 userService.deposit("customer", BigDecimal.valueOf(-10), "1234567890123456", "12/27", "123")
         );
+
+        verifyNoInteractions(balanceLedger);
     }
 
     @Test
@@ -391,24 +394,26 @@ class UserServiceImplTest {
         BigDecimal withdrawAmount = BigDecimal.valueOf(200);
         String cardNumber = "1234567812345678";
 
-        User user = new User();
-        user.setUsername(username);
-        user.setBalance(BigDecimal.valueOf(500));
+        User debited = new User();
+        debited.setUsername(username);
+        debited.setBalance(new BigDecimal("300.00"));
 
-        when(userRepository.findUserByUsername(username)).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(balanceLedger.debit(username, 20000L)).thenReturn(true);
+        when(userRepository.findUserByUsername(username)).thenReturn(Optional.of(debited));
 
         UserDTO result = userService.withdraw(username, withdrawAmount, cardNumber);
 
         assertNotNull(result, "Returned UserDTO should not be null");
         assertEquals(username, result.getUsername(), "Username should match");
-        assertEquals(BigDecimal.valueOf(300), user.getBalance(), "User balance should be reduced by withdraw amount");
+        assertEquals(new BigDecimal("300.00"), result.getBalance(), "Balance should be read back after the debit");
+        verify(userRepository, never()).save(any());
     }
 
     @Test
     @Order(17)
     void withdraw_userNotFound_throwsException() {
-        when(userRepository.findUserByUsername("unknown")).thenReturn(Optional.empty());
+        when(balanceLedger.debit("unknown", 10000L)).thenReturn(false);
+        when(userRepository.existsByUsername("unknown")).thenReturn(false);
 
         assertThrows(UsernameNotFoundException.class, () ->
                 userService.withdraw("unknown", BigDecimal.valueOf(100), "1234567812345678")
@@ -418,10 +423,6 @@ class UserServiceImplTest {
     @Test
     @Order(18)
     void withdraw_negativeAmount_throwsTransactionException() {
-        User user = new User();
-        user.setBalance(BigDecimal.valueOf(500));
-        when(userRepository.findUserByUsername("customer")).thenReturn(Optional.of(user));
-
         assertThrows(TransactionException.class, () ->
                 userService.withdraw("customer", BigDecimal.valueOf(-50), "1234567812345678")
         );
@@ -429,15 +430,13 @@ class UserServiceImplTest {
         assertThrows(TransactionException.class, () ->
                 userService.withdraw("customer", BigDecimal.ZERO, "1234567812345678")
         );
+
+        verifyNoInteractions(balanceLedger);
     }
 
     @Test
     @Order(19)
     void withdraw_invalidCard_throwsTransactionException() {
-        User user = new User();
-        user.setBalance(BigDecimal.valueOf(500));
-        when(userRepository.findUserByUsername("customer")).thenReturn(Optional.of(user));
-
         assertThrows(TransactionException.class, () ->
                 userService.withdraw("customer", BigDecimal.valueOf(100), "1234")
         );
@@ -445,18 +444,22 @@ class UserServiceImplTest {
         assertThrows(TransactionException.class, () ->
                 userService.withdraw("customer", BigDecimal.valueOf(100), null)
         );
+
+        verifyNoInteractions(balanceLedger);
     }
 
     @Test
     @Order(20)
     void withdraw_insufficientBalance_throwsTransactionException() {
-        User user = new User();
-        user.setBalance(BigDecimal.valueOf(100));
-        when(userRepository.findUserByUsername("customer")).thenReturn(Optional.of(user));
+        when(balanceLedger.debit("customer", 20000L)).thenReturn(false);
+        when(userRepository.existsByUsername("customer")).thenReturn(true);
 
-        assertThrows(TransactionException.class, () ->
+        TransactionException ex = assertThrows(TransactionException.class, () ->
                 userService.withdraw("customer", BigDecimal.valueOf(200), "1234567812345678")
         );
+
+        assertEquals("balance.insufficient", ex.getMessage());
+        verify(userRepository, never()).findUserByUsername(any());
     }
 
     @Test
@@ -555,4 +558,34 @@ class UserServiceImplTest {
         );
     }
 
+    @Test
+    @Order(28)
+    void depositAndWithdraw_subCentAmount_throwsTransactionException() {
+        assertThrows(TransactionException.class, () ->
+                userService.deposit("customer", new BigDecimal("0.004"), "1234567890123456", "12/27", "123")
+        );
+        assertThrows(TransactionException.class, () ->
+                userService.deposit("customer", new BigDecimal("10.005"), "1234567890123456", "12/27", "123")
+        );
+        assertThrows(TransactionException.class, () ->
+                userService.withdraw("customer", new BigDecimal("0.001"), "1234567812345678")
+        );
+
+        verifyNoInteractions(balanceLedger);
+    }
+
+    @Test
+    @Order(29)
+    void withdraw_trailingZerosBelowTheCent_areAccepted() {
+        User debited = new User();
+        debited.setUsername("customer");
+        debited.setBalance(new BigDecimal("90.00"));
+        when(balanceLedger.debit("customer", 1050L)).thenReturn(true);
+        when(userRepository.findUserByUsername("customer")).thenReturn(Optional.of(debited));
+
+        userService.withdraw("customer", new BigDecimal("10.5000"), "1234567812345678");
+
+        verify(balanceLedger).debit("customer", 1050L);
+    }
+
 }
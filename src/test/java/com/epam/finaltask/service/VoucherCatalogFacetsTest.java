@@ -0,0 +1,115 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.ColumnarCatalogIndex;
+import com.epam.finaltask.dto.CatalogFacets;
+import com.epam.finaltask.dto.PriceBucket;
+import com.epam.finaltask.exception.InvalidFacetRequestException;
+import com.epam.finaltask.mapper.VoucherMapperImpl;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VoucherCatalogFacetsTest {
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private CatalogService databasePath;
+    private CatalogService indexPath;
+
+    @BeforeEach
+    void setUp() {
+        VoucherMapperImpl mapper = new VoucherMapperImpl(new ModelMapper());
+        for (int i = 0; i < 20; i++) {
+            Voucher voucher = new Voucher();
+            voucher.setTitle("Trip " + i);
+            voucher.setDescription(i % 4 == 0 ? "Quiet lake retreat" : "City break");
+            voucher.setPrice((double) (100 * i));
+            voucher.setTourType(i % 2 == 0 ? TourType.ECO : TourType.WINE);
+            voucher.setTransferType(i % 3 == 0 ? TransferType.PLANE : TransferType.BUS);
+            voucher.setHotelType(HotelType.THREE_STARS);
+            voucher.setStatus(i == 19 ? VoucherStatus.PAID : VoucherStatus.REGISTERED);
+            voucher.setArrivalDate(LocalDate.of(2026, 6, 1));
+            voucher.setEvictionDate(LocalDate.of(2026, 6, 5));
+            voucher.setIsHot(i % 5 == 0);
+            voucherRepository.save(voucher);
+        }
+
+        ColumnarCatalogIndex index = new ColumnarCatalogIndex(true);
+        index.rebuild(voucherRepository.findAllByStatus(VoucherStatus.REGISTERED).stream()
+                .map(mapper::toVoucherDTO)
+                .toList());
+
+        databasePath = VoucherServices.over(voucherRepository, userRepository).voucherMapper(mapper).catalog();
+        indexPath = VoucherServices.over(voucherRepository, userRepository).voucherMapper(mapper)
+                .catalogIndex(index).catalog();
+    }
+
+    @Test
+    void facets_shouldCountEachFacetWithoutItsOwnFilter() {
+        CatalogFacets facets = databasePath.findCatalogFacets(
+                TourType.ECO, TransferType.BUS, null, null, 0.0, 1099.0, null, 500, true);
+
+        // ECO + BUS + price <= 1099: 2, 4, 8 and hot 10
+        assertEquals(4, facets.getTotal());
+        assertEquals(1, facets.getHot());
+        assertEquals(3, facets.getRegular());
+        // BUS + price <= 1099 regardless of tour type: 1, 2, 4, 5, 7, 8, 10
+        assertEquals(4L, facets.getTourTypes().get(TourType.ECO));
+        assertEquals(3L, facets.getTourTypes().get(TourType.WINE));
+        assertEquals(0L, facets.getTourTypes().get(TourType.SAFARI));
+        // ECO + price <= 1099 regardless of transfer: 0 and 6 by plane
+        assertEquals(2L, facets.getTransferTypes().get(TransferType.PLANE));
+        assertEquals(4L, facets.getTransferTypes().get(TransferType.BUS));
+        // ECO + BUS at any price: 2, 4, 8, 10, 14, 16
+        assertEquals(List.of(new PriceBucket(0, 500, 2), new PriceBucket(500, 1000, 1),
+                        new PriceBucket(1000, 1500, 2), new PriceBucket(1500, 2000, 1)),
+                facets.getPriceBuckets());
+    }
+
+    @Test
+    void facets_shouldHideHotVouchersFromInactiveUsers() {
+        CatalogFacets visible = databasePath.findCatalogFacets(null, null, null, null, null, null, null, 1000, true);
+        CatalogFacets hidden = databasePath.findCatalogFacets(null, null, null, null, null, null, null, 1000, false);
+
+        assertEquals(19, visible.getTotal());
+        assertEquals(4, visible.getHot());
+        assertEquals(15, hidden.getTotal());
+        assertEquals(0, hidden.getHot());
+        assertEquals(15L, hidden.getHotelTypes().get(HotelType.THREE_STARS));
+    }
+
+    @Test
+    void facets_shouldMatchBetweenDatabaseAndColumnarIndex() {
+        assertEquals(
+                databasePath.findCatalogFacets(null, TransferType.PLANE, null, "lake", 300.0, 1600.0, null, 250, true),
+                indexPath.findCatalogFacets(null, TransferType.PLANE, null, "lake", 300.0, 1600.0, null, 250, true));
+        assertEquals(
+                databasePath.findCatalogFacets(TourType.WINE, null, null, null, null, null, null, 400, false),
+                indexPath.findCatalogFacets(TourType.WINE, null, null, null, null, null, null, 400, false));
+    }
+
+    @Test
+    void facets_shouldRejectNonPositiveBucketSize() {
+        assertThrows(InvalidFacetRequestException.class,
+                () -> databasePath.findCatalogFacets(null, null, null, null, null, null, null, 0, true));
+    }
+}
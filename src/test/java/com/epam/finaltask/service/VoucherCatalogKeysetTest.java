@@ -0,0 +1,96 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.CatalogSlice;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VoucherCatalogKeysetTest {
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private CatalogService voucherService;
+
+    @BeforeEach
+    void setUp() {
+        voucherService = VoucherServices.over(voucherRepository, userRepository).catalog();
+
+        for (int i = 0; i < 23; i++) {
+            Voucher voucher = new Voucher();
+            voucher.setTitle("Trip " + i);
+            voucher.setDescription("Generated trip " + i);
+            voucher.setPrice((double) (100 * (i % 5)));
+            voucher.setTourType(i % 2 == 0 ? TourType.ECO : TourType.WINE);
+            voucher.setTransferType(TransferType.BUS);
+            voucher.setHotelType(HotelType.THREE_STARS);
+            voucher.setStatus(i == 22 ? VoucherStatus.PAID : VoucherStatus.REGISTERED);
+            voucher.setArrivalDate(LocalDate.of(2026, 6, 1));
+            voucher.setEvictionDate(LocalDate.of(2026, 6, 5));
+            voucher.setIsHot(i % 7 == 0);
+            voucherRepository.save(voucher);
+        }
+    }
+
+    @Test
+    void keysetPages_shouldWalkTheSameRowsAsOffsetPaging() {
+        List<String> keyset = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CatalogSlice slice = voucherService.findCatalogAfter(
+                    null, null, null, null, null, null, null, "price", false, cursor, 5, true);
+            slice.getVouchers().forEach(v -> keyset.add(v.getId()));
+            cursor = slice.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        Sort sort = Sort.by(Sort.Direction.DESC, "isHot")
+                .and(Sort.by(Sort.Direction.DESC, "priceCents"))
+                .and(Sort.by(Sort.Direction.ASC, "id"));
+        List<String> offset = voucherService.findCatalogFiltered(
+                        null, null, null, null, null, null, null, PageRequest.of(0, 100, sort), true)
+                .map(VoucherDTO::getId)
+                .getContent();
+
+        assertEquals(22, keyset.size());
+        assertEquals(5, pages);
+        assertEquals(offset, keyset);
+    }
+
+    @Test
+    void keysetPages_shouldCombineWithFilters() {
+        CatalogSlice first = voucherService.findCatalogAfter(
+                TourType.ECO, null, null, null, 100.0, 300.0, null, "price", true, null, 3, true);
+        CatalogSlice second = voucherService.findCatalogAfter(
+                TourType.ECO, null, null, null, 100.0, 300.0, null, "price", true, first.getNextCursor(), 3, true);
+
+        assertTrue(first.isHasNext());
+        assertFalse(second.isHasNext());
+        assertEquals(3, second.getVouchers().size());
+        assertNull(second.getNextCursor());
+        assertEquals(6, first.getVouchers().size() + second.getVouchers().size());
+        second.getVouchers().forEach(v -> assertFalse(first.getVouchers().contains(v)));
+    }
+}
@@ -0,0 +1,151 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.ColumnarCatalogIndex;
+import com.epam.finaltask.catalog.RelevanceIndex;
+import com.epam.finaltask.catalog.SortKey;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.mapper.VoucherMapperImpl;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VoucherCatalogSearchTest {
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private CatalogService databasePath;
+    private CatalogService columnarPath;
+    private CatalogService fallbackPath;
+
+    @BeforeEach
+    void setUp() {
+        save("Kenya Safari", "Wildlife safari across the savanna", 900.0, TourType.SAFARI, false, VoucherStatus.REGISTERED);
+        save("Tanzania Safari", "Safari and a Kilimanjaro hike", 1200.0, TourType.SAFARI, true, VoucherStatus.REGISTERED);
+        save("Cape Town break", "City walks, wine farms and an optional safari", 700.0, TourType.LEISURE, false, VoucherStatus.REGISTERED);
+        save("Botswana Safari", "Okavango delta safari", 2000.0, TourType.SAFARI, false, VoucherStatus.PAID);
+        save("Bordeaux wine tour", "Vineyards and cellars", 600.0, TourType.WINE, false, VoucherStatus.REGISTERED);
+
+        VoucherMapperImpl mapper = new VoucherMapperImpl(new ModelMapper());
+        List<VoucherDTO> registered = voucherRepository.findProjectedByStatus(VoucherStatus.REGISTERED);
+        RelevanceIndex relevance = new RelevanceIndex(true, 100);
+        relevance.rebuild(registered);
+        ColumnarCatalogIndex columnar = new ColumnarCatalogIndex(true);
+        columnar.rebuild(registered);
+
+        databasePath = service(mapper, new ColumnarCatalogIndex(false), relevance);
+        columnarPath = service(mapper, columnar, relevance);
+        fallbackPath = service(mapper, new ColumnarCatalogIndex(false), new RelevanceIndex(false, 0));
+    }
+
+    @Test
+    void search_shouldRankByRelevanceWithHotDealsFirst() {
+        List<String> expected = List.of("Tanzania Safari", "Kenya Safari", "Cape Town break");
+
+        assertEquals(expected, titles(databasePath, "safari", null, null, PageRequest.of(0, 10)));
+        assertEquals(expected, titles(columnarPath, "safari", null, null, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void search_shouldTolerateTyposAndApplyFilters() {
+        assertEquals(List.of("Kenya Safari"),
+                titles(databasePath, "safary", TourType.SAFARI, 1000.0, PageRequest.of(0, 10)));
+        assertEquals(List.of("Kenya Safari"),
+                titles(columnarPath, "safary", TourType.SAFARI, 1000.0, PageRequest.of(0, 10)));
+        assertEquals(List.of(), titles(databasePath, "okavango", null, null, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void search_shouldPageRankedMatchesAndHonourExplicitSort() {
+        Page<VoucherDTO> second = databasePath.searchCatalog("safari", null, null, null, null, null, null,
+                PageRequest.of(1, 2), true);
+        assertEquals(3, second.getTotalElements());
+        assertEquals(List.of("Cape Town break"), second.map(VoucherDTO::getTitle).getContent());
+
+        Pageable byPrice = PageRequest.of(0, 10, SortKey.PRICE.catalogOrder(true));
+        assertEquals(List.of("Tanzania Safari", "Cape Town break", "Kenya Safari"),
+                titles(databasePath, "safari", null, null, byPrice));
+        assertEquals(List.of("Tanzania Safari", "Cape Town break", "Kenya Safari"),
+                titles(columnarPath, "safari", null, null, byPrice));
+    }
+
+    @Test
+    void search_shouldFallBackToDescriptionMatch_whenIndexIsDisabled() {
+        assertEquals(List.of("Tanzania Safari", "Kenya Safari", "Cape Town break"),
+                titles(fallbackPath, "safari", null, null, PageRequest.of(0, 10)));
+        assertEquals(List.of(), titles(fallbackPath, "safary", null, null, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void catalog_shouldSortMixedCaseTitlesTheSameOnBothPaths() {
+        save("alpine lodge", "Lower-case title", 800.0, TourType.SPORTS, false, VoucherStatus.REGISTERED);
+        save("ZANZIBAR beach", "Upper-case title", 800.0, TourType.LEISURE, false, VoucherStatus.REGISTERED);
+        List<VoucherDTO> registered = voucherRepository.findProjectedByStatus(VoucherStatus.REGISTERED);
+        ColumnarCatalogIndex columnar = new ColumnarCatalogIndex(true);
+        columnar.rebuild(registered);
+        CatalogService indexPath = service(new VoucherMapperImpl(new ModelMapper()), columnar, new RelevanceIndex(false, 0));
+        Pageable byTitle = PageRequest.of(0, 10, SortKey.TITLE.catalogOrder(true));
+
+        List<String> expected = List.of("Tanzania Safari", "alpine lodge", "Bordeaux wine tour", "Cape Town break",
+                "Kenya Safari", "ZANZIBAR beach");
+        assertEquals(expected, catalogTitles(databasePath, byTitle));
+        assertEquals(expected, catalogTitles(indexPath, byTitle));
+    }
+
+    private static List<String> catalogTitles(CatalogService service, Pageable pageable) {
+        return service.findCatalogFiltered(null, null, null, null, null, null, null, pageable, true)
+                .map(VoucherDTO::getTitle)
+                .getContent();
+    }
+
+    private static List<String> titles(CatalogService service, String query, TourType tourType, Double maxPrice,
+                                       Pageable pageable) {
+        Double minPrice = maxPrice != null ? 0.0 : null;
+        return service.searchCatalog(query, tourType, null, null, minPrice, maxPrice, null, pageable, true)
+                .map(VoucherDTO::getTitle)
+                .getContent();
+    }
+
+    private void save(String title, String description, double price, TourType tourType, boolean hot,
+                      VoucherStatus status) {
+        Voucher voucher = new Voucher();
+        voucher.setTitle(title);
+        voucher.setDescription(description);
+        voucher.setPrice(price);
+        voucher.setTourType(tourType);
+        voucher.setTransferType(TransferType.PLANE);
+        voucher.setHotelType(HotelType.FOUR_STARS);
+        voucher.setStatus(status);
+        voucher.setArrivalDate(LocalDate.of(2026, 9, 1));
+        voucher.setEvictionDate(LocalDate.of(2026, 9, 10));
+        voucher.setIsHot(hot);
+        voucherRepository.save(voucher);
+    }
+
+    private CatalogService service(VoucherMapperImpl mapper, ColumnarCatalogIndex catalogIndex,
+                                   RelevanceIndex relevanceIndex) {
+        return VoucherServices.over(voucherRepository, userRepository)
+                .voucherMapper(mapper).catalogIndex(catalogIndex).relevanceIndex(relevanceIndex).catalog();
+    }
+}
@@ -0,0 +1,104 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VoucherExportTest {
+
+    private static final int ROWS = 1_500;
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private VoucherService voucherService;
+
+    @BeforeEach
+    void setUp() {
+        voucherService = VoucherServices.over(voucherRepository, userRepository).vouchers();
+
+        User owner = new User();
+        owner.setFirstName("Olga");
+        owner.setLastName("Owner");
+        owner.setUsername("owner");
+        owner.setPassword("secret");
+        owner.setEmail("owner@example.com");
+        owner.setRole(Role.CUSTOMER);
+        owner.setActive(true);
+        userRepository.save(owner);
+
+        for (int i = 0; i < ROWS; i++) {
+            Voucher voucher = new Voucher();
+            voucher.setTitle("Trip " + i);
+            voucher.setDescription("Generated");
+            voucher.setPrice(100.0 + i);
+            voucher.setTourType(TourType.ECO);
+            voucher.setTransferType(TransferType.BUS);
+            voucher.setHotelType(HotelType.THREE_STARS);
+            voucher.setStatus(i % 3 == 0 ? VoucherStatus.PAID : VoucherStatus.REGISTERED);
+            voucher.setUser(i % 3 == 0 ? owner : null);
+            voucher.setArrivalDate(LocalDate.of(2026, 6, 1));
+            voucher.setEvictionDate(LocalDate.of(2026, 6, 5));
+            voucher.setIsHot(false);
+            voucherRepository.save(voucher);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportAll_shouldVisitEveryVoucherWithBoundedPersistenceContext() {
+        AtomicInteger exported = new AtomicInteger();
+        AtomicInteger owned = new AtomicInteger();
+        AtomicInteger maxManaged = new AtomicInteger();
+        Session session = entityManager.unwrap(Session.class);
+
+        voucherService.exportAll(voucher -> {
+            exported.incrementAndGet();
+            if ("owner".equals(voucher.getUserName())) {
+                owned.incrementAndGet();
+            }
+            maxManaged.accumulateAndGet(session.getStatistics().getEntityCount(), Math::max);
+        });
+
+        assertEquals(ROWS, exported.get());
+        assertEquals(ROWS / 3, owned.get());
+        assertTrue(maxManaged.get() <= 501, "persistence context grew to " + maxManaged.get());
+    }
+
+    @Test
+    void exportAll_shouldMapEachRowToDto() {
+        VoucherDTO[] first = new VoucherDTO[1];
+        voucherService.exportAll(voucher -> {
+            if (first[0] == null) {
+                first[0] = voucher;
+            }
+        });
+
+        assertNotNull(first[0].getId());
+        assertEquals(TourType.ECO, first[0].getTourType());
+    }
+}
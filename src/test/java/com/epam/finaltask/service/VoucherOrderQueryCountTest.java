@@ -0,0 +1,133 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.UserNotFoundException;
+import com.epam.finaltask.exception.VoucherNotFoundException;
+import com.epam.finaltask.exception.VoucherOrderException;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ordering as the authenticated user reads the voucher and the user with one locking query,
+ * so a successful order is three statements and a rejected one is a single read.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VoucherOrderQueryCountTest {
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private CheckoutService voucherService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        voucherService = VoucherServices.over(voucherRepository, userRepository).checkout();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void orderAs_shouldOrderWithOneReadAndTwoUpdates() {
+        User buyer = user("buyer", true, "500.00");
+        UUID voucherId = voucher("Rome", 120.5);
+        startCounting();
+
+        VoucherDTO ordered = voucherService.orderAs(voucherId, "buyer");
+        entityManager.flush();
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(VoucherStatus.PAID, ordered.getStatus());
+        assertEquals("buyer", ordered.getUserName());
+
+        entityManager.clear();
+        assertEquals(new BigDecimal("379.50"), userRepository.findById(buyer.getId()).orElseThrow().getBalance());
+        Voucher stored = voucherRepository.findById(voucherId).orElseThrow();
+        assertEquals(VoucherStatus.PAID, stored.getStatus());
+        assertEquals(buyer.getId(), stored.getUser().getId());
+    }
+
+    @Test
+    void orderAs_shouldRejectWithOneRead_whenTheBalanceIsTooLow() {
+        User buyer = user("buyer", true, "100.00");
+        UUID voucherId = voucher("Rome", 120.5);
+        startCounting();
+
+        VoucherOrderException ex = assertThrows(VoucherOrderException.class,
+                () -> voucherService.orderAs(voucherId, "buyer"));
+        entityManager.flush();
+
+        assertEquals("Insufficient balance", ex.getMessage());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        entityManager.clear();
+        assertEquals(new BigDecimal("100.00"), userRepository.findById(buyer.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void orderAs_shouldTellAMissingVoucherFromAMissingUser() {
+        user("buyer", true, "100.00");
+        UUID voucherId = voucher("Rome", 120.5);
+        startCounting();
+
+        assertThrows(VoucherNotFoundException.class, () -> voucherService.orderAs(UUID.randomUUID(), "buyer"));
+        assertThrows(UserNotFoundException.class, () -> voucherService.orderAs(voucherId, "nobody"));
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    private void startCounting() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private User user(String username, boolean active, String balance) {
+        User user = new User();
+        user.setFirstName(username);
+        user.setLastName(username);
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@example.com");
+        user.setRole(Role.CUSTOMER);
+        user.setActive(active);
+        user.setBalance(new BigDecimal(balance));
+        return userRepository.save(user);
+    }
+
+    private UUID voucher(String title, double price) {
+        Voucher voucher = new Voucher();
+        voucher.setTitle(title);
+        voucher.setDescription(title + " trip");
+        voucher.setPrice(price);
+        voucher.setTourType(TourType.CULTURAL);
+        voucher.setTransferType(TransferType.PLANE);
+        voucher.setHotelType(HotelType.FOUR_STARS);
+        voucher.setArrivalDate(LocalDate.of(2026, 9, 1));
+        voucher.setEvictionDate(LocalDate.of(2026, 9, 5));
+        voucher.setIsHot(false);
+        return voucherRepository.save(voucher).getId();
+    }
+}
@@ -0,0 +1,174 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.CatalogSlice;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherLookup;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listings are projected straight into {@link VoucherDTO}, so the number of statements
+ * does not depend on how many vouchers or owners a page contains.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VoucherProjectionQueryCountTest {
+
+    private static final int OWNERS = 10;
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private VoucherService voucherService;
+    private CatalogService catalogService;
+    private CancellationService cancellationService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        VoucherServices services = VoucherServices.over(voucherRepository, userRepository);
+        voucherService = services.vouchers();
+        catalogService = services.catalog();
+        cancellationService = services.cancellation();
+
+        for (int i = 0; i < OWNERS; i++) {
+            User owner = new User();
+            owner.setFirstName("First" + i);
+            owner.setLastName("Last" + i);
+            owner.setUsername("owner" + i);
+            owner.setPassword("secret");
+            owner.setEmail("owner" + i + "@example.com");
+            owner.setRole(Role.CUSTOMER);
+            owner.setActive(true);
+            userRepository.save(owner);
+
+            voucherRepository.save(voucher("Paid " + i, VoucherStatus.PAID, owner));
+            voucherRepository.save(voucher("Also paid " + i, VoucherStatus.PAID, owner));
+            voucherRepository.save(voucher("Registered " + i, VoucherStatus.REGISTERED, null));
+            voucherRepository.save(voucher("Registered again " + i, VoucherStatus.REGISTERED, null));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_shouldRunOneStatementRegardlessOfOwners() {
+        List<VoucherDTO> vouchers = voucherService.findAll();
+
+        assertEquals(OWNERS * 4, vouchers.size());
+        assertEquals(OWNERS, vouchers.stream().map(VoucherDTO::getUserName).filter(name -> name != null).distinct().count());
+        assertStatements(1);
+    }
+
+    @Test
+    void findMyVouchers_shouldRunOneStatement() {
+        List<VoucherDTO> vouchers = voucherService.findMyVouchers("owner3");
+
+        assertEquals(List.of("owner3", "owner3"), vouchers.stream().map(VoucherDTO::getUserName).toList());
+        assertStatements(1);
+    }
+
+    @Test
+    void findCatalogFiltered_shouldRunPageAndCountStatementsOnly() {
+        Page<VoucherDTO> page = catalogService.findCatalogFiltered(null, null, null, null, null, null,
+                null,
+                PageRequest.of(1, 5, Sort.by("title")), true);
+
+        assertEquals(5, page.getContent().size());
+        assertEquals(OWNERS * 2, page.getTotalElements());
+        assertStatements(2);
+    }
+
+    @Test
+    void findCatalogSliceAndKeyset_shouldRunOneStatementEach() {
+        CatalogSlice slice = catalogService.findCatalogSlice(null, null, null, null, null, null,
+                null,
+                PageRequest.of(3, 5, Sort.by("title")), true);
+        assertEquals(5, slice.getVouchers().size());
+        assertStatements(1);
+
+        statistics.clear();
+        CatalogSlice keyset = catalogService.findCatalogAfter(null, null, null, null, null, null,
+                null,
+                "price", true, null, 5, true);
+        assertEquals(5, keyset.getVouchers().size());
+        assertStatements(1);
+    }
+
+    @Test
+    void findAllByStatus_shouldRunPageAndCountStatementsOnly() {
+        Page<VoucherDTO> page = cancellationService.findAllByStatus(VoucherStatus.PAID, 0, 5, true);
+
+        assertEquals(5, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(voucher -> voucher.getUserName() != null));
+        assertStatements(2);
+    }
+
+    @Test
+    void findByIds_shouldRunOneStatementInRequestOrder() {
+        List<VoucherDTO> all = voucherService.findAll();
+        String last = all.get(all.size() - 1).getId();
+        String first = all.get(0).getId();
+        String unknown = UUID.randomUUID().toString();
+        statistics.clear();
+
+        List<VoucherLookup> lookups = voucherService.findByIds(List.of(last, "not-a-uuid", first, unknown, last));
+
+        assertEquals(List.of(last, "not-a-uuid", first, unknown, last), lookups.stream().map(VoucherLookup::getId).toList());
+        assertEquals(List.of(VoucherLookup.Status.FOUND, VoucherLookup.Status.INVALID, VoucherLookup.Status.FOUND,
+                        VoucherLookup.Status.MISSING, VoucherLookup.Status.FOUND),
+                lookups.stream().map(VoucherLookup::getStatus).toList());
+        assertEquals(first, lookups.get(2).getVoucher().getId());
+        assertStatements(1);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private static Voucher voucher(String title, VoucherStatus status, User owner) {
+        Voucher voucher = new Voucher();
+        voucher.setTitle(title);
+        voucher.setDescription("Generated");
+        voucher.setPrice(100.0 + title.length());
+        voucher.setTourType(TourType.ECO);
+        voucher.setTransferType(TransferType.BUS);
+        voucher.setHotelType(HotelType.THREE_STARS);
+        voucher.setStatus(status);
+        voucher.setUser(owner);
+        voucher.setArrivalDate(LocalDate.of(2026, 6, 1));
+        voucher.setEvictionDate(LocalDate.of(2026, 6, 5));
+        voucher.setIsHot(false);
+        return voucher;
+    }
+}
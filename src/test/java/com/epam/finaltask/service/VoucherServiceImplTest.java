@@ -1,10 +1,12 @@
 package com.epam.finaltask.service;
 
+import com.epam.finaltask.catalog.OwnerVoucherVersions;
+import com.epam.finaltask.catalog.PopularityCounters;
 import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.dto.VoucherLookup;
 import com.epam.finaltask.exception.*;
 import com.epam.finaltask.mapper.VoucherMapper;
 import com.epam.finaltask.model.*;
-import com.epam.finaltask.repository.UserRepository;
 
 import com.epam.finaltask.repository.VoucherRepository;
 import org.junit.jupiter.api.MethodOrderer;
@@ -12,16 +14,17 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentMatchers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
-import org.springframework.data.jpa.domain.Specification;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -37,10 +40,16 @@ class VoucherServiceImplTest {
     private VoucherRepository voucherRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private VoucherMapper voucherMapper;
 
     @Mock
-    private VoucherMapper voucherMapper;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private OwnerVoucherVersions ownerVersions = new OwnerVoucherVersions();
+
+    @Mock
+    private PopularityCounters popularityCounters;
 
     @InjectMocks
     private VoucherServiceImpl voucherService;
@@ -101,152 +110,6 @@ class VoucherServiceImplTest {
 
     @Test
     @Order(3)
-    void order_shouldReturnVoucherDTO_whenAllConditionsAreMet() {
-        UUID voucherId = UUID.randomUUID();
-        UUID userId = UUID.randomUUID();
-
-        Voucher voucher = new Voucher();
-        voucher.setId(voucherId);
-        voucher.setStatus(VoucherStatus.REGISTERED);
-        voucher.setPrice(100.0);
-        voucher.setIsHot(false);
-
-        User user = new User();
-        user.setId(userId);
-        user.setBalance(BigDecimal.valueOf(150));
-        user.setActive(true);
-
-        VoucherDTO voucherDTO = new VoucherDTO();
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
-
-        VoucherDTO result = voucherService.order(voucherId.toString(), userId.toString());
-
-        assertNotNull(result);
-        assertEquals(voucherDTO, result);
-        assertEquals(VoucherStatus.PAID, voucher.getStatus());
-
-        assertEquals(0, user.getBalance().compareTo(BigDecimal.valueOf(50)));
-
-        assertEquals(user, voucher.getUser());
-
-        verify(userRepository).save(user);
-        verify(voucherRepository).save(voucher);
-        verify(voucherMapper).toVoucherDTO(voucher);
-    }
-
-
-    @Test
-    @Order(4)
-    void order_shouldThrowVoucherNotFoundException_whenVoucherDoesNotExist() {
-        UUID voucherId = UUID.randomUUID();
-        UUID userId = UUID.randomUUID();
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.empty());
-
-        assertThrows(VoucherNotFoundException.class, () ->
-                voucherService.order(voucherId.toString(), userId.toString())
-        );
-    }
-
-    @Test
-    @Order(5)
-    void order_shouldThrowUserNotFoundException_whenUserDoesNotExist() {
-        UUID voucherId = UUID.randomUUID();
-        UUID userId = UUID.randomUUID();
-
-        Voucher voucher = new Voucher();
-        voucher.setId(voucherId);
-        voucher.setStatus(VoucherStatus.REGISTERED);
-        voucher.setPrice(100.0);
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
-
-        assertThrows(UserNotFoundException.class, () ->
-                voucherService.order(voucherId.toString(), userId.toString())
-        );
-    }
-
-    @Test
-    @Order(6)
-    void order_shouldThrowVoucherOrderException_whenHotVoucherAndInactiveUser() {
-        UUID voucherId = UUID.randomUUID();
-        UUID userId = UUID.randomUUID();
-
-        Voucher voucher = new Voucher();
-        voucher.setId(voucherId);
-        voucher.setStatus(VoucherStatus.REGISTERED);
-        voucher.setPrice(100.0);
-        voucher.setIsHot(true);
-
-        User user = new User();
-        user.setId(userId);
-        user.setBalance(BigDecimal.valueOf(200));
-        user.setActive(false);
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-
-        assertThrows(VoucherOrderException.class, () ->
-                voucherService.order(voucherId.toString(), userId.toString())
-        );
-    }
-
-    @Test
-    @Order(7)
-    void order_shouldThrowVoucherOrderException_whenVoucherNotRegistered() {
-        UUID voucherId = UUID.randomUUID();
-        UUID userId = UUID.randomUUID();
-
-        Voucher voucher = new Voucher();
-        voucher.setId(voucherId);
-        voucher.setStatus(VoucherStatus.PAID);
-        voucher.setPrice(100.0);
-        voucher.setIsHot(false);
-
-        User user = new User();
-        user.setId(userId);
-        user.setBalance(BigDecimal.valueOf(200));
-        user.setActive(true);
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-
-        assertThrows(VoucherOrderException.class, () ->
-                voucherService.order(voucherId.toString(), userId.toString())
-        );
-    }
-
-    @Test
-    @Order(8)
-    void order_shouldThrowVoucherOrderException_whenUserBalanceTooLow() {
-        UUID voucherId = UUID.randomUUID();
-        UUID userId = UUID.randomUUID();
-
-        Voucher voucher = new Voucher();
-        voucher.setId(voucherId);
-        voucher.setStatus(VoucherStatus.REGISTERED);
-        voucher.setPrice(150.0);
-        voucher.setIsHot(false);
-
-        User user = new User();
-        user.setId(userId);
-        user.setBalance(BigDecimal.valueOf(100));
-        user.setActive(true);
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-
-        assertThrows(VoucherOrderException.class, () ->
-                voucherService.order(voucherId.toString(), userId.toString())
-        );
-    }
-
-    @Test
-    @Order(9)
     void update_shouldReturnUpdatedVoucherDTO_whenAllFieldsAreValid() {
         UUID voucherId = UUID.randomUUID();
 
@@ -285,7 +148,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(10)
+    @Order(4)
     void update_shouldThrowInvalidUuidException_whenIdIsNotUuid() {
         String invalidId = "invalid-uuid";
         VoucherDTO voucherDTO = new VoucherDTO();
@@ -297,7 +160,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(11)
+    @Order(5)
     void update_shouldThrowVoucherNotFoundException_whenVoucherDoesNotExist() {
         UUID voucherId = UUID.randomUUID();
         VoucherDTO voucherDTO = new VoucherDTO();
@@ -311,7 +174,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(12)
+    @Order(6)
     void update_shouldThrowInvalidDatesException_whenEvictionNotAfterArrival() {
         UUID voucherId = UUID.randomUUID();
         VoucherDTO voucherDTO = new VoucherDTO();
@@ -330,7 +193,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(13)
+    @Order(7)
     void update_shouldUpdateOnlyNonNullFields() {
         UUID voucherId = UUID.randomUUID();
 
@@ -365,7 +228,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(14)
+    @Order(8)
     void delete_shouldCallRepositoryWithValidUuid() {
         UUID voucherId = UUID.randomUUID();
         String idString = voucherId.toString();
@@ -376,7 +239,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(15)
+    @Order(9)
     void delete_shouldThrowInvalidUuidException_whenIdIsNotValidUuid() {
         String invalidId = "not-a-uuid";
 
@@ -385,7 +248,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(16)
+    @Order(10)
     void changeHotStatus_shouldUpdateIsHotAndReturnDTO() {
         UUID voucherId = UUID.randomUUID();
 
@@ -419,7 +282,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(17)
+    @Order(11)
     void changeHotStatus_shouldThrowExceptionIfVoucherNotFound() {
         UUID voucherId = UUID.randomUUID();
         VoucherDTO inputDTO = new VoucherDTO();
@@ -432,7 +295,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(18)
+    @Order(12)
     void findById_shouldReturnVoucherDTO_whenVoucherExists() {
         UUID voucherId = UUID.randomUUID();
 
@@ -451,10 +314,11 @@ class VoucherServiceImplTest {
 
         verify(voucherRepository).findById(voucherId);
         verify(voucherMapper).toVoucherDTO(voucher);
+        verify(popularityCounters).recordView(voucherId);
     }
 
     @Test
-    @Order(19)
+    @Order(13)
     void findById_shouldThrowVoucherNotFoundException_whenVoucherDoesNotExist() {
         UUID voucherId = UUID.randomUUID();
 
@@ -464,10 +328,11 @@ class VoucherServiceImplTest {
                 voucherService.findById(voucherId.toString()));
 
         verify(voucherRepository).findById(voucherId);
+        verifyNoInteractions(popularityCounters);
     }
 
     @Test
-    @Order(20)
+    @Order(14)
     void findById_shouldThrowInvalidUuidException_whenUuidIsInvalid() {
         String invalidId = "invalid-uuid";
 
@@ -478,7 +343,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(21)
+    @Order(15)
     void findAllByTourType_shouldReturnVoucherDTOList() {
         TourType tourType = TourType.LEISURE;
 
@@ -496,7 +361,7 @@ class VoucherServiceImplTest {
         int page = 0;
         int size = 10;
         String sortBy = "price";
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
+        Pageable pageable = PageRequest.of(page, size, Sort.by("priceCents").and(Sort.by("id")));
         Page<Voucher> voucherPage = new PageImpl<>(List.of(voucher1, voucher2));
 
         when(voucherRepository.findAllByTourType(tourType, pageable)).thenReturn(voucherPage);
@@ -516,7 +381,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(22)
+    @Order(16)
     void findAllByTransferType_shouldReturnVoucherDTOList() {
         TransferType transferType = TransferType.BUS;
 
@@ -534,7 +399,7 @@ class VoucherServiceImplTest {
         int page = 0;
         int size = 10;
         String sortBy = "price";
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
+        Pageable pageable = PageRequest.of(page, size, Sort.by("priceCents").and(Sort.by("id")));
         Page<Voucher> voucherPage = new PageImpl<>(List.of(voucher1, voucher2));
 
         when(voucherRepository.findAllByTransferType(transferType, pageable)).thenReturn(voucherPage);
@@ -554,7 +419,7 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(23)
+    @Order(17)
     void findAllByPrice_shouldReturnVoucherDTOList() {
         Double price = 200.0;
 
@@ -574,10 +439,10 @@ class VoucherServiceImplTest {
         int page = 0;
         int size = 10;
         String sortBy = "price";
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
+        Pageable pageable = PageRequest.of(page, size, Sort.by("priceCents").and(Sort.by("id")));
         Page<Voucher> voucherPage = new PageImpl<>(List.of(voucher1, voucher2));
 
-        when(voucherRepository.findAllByPrice(price, pageable)).thenReturn(voucherPage);
+        when(voucherRepository.findAllByPriceCents(20000L, pageable)).thenReturn(voucherPage);
         when(voucherMapper.toVoucherDTO(voucher1)).thenReturn(dto1);
         when(voucherMapper.toVoucherDTO(voucher2)).thenReturn(dto2);
 
@@ -588,13 +453,13 @@ class VoucherServiceImplTest {
         assertTrue(result.contains(dto1));
         assertTrue(result.contains(dto2));
 
-        verify(voucherRepository).findAllByPrice(price, pageable);
+        verify(voucherRepository).findAllByPriceCents(20000L, pageable);
         verify(voucherMapper).toVoucherDTO(voucher1);
         verify(voucherMapper).toVoucherDTO(voucher2);
     }
 
     @Test
-    @Order(24)
+    @Order(18)
     void findAllByHotelType_shouldReturnVoucherDTOList() {
         HotelType hotelType = HotelType.FIVE_STARS;
 
@@ -613,8 +478,8 @@ class VoucherServiceImplTest {
 
         int page = 0;
         int size = 10;
-        String sortBy = "hotelType";
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
+        String sortBy = "arrivalDate";
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).and(Sort.by("id")));
         Page<Voucher> voucherPage = new PageImpl<>(List.of(voucher1, voucher2));
 
         when(voucherRepository.findAllByHotelType(hotelType, pageable)).thenReturn(voucherPage);
@@ -634,24 +499,14 @@ class VoucherServiceImplTest {
     }
 
     @Test
-    @Order(25)
+    @Order(19)
     void findMyVouchers_shouldReturnVoucherDTOList() {
         String username = "customer";
 
-        Voucher voucher1 = new Voucher();
-        voucher1.setId(UUID.randomUUID());
-        voucher1.setStatus(VoucherStatus.REGISTERED);
-
-        Voucher voucher2 = new Voucher();
-        voucher2.setId(UUID.randomUUID());
-        voucher2.setStatus(VoucherStatus.REGISTERED);
-
         VoucherDTO dto1 = new VoucherDTO();
         VoucherDTO dto2 = new VoucherDTO();
 
-        when(voucherRepository.findAllByUser_Username(username)).thenReturn(List.of(voucher1, voucher2));
-        when(voucherMapper.toVoucherDTO(voucher1)).thenReturn(dto1);
-        when(voucherMapper.toVoucherDTO(voucher2)).thenReturn(dto2);
+        when(voucherRepository.findProjectedByUsername(username)).thenReturn(List.of(dto1, dto2));
 
         List<VoucherDTO> result = voucherService.findMyVouchers(username);
 
@@ -660,67 +515,17 @@ class VoucherServiceImplTest {
         assertTrue(result.contains(dto1));
         assertTrue(result.contains(dto2));
 
-        verify(voucherRepository).findAllByUser_Username(username);
-        verify(voucherMapper).toVoucherDTO(voucher1);
-        verify(voucherMapper).toVoucherDTO(voucher2);
-    }
-
-    @Test
-    @Order(26)
-    void findCatalog_shouldReturnVoucherDTOList() {
-        int page = 0;
-        int size = 2;
-        String sortBy = "price";
-
-        Voucher voucher1 = new Voucher();
-        voucher1.setId(UUID.randomUUID());
-        voucher1.setStatus(VoucherStatus.REGISTERED);
-
-        Voucher voucher2 = new Voucher();
-        voucher2.setId(UUID.randomUUID());
-        voucher2.setStatus(VoucherStatus.REGISTERED);
-
-        VoucherDTO dto1 = new VoucherDTO();
-        VoucherDTO dto2 = new VoucherDTO();
-
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).descending());
-
-        Page<Voucher> voucherPage = new PageImpl<>(List.of(voucher1, voucher2));
-
-        when(voucherRepository.findAllByStatusOrderByIsHotDesc(VoucherStatus.REGISTERED, pageable))
-                .thenReturn(voucherPage);
-        when(voucherMapper.toVoucherDTO(voucher1)).thenReturn(dto1);
-        when(voucherMapper.toVoucherDTO(voucher2)).thenReturn(dto2);
-
-        List<VoucherDTO> result = voucherService.findCatalog(page, size, sortBy);
-
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertTrue(result.contains(dto1));
-        assertTrue(result.contains(dto2));
-
-        verify(voucherRepository).findAllByStatusOrderByIsHotDesc(VoucherStatus.REGISTERED, pageable);
-        verify(voucherMapper).toVoucherDTO(voucher1);
-        verify(voucherMapper).toVoucherDTO(voucher2);
+        verify(voucherRepository).findProjectedByUsername(username);
+        verifyNoInteractions(voucherMapper);
     }
 
     @Test
-    @Order(27)
+    @Order(20)
     void findAll_shouldReturnVoucherDTOList() {
-        Voucher voucher1 = new Voucher();
-        voucher1.setId(UUID.randomUUID());
-
-        Voucher voucher2 = new Voucher();
-        voucher2.setId(UUID.randomUUID());
-
         VoucherDTO dto1 = new VoucherDTO();
         VoucherDTO dto2 = new VoucherDTO();
 
-        List<Voucher> vouchers = List.of(voucher1, voucher2);
-
-        when(voucherRepository.findAll()).thenReturn(vouchers);
-        when(voucherMapper.toVoucherDTO(voucher1)).thenReturn(dto1);
-        when(voucherMapper.toVoucherDTO(voucher2)).thenReturn(dto2);
+        when(voucherRepository.findAllProjected()).thenReturn(List.of(dto1, dto2));
 
         List<VoucherDTO> result = voucherService.findAll();
 
@@ -729,241 +534,73 @@ class VoucherServiceImplTest {
         assertTrue(result.contains(dto1));
         assertTrue(result.contains(dto2));
 
-        verify(voucherRepository).findAll();
-        verify(voucherMapper).toVoucherDTO(voucher1);
-        verify(voucherMapper).toVoucherDTO(voucher2);
-    }
-
-    @Test
-    @Order(28)
-    void findCatalogFiltered_shouldReturnMappedVoucherDTOPage() {
-        Pageable pageable = PageRequest.of(0, 10);
-        Voucher voucher = new Voucher();
-        voucher.setId(UUID.randomUUID());
-        voucher.setStatus(VoucherStatus.REGISTERED);
-
-        Page<Voucher> voucherPage = new PageImpl<>(List.of(voucher));
-
-        VoucherDTO voucherDTO = new VoucherDTO();
-
-        when(userRepository.findUserByUsername("user")).thenReturn(Optional.of(new User()));
-        when(voucherRepository.findAll(ArgumentMatchers.<Specification<Voucher>>any(), eq(pageable)))
-                .thenReturn(voucherPage);
-        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
-
-        Page<VoucherDTO> result = voucherService.findCatalogFiltered(
-                TourType.HEALTH,
-                TransferType.BUS,
-                HotelType.ONE_STAR,
-                "description",
-                100.0,
-                500.0,
-                pageable,
-                "user"
-        );
-
-        assertNotNull(result);
-        assertEquals(1, result.getTotalElements());
-        assertEquals(voucherDTO, result.getContent().get(0));
-
-        verify(voucherRepository).findAll(ArgumentMatchers.<Specification<Voucher>>any(), eq(pageable));
-        verify(voucherMapper).toVoucherDTO(voucher);
-    }
-
-    @Test
-    @Order(29)
-    void requestCancellation_shouldReturnUpdatedVoucherDTO_whenConditionsAreMet() {
-        UUID voucherId = UUID.randomUUID();
-        String username = "customer";
-        String reason = "Change of plans";
-
-        User user = new User();
-        user.setUsername(username);
-
-        Voucher voucher = new Voucher();
-        voucher.setId(voucherId);
-        voucher.setUser(user);
-        voucher.setStatus(VoucherStatus.PAID);
-
-        VoucherDTO voucherDTO = new VoucherDTO();
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
-        when(voucherRepository.save(voucher)).thenReturn(voucher);
-
-        VoucherDTO result = voucherService.requestCancellation(voucherId.toString(), username, reason);
-
-        assertNotNull(result);
-        assertEquals(voucherDTO, result);
-        assertEquals(VoucherStatus.CANCELLATION_REQUESTED, voucher.getStatus());
-        assertEquals(reason, voucher.getCancellationReason());
-        assertNotNull(voucher.getCancellationRequestedAt());
-
-        verify(voucherRepository).save(voucher);
-        verify(voucherMapper).toVoucherDTO(voucher);
-    }
-
-    @Test
-    @Order(30)
-    void requestCancellation_shouldThrowVoucherOrderException_ifUserMismatch() {
-        UUID voucherId = UUID.randomUUID();
-        User user = new User();
-        user.setUsername("otherUser");
-
-        Voucher voucher = new Voucher();
-        voucher.setId(voucherId);
-        voucher.setUser(user);
-        voucher.setStatus(VoucherStatus.PAID);
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-
-        VoucherOrderException exception = assertThrows(
-                VoucherOrderException.class,
-                () -> voucherService.requestCancellation(voucherId.toString(), "customer", "reason")
-        );
-
-        assertEquals("You may only request cancellation for your own voucher", exception.getMessage());
-    }
-
-    @Test
-    @Order(31)
-    void requestCancellation_shouldThrowVoucherOrderException_ifVoucherNotPaid() {
-        UUID voucherId = UUID.randomUUID();
-        User user = new User();
-        user.setUsername("customer");
-
-        Voucher voucher = new Voucher();
-        voucher.setId(voucherId);
-        voucher.setUser(user);
-        voucher.setStatus(VoucherStatus.REGISTERED);
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-
-        VoucherOrderException exception = assertThrows(
-                VoucherOrderException.class,
-                () -> voucherService.requestCancellation(voucherId.toString(), "customer", "reason")
-        );
-
-        assertEquals("Voucher cannot be cancelled in its current status", exception.getMessage());
+        verify(voucherRepository).findAllProjected();
+        verify(voucherRepository, never()).findAll();
+        verifyNoInteractions(voucherMapper);
     }
 
     @Test
-    @Order(32)
-    void decideCancellation_shouldCancelVoucherAndRefundUser_whenApproved() {
-        UUID voucherId = UUID.randomUUID();
-        User user = new User();
-        user.setBalance(BigDecimal.valueOf(100));
-
-        Voucher voucher = new Voucher();
-        voucher.setId(voucherId);
-        voucher.setUser(user);
-        voucher.setPrice(50.0);
-        voucher.setStatus(VoucherStatus.CANCELLATION_REQUESTED);
-        voucher.setCancellationReason("Some reason");
-        voucher.setCancellationRequestedAt(LocalDateTime.now());
-
-        VoucherDTO voucherDTO = new VoucherDTO();
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
-        when(voucherRepository.save(voucher)).thenReturn(voucher);
-        when(userRepository.save(user)).thenReturn(user);
+    @Order(21)
+    void findByIds_shouldKeepRequestOrderAndFlagMissingAndInvalidIds() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        VoucherDTO firstDTO = new VoucherDTO();
+        firstDTO.setId(first.toString());
+        VoucherDTO secondDTO = new VoucherDTO();
+        secondDTO.setId(second.toString());
 
-        VoucherDTO result = voucherService.decideCancellation(voucherId.toString(), true, "admin");
+        when(voucherRepository.findProjectedByIdIn(List.of(second, missing, first)))
+                .thenReturn(List.of(firstDTO, secondDTO));
 
-        assertNotNull(result);
-        assertEquals(voucherDTO, result);
-        assertEquals(VoucherStatus.CANCELED, voucher.getStatus());
-        assertNull(voucher.getUser());
-        assertNull(voucher.getCancellationReason());
-        assertNull(voucher.getCancellationRequestedAt());
+        List<VoucherLookup> result = voucherService.findByIds(
+                List.of(second.toString(), "oops", missing.toString(), first.toString()));
 
-        assertEquals(0, user.getBalance().compareTo(BigDecimal.valueOf(150)));
-
-        verify(voucherRepository).save(voucher);
-        verify(userRepository).save(user);
-        verify(voucherMapper).toVoucherDTO(voucher);
+        assertEquals(List.of(VoucherLookup.Status.FOUND, VoucherLookup.Status.INVALID,
+                VoucherLookup.Status.MISSING, VoucherLookup.Status.FOUND),
+                result.stream().map(VoucherLookup::getStatus).toList());
+        assertEquals(secondDTO, result.get(0).getVoucher());
+        assertEquals("oops", result.get(1).getId());
+        assertNull(result.get(2).getVoucher());
+        assertEquals(firstDTO, result.get(3).getVoucher());
     }
 
-
     @Test
-    @Order(33)
-    void decideCancellation_shouldRevertVoucherToPaid_whenNotApproved() {
-        UUID voucherId = UUID.randomUUID();
-        User user = new User();
-
-        Voucher voucher = new Voucher();
-        voucher.setId(voucherId);
-        voucher.setUser(user);
-        voucher.setStatus(VoucherStatus.CANCELLATION_REQUESTED);
-        voucher.setCancellationReason("Some reason");
-        voucher.setCancellationRequestedAt(LocalDateTime.now());
-
-        VoucherDTO voucherDTO = new VoucherDTO();
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
-        when(voucherRepository.save(voucher)).thenReturn(voucher);
-
-        VoucherDTO result = voucherService.decideCancellation(voucherId.toString(), false, "admin");
+    @Order(22)
+    @SuppressWarnings("unchecked")
+    void findByIds_shouldSplitLargeBatchesIntoChunks() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        when(voucherRepository.findProjectedByIdIn(anyCollection())).thenReturn(List.of());
 
-        assertNotNull(result);
-        assertEquals(voucherDTO, result);
-        assertEquals(VoucherStatus.PAID, voucher.getStatus());
-        assertNotNull(voucher.getUser());
-        assertNull(voucher.getCancellationReason());
-        assertNull(voucher.getCancellationRequestedAt());
+        List<VoucherLookup> result = voucherService.findByIds(ids);
 
-        verify(voucherRepository).save(voucher);
-        verify(voucherMapper).toVoucherDTO(voucher);
-        verify(userRepository, never()).save(any());
+        assertEquals(400, result.size());
+        assertTrue(result.stream().allMatch(lookup -> lookup.getStatus() == VoucherLookup.Status.MISSING));
+        ArgumentCaptor<Collection<UUID>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(voucherRepository, times(2)).findProjectedByIdIn(chunks.capture());
+        assertEquals(List.of(250, 150), chunks.getAllValues().stream().map(Collection::size).toList());
     }
 
     @Test
-    @Order(34)
-    void decideCancellation_shouldThrowException_whenVoucherNotAwaitingCancellation() {
-        UUID voucherId = UUID.randomUUID();
-        Voucher voucher = new Voucher();
-        voucher.setStatus(VoucherStatus.PAID);
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-
-        VoucherOrderException exception = assertThrows(
-                VoucherOrderException.class,
-                () -> voucherService.decideCancellation(voucherId.toString(), true, "admin")
-        );
+    @Order(23)
+    void findByIds_shouldRejectOversizedBatch() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
 
-        assertEquals("Voucher is not awaiting cancellation", exception.getMessage());
+        assertThrows(InvalidBatchRequestException.class, () -> voucherService.findByIds(ids));
+        verifyNoInteractions(voucherRepository);
     }
 
     @Test
-    @Order(35)
-    void reregisterVoucher_shouldSetStatusToRegisteredAndClearFields() {
-        UUID voucherId = UUID.randomUUID();
-        Voucher voucher = new Voucher();
-        voucher.setId(voucherId);
-        voucher.setStatus(VoucherStatus.CANCELED);
-        voucher.setUser(new User());
-        voucher.setCancellationReason("Some reason");
-        voucher.setCancellationRequestedAt(LocalDateTime.now());
-
-        VoucherDTO voucherDTO = new VoucherDTO();
-
-        when(voucherRepository.findById(voucherId)).thenReturn(Optional.of(voucher));
-        when(voucherRepository.save(voucher)).thenReturn(voucher);
-        when(voucherMapper.toVoucherDTO(voucher)).thenReturn(voucherDTO);
-
-        VoucherDTO result = voucherService.reregisterVoucher(voucherId.toString(), "admin");
-
-        assertNotNull(result);
-        assertEquals(voucherDTO, result);
-        assertEquals(VoucherStatus.REGISTERED, voucher.getStatus());
-        assertNull(voucher.getUser());
-        assertNull(voucher.getCancellationReason());
-        assertNull(voucher.getCancellationRequestedAt());
+    @Order(24)
+    void listings_shouldRejectUnknownSortBeforeQuerying() {
+        assertThrows(InvalidSortException.class, () -> voucherService.findAllByTourType(TourType.ECO, 0, 10, "description"));
 
-        verify(voucherRepository).save(voucher);
-        verify(voucherMapper).toVoucherDTO(voucher);
+        verifyNoInteractions(voucherRepository);
     }
-
-}
\ No newline at end of file
+}
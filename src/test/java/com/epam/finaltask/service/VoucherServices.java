@@ -0,0 +1,122 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.CatalogCountCache;
+import com.epam.finaltask.catalog.CatalogResultCache;
+import com.epam.finaltask.catalog.CatalogVersion;
+import com.epam.finaltask.catalog.ColumnarCatalogIndex;
+import com.epam.finaltask.catalog.HotDealsIndex;
+import com.epam.finaltask.catalog.OwnerVoucherVersions;
+import com.epam.finaltask.catalog.PopularityCounters;
+import com.epam.finaltask.catalog.RelevanceIndex;
+import com.epam.finaltask.catalog.TitleSuggestIndex;
+import com.epam.finaltask.catalog.TravelDateIndex;
+import com.epam.finaltask.catalog.TrigramIndex;
+import com.epam.finaltask.mapper.VoucherMapper;
+import com.epam.finaltask.mapper.VoucherMapperImpl;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+
+/**
+ * Builds the voucher services over real or mocked repositories for tests. Every collaborator
+ * that is not set explicitly gets a default that stays out of the way: disabled indexes and
+ * caches, a fresh {@link CatalogVersion}, and an event publisher that drops everything.
+ */
+public class VoucherServices {
+
+    private final VoucherRepository voucherRepository;
+    private final UserRepository userRepository;
+
+    private VoucherMapper voucherMapper = new VoucherMapperImpl(new ModelMapper());
+    private ApplicationEventPublisher eventPublisher = event -> { };
+    private ColumnarCatalogIndex catalogIndex = new ColumnarCatalogIndex(false);
+    private TrigramIndex trigramIndex = new TrigramIndex(false, 0);
+    private TravelDateIndex travelDateIndex = new TravelDateIndex(false, 0);
+    private RelevanceIndex relevanceIndex = new RelevanceIndex(false, 0);
+    private CatalogVersion catalogVersion = new CatalogVersion();
+    private CatalogResultCache resultCache;
+    private OwnerVoucherVersions ownerVersions = new OwnerVoucherVersions();
+
+    private VoucherServices(VoucherRepository voucherRepository, UserRepository userRepository) {
+        this.voucherRepository = voucherRepository;
+        this.userRepository = userRepository;
+    }
+
+    public static VoucherServices over(VoucherRepository voucherRepository, UserRepository userRepository) {
+        return new VoucherServices(voucherRepository, userRepository);
+    }
+
+    public VoucherServices voucherMapper(VoucherMapper voucherMapper) {
+        this.voucherMapper = voucherMapper;
+        return this;
+    }
+
+    public VoucherServices eventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        return this;
+    }
+
+    public VoucherServices catalogIndex(ColumnarCatalogIndex catalogIndex) {
+        this.catalogIndex = catalogIndex;
+        return this;
+    }
+
+    public VoucherServices trigramIndex(TrigramIndex trigramIndex) {
+        this.trigramIndex = trigramIndex;
+        return this;
+    }
+
+    public VoucherServices travelDateIndex(TravelDateIndex travelDateIndex) {
+        this.travelDateIndex = travelDateIndex;
+        return this;
+    }
+
+    public VoucherServices relevanceIndex(RelevanceIndex relevanceIndex) {
+        this.relevanceIndex = relevanceIndex;
+        return this;
+    }
+
+    /**
+     * The version the catalog ETag is built from; a disabled result cache is bound to it
+     * unless {@link #resultCache} is set as well.
+     */
+    public VoucherServices catalogVersion(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+        return this;
+    }
+
+    public VoucherServices resultCache(CatalogResultCache resultCache) {
+        this.resultCache = resultCache;
+        return this;
+    }
+
+    public VoucherServices ownerVersions(OwnerVoucherVersions ownerVersions) {
+        this.ownerVersions = ownerVersions;
+        return this;
+    }
+
+    public VoucherService vouchers() {
+        return new VoucherServiceImpl(voucherRepository, voucherMapper, eventPublisher, ownerVersions,
+                new PopularityCounters());
+    }
+
+    public CatalogService catalog() {
+        CatalogResultCache cache = resultCache != null ? resultCache : new CatalogResultCache(false, 0, catalogVersion);
+        return new CatalogServiceImpl(voucherRepository, voucherMapper, catalogIndex, trigramIndex,
+                travelDateIndex, new HotDealsIndex(0), new TitleSuggestIndex(0), new CatalogCountCache(Duration.ZERO, 0),
+                cache, catalogVersion, new PopularityCounters(), relevanceIndex);
+    }
+
+    public CheckoutService checkout() {
+        return new CheckoutServiceImpl(voucherRepository, userRepository, voucherMapper, eventPublisher,
+                new PopularityCounters(), new BalanceLedger(userRepository));
+    }
+
+    public CancellationService cancellation() {
+        return new CancellationServiceImpl(voucherRepository, voucherMapper, eventPublisher,
+                new BalanceLedger(userRepository));
+    }
+}
@@ -0,0 +1,113 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VoucherStatusPageTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 5, 1, 12, 0);
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private CancellationService voucherService;
+
+    @BeforeEach
+    void setUp() {
+        voucherService = VoucherServices.over(voucherRepository, userRepository).cancellation();
+
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setUsername("user" + i);
+            user.setPassword("secret");
+            user.setEmail("user" + i + "@example.com");
+            user.setRole(Role.CUSTOMER);
+            user.setActive(true);
+            userRepository.save(user);
+
+            // saved newest first so that insertion order does not match the expected order
+            voucherRepository.save(voucher("Request " + i, VoucherStatus.CANCELLATION_REQUESTED, user, START.minusHours(i)));
+        }
+        voucherRepository.save(voucher("Canceled", VoucherStatus.CANCELED, null, START));
+        voucherRepository.save(voucher("Paid", VoucherStatus.PAID, null, null));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAllByStatus_shouldReturnOldestRequestsFirst() {
+        Page<VoucherDTO> first = voucherService.findAllByStatus(VoucherStatus.CANCELLATION_REQUESTED, 0, 2, true);
+        Page<VoucherDTO> last = voucherService.findAllByStatus(VoucherStatus.CANCELLATION_REQUESTED, 2, 2, true);
+
+        assertEquals(List.of("Request 4", "Request 3"), first.getContent().stream().map(VoucherDTO::getTitle).toList());
+        assertEquals(List.of("Request 0"), last.getContent().stream().map(VoucherDTO::getTitle).toList());
+        assertEquals(5, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+    }
+
+    @Test
+    void findAllByStatus_shouldLoadOwnersWithThePage() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<VoucherDTO> page = voucherService.findAllByStatus(VoucherStatus.CANCELLATION_REQUESTED, 0, 5, false);
+
+        assertEquals(List.of("user0", "user1", "user2", "user3", "user4"),
+                page.getContent().stream().map(VoucherDTO::getUserName).toList());
+        // one page query plus one count query, no per-row owner lookups
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllByStatus_shouldOnlyReturnRequestedStatus() {
+        Page<VoucherDTO> canceled = voucherService.findAllByStatus(VoucherStatus.CANCELED, 0, 20, false);
+
+        assertEquals(List.of("Canceled"), canceled.getContent().stream().map(VoucherDTO::getTitle).toList());
+    }
+
+    private static Voucher voucher(String title, VoucherStatus status, User user, LocalDateTime requestedAt) {
+        Voucher voucher = new Voucher();
+        voucher.setTitle(title);
+        voucher.setDescription("Generated");
+        voucher.setPrice(100.0);
+        voucher.setTourType(TourType.ECO);
+        voucher.setTransferType(TransferType.BUS);
+        voucher.setHotelType(HotelType.THREE_STARS);
+        voucher.setStatus(status);
+        voucher.setUser(user);
+        voucher.setArrivalDate(LocalDate.of(2026, 6, 1));
+        voucher.setEvictionDate(LocalDate.of(2026, 6, 5));
+        voucher.setIsHot(false);
+        voucher.setCancellationRequestedAt(requestedAt);
+        return voucher;
+    }
+}
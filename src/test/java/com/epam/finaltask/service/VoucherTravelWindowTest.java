@@ -0,0 +1,138 @@
+package com.epam.finaltask.service;
+
+import com.epam.finaltask.catalog.ColumnarCatalogIndex;
+import com.epam.finaltask.catalog.TravelDateIndex;
+import com.epam.finaltask.catalog.TravelWindow;
+import com.epam.finaltask.dto.VoucherDTO;
+import com.epam.finaltask.exception.InvalidDatesException;
+import com.epam.finaltask.mapper.VoucherMapperImpl;
+import com.epam.finaltask.model.*;
+import com.epam.finaltask.repository.UserRepository;
+import com.epam.finaltask.repository.VoucherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class VoucherTravelWindowTest {
+
+    private static final LocalDate FIRST_ARRIVAL = LocalDate.of(2026, 6, 1);
+
+    @Autowired
+    private VoucherRepository voucherRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private CatalogService databasePath;
+    private CatalogService columnarPath;
+    private CatalogService dateIndexPath;
+
+    @BeforeEach
+    void setUp() {
+        VoucherMapperImpl mapper = new VoucherMapperImpl(new ModelMapper());
+        // voucher i arrives i days after June 1st and stays 1 + i % 10 nights
+        for (int i = 0; i < 40; i++) {
+            Voucher voucher = new Voucher();
+            voucher.setTitle("Trip " + i);
+            voucher.setDescription("Summer trip");
+            voucher.setPrice((double) (100 * i));
+            voucher.setTourType(i % 2 == 0 ? TourType.ECO : TourType.WINE);
+            voucher.setTransferType(TransferType.BUS);
+            voucher.setHotelType(HotelType.THREE_STARS);
+            voucher.setStatus(i == 39 ? VoucherStatus.PAID : VoucherStatus.REGISTERED);
+            voucher.setArrivalDate(FIRST_ARRIVAL.plusDays(i));
+            voucher.setEvictionDate(FIRST_ARRIVAL.plusDays(i + 1 + i % 10));
+            voucher.setIsHot(false);
+            voucherRepository.save(voucher);
+        }
+
+        List<VoucherDTO> registered = voucherRepository.findProjectedByStatus(VoucherStatus.REGISTERED);
+        ColumnarCatalogIndex columnar = new ColumnarCatalogIndex(true);
+        columnar.rebuild(registered);
+        TravelDateIndex dates = new TravelDateIndex(true, 1000);
+        dates.rebuild(registered);
+
+        databasePath = service(mapper, new ColumnarCatalogIndex(false), new TravelDateIndex(false, 0));
+        columnarPath = service(mapper, columnar, new TravelDateIndex(false, 0));
+        dateIndexPath = service(mapper, new ColumnarCatalogIndex(false), dates);
+    }
+
+    @Test
+    void startsWithin_shouldMatchArrivalRangeOnEveryPath() {
+        TravelWindow window = TravelWindow.builder()
+                .startsFrom(FIRST_ARRIVAL.plusDays(10))
+                .startsTo(FIRST_ARRIVAL.plusDays(19))
+                .build();
+
+        assertTitles(window, null, "Trip 10", "Trip 11", "Trip 12", "Trip 13", "Trip 14",
+                "Trip 15", "Trip 16", "Trip 17", "Trip 18", "Trip 19");
+    }
+
+    @Test
+    void fitsInsideAndNights_shouldCombineWithTourTypeAndPrice() {
+        // ECO trips that fit inside June 5th - June 25th and last 3 to 6 nights, priced up to 1500
+        TravelWindow window = TravelWindow.builder()
+                .withinFrom(FIRST_ARRIVAL.plusDays(4))
+                .withinTo(FIRST_ARRIVAL.plusDays(24))
+                .minNights(3)
+                .maxNights(6)
+                .build();
+
+        assertTitles(window, TourType.ECO, "Trip 4", "Trip 12", "Trip 14");
+    }
+
+    @Test
+    void nightsAlone_shouldSkipSoldVouchers() {
+        TravelWindow window = TravelWindow.builder().minNights(10).build();
+
+        // 9, 19 and 29 stay ten nights; 39 has been paid for
+        assertTitles(window, null, "Trip 9", "Trip 19", "Trip 29");
+    }
+
+    @Test
+    void invalidWindow_shouldBeRejected() {
+        TravelWindow reversed = TravelWindow.builder()
+                .withinFrom(FIRST_ARRIVAL.plusDays(5))
+                .withinTo(FIRST_ARRIVAL)
+                .build();
+        TravelWindow nights = TravelWindow.builder().minNights(7).maxNights(3).build();
+
+        assertThrows(InvalidDatesException.class, () -> titles(databasePath, reversed, null));
+        assertThrows(InvalidDatesException.class, () -> titles(databasePath, nights, null));
+    }
+
+    private void assertTitles(TravelWindow window, TourType tourType, String... expected) {
+        List<String> titles = List.of(expected);
+        assertEquals(titles, titles(databasePath, window, tourType));
+        assertEquals(titles, titles(columnarPath, window, tourType));
+        assertEquals(titles, titles(dateIndexPath, window, tourType));
+    }
+
+    private static List<String> titles(CatalogService service, TravelWindow window, TourType tourType) {
+        Pageable pageable = PageRequest.of(0, 50, Sort.by("arrivalDate"));
+        return service.findCatalogFiltered(tourType, null, null, null, null, 1500.0, window, pageable, true)
+                .map(VoucherDTO::getTitle)
+                .getContent();
+    }
+
+    private CatalogService service(VoucherMapperImpl mapper, ColumnarCatalogIndex catalogIndex,
+                                   TravelDateIndex travelDateIndex) {
+        return VoucherServices.over(voucherRepository, userRepository)
+                .voucherMapper(mapper).catalogIndex(catalogIndex).travelDateIndex(travelDateIndex).catalog();
+    }
+}